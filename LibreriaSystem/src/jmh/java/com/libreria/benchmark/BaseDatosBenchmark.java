@@ -0,0 +1,59 @@
+package com.libreria.benchmark;
+
+import com.libreria.config.TestDatabaseConfig;
+import com.libreria.dao.ProductoCache;
+import com.libreria.dao.ResumenVentasDAO;
+import com.libreria.util.DatabaseConnection;
+import com.libreria.util.GeneradorDatosPrueba;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Base H2 (modo MySQL) compartida por los benchmarks, con un catálogo de
+ * "productos" artículos y un historial de "ventas" repartidas en los últimos
+ * DIAS_HISTORIAL días. Los tamaños se cambian con -p productos=... -p ventas=...
+ *
+ * Los datos salen de GeneradorDatosPrueba con semilla fija, así que cada
+ * corrida parte de la misma base. Cada combinación de parámetros corre en
+ * su propia JVM (fork).
+ */
+@State(Scope.Benchmark)
+public class BaseDatosBenchmark {
+    static final int DIAS_HISTORIAL = 90;
+
+    @Param({"1000", "10000"})
+    public int productos;
+
+    @Param({"10000", "100000"})
+    public int ventas;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        Connection conn = TestDatabaseConfig.getTestConnection();
+        DatabaseConnection.setTestMode(true, conn);
+        TestDatabaseConfig.initializeSchema();
+        TestDatabaseConfig.cleanDatabase();
+
+        LocalDate hoy = LocalDate.now();
+        GeneradorDatosPrueba generador = new GeneradorDatosPrueba(productos, ventas,
+                hoy.minusDays(DIAS_HISTORIAL - 1), hoy, GeneradorDatosPrueba.SEMILLA_POR_DEFECTO);
+        // Stock de sobra: el benchmark de ventas no debe quedarse sin stock
+        generador.setStockInicial(10_000_000);
+        generador.generar(conn);
+        new ResumenVentasDAO().reconstruir();
+        ProductoCache.getShared().invalidar();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws SQLException {
+        TestDatabaseConfig.shutdownDatabase();
+    }
+}
@@ -0,0 +1,39 @@
+package com.libreria.benchmark;
+
+import com.libreria.controller.ProductoController;
+import com.libreria.model.Producto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ajuste de stock (ProductoController.actualizarStock), que lee el producto
+ * de la base y lo vuelve a guardar. Alterna +1 y -1 para no mover el stock.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductoBenchmark {
+    private ProductoController productoController;
+    private List<Producto> catalogo;
+    private Random random;
+    private int signo = 1;
+
+    @Setup(Level.Trial)
+    public void preparar(BaseDatosBenchmark base) throws Exception {
+        productoController = new ProductoController();
+        catalogo = productoController.obtenerTodos();
+        random = new Random(11);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void actualizarStock() throws Exception {
+        Producto producto = catalogo.get(random.nextInt(catalogo.size()));
+        productoController.actualizarStock(producto.getId(), signo);
+        signo = -signo;
+    }
+}
@@ -0,0 +1,70 @@
+package com.libreria.benchmark;
+
+import com.libreria.controller.ReporteController;
+import com.libreria.controller.VentaController;
+import com.libreria.exportacion.FormatoExportacion;
+import com.libreria.model.DashboardSnapshot;
+import com.libreria.util.ProgresoExportacion;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estadísticas del dashboard y exportaciones de los últimos 30 días del
+ * historial: reporte Excel con gráficos y extracto CSV.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReporteBenchmark {
+    private ReporteController reporteController;
+    private VentaController ventaController;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private Path carpeta;
+
+    @Setup(Level.Trial)
+    public void preparar(BaseDatosBenchmark base) throws IOException {
+        reporteController = new ReporteController();
+        ventaController = new VentaController();
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        inicio = ayer.minusDays(29).atStartOfDay();
+        fin = ayer.atTime(23, 59, 59);
+        carpeta = Files.createTempDirectory("libreria-jmh");
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        try (var archivos = Files.list(carpeta)) {
+            for (Path archivo : archivos.toList()) {
+                Files.delete(archivo);
+            }
+        }
+        Files.delete(carpeta);
+    }
+
+    @Benchmark
+    public DashboardSnapshot estadisticasDashboard() {
+        return reporteController.generarEstadisticasDashboard();
+    }
+
+    @Benchmark
+    public long exportarExcel() throws Exception {
+        Path archivo = carpeta.resolve("ventas.xlsx");
+        reporteController.generarReporteVentasExcel(archivo.toString(), inicio, fin);
+        return Files.size(archivo);
+    }
+
+    @Benchmark
+    public int exportarCsv() throws Exception {
+        return ventaController.exportarVentas(carpeta.resolve("ventas.csv").toString(),
+                FormatoExportacion.CSV, inicio, fin, ProgresoExportacion.NINGUNO);
+    }
+}
@@ -0,0 +1,67 @@
+package com.libreria.benchmark;
+
+import com.libreria.model.Producto;
+import com.libreria.view.ProductoTableModel;
+import com.libreria.view.ProductoTableModel.Columna;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.table.TableRowSorter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga y orden de la grilla de inventario (ProductoTableModel) con un
+ * catálogo grande en memoria; no usa la base de datos.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TablaProductosBenchmark {
+    @Param({"100000"})
+    private int filas;
+
+    private List<Producto> catalogo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        String[] categorias = {"Papelería", "Útiles", "Electrónica", "Libros", "Arte"};
+        Random random = new Random(7);
+        catalogo = new ArrayList<>(filas);
+        for (int i = 1; i <= filas; i++) {
+            Producto producto = new Producto(String.format("P%06d", i), "Producto " + random.nextInt(filas),
+                    categorias[i % categorias.length], 1 + random.nextInt(10_000) / 100.0, random.nextInt(500), "");
+            producto.setId(i);
+            catalogo.add(producto);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProductoTableModel cargar() {
+        ProductoTableModel modelo = nuevoModelo();
+        modelo.reemplazarTodo(catalogo);
+        return modelo;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int cargarYOrdenar() {
+        ProductoTableModel modelo = nuevoModelo();
+        modelo.reemplazarTodo(catalogo);
+        TableRowSorter<ProductoTableModel> ordenador = modelo.crearOrdenador();
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(2, SortOrder.ASCENDING)));
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(5, SortOrder.DESCENDING)));
+        return ordenador.convertRowIndexToModel(0);
+    }
+
+    private static ProductoTableModel nuevoModelo() {
+        return new ProductoTableModel(Columna.ID, Columna.CODIGO, Columna.NOMBRE,
+                Columna.CATEGORIA, Columna.PRECIO, Columna.STOCK);
+    }
+}
@@ -0,0 +1,83 @@
+package com.libreria.benchmark;
+
+import com.libreria.controller.ProductoController;
+import com.libreria.controller.VentaController;
+import com.libreria.model.DetalleVenta;
+import com.libreria.model.PaginaVentas;
+import com.libreria.model.Producto;
+import com.libreria.model.Venta;
+import com.libreria.model.VentaResumen;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caja y consulta del historial: VentaController.crear (venta de 3 líneas),
+ * VentaDAO.obtenerPorFecha (ventas completas del último día) y las
+ * variantes livianas que usan los listados.
+ *
+ * crear agrega ventas a la base durante la medición; con el historial
+ * sembrado (decenas de miles) el efecto sobre las consultas es menor.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VentaBenchmark {
+    private VentaController ventaController;
+    private ProductoController productoController;
+    private List<Producto> catalogo;
+    private Random random;
+    private LocalDateTime inicioDia;
+    private LocalDateTime finDia;
+
+    @Setup(Level.Trial)
+    public void preparar(BaseDatosBenchmark base) throws Exception {
+        ventaController = new VentaController();
+        productoController = new ProductoController();
+        catalogo = productoController.obtenerTodos();
+        random = new Random(7);
+        // El último día del historial sembrado (ayer): no cambia con las ventas del benchmark
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        inicioDia = ayer.atStartOfDay();
+        finDia = ayer.atTime(23, 59, 59);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Venta checkout() throws Exception {
+        Venta venta = new Venta();
+        venta.setMetodoPago("EFECTIVO");
+        for (int i = 0; i < 3; i++) {
+            Producto producto = catalogo.get(random.nextInt(catalogo.size()));
+            venta.agregarDetalle(new DetalleVenta(producto, 1, producto.getPrecio()));
+        }
+        ventaController.crear(venta);
+        return venta;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Venta> ventasDelDiaCompletas() throws Exception {
+        return ventaController.obtenerVentasPorFecha(inicioDia, finDia);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<VentaResumen> historialResumenes30Dias() throws Exception {
+        return ventaController.obtenerResumenesPorFecha(inicioDia.minusDays(29), finDia);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PaginaVentas primeraPaginaHistorial() throws Exception {
+        return ventaController.obtenerPaginaVentas(null, null, null, 50, true);
+    }
+}
@@ -1,22 +1,38 @@
 package com.libreria.controller;
 
+import com.libreria.model.DetalleVenta;
 import com.libreria.model.Producto;
+import com.libreria.model.Venta;
+import com.libreria.evento.BusEventos;
+import com.libreria.evento.EventoDominio.ProductoActualizado;
+import com.libreria.evento.EventoDominio.ProductoCreado;
+import com.libreria.evento.EventoDominio.ProductoEliminado;
+import com.libreria.evento.EventoDominio.StockCambiado;
+import com.libreria.dao.IndiceBusquedaProductos;
+import com.libreria.dao.ProductoCache;
 import com.libreria.dao.ProductoDAO;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public class ProductoController extends BaseController<Producto> {
     private final ProductoDAO productoDAO;
-    
+    private final ProductoCache cache;
+    private final BusEventos bus;
 
     public ProductoController() {
         this.productoDAO = new ProductoDAO();
+        // Todas las pantallas comparten el mismo catálogo en memoria
+        this.cache = ProductoCache.getShared();
+        this.bus = BusEventos.getCompartido();
     }
     
     // Constructor CON parámetros (NUEVO - solo para testing con mocks)
     // Los tests usan ESTE constructor para inyectar mocks
     public ProductoController(ProductoDAO productoDAO) {
         this.productoDAO = productoDAO;
+        this.cache = new ProductoCache(productoDAO);
+        this.bus = new BusEventos();
     }
     
     @Override
@@ -35,6 +51,9 @@ public class ProductoController extends BaseController<Producto> {
             producto.setCodigo(codigoGenerado);
             productoDAO.actualizar(producto);
         }
+        
+        cache.guardar(producto);
+        bus.publicar(new ProductoCreado(new Producto(producto)));
     }
     
     @Override
@@ -42,21 +61,47 @@ public class ProductoController extends BaseController<Producto> {
         validarDatos(producto);
         validarProducto(producto);
         productoDAO.actualizar(producto);
+        cache.guardar(producto);
+        bus.publicar(new ProductoActualizado(new Producto(producto)));
     }
     
     @Override
     public void eliminar(int id) throws Exception {
         productoDAO.eliminar(id);
+        cache.quitar(id);
+        bus.publicar(new ProductoEliminado(id));
     }
     
     @Override
     public Producto obtenerPorId(int id) throws Exception {
-        return productoDAO.obtenerPorId(id);
+        return cache.obtenerPorId(id);
     }
     
     @Override
     public List<Producto> obtenerTodos() throws Exception {
-        return productoDAO.obtenerTodos();
+        return cache.obtenerTodos();
+    }
+    
+    /**
+     * Busca un producto por su código exacto (desde el catálogo en memoria)
+     */
+    public Producto obtenerPorCodigo(String codigo) throws Exception {
+        return cache.obtenerPorCodigo(codigo);
+    }
+    
+    /**
+     * Búsqueda indexada por código, nombre o categoría (ignora tildes y mayúsculas)
+     */
+    public List<Producto> buscar(String texto, IndiceBusquedaProductos.Campo campo, int limite) throws Exception {
+        return cache.buscar(texto, campo, limite, null);
+    }
+    
+    /**
+     * Igual que buscar, pero solo devuelve los productos que cumplen el filtro
+     */
+    public List<Producto> buscar(String texto, IndiceBusquedaProductos.Campo campo, int limite,
+                                 Predicate<Producto> filtro) throws Exception {
+        return cache.buscar(texto, campo, limite, filtro);
     }
     
     /**
@@ -65,7 +110,8 @@ public class ProductoController extends BaseController<Producto> {
      * @param cantidad Cantidad a sumar/restar (negativo para reducir)
      */
     public void actualizarStock(int productoId, int cantidad) throws Exception {
-        Producto producto = obtenerPorId(productoId);
+        // Se lee de la BD, no del caché: el stock pudo cambiar en otra caja
+        Producto producto = productoDAO.obtenerPorId(productoId);
         if (producto == null) {
             throw new Exception("Producto no encontrado");
         }
@@ -95,8 +141,37 @@ public class ProductoController extends BaseController<Producto> {
         }
     }
 
+    /**
+     * Refleja en el catálogo en memoria el stock descontado por una venta
+     * ya guardada (VentaDAO lo descontó en la BD dentro de su transacción)
+     */
+    public void registrarVentaEnCatalogo(Venta venta) {
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            cache.ajustarStock(detalle.getProducto().getId(), -detalle.getCantidad());
+            bus.publicar(new StockCambiado(detalle.getProducto().getId(), -detalle.getCantidad()));
+        }
+    }
+    
+    /**
+     * Descarta el catálogo en memoria; la próxima consulta irá a la BD
+     */
+    public void invalidarCache() {
+        cache.invalidar();
+    }
+    
+    public ProductoCache getCache() {
+        return cache;
+    }
+    
+    /**
+     * Bus donde se publican los cambios del catálogo y de las ventas
+     */
+    public BusEventos getBusEventos() {
+        return bus;
+    }
+
     public List<Producto> buscarPorCategoria(String categoria) throws Exception {
-        return productoDAO.obtenerTodos().stream()
+        return obtenerTodos().stream()
                 .filter(p -> p.getCategoria().equalsIgnoreCase(categoria))
                 .toList();
     }
@@ -1,54 +1,192 @@
 package com.libreria.controller;
 
+import com.libreria.model.DashboardSnapshot;
 import com.libreria.model.Venta;
 import com.libreria.model.Producto;
 //import com.libreria.model.DetalleVenta;
 import com.libreria.dao.ReporteDAO;
+import com.libreria.exportacion.ExportadorTabla;
+import com.libreria.exportacion.ExportadorTabla.Columna;
+import com.libreria.exportacion.ExportadorTabla.Tipo;
+import com.libreria.exportacion.FormatoExportacion;
+import com.libreria.util.AnchoColumnas;
+import com.libreria.util.EjecutorConsultas;
+import com.libreria.util.ProgresoExportacion;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
 //import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.xddf.usermodel.chart.*;
 
 import java.io.FileOutputStream;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class ReporteController {
+    private static final long TIMEOUT_DASHBOARD_MS = Long.getLong("libreria.dashboard.timeoutMs", 5000L);
+    // Stock desde el que un producto se considera en bajo stock
+    public static final int UMBRAL_BAJO_STOCK = 10;
+    // Filas que SXSSF mantiene en memoria; las anteriores se vuelcan a disco
+    private static final int VENTANA_FILAS = 200;
+    // Filas de ventas que se miden todas antes de pasar a muestrear el ancho
+    private static final int MUESTRA_ANCHOS = 1000;
+    
+    private static final List<Columna> COLUMNAS_INVENTARIO = List.of(
+            new Columna("Código", Tipo.TEXTO),
+            new Columna("Nombre", Tipo.TEXTO),
+            new Columna("Categoría", Tipo.TEXTO),
+            new Columna("Stock", Tipo.ENTERO),
+            new Columna("Precio", Tipo.DECIMAL));
+    
     private final VentaController ventaController;
     private final ProductoController productoController;
     private final ReporteDAO reporteDAO;
+    private final long timeoutDashboardMs;
+    private final EjecutorConsultas ejecutor;
     
     public ReporteController() {
         this.ventaController = new VentaController();
         this.productoController = new ProductoController();
         this.reporteDAO = new ReporteDAO();
+        this.timeoutDashboardMs = TIMEOUT_DASHBOARD_MS;
+        this.ejecutor = EjecutorConsultas.getCompartido();
     }
     
-    public Map<String, Object> generarEstadisticasDashboard() throws Exception {
-        Map<String, Object> estadisticas = new HashMap<>();
-        
-        LocalDateTime inicio = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime fin = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
-        Map<String, Object> estadisticasVentas = reporteDAO.obtenerEstadisticasVentas(inicio, fin);
-        estadisticas.put("ventasDia", estadisticasVentas.get("montoTotal"));
-        
-        List<Producto> productoBajoStock = reporteDAO.obtenerProductosBajoStock(10);
-        estadisticas.put("productoBajoStock", productoBajoStock);
-        
-        List<Map<String, Object>> topProductos = reporteDAO.obtenerProductosMasVendidos(5);
-        estadisticas.put("topProductos", topProductos);
-        
-        long totalProductos = productoController.obtenerTodos().stream()
-                .mapToInt(Producto::getStock)
-                .sum();
-        estadisticas.put("totalProductos", totalProductos);
-        
-        return estadisticas;
+    // Constructor con parámetros (para testing con mocks)
+    public ReporteController(VentaController ventaController, ProductoController productoController,
+                             ReporteDAO reporteDAO, long timeoutDashboardMs, EjecutorConsultas ejecutor) {
+        this.ventaController = ventaController;
+        this.productoController = productoController;
+        this.reporteDAO = reporteDAO;
+        this.timeoutDashboardMs = timeoutDashboardMs;
+        this.ejecutor = ejecutor;
+    }
+    
+    /**
+     * Consulta en paralelo (EjecutorConsultas: un hilo virtual por consulta)
+     * las cuatro partes del dashboard, así la espera total es la de la
+     * consulta más lenta.
+     *
+     * Todas comparten el mismo plazo (libreria.dashboard.timeoutMs, 5 s por
+     * defecto) contado desde que empiezan. La parte que falle o no llegue a
+     * tiempo queda vacía y anotada en getErrores(); las demás se devuelven
+     * igual. Una consulta vencida no se interrumpe: sigue hasta que la BD
+     * responda o la corte el plazo de sentencia del pool, y su resultado se
+     * descarta.
+     */
+    public DashboardSnapshot generarEstadisticasDashboard() {
+        Map<String, String> errores = new ConcurrentHashMap<>();
+        CompletableFuture<Double> ventasDia = ejecutor.ejecutar(this::obtenerVentasDelDia);
+        CompletableFuture<List<Producto>> bajoStock = ejecutor.ejecutar(this::obtenerProductosBajoStock);
+        CompletableFuture<List<Map<String, Object>>> top = ejecutor.ejecutar(this::obtenerTopProductos);
+        CompletableFuture<Long> totalStock = ejecutor.ejecutar(this::obtenerTotalStock);
+        
+        long plazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutDashboardMs);
+        return new DashboardSnapshot(
+                esperar(ventasDia, DashboardSnapshot.VENTAS_DIA, 0.0, plazo, errores),
+                esperar(bajoStock, DashboardSnapshot.BAJO_STOCK, null, plazo, errores),
+                esperar(top, DashboardSnapshot.TOP_PRODUCTOS, null, plazo, errores),
+                esperar(totalStock, DashboardSnapshot.TOTAL_STOCK, 0L, plazo, errores),
+                errores);
+    }
+    
+    private <T> T esperar(CompletableFuture<T> futuro, String parte, T porDefecto, long plazo,
+                          Map<String, String> errores) {
+        try {
+            long restante = Math.max(0, plazo - System.nanoTime());
+            return futuro.get(restante, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(false);
+            errores.put(parte, "Tiempo de espera agotado (" + timeoutDashboardMs + " ms)");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            errores.put(parte, String.valueOf(causa.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errores.put(parte, "Consulta interrumpida");
+        }
+        return porDefecto;
+    }
+    
+    // ========== DATOS DEL DASHBOARD (cada tarjeta puede pedirlos por separado) ==========
+    
+    public double obtenerVentasDelDia() throws Exception {
+        LocalDate hoy = LocalDate.now();
+        Map<String, Object> estadisticasVentas = reporteDAO.obtenerEstadisticasVentas(hoy, hoy);
+        Object monto = estadisticasVentas.get("montoTotal");
+        return monto != null ? (double) monto : 0.0;
+    }
+    
+    public List<Producto> obtenerProductosBajoStock() throws Exception {
+        return reporteDAO.obtenerProductosBajoStock(UMBRAL_BAJO_STOCK);
+    }
+    
+    public List<Map<String, Object>> obtenerTopProductos() throws Exception {
+        return reporteDAO.obtenerProductosMasVendidos(5);
+    }
+    
+    public long obtenerTotalStock() throws Exception {
+        Object total = reporteDAO.obtenerResumenInventario().get("totalStock");
+        return total != null ? (long) total : 0L;
+    }
+    
+    /**
+     * totalProductos, totalStock, categorias y valorInventario, calculados en la BD
+     */
+    public Map<String, Object> obtenerResumenInventario() throws Exception {
+        return reporteDAO.obtenerResumenInventario();
+    }
+    
+    /**
+     * Ingresos reales por categoría en los últimos días (hoy incluido),
+     * de mayor a menor
+     */
+    public List<Map<String, Object>> obtenerVentasPorCategoria(int dias) throws Exception {
+        LocalDate hoy = LocalDate.now();
+        return reporteDAO.obtenerVentasPorCategoria(hoy.minusDays(dias - 1), hoy);
+    }
+    
+    /**
+     * Extracto plano del inventario (una fila por producto) en el formato indicado
+     *
+     * @return cantidad de productos exportados
+     */
+    public int exportarInventario(String rutaArchivo, FormatoExportacion formato, ProgresoExportacion progreso) throws Exception {
+        List<Producto> productos = productoController.obtenerTodos();
+        try (ExportadorTabla exportador = formato.crear(Paths.get(rutaArchivo), "Inventario")) {
+            try {
+                exportador.iniciar(COLUMNAS_INVENTARIO);
+                progreso.inicio(productos.size());
+                for (Producto producto : productos) {
+                    exportador.fila(producto.getCodigo(), producto.getNombre(), producto.getCategoria(),
+                            producto.getStock(), producto.getPrecio());
+                    progreso.filaEscrita();
+                }
+            } catch (Throwable e) {
+                exportador.descartar();
+                throw e;
+            }
+        }
+        return productos.size();
     }
     
     public void generarReporteInventarioExcel(String rutaArchivo) throws Exception {
+        generarReporteInventarioExcel(rutaArchivo, ProgresoExportacion.NINGUNO);
+    }
+    
+    public void generarReporteInventarioExcel(String rutaArchivo, ProgresoExportacion progreso) throws Exception {
         try (XSSFWorkbook workbook = new XSSFWorkbook()) {
             XSSFSheet sheet = workbook.createSheet("Inventario");
             
@@ -78,9 +216,12 @@ public class ReporteController {
                 cell.setCellValue(columns[i]);
                 cell.setCellStyle(headerStyle);
             }
+            AnchoColumnas anchos = new AnchoColumnas(columns.length);
+            anchos.medir(headerRow);
             
             // Llenar datos
             List<Producto> productos = productoController.obtenerTodos();
+            progreso.inicio(productos.size());
             int rowNum = 4;
             for (Producto producto : productos) {
                 Row row = sheet.createRow(rowNum++);
@@ -104,12 +245,13 @@ public class ReporteController {
                 Cell cell4 = row.createCell(4);
                 cell4.setCellValue(producto.getPrecio());
                 cell4.setCellStyle(dataStyle);
+                
+                anchos.medir(row);
+                progreso.filaEscrita();
             }
             
-            // Autoajustar columnas
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            // Ajustar columnas con los anchos medidos
+            anchos.aplicar(sheet);
             
             // Crear gráfico de stock por categoría
             if (!productos.isEmpty()) {
@@ -123,9 +265,25 @@ public class ReporteController {
         }
     }
     
+    /**
+     * Reporte de ventas en modo streaming (SXSSF): solo VENTANA_FILAS filas
+     * quedan en memoria y las ventas se leen con un cursor de solo avance,
+     * así la memoria no crece con la cantidad de ventas del período.
+     */
     public void generarReporteVentasExcel(String rutaArchivo, LocalDateTime inicio, LocalDateTime fin) throws Exception {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            XSSFSheet sheet = workbook.createSheet("Reporte de Ventas");
+        generarReporteVentasExcel(rutaArchivo, inicio, fin, ProgresoExportacion.NINGUNO);
+    }
+    
+    /**
+     * Igual que el anterior, avisando cada fila escrita; si progreso lanza
+     * CancellationException la exportación se corta sin escribir el archivo.
+     */
+    public void generarReporteVentasExcel(String rutaArchivo, LocalDateTime inicio, LocalDateTime fin,
+                                          ProgresoExportacion progreso) throws Exception {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(VENTANA_FILAS);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Reporte de Ventas");
             
             // Estilos
             CellStyle headerStyle = createHeaderStyle(workbook);
@@ -149,6 +307,7 @@ public class ReporteController {
             
             // Estadísticas generales
             Map<String, Object> estadisticas = reporteDAO.obtenerEstadisticasVentas(inicio, fin);
+            progreso.inicio((Integer) estadisticas.get("totalVentas"));
             
             Row statsLabelRow = sheet.createRow(3);
             Cell statsLabel = statsLabelRow.createCell(0);
@@ -172,14 +331,17 @@ public class ReporteController {
                 cell.setCellValue(columns[i]);
                 cell.setCellStyle(headerStyle);
             }
+            // Las filas de ventas tienen largos parecidos: basta una muestra
+            AnchoColumnas anchos = new AnchoColumnas(columns.length, MUESTRA_ANCHOS, 10);
+            anchos.medirSiempre(statsRow);
+            anchos.medirSiempre(headerRow);
             
-            // Llenar datos
-            List<Venta> ventas = ventaController.obtenerVentasPorFecha(inicio, fin);
+            // Llenar datos a medida que llegan del cursor; para el gráfico solo se acumula por día
             DateTimeFormatter dtFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-            
-            int rowNum = 7;
-            for (Venta venta : ventas) {
-                Row row = sheet.createRow(rowNum++);
+            Map<LocalDate, Double> ventasPorDia = new TreeMap<>();
+            int[] rowNum = {7};
+            ventaController.recorrerVentasPorFecha(inicio, fin, venta -> {
+                Row row = sheet.createRow(rowNum[0]++);
                 
                 Cell cell0 = row.createCell(0);
                 cell0.setCellValue(venta.getNumeroVenta());
@@ -196,16 +358,18 @@ public class ReporteController {
                 Cell cell3 = row.createCell(3);
                 cell3.setCellValue(venta.getTotal());
                 cell3.setCellStyle(currencyStyle);
-            }
+                
+                anchos.medir(row);
+                ventasPorDia.merge(venta.getFecha().toLocalDate(), venta.getTotal(), Double::sum);
+                progreso.filaEscrita();
+            });
             
-            // Autoajustar columnas
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            // Ajustar columnas con los anchos medidos
+            anchos.aplicar(sheet);
             
             // Crear gráfico de ventas
-            if (!ventas.isEmpty()) {
-                crearGraficoVentas(sheet, ventas, rowNum + 2);
+            if (!ventasPorDia.isEmpty()) {
+                crearGraficoVentas(workbook, sheet, ventasPorDia, rowNum[0] + 2);
             }
             
             // Crear hoja de detalles por producto
@@ -215,11 +379,15 @@ public class ReporteController {
             try (FileOutputStream fileOut = new FileOutputStream(rutaArchivo)) {
                 workbook.write(fileOut);
             }
+        } finally {
+            // Borra los archivos temporales del streaming
+            workbook.dispose();
+            workbook.close();
         }
     }
     
-    private void crearHojaDetalleProductos(XSSFWorkbook workbook, LocalDateTime inicio, LocalDateTime fin) throws Exception {
-        XSSFSheet sheet = workbook.createSheet("Detalle por Productos");
+    private void crearHojaDetalleProductos(SXSSFWorkbook workbook, LocalDateTime inicio, LocalDateTime fin) throws Exception {
+        SXSSFSheet sheet = workbook.createSheet("Detalle por Productos");
         
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle titleStyle = createTitleStyle(workbook);
@@ -241,6 +409,8 @@ public class ReporteController {
             cell.setCellValue(columns[i]);
             cell.setCellStyle(headerStyle);
         }
+        AnchoColumnas anchos = new AnchoColumnas(columns.length);
+        anchos.medir(headerRow);
         
         // Datos
         List<Map<String, Object>> topProductos = reporteDAO.obtenerProductosMasVendidos(20);
@@ -263,16 +433,16 @@ public class ReporteController {
             Cell cell3 = row.createCell(3);
             cell3.setCellValue((Double) producto.get("totalIngresos"));
             cell3.setCellStyle(currencyStyle);
+            
+            anchos.medir(row);
         }
         
-        // Autoajustar
-        for (int i = 0; i < columns.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
+        // Ajustar columnas
+        anchos.aplicar(sheet);
         
         // Crear gráfico de productos más vendidos
         if (!topProductos.isEmpty()) {
-            crearGraficoProductosMasVendidos(sheet, topProductos, rowNum + 2);
+            crearGraficoProductosMasVendidos(workbook, sheet, topProductos, rowNum + 2);
         }
     }
     
@@ -319,15 +489,15 @@ public class ReporteController {
         chart.plot(data);
     }
     
-    private void crearGraficoVentas(XSSFSheet sheet, List<Venta> ventas, int startRow) {
-        // Agrupar ventas por día
-        Map<String, Double> ventasPorDia = new TreeMap<>();
+    /**
+     * Con SXSSF las filas ya escritas no se pueden volver a leer, así que los
+     * gráficos llevan sus valores en memoria (fromArray) además del rango de
+     * celdas, y se dibujan sobre la hoja XSSF que respalda a la hoja streaming.
+     */
+    private void crearGraficoVentas(SXSSFWorkbook workbook, SXSSFSheet sheet, Map<LocalDate, Double> ventasPorDia, int startRow) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM");
-        
-        for (Venta v : ventas) {
-            String dia = v.getFecha().format(formatter);
-            ventasPorDia.merge(dia, v.getTotal(), Double::sum);
-        }
+        String[] fechas = new String[ventasPorDia.size()];
+        Double[] montos = new Double[ventasPorDia.size()];
         
         // Crear datos
         int row = startRow;
@@ -335,14 +505,18 @@ public class ReporteController {
         sheet.getRow(row).createCell(1).setCellValue("Total");
         
         row++;
-        for (Map.Entry<String, Double> entry : ventasPorDia.entrySet()) {
+        int i = 0;
+        for (Map.Entry<LocalDate, Double> entry : ventasPorDia.entrySet()) {
+            fechas[i] = entry.getKey().format(formatter);
+            montos[i] = entry.getValue();
             Row dataRow = sheet.createRow(row++);
-            dataRow.createCell(0).setCellValue(entry.getKey());
-            dataRow.createCell(1).setCellValue(entry.getValue());
+            dataRow.createCell(0).setCellValue(fechas[i]);
+            dataRow.createCell(1).setCellValue(montos[i]);
+            i++;
         }
         
         // Crear gráfico de líneas
-        XSSFDrawing drawing = sheet.createDrawingPatriarch();
+        XSSFDrawing drawing = workbook.getXSSFWorkbook().getSheet(sheet.getSheetName()).createDrawingPatriarch();
         XSSFClientAnchor anchor = drawing.createAnchor(0, 0, 0, 0, 6, startRow, 14, startRow + 15);
         
         XSSFChart chart = drawing.createChart(anchor);
@@ -353,10 +527,10 @@ public class ReporteController {
         XDDFValueAxis leftAxis = chart.createValueAxis(AxisPosition.LEFT);
         leftAxis.setTitle("Monto (S/)");
         
-        XDDFDataSource<String> dates = XDDFDataSourcesFactory.fromStringCellRange(sheet,
-                new CellRangeAddress(startRow + 1, row - 1, 0, 0));
-        XDDFNumericalDataSource<Double> amounts = XDDFDataSourcesFactory.fromNumericCellRange(sheet,
-                new CellRangeAddress(startRow + 1, row - 1, 1, 1));
+        XDDFDataSource<String> dates = XDDFDataSourcesFactory.fromArray(fechas,
+                rango(sheet, startRow + 1, row - 1, 0));
+        XDDFNumericalDataSource<Double> amounts = XDDFDataSourcesFactory.fromArray(montos,
+                rango(sheet, startRow + 1, row - 1, 1));
         
         XDDFChartData data = chart.createData(ChartTypes.LINE, bottomAxis, leftAxis);
         XDDFChartData.Series series = data.addSeries(dates, amounts);
@@ -364,8 +538,10 @@ public class ReporteController {
         chart.plot(data);
     }
     
-    private void crearGraficoProductosMasVendidos(XSSFSheet sheet, List<Map<String, Object>> productos, int startRow) {
+    private void crearGraficoProductosMasVendidos(SXSSFWorkbook workbook, SXSSFSheet sheet, List<Map<String, Object>> productos, int startRow) {
         int topN = Math.min(10, productos.size());
+        String[] nombres = new String[topN];
+        Integer[] unidades = new Integer[topN];
         
         int row = startRow;
         sheet.createRow(row).createCell(0).setCellValue("Producto");
@@ -374,28 +550,38 @@ public class ReporteController {
         row++;
         for (int i = 0; i < topN; i++) {
             Map<String, Object> p = productos.get(i);
+            nombres[i] = (String) p.get("nombre");
+            unidades[i] = (Integer) p.get("totalVendido");
             Row dataRow = sheet.createRow(row++);
-            dataRow.createCell(0).setCellValue((String) p.get("nombre"));
-            dataRow.createCell(1).setCellValue((Integer) p.get("totalVendido"));
+            dataRow.createCell(0).setCellValue(nombres[i]);
+            dataRow.createCell(1).setCellValue(unidades[i]);
         }
         
         // Crear gráfico circular (pie)
-        XSSFDrawing drawing = sheet.createDrawingPatriarch();
+        XSSFDrawing drawing = workbook.getXSSFWorkbook().getSheet(sheet.getSheetName()).createDrawingPatriarch();
         XSSFClientAnchor anchor = drawing.createAnchor(0, 0, 0, 0, 6, startRow, 14, startRow + 15);
         
         XSSFChart chart = drawing.createChart(anchor);
         chart.setTitleText("Top 10 Productos Más Vendidos");
         
-        XDDFDataSource<String> products = XDDFDataSourcesFactory.fromStringCellRange(sheet,
-                new CellRangeAddress(startRow + 1, row - 1, 0, 0));
-        XDDFNumericalDataSource<Double> units = XDDFDataSourcesFactory.fromNumericCellRange(sheet,
-                new CellRangeAddress(startRow + 1, row - 1, 1, 1));
+        XDDFDataSource<String> products = XDDFDataSourcesFactory.fromArray(nombres,
+                rango(sheet, startRow + 1, row - 1, 0));
+        XDDFNumericalDataSource<Integer> units = XDDFDataSourcesFactory.fromArray(unidades,
+                rango(sheet, startRow + 1, row - 1, 1));
         
         XDDFChartData data = chart.createData(ChartTypes.PIE, null, null);
         data.addSeries(products, units);
         chart.plot(data);
     }
     
+    /**
+     * Referencia absoluta de una columna de celdas, por ejemplo 'Hoja'!$A$10:$A$20
+     */
+    private String rango(Sheet sheet, int primeraFila, int ultimaFila, int columna) {
+        return new CellRangeAddress(primeraFila, ultimaFila, columna, columna)
+                .formatAsString(sheet.getSheetName(), true);
+    }
+    
     // Métodos auxiliares para estilos
     private CellStyle createHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
@@ -2,29 +2,70 @@ package com.libreria.controller;
 
 import com.libreria.model.Venta;
 import com.libreria.model.DetalleVenta;
+import com.libreria.model.PaginaVentas;
+import com.libreria.model.Producto;
+import com.libreria.model.VentaResumen;
 import com.libreria.dao.VentaDAO;
+import com.libreria.evento.BusEventos;
+import com.libreria.evento.EventoDominio.VentaRegistrada;
+import com.libreria.exportacion.ExportadorTabla;
+import com.libreria.exportacion.ExportadorTabla.Columna;
+import com.libreria.exportacion.ExportadorTabla.Tipo;
+import com.libreria.exportacion.FormatoExportacion;
+import com.libreria.util.AnchoColumnas;
+import com.libreria.util.ProgresoExportacion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class VentaController extends BaseController<Venta> {
+    // Filas que SXSSF mantiene en memoria al exportar
+    private static final int VENTANA_FILAS = 200;
+    // Filas que se miden todas antes de pasar a muestrear el ancho
+    private static final int MUESTRA_ANCHOS = 1000;
+    
+    private static final List<Columna> COLUMNAS_VENTAS = List.of(
+            new Columna("N° Venta", Tipo.TEXTO),
+            new Columna("Fecha", Tipo.FECHA_HORA),
+            new Columna("Método Pago", Tipo.TEXTO),
+            new Columna("Total", Tipo.DECIMAL));
+    
+    private static final List<Columna> COLUMNAS_DETALLES = List.of(
+            new Columna("N° Venta", Tipo.TEXTO),
+            new Columna("Fecha", Tipo.FECHA_HORA),
+            new Columna("Método Pago", Tipo.TEXTO),
+            new Columna("Código", Tipo.TEXTO),
+            new Columna("Producto", Tipo.TEXTO),
+            new Columna("Categoría", Tipo.TEXTO),
+            new Columna("Cantidad", Tipo.ENTERO),
+            new Columna("Precio Unitario", Tipo.DECIMAL),
+            new Columna("Subtotal", Tipo.DECIMAL));
+    
     private final VentaDAO ventaDAO;
     private final ProductoController productoController;
+    private final BusEventos bus;
     
     // Constructor sin parámetros (para uso normal)
     public VentaController() {
         this.ventaDAO = new VentaDAO();
         this.productoController = new ProductoController();
+        this.bus = BusEventos.getCompartido();
     }
     
     // Constructor con parámetros (para testing con mocks)
     public VentaController(VentaDAO ventaDAO, ProductoController productoController) {
         this.ventaDAO = ventaDAO;
         this.productoController = productoController;
+        this.bus = new BusEventos();
     }
 
     @Override
@@ -35,13 +76,26 @@ public class VentaController extends BaseController<Venta> {
         // Generar número de venta consultando la base de datos
         venta.setNumeroVenta(ventaDAO.generarNumeroVenta());
         
-        // Persistir la venta
-        ventaDAO.crear(venta);
-        
-        // Actualizar stock de productos
-        for (DetalleVenta detalle : venta.getDetalles()) {
-            productoController.actualizarStock(detalle.getProducto().getId(), -detalle.getCantidad());
+        // Persistir la venta; el stock se descuenta en la misma transacción
+        // (falla con "Stock insuficiente para el producto: ..." si no alcanza)
+        try {
+            ventaDAO.crear(venta);
+        } catch (Exception e) {
+            // El stock en memoria puede estar desactualizado (otra caja vendió)
+            productoController.invalidarCache();
+            throw e;
         }
+        
+        productoController.registrarVentaEnCatalogo(venta);
+        bus.publicar(new VentaRegistrada(new VentaResumen(
+                venta.getId(), venta.getNumeroVenta(), venta.getFecha(), venta.getMetodoPago(), venta.getTotal())));
+    }
+    
+    /**
+     * Bus donde se publica cada venta registrada
+     */
+    public BusEventos getBusEventos() {
+        return bus;
     }
     
     @Override
@@ -73,13 +127,9 @@ public class VentaController extends BaseController<Venta> {
             throw new Exception("El método de pago es requerido");
         }
         
-        // Validar stock disponible
         for (DetalleVenta detalle : venta.getDetalles()) {
-            if (!productoController.verificarStockDisponible(
-                    detalle.getProducto().getId(), 
-                    detalle.getCantidad())) {
-                throw new Exception("Stock insuficiente para el producto: " + 
-                        detalle.getProducto().getNombre());
+            if (detalle.getProducto() == null || detalle.getCantidad() <= 0) {
+                throw new Exception("Cada producto de la venta debe tener una cantidad mayor a 0");
             }
         }
     }
@@ -88,18 +138,130 @@ public class VentaController extends BaseController<Venta> {
         return ventaDAO.obtenerPorFecha(inicio, fin);
     }
     
+    /**
+     * Cabeceras de todas las ventas, para listados (sin detalles)
+     */
+    public List<VentaResumen> obtenerResumenes() throws Exception {
+        return ventaDAO.obtenerResumenes();
+    }
+    
+    /**
+     * Cabeceras de las ventas de un rango de fechas, para listados (sin detalles)
+     */
+    public List<VentaResumen> obtenerResumenesPorFecha(LocalDateTime inicio, LocalDateTime fin) throws Exception {
+        return ventaDAO.obtenerResumenesPorFecha(inicio, fin);
+    }
+    
+    /**
+     * Entrega al consumidor cada cabecera del rango a medida que se lee,
+     * sin armar la lista completa (para exportaciones grandes)
+     */
+    public int recorrerVentasPorFecha(LocalDateTime inicio, LocalDateTime fin,
+                                      Consumer<VentaResumen> consumidor) throws Exception {
+        return ventaDAO.recorrerResumenesPorFecha(inicio, fin, consumidor);
+    }
+    
+    /**
+     * Página del historial de ventas (más recientes primero).
+     * inicio/fin en null listan todo; despuesDe en null pide la primera página.
+     */
+    public PaginaVentas obtenerPaginaVentas(LocalDateTime inicio, LocalDateTime fin, VentaResumen despuesDe,
+                                            int tamano, boolean contarTotal) throws Exception {
+        if (tamano <= 0) {
+            throw new Exception("El tamaño de página debe ser mayor a 0");
+        }
+        return ventaDAO.obtenerPagina(inicio, fin, despuesDe, tamano, contarTotal);
+    }
+    
     public double calcularTotalVentasDia() throws Exception {
         LocalDateTime inicio = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
         LocalDateTime fin = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
         
-        return obtenerVentasPorFecha(inicio, fin).stream()
-                .mapToDouble(Venta::getTotal)
-                .sum();
+        return ventaDAO.sumarTotales(inicio, fin);
     }
     
+    /**
+     * Extracto plano de las ventas del período (una fila por venta) en el
+     * formato indicado, leído con el cursor y escrito fila por fila
+     *
+     * @return cantidad de ventas exportadas
+     */
+    public int exportarVentas(String rutaArchivo, FormatoExportacion formato, LocalDateTime inicio,
+                              LocalDateTime fin, ProgresoExportacion progreso) throws Exception {
+        try (ExportadorTabla exportador = formato.crear(Paths.get(rutaArchivo), "Ventas")) {
+            try {
+                exportador.iniciar(COLUMNAS_VENTAS);
+                progreso.inicio(-1);
+                return recorrerVentasPorFecha(inicio, fin, venta -> {
+                    escribirFila(exportador, venta.getNumeroVenta(), venta.getFecha(),
+                            venta.getMetodoPago(), venta.getTotal());
+                    progreso.filaEscrita();
+                });
+            } catch (Throwable e) {
+                exportador.descartar();
+                throw e;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Extracto de las líneas de venta del período (una fila por producto
+     * vendido, con los datos de su venta) en el formato indicado
+     *
+     * @return cantidad de líneas exportadas
+     */
+    public int exportarDetallesVenta(String rutaArchivo, FormatoExportacion formato, LocalDateTime inicio,
+                                     LocalDateTime fin, ProgresoExportacion progreso) throws Exception {
+        try (ExportadorTabla exportador = formato.crear(Paths.get(rutaArchivo), "Detalles de Venta")) {
+            try {
+                exportador.iniciar(COLUMNAS_DETALLES);
+                progreso.inicio(-1);
+                return ventaDAO.recorrerDetallesPorFecha(inicio, fin, (venta, detalle) -> {
+                    Producto producto = detalle.getProducto();
+                    escribirFila(exportador, venta.getNumeroVenta(), venta.getFecha(), venta.getMetodoPago(),
+                            producto != null ? producto.getCodigo() : null,
+                            producto != null ? producto.getNombre() : null,
+                            producto != null ? producto.getCategoria() : null,
+                            detalle.getCantidad(), detalle.getPrecioUnitario(), detalle.getSubtotal());
+                    progreso.filaEscrita();
+                });
+            } catch (Throwable e) {
+                exportador.descartar();
+                throw e;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    // Los consumidores del cursor no pueden lanzar IOException
+    private static void escribirFila(ExportadorTabla exportador, Object... valores) {
+        try {
+            exportador.fila(valores);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Exporta las ventas del período con SXSSF: las filas se escriben a disco
+     * en bloques, así que la memoria no depende de la cantidad de ventas.
+     */
     public void generarReporteVentasExcel(String rutaArchivo, LocalDateTime inicio, LocalDateTime fin) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Reporte de Ventas");
+        generarReporteVentasExcel(rutaArchivo, inicio, fin, ProgresoExportacion.NINGUNO);
+    }
+    
+    /**
+     * Igual que el anterior, avisando cada fila escrita (sin total previo)
+     */
+    public void generarReporteVentasExcel(String rutaArchivo, LocalDateTime inicio, LocalDateTime fin,
+                                          ProgresoExportacion progreso) throws Exception {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(VENTANA_FILAS);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Reporte de Ventas");
             
             // Estilos
             CellStyle headerStyle = workbook.createCellStyle();
@@ -132,26 +294,32 @@ public class VentaController extends BaseController<Venta> {
                 cell.setCellValue(columns[i]);
                 cell.setCellStyle(headerStyle);
             }
+            // Título y período no están combinados: también cuentan para la columna 0
+            AnchoColumnas anchos = new AnchoColumnas(columns.length, MUESTRA_ANCHOS, 10);
+            anchos.medirSiempre(titleRow);
+            anchos.medirSiempre(periodRow);
+            anchos.medirSiempre(headerRow);
             
-            // Datos
-            List<Venta> ventas = obtenerVentasPorFecha(inicio, fin);
+            // Datos (se escriben a medida que llegan del cursor)
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
             
-            int rowNum = 4;
-            double totalGeneral = 0;
+            int[] rowNum = {4};
+            double[] totalGeneral = {0};
             
-            for (Venta venta : ventas) {
-                Row row = sheet.createRow(rowNum++);
+            progreso.inicio(-1);
+            recorrerVentasPorFecha(inicio, fin, venta -> {
+                Row row = sheet.createRow(rowNum[0]++);
                 row.createCell(0).setCellValue(venta.getNumeroVenta());
                 row.createCell(1).setCellValue(venta.getFecha().format(dateFormatter));
                 row.createCell(2).setCellValue(venta.getMetodoPago());
                 row.createCell(3).setCellValue(venta.getTotal());
-                totalGeneral += venta.getTotal();
-            }
+                anchos.medir(row);
+                totalGeneral[0] += venta.getTotal();
+                progreso.filaEscrita();
+            });
             
             // Total
-            rowNum++;
-            Row totalRow = sheet.createRow(rowNum);
+            Row totalRow = sheet.createRow(rowNum[0] + 1);
             Cell totalLabelCell = totalRow.createCell(2);
             totalLabelCell.setCellValue("TOTAL:");
             
@@ -162,18 +330,21 @@ public class VentaController extends BaseController<Venta> {
             totalLabelCell.setCellStyle(totalStyle);
             
             Cell totalValueCell = totalRow.createCell(3);
-            totalValueCell.setCellValue(totalGeneral);
+            totalValueCell.setCellValue(totalGeneral[0]);
             totalValueCell.setCellStyle(totalStyle);
+            anchos.medirSiempre(totalRow);
             
-            // Autoajustar columnas
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            // Ajustar columnas con los anchos medidos
+            anchos.aplicar(sheet);
             
             // Guardar
             try (FileOutputStream fileOut = new FileOutputStream(rutaArchivo)) {
                 workbook.write(fileOut);
             }
+        } finally {
+            // Borra los archivos temporales del streaming
+            workbook.dispose();
+            workbook.close();
         }
     }
 }
\ No newline at end of file
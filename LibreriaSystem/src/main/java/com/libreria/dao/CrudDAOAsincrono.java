@@ -0,0 +1,16 @@
+package com.libreria.dao;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versión asíncrona de CrudDAO: cada operación corre fuera del hilo que la
+ * pide y devuelve un CompletableFuture (ver DAOAsincrono)
+ */
+public interface CrudDAOAsincrono<T> {
+    CompletableFuture<Void> crear(T entidad);
+    CompletableFuture<T> obtenerPorId(int id);
+    CompletableFuture<List<T>> obtenerTodos();
+    CompletableFuture<Void> actualizar(T entidad);
+    CompletableFuture<Void> eliminar(int id);
+}
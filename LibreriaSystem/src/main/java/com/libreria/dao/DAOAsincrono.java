@@ -0,0 +1,70 @@
+package com.libreria.dao;
+
+import com.libreria.util.EjecutorConsultas;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Envuelve un CrudDAO bloqueante y ejecuta sus métodos con EjecutorConsultas
+ * (hilos virtuales, concurrencia acotada al pool y plazo por consulta).
+ *
+ * Los errores del DAO llegan como la excepción del futuro; los resultados se
+ * completan en el hilo virtual, así que para tocar Swing hay que pasar por
+ * SwingUtilities.invokeLater.
+ */
+public class DAOAsincrono<T> implements CrudDAOAsincrono<T> {
+    protected final EjecutorConsultas ejecutor;
+    private final CrudDAO<T> dao;
+
+    public DAOAsincrono(CrudDAO<T> dao) {
+        this(dao, EjecutorConsultas.getCompartido());
+    }
+
+    public DAOAsincrono(CrudDAO<T> dao, EjecutorConsultas ejecutor) {
+        this.dao = dao;
+        this.ejecutor = ejecutor;
+    }
+
+    @Override
+    public CompletableFuture<Void> crear(T entidad) {
+        return ejecutar(() -> {
+            dao.crear(entidad);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<T> obtenerPorId(int id) {
+        return ejecutar(() -> dao.obtenerPorId(id));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> obtenerTodos() {
+        return ejecutar(dao::obtenerTodos);
+    }
+
+    @Override
+    public CompletableFuture<Void> actualizar(T entidad) {
+        return ejecutar(() -> {
+            dao.actualizar(entidad);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> eliminar(int id) {
+        return ejecutar(() -> {
+            dao.eliminar(id);
+            return null;
+        });
+    }
+
+    /**
+     * Cualquier otra consulta del DAO con el mismo ejecutor
+     */
+    public <R> CompletableFuture<R> ejecutar(Callable<R> consulta) {
+        return ejecutor.ejecutar(consulta);
+    }
+}
@@ -7,7 +7,10 @@ import com.libreria.util.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DetalleVentaDAO - Compatible con MySQL (producción) y H2 (tests)
@@ -15,11 +18,21 @@ import java.util.List;
  * Ubicación: src/main/java/com/libreria/dao/DetalleVentaDAO.java
  */
 public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
-    private final ProductoDAO productoDAO;
     
-    public DetalleVentaDAO() {
-        this.productoDAO = new ProductoDAO();
-    }
+    /**
+     * Máximo de ids por consulta IN (...) al cargar detalles en lote
+     */
+    static final int TAMANO_LOTE_IN = 500;
+    
+    /**
+     * Detalle + producto en una sola consulta (LEFT JOIN por si el producto
+     * fue eliminado). Las columnas del producto van con prefijo p_.
+     */
+    private static final String SELECT_DETALLE_CON_PRODUCTO =
+            "SELECT d.id, d.venta_id, d.producto_id, d.cantidad, d.precio_unitario, "
+            + "p.codigo AS p_codigo, p.nombre AS p_nombre, p.categoria AS p_categoria, "
+            + "p.precio AS p_precio, p.stock AS p_stock, p.descripcion AS p_descripcion "
+            + "FROM detalles_venta d LEFT JOIN productos p ON p.id = d.producto_id";
     
     @Override
     public void crear(DetalleVenta detalle) throws SQLException {
@@ -55,9 +68,43 @@ public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
         }
     }
     
+    /**
+     * Inserta todos los detalles de una venta con un solo PreparedStatement
+     * (addBatch/executeBatch) usando la conexión proporcionada.
+     * NO cierra la conexión (útil para transacciones).
+     * Con rewriteBatchedStatements=true MySQL los envía como un único INSERT
+     * multi-fila; los ids generados se asignan en el mismo orden de la lista.
+     */
+    public void crearLote(List<DetalleVenta> detalles, Connection conn) throws SQLException {
+        if (detalles.isEmpty()) {
+            return;
+        }
+        
+        String sql = "INSERT INTO detalles_venta (venta_id, producto_id, cantidad, precio_unitario) VALUES (?, ?, ?, ?)";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (DetalleVenta detalle : detalles) {
+                stmt.setInt(1, detalle.getVenta().getId());
+                stmt.setInt(2, detalle.getProducto().getId());
+                stmt.setInt(3, detalle.getCantidad());
+                stmt.setDouble(4, detalle.getPrecioUnitario());
+                stmt.addBatch();
+            }
+            
+            stmt.executeBatch();
+            
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                int i = 0;
+                while (generatedKeys.next() && i < detalles.size()) {
+                    detalles.get(i++).setId(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+    
     @Override
     public DetalleVenta obtenerPorId(int id) throws SQLException {
-        String sql = "SELECT * FROM detalles_venta WHERE id = ?";
+        String sql = SELECT_DETALLE_CON_PRODUCTO + " WHERE d.id = ?";
         
         Connection conn = DatabaseConnection.getConnection();
         boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
@@ -68,7 +115,7 @@ public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return mapearDetalleVenta(rs);
+                        return mapearDetalleVenta(rs, new HashMap<>());
                     }
                 }
             }
@@ -83,7 +130,7 @@ public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
     @Override
     public List<DetalleVenta> obtenerTodos() throws SQLException {
         List<DetalleVenta> detalles = new ArrayList<>();
-        String sql = "SELECT * FROM detalles_venta";
+        String sql = SELECT_DETALLE_CON_PRODUCTO + " ORDER BY d.id";
         
         Connection conn = DatabaseConnection.getConnection();
         boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
@@ -92,8 +139,9 @@ public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
                 
+                Map<Integer, Producto> productos = new HashMap<>();
                 while (rs.next()) {
-                    detalles.add(mapearDetalleVenta(rs));
+                    detalles.add(mapearDetalleVenta(rs, productos));
                 }
             }
             return detalles;
@@ -119,7 +167,7 @@ public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
      */
     public List<DetalleVenta> obtenerPorVenta(int ventaId) throws SQLException {
         List<DetalleVenta> detalles = new ArrayList<>();
-        String sql = "SELECT * FROM detalles_venta WHERE venta_id = ?";
+        String sql = SELECT_DETALLE_CON_PRODUCTO + " WHERE d.venta_id = ? ORDER BY d.id";
         
         Connection conn = DatabaseConnection.getConnection();
         boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
@@ -129,8 +177,9 @@ public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
                 stmt.setInt(1, ventaId);
                 
                 try (ResultSet rs = stmt.executeQuery()) {
+                    Map<Integer, Producto> productos = new HashMap<>();
                     while (rs.next()) {
-                        detalles.add(mapearDetalleVenta(rs));
+                        detalles.add(mapearDetalleVenta(rs, productos));
                     }
                 }
             }
@@ -143,15 +192,53 @@ public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
     }
     
     /**
-     * Mapea un ResultSet a un objeto DetalleVenta
+     * Obtiene los detalles de varias ventas con su producto, usando la conexión
+     * proporcionada (NO la cierra). Hace una consulta por cada bloque de
+     * TAMANO_LOTE_IN ventas en lugar de una por venta y otra por producto.
+     *
+     * @param ventaIds ids de las ventas
+     * @param productos mapa de productos ya cargados; un mismo producto se
+     *                  comparte entre todos los detalles que lo referencian
+     * @return detalles agrupados por id de venta (ventas sin detalles no aparecen)
      */
-    private DetalleVenta mapearDetalleVenta(ResultSet rs) throws SQLException {
+    public Map<Integer, List<DetalleVenta>> obtenerPorVentas(Connection conn, List<Integer> ventaIds,
+                                                             Map<Integer, Producto> productos) throws SQLException {
+        Map<Integer, List<DetalleVenta>> resultado = new LinkedHashMap<>();
+        
+        for (int desde = 0; desde < ventaIds.size(); desde += TAMANO_LOTE_IN) {
+            List<Integer> lote = ventaIds.subList(desde, Math.min(desde + TAMANO_LOTE_IN, ventaIds.size()));
+            
+            StringBuilder sql = new StringBuilder(SELECT_DETALLE_CON_PRODUCTO).append(" WHERE d.venta_id IN (");
+            for (int i = 0; i < lote.size(); i++) {
+                sql.append(i == 0 ? "?" : ",?");
+            }
+            sql.append(") ORDER BY d.venta_id, d.id");
+            
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                for (int i = 0; i < lote.size(); i++) {
+                    stmt.setInt(i + 1, lote.get(i));
+                }
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        DetalleVenta detalle = mapearDetalleVenta(rs, productos);
+                        resultado.computeIfAbsent(detalle.getVenta().getId(), k -> new ArrayList<>()).add(detalle);
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+    
+    /**
+     * Mapea una fila de SELECT_DETALLE_CON_PRODUCTO a un objeto DetalleVenta
+     */
+    private DetalleVenta mapearDetalleVenta(ResultSet rs, Map<Integer, Producto> productos) throws SQLException {
         DetalleVenta detalle = new DetalleVenta();
         detalle.setId(rs.getInt("id"));
         
-        // Obtener el producto
-        Producto producto = productoDAO.obtenerPorId(rs.getInt("producto_id"));
-        detalle.setProducto(producto);
+        // El producto viene en la misma fila; se reutiliza si ya se mapeó
+        detalle.setProducto(mapearProducto(rs, productos));
         
         // Crear objeto Venta con solo el ID (para evitar recursión infinita)
         Venta venta = new Venta();
@@ -163,4 +250,29 @@ public class DetalleVentaDAO implements CrudDAO<DetalleVenta> {
         
         return detalle;
     }
+    
+    private Producto mapearProducto(ResultSet rs, Map<Integer, Producto> productos) throws SQLException {
+        int productoId = rs.getInt("producto_id");
+        Producto producto = productos.get(productoId);
+        if (producto != null) {
+            return producto;
+        }
+        
+        String codigo = rs.getString("p_codigo");
+        if (codigo == null) {
+            // El producto ya no existe
+            return null;
+        }
+        
+        producto = new Producto();
+        producto.setId(productoId);
+        producto.setCodigo(codigo);
+        producto.setNombre(rs.getString("p_nombre"));
+        producto.setCategoria(rs.getString("p_categoria"));
+        producto.setPrecio(rs.getDouble("p_precio"));
+        producto.setStock(rs.getInt("p_stock"));
+        producto.setDescripcion(rs.getString("p_descripcion"));
+        productos.put(productoId, producto);
+        return producto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.libreria.dao;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Entrega números de venta (VyyyyMMdd-NNNN) únicos entre varias cajas.
+ *
+ * Cada JVM reserva en secuencias_venta un bloque de números y los reparte
+ * desde memoria; solo vuelve a la BD cuando se le acaba el bloque o cambia
+ * el día. Los números que no se lleguen a usar (por ejemplo al cerrar la
+ * aplicación) quedan como huecos: son únicos, no necesariamente consecutivos.
+ */
+public class GeneradorNumeroVenta {
+    private static final int TAMANO_BLOQUE = Integer.getInteger("libreria.venta.bloqueNumeros", 20);
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final GeneradorNumeroVenta instance =
+            new GeneradorNumeroVenta(new SecuenciaVentaDAO(), TAMANO_BLOQUE);
+
+    private final SecuenciaVentaDAO secuenciaDAO;
+    private final int tamanoBloque;
+    private final ReentrantLock recarga = new ReentrantLock();
+    private volatile Bloque bloque;
+
+    GeneradorNumeroVenta(SecuenciaVentaDAO secuenciaDAO, int tamanoBloque) {
+        this.secuenciaDAO = secuenciaDAO;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    public static GeneradorNumeroVenta getInstance() {
+        return instance;
+    }
+
+    public String siguienteNumero() throws SQLException {
+        String fecha = LocalDate.now().format(FORMATO_DIA);
+
+        while (true) {
+            Bloque actual = bloque;
+            if (actual != null && actual.fecha.equals(fecha)) {
+                int numero = actual.siguiente.getAndIncrement();
+                if (numero <= actual.hasta) {
+                    return "V" + fecha + "-" + String.format("%04d", numero);
+                }
+            }
+
+            // Bloque agotado o de otro día: solo un hilo va a la BD
+            recarga.lock();
+            try {
+                if (bloque == actual) {
+                    int hasta = secuenciaDAO.reservarBloque(fecha, tamanoBloque);
+                    bloque = new Bloque(fecha, hasta - tamanoBloque + 1, hasta);
+                }
+            } finally {
+                recarga.unlock();
+            }
+        }
+    }
+
+    /**
+     * Descarta el bloque en memoria (por ejemplo si se vació la BD en los tests)
+     */
+    public void reiniciar() {
+        bloque = null;
+    }
+
+    private static class Bloque {
+        final String fecha;
+        final AtomicInteger siguiente;
+        final int hasta;
+
+        Bloque(String fecha, int desde, int hasta) {
+            this.fecha = fecha;
+            this.siguiente = new AtomicInteger(desde);
+            this.hasta = hasta;
+        }
+    }
+}
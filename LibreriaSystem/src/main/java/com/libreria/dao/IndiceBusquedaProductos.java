@@ -0,0 +1,430 @@
+package com.libreria.dao;
+
+import com.libreria.model.Producto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Índice de búsqueda en memoria sobre código, nombre y categoría.
+ *
+ * - El texto se normaliza (sin tildes, minúsculas, solo letras y dígitos),
+ *   así "cuadérno" encuentra "Cuaderno".
+ * - Cada término de 3 o más letras se resuelve con un índice de trigramas;
+ *   los términos más cortos, por prefijo de palabra.
+ * - Los resultados se ordenan por relevancia (igual, empieza con, inicio de
+ *   palabra, contiene) y se cortan en el límite pedido.
+ *
+ * ProductoCache lo mantiene al día en cada alta, cambio y baja. Las bajas
+ * solo marcan el hueco; el índice se compacta cuando los huecos pasan de la
+ * mitad.
+ */
+public class IndiceBusquedaProductos {
+
+    public enum Campo { TODOS, CODIGO, NOMBRE, CATEGORIA }
+
+    private static final int TAMANO_GRAMA = 3;
+    private static final int MINIMO_PARA_COMPACTAR = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documento = posición fija; null en productos si fue dado de baja
+    private Producto[] productos = new Producto[64];
+    private String[][] textos = new String[64][];
+    private int siguienteDoc = 0;
+    private int eliminados = 0;
+    private final Map<Integer, Integer> docPorId = new HashMap<>();
+
+    // Por cada campo: trigrama -> documentos y palabra -> documentos
+    private final List<Map<String, ListaDocs>> gramas = new ArrayList<>();
+    private final List<TreeMap<String, ListaDocs>> palabras = new ArrayList<>();
+
+    public IndiceBusquedaProductos() {
+        for (int i = 0; i < Campo.values().length; i++) {
+            gramas.add(new HashMap<>());
+            palabras.add(new TreeMap<>());
+        }
+    }
+
+    // ========== MANTENIMIENTO ==========
+
+    /**
+     * Agrega o reemplaza un producto
+     */
+    public void agregar(Producto producto) {
+        lock.writeLock().lock();
+        try {
+            quitarSinBloqueo(producto.getId());
+            indexar(producto);
+            // Cada cambio deja un hueco: sin esto el índice crece con cada venta
+            compactarSiCorresponde();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void quitar(int id) {
+        lock.writeLock().lock();
+        try {
+            quitarSinBloqueo(id);
+            compactarSiCorresponde();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido por la lista dada
+     */
+    public void reconstruir(Collection<Producto> todos) {
+        lock.writeLock().lock();
+        try {
+            vaciar();
+            for (Producto p : todos) {
+                indexar(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void limpiar() {
+        lock.writeLock().lock();
+        try {
+            vaciar();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getTamano() {
+        lock.readLock().lock();
+        try {
+            return docPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documentos ocupados, incluidos los huecos que dejan bajas y cambios
+     */
+    public int getDocumentos() {
+        lock.readLock().lock();
+        try {
+            return siguienteDoc;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== BÚSQUEDA ==========
+
+    public List<Producto> buscar(String texto, Campo campo, int limite) {
+        return buscar(texto, campo, limite, null);
+    }
+
+    /**
+     * Busca los productos cuyo campo contiene todos los términos del texto.
+     * Con texto vacío devuelve los primeros productos del índice.
+     *
+     * @param filtro condición adicional (por ejemplo stock > 0), o null
+     * @return como mucho 'limite' productos, los más relevantes primero
+     *         (son las instancias indexadas: no deben modificarse)
+     */
+    public List<Producto> buscar(String texto, Campo campo, int limite, Predicate<Producto> filtro) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+        String[] terminos = terminos(texto);
+
+        lock.readLock().lock();
+        try {
+            if (terminos.length == 0) {
+                return primeros(limite, filtro);
+            }
+
+            int c = campo.ordinal();
+            int[] candidatos = null;
+            for (String termino : terminos) {
+                int[] docs = documentosDe(termino, c);
+                candidatos = candidatos == null ? docs : interseccion(candidatos, docs, docs.length);
+                if (candidatos.length == 0) {
+                    return new ArrayList<>();
+                }
+            }
+
+            // Montículo con los 'limite' mejores; en la cima, el peor de ellos
+            Comparator<Resultado> orden = Comparator.<Resultado>comparingInt(r -> r.puntaje)
+                    .thenComparing(r -> r.nombre)
+                    .thenComparingInt(r -> r.producto.getId());
+            PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, orden.reversed());
+
+            for (int doc : candidatos) {
+                Producto p = productos[doc];
+                if (p == null || (filtro != null && !filtro.test(p))) {
+                    continue;
+                }
+                int puntaje = puntuar(textos[doc][c], terminos);
+                if (puntaje < 0) {
+                    continue; // los trigramas coinciden pero el texto no lo contiene
+                }
+                mejores.add(new Resultado(p, puntaje, textos[doc][Campo.NOMBRE.ordinal()]));
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+
+            List<Resultado> ordenados = new ArrayList<>(mejores);
+            ordenados.sort(orden);
+            List<Producto> resultado = new ArrayList<>(ordenados.size());
+            for (Resultado r : ordenados) {
+                resultado.add(r.producto);
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quita tildes, pasa a minúsculas y deja solo letras y dígitos separados por un espacio
+     */
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(sinTildes.length());
+        boolean espacio = false;
+        for (int i = 0; i < sinTildes.length(); i++) {
+            char ch = sinTildes.charAt(i);
+            if (Character.getType(ch) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(ch)) {
+                if (espacio && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toLowerCase(ch));
+                espacio = false;
+            } else {
+                espacio = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    // ========== INTERNOS ==========
+
+    private static String[] terminos(String texto) {
+        String normalizado = normalizar(texto);
+        return normalizado.isEmpty() ? new String[0] : normalizado.split(" ");
+    }
+
+    private void indexar(Producto producto) {
+        if (siguienteDoc == productos.length) {
+            productos = Arrays.copyOf(productos, productos.length * 2);
+            textos = Arrays.copyOf(textos, textos.length * 2);
+        }
+        int doc = siguienteDoc++;
+
+        String codigo = normalizar(producto.getCodigo());
+        String nombre = normalizar(producto.getNombre());
+        String categoria = normalizar(producto.getCategoria());
+        String[] porCampo = new String[Campo.values().length];
+        porCampo[Campo.CODIGO.ordinal()] = codigo;
+        porCampo[Campo.NOMBRE.ordinal()] = nombre;
+        porCampo[Campo.CATEGORIA.ordinal()] = categoria;
+        porCampo[Campo.TODOS.ordinal()] = codigo + " " + nombre + " " + categoria;
+
+        productos[doc] = producto;
+        textos[doc] = porCampo;
+        docPorId.put(producto.getId(), doc);
+
+        for (int c = 0; c < porCampo.length; c++) {
+            // Los documentos se agregan en orden creciente: las listas quedan ordenadas
+            String valor = porCampo[c];
+            for (int i = 0; i + TAMANO_GRAMA <= valor.length(); i++) {
+                String grama = valor.substring(i, i + TAMANO_GRAMA);
+                if (grama.indexOf(' ') < 0) {
+                    gramas.get(c).computeIfAbsent(grama, k -> new ListaDocs()).agregar(doc);
+                }
+            }
+            for (String palabra : valor.split(" ")) {
+                if (!palabra.isEmpty()) {
+                    palabras.get(c).computeIfAbsent(palabra, k -> new ListaDocs()).agregar(doc);
+                }
+            }
+        }
+    }
+
+    private void quitarSinBloqueo(int id) {
+        Integer doc = docPorId.remove(id);
+        if (doc != null) {
+            productos[doc] = null;
+            textos[doc] = null;
+            eliminados++;
+        }
+    }
+
+    private void compactarSiCorresponde() {
+        if (eliminados >= MINIMO_PARA_COMPACTAR && eliminados * 2 > siguienteDoc) {
+            compactar();
+        }
+    }
+
+    private void compactar() {
+        List<Producto> vivos = new ArrayList<>(docPorId.size());
+        for (int doc = 0; doc < siguienteDoc; doc++) {
+            if (productos[doc] != null) {
+                vivos.add(productos[doc]);
+            }
+        }
+        vaciar();
+        for (Producto p : vivos) {
+            indexar(p);
+        }
+    }
+
+    private void vaciar() {
+        productos = new Producto[64];
+        textos = new String[64][];
+        siguienteDoc = 0;
+        eliminados = 0;
+        docPorId.clear();
+        for (int c = 0; c < gramas.size(); c++) {
+            gramas.get(c).clear();
+            palabras.get(c).clear();
+        }
+    }
+
+    private int[] documentosDe(String termino, int campo) {
+        if (termino.length() < TAMANO_GRAMA) {
+            // Término corto: unión de las palabras que empiezan con él
+            NavigableMap<String, ListaDocs> conPrefijo =
+                    palabras.get(campo).subMap(termino, true, termino + Character.MAX_VALUE, false);
+            BitSet union = new BitSet(siguienteDoc);
+            for (ListaDocs lista : conPrefijo.values()) {
+                for (int i = 0; i < lista.tamano; i++) {
+                    union.set(lista.docs[i]);
+                }
+            }
+            return union.stream().toArray();
+        }
+
+        List<ListaDocs> listas = new ArrayList<>();
+        for (int i = 0; i + TAMANO_GRAMA <= termino.length(); i++) {
+            ListaDocs lista = gramas.get(campo).get(termino.substring(i, i + TAMANO_GRAMA));
+            if (lista == null) {
+                return new int[0];
+            }
+            listas.add(lista);
+        }
+        // Se parte de la lista más corta para que las intersecciones sean baratas
+        listas.sort(Comparator.comparingInt(l -> l.tamano));
+        int[] resultado = listas.get(0).comoArreglo();
+        for (int i = 1; i < listas.size() && resultado.length > 0; i++) {
+            resultado = interseccion(resultado, listas.get(i).docs, listas.get(i).tamano);
+        }
+        return resultado;
+    }
+
+    /**
+     * Menor es mejor; -1 si algún término no aparece en el texto
+     */
+    private static int puntuar(String valor, String[] terminos) {
+        int total = 0;
+        for (String termino : terminos) {
+            int pos = valor.indexOf(termino);
+            if (pos < 0) {
+                return -1;
+            }
+            if (valor.equals(termino)) {
+                total += 0;
+            } else if (pos == 0) {
+                total += 1;
+            } else if (valor.charAt(pos - 1) == ' ' || valor.contains(" " + termino)) {
+                total += 2;
+            } else {
+                total += 3;
+            }
+        }
+        return total;
+    }
+
+    private List<Producto> primeros(int limite, Predicate<Producto> filtro) {
+        List<Producto> resultado = new ArrayList<>(Math.min(limite, docPorId.size()));
+        for (int doc = 0; doc < siguienteDoc && resultado.size() < limite; doc++) {
+            Producto p = productos[doc];
+            if (p != null && (filtro == null || filtro.test(p))) {
+                resultado.add(p);
+            }
+        }
+        resultado.sort(Comparator.comparingInt(Producto::getId));
+        return resultado;
+    }
+
+    private static int[] interseccion(int[] a, int[] b, int largoB) {
+        int[] salida = new int[Math.min(a.length, largoB)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < largoB) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                salida[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(salida, n);
+    }
+
+    /**
+     * Lista creciente de documentos, sin duplicados consecutivos
+     */
+    private static class ListaDocs {
+        private int[] docs = new int[4];
+        private int tamano = 0;
+
+        void agregar(int doc) {
+            if (tamano > 0 && docs[tamano - 1] == doc) {
+                return;
+            }
+            if (tamano == docs.length) {
+                docs = Arrays.copyOf(docs, tamano * 2);
+            }
+            docs[tamano++] = doc;
+        }
+
+        int[] comoArreglo() {
+            return Arrays.copyOf(docs, tamano);
+        }
+    }
+
+    private static class Resultado {
+        final Producto producto;
+        final int puntaje;
+        final String nombre;
+
+        Resultado(Producto producto, int puntaje, String nombre) {
+            this.producto = producto;
+            this.puntaje = puntaje;
+            this.nombre = nombre;
+        }
+    }
+}
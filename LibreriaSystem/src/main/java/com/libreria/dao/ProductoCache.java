@@ -0,0 +1,246 @@
+package com.libreria.dao;
+
+import com.libreria.model.Producto;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Caché en memoria del catálogo de productos, delante de ProductoDAO.
+ *
+ * - El catálogo completo se carga una vez y se indexa por id y por código.
+ * - ProductoController lo actualiza en cada alta, modificación, baja y
+ *   cambio de stock; además caduca tras ttlMs por si otra caja cambió datos.
+ * - Los productos guardados nunca se modifican: cada cambio reemplaza la
+ *   entrada por una copia, y a quien consulta se le entregan copias.
+ * - Mantiene además el índice de búsqueda (IndiceBusquedaProductos) para
+ *   que los buscadores no recorran el catálogo en cada tecla.
+ */
+public class ProductoCache {
+    private static final long TTL_MS = Long.getLong("libreria.cache.productos.ttlMs", 300_000L);
+
+    private static ProductoCache shared;
+
+    private final ProductoDAO productoDAO;
+    private final long ttlMs;
+
+    private final ConcurrentSkipListMap<Integer, Producto> porId = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Producto> porCodigo = new ConcurrentHashMap<>();
+    private volatile boolean completo = false;
+    private volatile long cargadoEn = System.currentTimeMillis();
+    private volatile List<Producto> listaCompleta = null;
+    private final IndiceBusquedaProductos indice = new IndiceBusquedaProductos();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ProductoCache(ProductoDAO productoDAO) {
+        this(productoDAO, TTL_MS);
+    }
+
+    public ProductoCache(ProductoDAO productoDAO, long ttlMs) {
+        this.productoDAO = productoDAO;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Caché compartido por todos los ProductoController de la aplicación
+     */
+    public static synchronized ProductoCache getShared() {
+        if (shared == null) {
+            shared = new ProductoCache(new ProductoDAO());
+        }
+        return shared;
+    }
+
+    // ========== CONSULTAS ==========
+
+    public List<Producto> obtenerTodos() throws SQLException {
+        List<Producto> lista = listaVigente();
+        List<Producto> copias = new ArrayList<>(lista.size());
+        for (Producto p : lista) {
+            copias.add(new Producto(p));
+        }
+        return copias;
+    }
+
+    public Producto obtenerPorId(int id) throws SQLException {
+        caducarSiCorresponde();
+        Producto producto = porId.get(id);
+        if (producto != null || completo) {
+            // Con el catálogo completo cargado, si no está es que no existe
+            hits.incrementAndGet();
+            return producto != null ? new Producto(producto) : null;
+        }
+
+        misses.incrementAndGet();
+        producto = productoDAO.obtenerPorId(id);
+        if (producto == null) {
+            return null;
+        }
+        indexarSiFalta(new Producto(producto));
+        return producto;
+    }
+
+    public Producto obtenerPorCodigo(String codigo) throws SQLException {
+        if (codigo == null) {
+            return null;
+        }
+        listaVigente();
+        Producto producto = porCodigo.get(codigo);
+        return producto != null ? new Producto(producto) : null;
+    }
+
+    /**
+     * Busca en código, nombre y/o categoría sin importar tildes ni mayúsculas.
+     *
+     * @param filtro condición adicional sobre el producto, o null
+     * @return como mucho 'limite' copias, las más relevantes primero
+     */
+    public List<Producto> buscar(String texto, IndiceBusquedaProductos.Campo campo, int limite,
+                                 Predicate<Producto> filtro) throws SQLException {
+        listaVigente();
+        List<Producto> encontrados = indice.buscar(texto, campo, limite, filtro);
+        List<Producto> copias = new ArrayList<>(encontrados.size());
+        for (Producto p : encontrados) {
+            copias.add(new Producto(p));
+        }
+        return copias;
+    }
+
+    // ========== CAMBIOS (llamados tras escribir en la BD) ==========
+    // Sincronizados entre sí y con invalidar/cargarTodo: dos cajas que venden
+    // el mismo producto no pierden un descuento, y nada se reinserta a mitad
+    // de una recarga.
+
+    /**
+     * Agrega o reemplaza un producto recién guardado
+     */
+    public synchronized void guardar(Producto producto) {
+        Producto anterior = porId.get(producto.getId());
+        if (anterior != null && anterior.getCodigo() != null) {
+            porCodigo.remove(anterior.getCodigo(), anterior);
+        }
+        indexar(new Producto(producto));
+    }
+
+    public synchronized void quitar(int id) {
+        Producto anterior = porId.remove(id);
+        if (anterior != null && anterior.getCodigo() != null) {
+            porCodigo.remove(anterior.getCodigo(), anterior);
+        }
+        indice.quitar(id);
+        listaCompleta = null;
+    }
+
+    /**
+     * Ajusta el stock en memoria (el cambio ya se hizo en la BD)
+     */
+    public synchronized void ajustarStock(int id, int cantidad) {
+        Producto anterior = porId.get(id);
+        if (anterior == null) {
+            return;
+        }
+        Producto nuevo = new Producto(anterior);
+        nuevo.setStock(anterior.getStock() + cantidad);
+        guardar(nuevo);
+    }
+
+    /**
+     * Descarta todo; la próxima consulta vuelve a la BD
+     */
+    public synchronized void invalidar() {
+        porId.clear();
+        porCodigo.clear();
+        indice.limpiar();
+        completo = false;
+        listaCompleta = null;
+        cargadoEn = System.currentTimeMillis();
+    }
+
+    // ========== ESTADÍSTICAS ==========
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getTamano() {
+        return porId.size();
+    }
+
+    // ========== INTERNOS ==========
+
+    private List<Producto> listaVigente() throws SQLException {
+        caducarSiCorresponde();
+        List<Producto> lista = listaCompleta;
+        if (completo && lista != null) {
+            hits.incrementAndGet();
+            return lista;
+        }
+        if (completo) {
+            hits.incrementAndGet();
+            return reconstruirLista();
+        }
+        return cargarTodo();
+    }
+
+    private synchronized List<Producto> cargarTodo() throws SQLException {
+        // Otro hilo pudo cargarlo mientras se esperaba el bloqueo
+        if (completo) {
+            hits.incrementAndGet();
+            return listaCompleta != null ? listaCompleta : reconstruirLista();
+        }
+
+        misses.incrementAndGet();
+        List<Producto> productos = productoDAO.obtenerTodos();
+        porId.clear();
+        porCodigo.clear();
+        indice.limpiar();
+        for (Producto p : productos) {
+            indexar(new Producto(p));
+        }
+        cargadoEn = System.currentTimeMillis();
+        completo = true;
+        return reconstruirLista();
+    }
+
+    private List<Producto> reconstruirLista() {
+        List<Producto> lista = List.copyOf(porId.values());
+        listaCompleta = lista;
+        return lista;
+    }
+
+    /**
+     * Guarda una fila leída de la BD fuera del bloqueo, salvo que mientras
+     * tanto otro hilo ya haya guardado el producto (esa versión es más nueva)
+     */
+    private synchronized void indexarSiFalta(Producto producto) {
+        if (!porId.containsKey(producto.getId())) {
+            indexar(producto);
+        }
+    }
+
+    private void indexar(Producto producto) {
+        porId.put(producto.getId(), producto);
+        if (producto.getCodigo() != null) {
+            porCodigo.put(producto.getCodigo(), producto);
+        }
+        indice.agregar(producto);
+        listaCompleta = null;
+    }
+
+    private void caducarSiCorresponde() {
+        if (ttlMs > 0 && System.currentTimeMillis() - cargadoEn > ttlMs) {
+            invalidar();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.libreria.util.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 public class ProductoDAO implements CrudDAO<Producto> {
@@ -136,6 +137,45 @@ public class ProductoDAO implements CrudDAO<Producto> {
         }
     }
     
+    /**
+     * Descuenta stock de varios productos usando la conexión proporcionada
+     * (NO la cierra ni hace commit; pensado para la transacción de la venta).
+     *
+     * Cada UPDATE solo se aplica si hay stock suficiente, así que dos cajas
+     * vendiendo a la vez nunca dejan el stock en negativo. Los productos se
+     * procesan en orden de id para que las transacciones bloqueen las filas
+     * siempre en el mismo orden.
+     *
+     * @param cantidades cantidad a descontar por id de producto
+     * @return ids de los productos sin stock suficiente (vacía si todo se descontó)
+     */
+    public List<Integer> descontarStock(Map<Integer, Integer> cantidades, Connection conn) throws SQLException {
+        String sql = "UPDATE productos SET stock = stock - ? WHERE id = ? AND stock >= ?";
+        
+        List<Integer> ids = new ArrayList<>(cantidades.keySet());
+        ids.sort(null);
+        
+        List<Integer> sinStock = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Integer id : ids) {
+                int cantidad = cantidades.get(id);
+                stmt.setInt(1, cantidad);
+                stmt.setInt(2, id);
+                stmt.setInt(3, cantidad);
+                stmt.addBatch();
+            }
+            
+            int[] resultados = stmt.executeBatch();
+            for (int i = 0; i < resultados.length; i++) {
+                // 0 filas: no existe el producto o no alcanza el stock
+                if (resultados[i] == 0) {
+                    sinStock.add(ids.get(i));
+                }
+            }
+        }
+        return sinStock;
+    }
+    
  
     public Producto mapearProducto(ResultSet rs) throws SQLException {
         Producto producto = new Producto();
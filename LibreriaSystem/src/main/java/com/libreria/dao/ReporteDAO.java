@@ -5,7 +5,9 @@ import com.libreria.model.Producto;
 import com.libreria.util.DatabaseConnection;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
 
 public class ReporteDAO {
@@ -18,16 +20,21 @@ public class ReporteDAO {
     }
     
     public Map<String, Object> obtenerEstadisticasVentas(LocalDateTime inicio, LocalDateTime fin) throws SQLException {
+        // Días completos: basta con sumar una fila por día del resumen
+        if (inicio.toLocalTime().equals(LocalTime.MIDNIGHT) && !fin.toLocalTime().isBefore(LocalTime.of(23, 59, 59))) {
+            return obtenerEstadisticasVentas(inicio.toLocalDate(), fin.toLocalDate());
+        }
+        
         Map<String, Object> estadisticas = new HashMap<>();
         
         String sql = """
-            SELECT 
+            SELECT
                 COUNT(*) as total_ventas,
                 SUM(total) as monto_total,
                 AVG(total) as promedio_venta,
                 MIN(total) as venta_minima,
                 MAX(total) as venta_maxima
-            FROM ventas 
+            FROM ventas
             WHERE fecha BETWEEN ? AND ?
         """;
         
@@ -51,18 +58,64 @@ public class ReporteDAO {
         return estadisticas;
     }
     
+    /**
+     * Estadísticas de los días desde..hasta (inclusive), leídas de resumen_ventas_diario
+     */
+    public Map<String, Object> obtenerEstadisticasVentas(LocalDate desde, LocalDate hasta) throws SQLException {
+        Map<String, Object> estadisticas = new HashMap<>();
+        
+        String sql = """
+            SELECT
+                SUM(num_ventas) as total_ventas,
+                SUM(ingresos) as monto_total,
+                MIN(venta_minima) as venta_minima,
+                MAX(venta_maxima) as venta_maxima
+            FROM resumen_ventas_diario
+            WHERE fecha BETWEEN ? AND ?
+        """;
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, java.sql.Date.valueOf(desde));
+            stmt.setDate(2, java.sql.Date.valueOf(hasta));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int totalVentas = rs.getInt("total_ventas");
+                    double montoTotal = rs.getDouble("monto_total");
+                    estadisticas.put("totalVentas", totalVentas);
+                    estadisticas.put("montoTotal", montoTotal);
+                    estadisticas.put("promedioVenta", totalVentas > 0 ? montoTotal / totalVentas : 0.0);
+                    estadisticas.put("ventaMinima", rs.getDouble("venta_minima"));
+                    estadisticas.put("ventaMaxima", rs.getDouble("venta_maxima"));
+                }
+            }
+        }
+        
+        return estadisticas;
+    }
+    
     public List<Map<String, Object>> obtenerProductosMasVendidos(int limite) throws SQLException {
+        return obtenerProductosMasVendidos(limite, null, null);
+    }
+    
+    /**
+     * Productos más vendidos entre desde y hasta (null = sin límite), desde resumen_ventas_producto
+     */
+    public List<Map<String, Object>> obtenerProductosMasVendidos(int limite, LocalDate desde, LocalDate hasta) throws SQLException {
         List<Map<String, Object>> productos = new ArrayList<>();
         
         String sql = """
-            SELECT 
+            SELECT
                 p.id,
                 p.codigo,
                 p.nombre,
-                SUM(d.cantidad) as total_vendido,
-                SUM(d.cantidad * d.precio_unitario) as total_ingresos
-            FROM productos p
-            JOIN detalles_venta d ON p.id = d.producto_id
+                SUM(r.unidades) as total_vendido,
+                SUM(r.ingresos) as total_ingresos
+            FROM resumen_ventas_producto r
+            JOIN productos p ON p.id = r.producto_id
+        """ + filtroFechas(desde, hasta) + """
             GROUP BY p.id, p.codigo, p.nombre
             ORDER BY total_vendido DESC
             LIMIT ?
@@ -71,7 +124,8 @@ public class ReporteDAO {
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, limite);
+            int i = asignarFechas(stmt, desde, hasta);
+            stmt.setInt(i, limite);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -90,38 +144,103 @@ public class ReporteDAO {
     }
     
     public List<Map<String, Object>> obtenerVentasPorCategoria() throws SQLException {
+        return obtenerVentasPorCategoria(null, null);
+    }
+    
+    /**
+     * Ventas por categoría entre desde y hasta (null = sin límite), desde resumen_ventas_categoria
+     */
+    public List<Map<String, Object>> obtenerVentasPorCategoria(LocalDate desde, LocalDate hasta) throws SQLException {
         List<Map<String, Object>> ventas = new ArrayList<>();
         
         String sql = """
-            SELECT 
-                p.categoria,
-                COUNT(DISTINCT v.id) as total_ventas,
-                SUM(d.cantidad) as total_unidades,
-                SUM(d.cantidad * d.precio_unitario) as total_ingresos
-            FROM productos p
-            JOIN detalles_venta d ON p.id = d.producto_id
-            JOIN ventas v ON d.venta_id = v.id
-            GROUP BY p.categoria
+            SELECT
+                categoria,
+                SUM(num_ventas) as total_ventas,
+                SUM(unidades) as total_unidades,
+                SUM(ingresos) as total_ingresos
+            FROM resumen_ventas_categoria
+        """ + filtroFechas(desde, hasta) + """
+            GROUP BY categoria
             ORDER BY total_ingresos DESC
         """;
         
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            while (rs.next()) {
-                Map<String, Object> categoria = new HashMap<>();
-                categoria.put("categoria", rs.getString("categoria"));
-                categoria.put("totalVentas", rs.getInt("total_ventas"));
-                categoria.put("totalUnidades", rs.getInt("total_unidades"));
-                categoria.put("totalIngresos", rs.getDouble("total_ingresos"));
-                ventas.add(categoria);
+            asignarFechas(stmt, desde, hasta);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> categoria = new HashMap<>();
+                    categoria.put("categoria", rs.getString("categoria"));
+                    categoria.put("totalVentas", rs.getInt("total_ventas"));
+                    categoria.put("totalUnidades", rs.getInt("total_unidades"));
+                    categoria.put("totalIngresos", rs.getDouble("total_ingresos"));
+                    ventas.add(categoria);
+                }
             }
         }
         
         return ventas;
     }
     
+    private String filtroFechas(LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null) {
+            return " WHERE fecha BETWEEN ? AND ?";
+        } else if (desde != null) {
+            return " WHERE fecha >= ?";
+        } else if (hasta != null) {
+            return " WHERE fecha <= ?";
+        }
+        return "";
+    }
+    
+    /**
+     * Asigna las fechas no nulas y devuelve el índice del siguiente parámetro
+     */
+    private int asignarFechas(PreparedStatement stmt, LocalDate desde, LocalDate hasta) throws SQLException {
+        int i = 1;
+        if (desde != null) {
+            stmt.setDate(i++, java.sql.Date.valueOf(desde));
+        }
+        if (hasta != null) {
+            stmt.setDate(i++, java.sql.Date.valueOf(hasta));
+        }
+        return i;
+    }
+    
+    /**
+     * Cifras del inventario en una sola consulta: totalProductos, totalStock,
+     * categorias (distintas, sin contar vacías) y valorInventario (precio * stock)
+     */
+    public Map<String, Object> obtenerResumenInventario() throws SQLException {
+        Map<String, Object> resumen = new HashMap<>();
+        
+        String sql = """
+            SELECT
+                COUNT(*) as total_productos,
+                COALESCE(SUM(stock), 0) as total_stock,
+                COUNT(DISTINCT NULLIF(categoria, '')) as categorias,
+                COALESCE(SUM(precio * stock), 0) as valor_inventario
+            FROM productos
+        """;
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            if (rs.next()) {
+                resumen.put("totalProductos", rs.getInt("total_productos"));
+                resumen.put("totalStock", rs.getLong("total_stock"));
+                resumen.put("categorias", rs.getInt("categorias"));
+                resumen.put("valorInventario", rs.getDouble("valor_inventario"));
+            }
+        }
+        
+        return resumen;
+    }
+    
     public List<Producto> obtenerProductosBajoStock(int umbral) throws SQLException {
         List<Producto> productos = new ArrayList<>();
         String sql = "SELECT * FROM productos WHERE stock <= ? ORDER BY stock ASC";
@@ -146,7 +265,7 @@ public class ReporteDAO {
         Map<String, Double> rendimiento = new HashMap<>();
         
         String sql = """
-            SELECT 
+            SELECT
                 COUNT(DISTINCT v.id) as frecuencia_venta,
                 AVG(d.cantidad) as promedio_cantidad,
                 SUM(d.cantidad * d.precio_unitario) as total_ingresos
@@ -0,0 +1,52 @@
+package com.libreria.dao;
+
+import com.libreria.model.Producto;
+import com.libreria.util.EjecutorConsultas;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Consultas de ReporteDAO en versión asíncrona (ver DAOAsincrono), para que
+ * el dashboard y los reportes pidan varias a la vez
+ */
+public class ReporteDAOAsincrono {
+    private final ReporteDAO reporteDAO;
+    private final EjecutorConsultas ejecutor;
+
+    public ReporteDAOAsincrono() {
+        this(new ReporteDAO(), EjecutorConsultas.getCompartido());
+    }
+
+    public ReporteDAOAsincrono(ReporteDAO reporteDAO, EjecutorConsultas ejecutor) {
+        this.reporteDAO = reporteDAO;
+        this.ejecutor = ejecutor;
+    }
+
+    public CompletableFuture<Map<String, Object>> obtenerEstadisticasVentas(LocalDate desde, LocalDate hasta) {
+        return ejecutar(() -> reporteDAO.obtenerEstadisticasVentas(desde, hasta));
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> obtenerProductosMasVendidos(int limite) {
+        return ejecutar(() -> reporteDAO.obtenerProductosMasVendidos(limite));
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> obtenerVentasPorCategoria(LocalDate desde, LocalDate hasta) {
+        return ejecutar(() -> reporteDAO.obtenerVentasPorCategoria(desde, hasta));
+    }
+
+    public CompletableFuture<Map<String, Object>> obtenerResumenInventario() {
+        return ejecutar(reporteDAO::obtenerResumenInventario);
+    }
+
+    public CompletableFuture<List<Producto>> obtenerProductosBajoStock(int umbral) {
+        return ejecutar(() -> reporteDAO.obtenerProductosBajoStock(umbral));
+    }
+
+    public <R> CompletableFuture<R> ejecutar(Callable<R> consulta) {
+        return ejecutor.ejecutar(consulta);
+    }
+}
@@ -0,0 +1,212 @@
+package com.libreria.dao;
+
+import com.libreria.model.DetalleVenta;
+import com.libreria.model.Venta;
+import com.libreria.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Totales de ventas pre-agregados por día, por producto y por categoría
+ * (tablas resumen_ventas_diario, resumen_ventas_producto y
+ * resumen_ventas_categoria).
+ *
+ * VentaDAO.crear los suma en la misma transacción que la venta, así que los
+ * reportes leen una fila por día en lugar de recorrer todos los detalles.
+ * reconstruir() los vuelve a calcular desde ventas/detalles_venta: sirve
+ * para llenarlos la primera vez o corregirlos (ver ReconstruirResumenVentas).
+ * La categoría se toma del producto al momento de calcular.
+ */
+public class ResumenVentasDAO {
+
+    private static final String SUMAR_DIARIO = """
+        INSERT INTO resumen_ventas_diario (fecha, num_ventas, unidades, ingresos, venta_minima, venta_maxima)
+        VALUES (?, 1, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            num_ventas = num_ventas + 1,
+            unidades = unidades + VALUES(unidades),
+            ingresos = ingresos + VALUES(ingresos),
+            venta_minima = LEAST(venta_minima, VALUES(venta_minima)),
+            venta_maxima = GREATEST(venta_maxima, VALUES(venta_maxima))
+    """;
+
+    private static final String SUMAR_PRODUCTO = """
+        INSERT INTO resumen_ventas_producto (fecha, producto_id, num_ventas, unidades, ingresos)
+        VALUES (?, ?, 1, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            num_ventas = num_ventas + 1,
+            unidades = unidades + VALUES(unidades),
+            ingresos = ingresos + VALUES(ingresos)
+    """;
+
+    private static final String SUMAR_CATEGORIA = """
+        INSERT INTO resumen_ventas_categoria (fecha, categoria, num_ventas, unidades, ingresos)
+        VALUES (?, ?, 1, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            num_ventas = num_ventas + 1,
+            unidades = unidades + VALUES(unidades),
+            ingresos = ingresos + VALUES(ingresos)
+    """;
+
+    // Categoría de cada producto de la venta, ya guardada en detalles_venta
+    private static final String CATEGORIAS_DE_VENTA = """
+        SELECT p.categoria, SUM(d.cantidad) AS unidades, SUM(d.cantidad * d.precio_unitario) AS ingresos
+        FROM detalles_venta d
+        JOIN productos p ON p.id = d.producto_id
+        WHERE d.venta_id = ?
+        GROUP BY p.categoria
+    """;
+
+    /**
+     * Suma una venta recién insertada (con sus detalles) a los resúmenes.
+     * Usa la conexión y la transacción de la venta; conviene llamarlo al
+     * final, porque la fila del día queda bloqueada hasta el commit.
+     */
+    public void registrarVenta(Venta venta, Connection conn) throws SQLException {
+        Date fecha = Date.valueOf(venta.getFecha().toLocalDate());
+
+        // Una venta puede traer el mismo producto en varias líneas
+        Map<Integer, double[]> porProducto = new LinkedHashMap<>();
+        int unidades = 0;
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            double[] acumulado = porProducto.computeIfAbsent(detalle.getProducto().getId(), k -> new double[2]);
+            acumulado[0] += detalle.getCantidad();
+            acumulado[1] += detalle.getSubtotal();
+            unidades += detalle.getCantidad();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SUMAR_DIARIO)) {
+            stmt.setDate(1, fecha);
+            stmt.setInt(2, unidades);
+            stmt.setDouble(3, venta.getTotal());
+            stmt.setDouble(4, venta.getTotal());
+            stmt.setDouble(5, venta.getTotal());
+            stmt.executeUpdate();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SUMAR_PRODUCTO)) {
+            for (Map.Entry<Integer, double[]> entry : porProducto.entrySet()) {
+                stmt.setDate(1, fecha);
+                stmt.setInt(2, entry.getKey());
+                stmt.setInt(3, (int) entry.getValue()[0]);
+                stmt.setDouble(4, entry.getValue()[1]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement consulta = conn.prepareStatement(CATEGORIAS_DE_VENTA);
+             PreparedStatement stmt = conn.prepareStatement(SUMAR_CATEGORIA)) {
+            consulta.setInt(1, venta.getId());
+            try (ResultSet rs = consulta.executeQuery()) {
+                while (rs.next()) {
+                    stmt.setDate(1, fecha);
+                    stmt.setString(2, rs.getString("categoria"));
+                    stmt.setInt(3, rs.getInt("unidades"));
+                    stmt.setDouble(4, rs.getDouble("ingresos"));
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Recalcula todos los resúmenes desde el historial completo
+     */
+    public void reconstruir() throws SQLException {
+        reconstruir(null, null);
+    }
+
+    /**
+     * Recalcula los resúmenes de los días entre desde y hasta (inclusive).
+     * Con null en un extremo, el rango queda abierto por ese lado.
+     */
+    public void reconstruir(LocalDate desde, LocalDate hasta) throws SQLException {
+        String filtroResumen = filtro("fecha", desde, hasta);
+        String filtroVentas = filtro("v.fecha", desde, hasta);
+
+        String sqlDiario = """
+            INSERT INTO resumen_ventas_diario (fecha, num_ventas, unidades, ingresos, venta_minima, venta_maxima)
+            SELECT CAST(v.fecha AS DATE), COUNT(*), COALESCE(SUM(u.unidades), 0),
+                   SUM(v.total), MIN(v.total), MAX(v.total)
+            FROM ventas v
+            LEFT JOIN (SELECT venta_id, SUM(cantidad) AS unidades FROM detalles_venta GROUP BY venta_id) u
+                ON u.venta_id = v.id
+        """ + filtroVentas + " GROUP BY CAST(v.fecha AS DATE)";
+
+        String sqlProducto = """
+            INSERT INTO resumen_ventas_producto (fecha, producto_id, num_ventas, unidades, ingresos)
+            SELECT CAST(v.fecha AS DATE), d.producto_id, COUNT(DISTINCT v.id),
+                   SUM(d.cantidad), SUM(d.cantidad * d.precio_unitario)
+            FROM ventas v
+            JOIN detalles_venta d ON d.venta_id = v.id
+        """ + filtroVentas + " GROUP BY CAST(v.fecha AS DATE), d.producto_id";
+
+        String sqlCategoria = """
+            INSERT INTO resumen_ventas_categoria (fecha, categoria, num_ventas, unidades, ingresos)
+            SELECT CAST(v.fecha AS DATE), p.categoria, COUNT(DISTINCT v.id),
+                   SUM(d.cantidad), SUM(d.cantidad * d.precio_unitario)
+            FROM ventas v
+            JOIN detalles_venta d ON d.venta_id = v.id
+            JOIN productos p ON p.id = d.producto_id
+        """ + filtroVentas + " GROUP BY CAST(v.fecha AS DATE), p.categoria";
+
+        Connection conn = DatabaseConnection.getConnection();
+        boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
+
+        try {
+            conn.setAutoCommit(false);
+
+            for (String tabla : new String[]{"resumen_ventas_diario", "resumen_ventas_producto", "resumen_ventas_categoria"}) {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + tabla + filtroResumen)) {
+                    asignarRango(stmt, desde, hasta);
+                    stmt.executeUpdate();
+                }
+            }
+            for (String sql : new String[]{sqlDiario, sqlProducto, sqlCategoria}) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    asignarRango(stmt, desde, hasta);
+                    stmt.executeUpdate();
+                }
+            }
+
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+            if (shouldCloseConnection && conn != null) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * WHERE por rango de días; en ventas (DATETIME) el fin es exclusivo al día siguiente
+     */
+    private String filtro(String columna, LocalDate desde, LocalDate hasta) {
+        StringBuilder sb = new StringBuilder();
+        if (desde != null) {
+            sb.append(" WHERE ").append(columna).append(" >= ?");
+        }
+        if (hasta != null) {
+            sb.append(desde != null ? " AND " : " WHERE ").append(columna).append(" < ?");
+        }
+        return sb.toString();
+    }
+
+    private void asignarRango(PreparedStatement stmt, LocalDate desde, LocalDate hasta) throws SQLException {
+        int i = 1;
+        if (desde != null) {
+            stmt.setDate(i++, Date.valueOf(desde));
+        }
+        if (hasta != null) {
+            stmt.setDate(i, Date.valueOf(hasta.plusDays(1)));
+        }
+    }
+}
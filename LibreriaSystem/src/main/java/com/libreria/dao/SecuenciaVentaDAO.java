@@ -0,0 +1,117 @@
+package com.libreria.dao;
+
+import com.libreria.util.DatabaseConnection;
+
+import java.sql.*;
+
+/**
+ * Contador de números de venta por día (tabla secuencias_venta).
+ *
+ * Cada llamada reserva un bloque de números con un UPDATE atómico sobre la
+ * fila del día, en una transacción corta y propia. Así varias cajas (varias
+ * JVM) nunca reciben el mismo número y no hace falta recorrer ventas.
+ */
+public class SecuenciaVentaDAO {
+
+    /**
+     * Reserva los siguientes 'tamano' números del día.
+     *
+     * @param fecha día en formato yyyyMMdd
+     * @param tamano cantidad de números a reservar
+     * @return último número del bloque reservado (el bloque es [ultimo - tamano + 1, ultimo])
+     */
+    public int reservarBloque(String fecha, int tamano) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
+        // Si ya hay una transacción abierta en esta conexión, se participa en ella
+        boolean transaccionPropia = conn.getAutoCommit();
+
+        try {
+            if (transaccionPropia) {
+                conn.setAutoCommit(false);
+            }
+
+            if (incrementar(conn, fecha, tamano) == 0) {
+                // Primera venta del día: crear la fila partiendo del último número ya usado
+                sembrar(conn, fecha);
+                if (incrementar(conn, fecha, tamano) == 0) {
+                    throw new SQLException("No se pudo reservar números de venta para " + fecha);
+                }
+            }
+            int ultimo = leerUltimo(conn, fecha);
+
+            if (transaccionPropia) {
+                conn.commit();
+            }
+            return ultimo;
+        } catch (SQLException e) {
+            if (transaccionPropia) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            if (transaccionPropia) {
+                conn.setAutoCommit(true);
+            }
+            if (shouldCloseConnection && conn != null) {
+                conn.close();
+            }
+        }
+    }
+
+    private int incrementar(Connection conn, String fecha, int tamano) throws SQLException {
+        String sql = "UPDATE secuencias_venta SET ultimo = ultimo + ? WHERE fecha = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, tamano);
+            stmt.setString(2, fecha);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private int leerUltimo(Connection conn, String fecha) throws SQLException {
+        String sql = "SELECT ultimo FROM secuencias_venta WHERE fecha = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, fecha);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("No existe la secuencia de ventas para " + fecha);
+    }
+
+    /**
+     * Crea la fila del día. Parte del último número de ese día que ya exista
+     * en ventas (datos anteriores a esta tabla); solo ocurre una vez por día.
+     */
+    private void sembrar(Connection conn, String fecha) throws SQLException {
+        int inicial = 0;
+        String sqlUltimo = "SELECT numero_venta FROM ventas WHERE numero_venta LIKE ? ORDER BY numero_venta DESC LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlUltimo)) {
+            stmt.setString(1, "V" + fecha + "-%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    String[] parts = rs.getString(1).split("-");
+                    try {
+                        inicial = Integer.parseInt(parts[1]);
+                    } catch (Exception ex) {
+                        inicial = 0;
+                    }
+                }
+            }
+        }
+
+        String sql = "INSERT INTO secuencias_venta (fecha, ultimo) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, fecha);
+            stmt.setInt(2, inicial);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            // Otra caja creó la fila al mismo tiempo (clave duplicada): se usa esa
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+        }
+    }
+}
@@ -2,37 +2,53 @@ package com.libreria.dao;
 
 import com.libreria.model.Venta;
 import com.libreria.model.DetalleVenta;
+import com.libreria.model.PaginaVentas;
+import com.libreria.model.Producto;
+import com.libreria.model.VentaResumen;
 import com.libreria.util.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.time.LocalDateTime;
 
 
 public class VentaDAO implements CrudDAO<Venta> {
+    // Filas por viaje al servidor al recorrer con cursor (fuera de MySQL)
+    private static final int FILAS_POR_LECTURA = 500;
+    
     private final DetalleVentaDAO detalleVentaDAO;
     private final ProductoDAO productoDAO;
+    private final ResumenVentasDAO resumenVentasDAO;
     
     public VentaDAO() {
         this.detalleVentaDAO = new DetalleVentaDAO();
         this.productoDAO = new ProductoDAO();
+        this.resumenVentasDAO = new ResumenVentasDAO();
     }
     
     @Override
     public void crear(Venta venta) throws SQLException {
         String sql = "INSERT INTO ventas (numero_venta, fecha, total, metodo_pago) VALUES (?, ?, ?, ?)";
         
+        // Generar número de venta si no tiene (fuera de la transacción de la venta)
+        if (venta.getNumeroVenta() == null || venta.getNumeroVenta().isEmpty()) {
+            venta.setNumeroVenta(generarNumeroVenta());
+        }
+        
         Connection conn = DatabaseConnection.getConnection();
         boolean shouldCloseConnection = !DatabaseConnection.isTestMode(); // ← CAMBIO CLAVE
         
         try {
             conn.setAutoCommit(false);
             
-            // Generar número de venta si no tiene
-            if (venta.getNumeroVenta() == null || venta.getNumeroVenta().isEmpty()) {
-                venta.setNumeroVenta(generarNumeroVenta());
-            }
+            // Reservar stock en la misma transacción que la venta
+            descontarStock(venta, conn);
             
             // Insertar venta
             try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -48,11 +64,14 @@ public class VentaDAO implements CrudDAO<Venta> {
                     if (generatedKeys.next()) {
                         venta.setId(generatedKeys.getInt(1));
 
-                        // Insertar detalles usando la misma conexión
+                        // Insertar detalles en lote usando la misma conexión
                         for (DetalleVenta detalle : venta.getDetalles()) {
                             detalle.setVenta(venta);
-                            detalleVentaDAO.crear(detalle, conn);
                         }
+                        detalleVentaDAO.crearLote(venta.getDetalles(), conn);
+
+                        // Sumar a los resúmenes de reportes (al final: bloquea la fila del día)
+                        resumenVentasDAO.registrarVenta(venta, conn);
 
                         conn.commit();
                     } else {
@@ -87,7 +106,7 @@ public class VentaDAO implements CrudDAO<Venta> {
                     if (rs.next()) {
                         Venta venta = mapearVenta(rs);
                         // Cargar detalles con productos completos
-                        cargarDetallesConProductos(venta);
+                        cargarDetalles(conn, List.of(venta));
                         return venta;
                     }
                 }
@@ -113,11 +132,10 @@ public class VentaDAO implements CrudDAO<Venta> {
                  ResultSet rs = stmt.executeQuery(sql)) {
                 
                 while (rs.next()) {
-                    Venta venta = mapearVenta(rs);
-                    cargarDetallesConProductos(venta);
-                    ventas.add(venta);
+                    ventas.add(mapearVenta(rs));
                 }
             }
+            cargarDetalles(conn, ventas);
             return ventas;
         } finally {
             if (shouldCloseConnection && conn != null) {
@@ -151,12 +169,11 @@ public class VentaDAO implements CrudDAO<Venta> {
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        Venta venta = mapearVenta(rs);
-                        cargarDetallesConProductos(venta);
-                        ventas.add(venta);
+                        ventas.add(mapearVenta(rs));
                     }
                 }
             }
+            cargarDetalles(conn, ventas);
             return ventas;
         } finally {
             if (shouldCloseConnection && conn != null) {
@@ -165,34 +182,186 @@ public class VentaDAO implements CrudDAO<Venta> {
         }
     }
 
+    /**
+     * Suma de los totales de las ventas entre inicio y fin, calculada en la BD
+     */
+    public double sumarTotales(LocalDateTime inicio, LocalDateTime fin) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(total), 0) FROM ventas WHERE fecha BETWEEN ? AND ?";
+        
+        Connection conn = DatabaseConnection.getConnection();
+        boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
+        
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(inicio));
+                stmt.setTimestamp(2, Timestamp.valueOf(fin));
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getDouble(1) : 0.0;
+                }
+            }
+        } finally {
+            if (shouldCloseConnection && conn != null) {
+                conn.close();
+            }
+        }
+    }
 
-    public synchronized String generarNumeroVenta() throws SQLException {
-        LocalDateTime ahora = LocalDateTime.now();
-        String fecha = ahora.format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String like = "V" + fecha + "-%";
-
-        String sql = "SELECT numero_venta FROM ventas WHERE numero_venta LIKE ? ORDER BY numero_venta DESC LIMIT 1";
+    /**
+     * Lista solo las cabeceras de todas las ventas (una consulta, sin detalles)
+     */
+    public List<VentaResumen> obtenerResumenes() throws SQLException {
+        List<VentaResumen> resumenes = new ArrayList<>();
+        String sql = "SELECT id, numero_venta, fecha, metodo_pago, total FROM ventas ORDER BY fecha DESC";
+        
+        Connection conn = DatabaseConnection.getConnection();
+        boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
+        
+        try {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                
+                while (rs.next()) {
+                    resumenes.add(mapearResumen(rs));
+                }
+            }
+            return resumenes;
+        } finally {
+            if (shouldCloseConnection && conn != null) {
+                conn.close();
+            }
+        }
+    }
+    
+    /**
+     * Lista solo las cabeceras de las ventas de un rango de fechas
+     */
+    public List<VentaResumen> obtenerResumenesPorFecha(LocalDateTime inicio, LocalDateTime fin) throws SQLException {
+        List<VentaResumen> resumenes = new ArrayList<>();
+        String sql = "SELECT id, numero_venta, fecha, metodo_pago, total FROM ventas "
+                + "WHERE fecha BETWEEN ? AND ? ORDER BY fecha DESC";
         
         Connection conn = DatabaseConnection.getConnection();
         boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
         
         try {
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, like);
+                stmt.setTimestamp(1, Timestamp.valueOf(inicio));
+                stmt.setTimestamp(2, Timestamp.valueOf(fin));
+                
                 try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        String last = rs.getString(1);
-                        String[] parts = last.split("-");
-                        try {
-                            int n = Integer.parseInt(parts[1]);
-                            return "V" + fecha + "-" + String.format("%04d", n + 1);
-                        } catch (Exception ex) {
-                            return "V" + fecha + "-0001";
+                    while (rs.next()) {
+                        resumenes.add(mapearResumen(rs));
+                    }
+                }
+            }
+            return resumenes;
+        } finally {
+            if (shouldCloseConnection && conn != null) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Recorre las cabeceras de un rango de fechas sin cargarlas en una lista:
+     * cada fila se entrega al consumidor apenas se lee. Pensado para
+     * exportaciones grandes; en MySQL el driver trae las filas de a una
+     * (fetchSize Integer.MIN_VALUE) en lugar de todo el resultado.
+     *
+     * @return cantidad de ventas recorridas
+     */
+    public int recorrerResumenesPorFecha(LocalDateTime inicio, LocalDateTime fin,
+                                         Consumer<VentaResumen> consumidor) throws SQLException {
+        String sql = "SELECT id, numero_venta, fecha, metodo_pago, total FROM ventas "
+                + "WHERE fecha BETWEEN ? AND ? ORDER BY fecha DESC";
+        
+        Connection conn = DatabaseConnection.getConnection();
+        boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
+        
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(esMySQL(conn) ? Integer.MIN_VALUE : FILAS_POR_LECTURA);
+                stmt.setTimestamp(1, Timestamp.valueOf(inicio));
+                stmt.setTimestamp(2, Timestamp.valueOf(fin));
+                
+                int cantidad = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        aceptarOCortar(stmt, () -> consumidor.accept(mapearResumen(rs)));
+                        cantidad++;
+                    }
+                }
+                return cantidad;
+            }
+        } finally {
+            if (shouldCloseConnection && conn != null) {
+                conn.close();
+            }
+        }
+    }
+    
+    /**
+     * Recorre las líneas de venta de un rango de fechas junto con la cabecera
+     * de su venta, con el mismo cursor de solo avance que
+     * recorrerResumenesPorFecha. El producto trae solo id, código, nombre y
+     * categoría; es null si fue eliminado.
+     *
+     * @return cantidad de líneas recorridas
+     */
+    public int recorrerDetallesPorFecha(LocalDateTime inicio, LocalDateTime fin,
+                                        BiConsumer<VentaResumen, DetalleVenta> consumidor) throws SQLException {
+        String sql = """
+            SELECT v.id, v.numero_venta, v.fecha, v.metodo_pago, v.total,
+                   d.id AS detalle_id, d.producto_id, d.cantidad, d.precio_unitario,
+                   p.codigo AS p_codigo, p.nombre AS p_nombre, p.categoria AS p_categoria
+            FROM ventas v
+            JOIN detalles_venta d ON d.venta_id = v.id
+            LEFT JOIN productos p ON p.id = d.producto_id
+            WHERE v.fecha BETWEEN ? AND ?
+            ORDER BY v.fecha DESC, v.id DESC, d.id
+        """;
+        
+        Connection conn = DatabaseConnection.getConnection();
+        boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
+        
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(esMySQL(conn) ? Integer.MIN_VALUE : FILAS_POR_LECTURA);
+                stmt.setTimestamp(1, Timestamp.valueOf(inicio));
+                stmt.setTimestamp(2, Timestamp.valueOf(fin));
+                
+                int cantidad = 0;
+                VentaResumen venta = null;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Las líneas de una venta llegan seguidas: se reutiliza su cabecera
+                        if (venta == null || venta.getId() != rs.getInt("id")) {
+                            venta = mapearResumen(rs);
                         }
-                    } else {
-                        return "V" + fecha + "-0001";
+                        
+                        DetalleVenta detalle = new DetalleVenta();
+                        detalle.setId(rs.getInt("detalle_id"));
+                        detalle.setCantidad(rs.getInt("cantidad"));
+                        detalle.setPrecioUnitario(rs.getDouble("precio_unitario"));
+                        String codigo = rs.getString("p_codigo");
+                        if (codigo != null) {
+                            Producto producto = new Producto();
+                            producto.setId(rs.getInt("producto_id"));
+                            producto.setCodigo(codigo);
+                            producto.setNombre(rs.getString("p_nombre"));
+                            producto.setCategoria(rs.getString("p_categoria"));
+                            detalle.setProducto(producto);
+                        }
+                        
+                        VentaResumen cabecera = venta;
+                        aceptarOCortar(stmt, () -> consumidor.accept(cabecera, detalle));
+                        cantidad++;
                     }
                 }
+                return cantidad;
             }
         } finally {
             if (shouldCloseConnection && conn != null) {
@@ -201,18 +370,177 @@ public class VentaDAO implements CrudDAO<Venta> {
         }
     }
     
+    @FunctionalInterface
+    private interface Entrega {
+        void ejecutar() throws SQLException;
+    }
+
+    /**
+     * Entrega la fila al consumidor; si este corta el recorrido (por ejemplo
+     * una exportación cancelada) se cancela la sentencia antes de cerrar el
+     * ResultSet. Con el streaming de MySQL, cerrar sin cancelar obliga al
+     * driver a leer todas las filas que faltan antes de soltar la conexión.
+     */
+    private static void aceptarOCortar(Statement stmt, Entrega entrega) throws SQLException {
+        try {
+            entrega.ejecutar();
+        } catch (RuntimeException | Error e) {
+            try {
+                stmt.cancel();
+            } catch (SQLException cancelError) {
+                e.addSuppressed(cancelError);
+            }
+            throw e;
+        }
+    }
 
-    private void cargarDetallesConProductos(Venta venta) throws SQLException {
-        List<DetalleVenta> detalles = detalleVentaDAO.obtenerPorVenta(venta.getId());
+    // El streaming fila a fila con Integer.MIN_VALUE es propio de Connector/J
+    private boolean esMySQL(Connection conn) throws SQLException {
+        String url = conn.getMetaData().getURL();
+        return url != null && url.startsWith("jdbc:mysql:");
+    }
+
+    /**
+     * Obtiene una página de cabeceras con paginación por cursor (fecha, id).
+     * Cada página cuesta lo mismo sin importar cuántas ventas haya antes,
+     * a diferencia de OFFSET.
+     *
+     * @param inicio inicio del rango, o null para no filtrar por fecha
+     * @param fin fin del rango, o null para no filtrar por fecha
+     * @param despuesDe última venta de la página anterior, o null para la primera página
+     * @param tamano cantidad de ventas por página
+     * @param contarTotal si además se cuenta el total de ventas del filtro
+     */
+    public PaginaVentas obtenerPagina(LocalDateTime inicio, LocalDateTime fin, VentaResumen despuesDe,
+                                      int tamano, boolean contarTotal) throws SQLException {
+        boolean porFecha = inicio != null && fin != null;
         
-        // Cargar información completa del producto para cada detalle
-        for (DetalleVenta detalle : detalles) {
-            if (detalle.getProducto() != null && detalle.getProducto().getId() > 0) {
-                detalle.setProducto(productoDAO.obtenerPorId(detalle.getProducto().getId()));
+        StringBuilder sql = new StringBuilder("SELECT id, numero_venta, fecha, metodo_pago, total FROM ventas WHERE 1 = 1");
+        if (porFecha) {
+            sql.append(" AND fecha BETWEEN ? AND ?");
+        }
+        if (despuesDe != null) {
+            sql.append(" AND (fecha < ? OR (fecha = ? AND id < ?))");
+        }
+        // Se pide una fila de más para saber si hay página siguiente
+        sql.append(" ORDER BY fecha DESC, id DESC LIMIT ?");
+        
+        Connection conn = DatabaseConnection.getConnection();
+        boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
+        
+        try {
+            List<VentaResumen> resumenes = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                int i = 1;
+                if (porFecha) {
+                    stmt.setTimestamp(i++, Timestamp.valueOf(inicio));
+                    stmt.setTimestamp(i++, Timestamp.valueOf(fin));
+                }
+                if (despuesDe != null) {
+                    Timestamp fechaCursor = Timestamp.valueOf(despuesDe.getFecha());
+                    stmt.setTimestamp(i++, fechaCursor);
+                    stmt.setTimestamp(i++, fechaCursor);
+                    stmt.setInt(i++, despuesDe.getId());
+                }
+                stmt.setInt(i, tamano + 1);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        resumenes.add(mapearResumen(rs));
+                    }
+                }
+            }
+            
+            boolean haySiguiente = resumenes.size() > tamano;
+            if (haySiguiente) {
+                resumenes.remove(resumenes.size() - 1);
+            }
+            
+            long total = -1;
+            if (contarTotal) {
+                String sqlCount = "SELECT COUNT(*) FROM ventas" + (porFecha ? " WHERE fecha BETWEEN ? AND ?" : "");
+                try (PreparedStatement stmt = conn.prepareStatement(sqlCount)) {
+                    if (porFecha) {
+                        stmt.setTimestamp(1, Timestamp.valueOf(inicio));
+                        stmt.setTimestamp(2, Timestamp.valueOf(fin));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            total = rs.getLong(1);
+                        }
+                    }
+                }
+            }
+            
+            return new PaginaVentas(resumenes, haySiguiente, total);
+        } finally {
+            if (shouldCloseConnection && conn != null) {
+                conn.close();
             }
         }
+    }
+
+
+    /**
+     * Siguiente número de venta del día (VyyyyMMdd-NNNN).
+     * Sale de un bloque reservado en secuencias_venta, sin bloqueo global
+     * ni consulta a ventas; ver GeneradorNumeroVenta.
+     */
+    public String generarNumeroVenta() throws SQLException {
+        return GeneradorNumeroVenta.getInstance().siguienteNumero();
+    }
+    
+
+    /**
+     * Descuenta el stock de todos los productos de la venta. Si alguno no
+     * alcanza, lanza una excepción con todos los productos que faltan y la
+     * transacción se revierte completa.
+     */
+    private void descontarStock(Venta venta, Connection conn) throws SQLException {
+        // Un producto puede aparecer en varias líneas: se suma por producto
+        Map<Integer, Integer> cantidades = new LinkedHashMap<>();
+        Map<Integer, String> nombres = new HashMap<>();
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            Producto producto = detalle.getProducto();
+            cantidades.merge(producto.getId(), detalle.getCantidad(), Integer::sum);
+            nombres.putIfAbsent(producto.getId(), producto.getNombre());
+        }
+        
+        List<Integer> sinStock = productoDAO.descontarStock(cantidades, conn);
+        if (!sinStock.isEmpty()) {
+            StringBuilder productos = new StringBuilder();
+            for (Integer id : sinStock) {
+                if (productos.length() > 0) {
+                    productos.append(", ");
+                }
+                productos.append(nombres.get(id) != null ? nombres.get(id) : "ID " + id);
+            }
+            throw new SQLException("Stock insuficiente para el producto: " + productos);
+        }
+    }
+    
+    /**
+     * Carga los detalles (con su producto) de todas las ventas en bloque,
+     * sobre la misma conexión: una consulta por cada 500 ventas en lugar de
+     * una por venta más una por cada línea.
+     */
+    private void cargarDetalles(Connection conn, List<Venta> ventas) throws SQLException {
+        if (ventas.isEmpty()) {
+            return;
+        }
+        
+        List<Integer> ids = new ArrayList<>(ventas.size());
+        for (Venta venta : ventas) {
+            ids.add(venta.getId());
+        }
+        
+        Map<Integer, Producto> productos = new HashMap<>();
+        Map<Integer, List<DetalleVenta>> detallesPorVenta = detalleVentaDAO.obtenerPorVentas(conn, ids, productos);
         
-        venta.setDetalles(detalles);
+        for (Venta venta : ventas) {
+            List<DetalleVenta> detalles = detallesPorVenta.get(venta.getId());
+            venta.setDetalles(detalles != null ? detalles : new ArrayList<>());
+        }
     }
     
     /**
@@ -227,4 +555,13 @@ public class VentaDAO implements CrudDAO<Venta> {
         venta.setMetodoPago(rs.getString("metodo_pago"));
         return venta;
     }
+    
+    private VentaResumen mapearResumen(ResultSet rs) throws SQLException {
+        return new VentaResumen(
+                rs.getInt("id"),
+                rs.getString("numero_venta"),
+                rs.getTimestamp("fecha").toLocalDateTime(),
+                rs.getString("metodo_pago"),
+                rs.getDouble("total"));
+    }
 }
\ No newline at end of file
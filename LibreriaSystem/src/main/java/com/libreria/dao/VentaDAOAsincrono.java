@@ -0,0 +1,43 @@
+package com.libreria.dao;
+
+import com.libreria.model.PaginaVentas;
+import com.libreria.model.Venta;
+import com.libreria.model.VentaResumen;
+import com.libreria.util.EjecutorConsultas;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * VentaDAO asíncrono: el CRUD más las búsquedas por fecha y la paginación
+ */
+public class VentaDAOAsincrono extends DAOAsincrono<Venta> {
+    private final VentaDAO ventaDAO;
+
+    public VentaDAOAsincrono() {
+        this(new VentaDAO(), EjecutorConsultas.getCompartido());
+    }
+
+    public VentaDAOAsincrono(VentaDAO ventaDAO, EjecutorConsultas ejecutor) {
+        super(ventaDAO, ejecutor);
+        this.ventaDAO = ventaDAO;
+    }
+
+    public CompletableFuture<List<Venta>> obtenerPorFecha(LocalDateTime inicio, LocalDateTime fin) {
+        return ejecutar(() -> ventaDAO.obtenerPorFecha(inicio, fin));
+    }
+
+    public CompletableFuture<List<VentaResumen>> obtenerResumenesPorFecha(LocalDateTime inicio, LocalDateTime fin) {
+        return ejecutar(() -> ventaDAO.obtenerResumenesPorFecha(inicio, fin));
+    }
+
+    public CompletableFuture<PaginaVentas> obtenerPagina(LocalDateTime inicio, LocalDateTime fin,
+                                                         VentaResumen despuesDe, int tamano, boolean contarTotal) {
+        return ejecutar(() -> ventaDAO.obtenerPagina(inicio, fin, despuesDe, tamano, contarTotal));
+    }
+
+    public CompletableFuture<Double> sumarTotales(LocalDateTime inicio, LocalDateTime fin) {
+        return ejecutar(() -> ventaDAO.sumarTotales(inicio, fin));
+    }
+}
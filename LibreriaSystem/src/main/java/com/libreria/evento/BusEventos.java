@@ -0,0 +1,97 @@
+package com.libreria.evento;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Bus de eventos en memoria entre controladores y pantallas.
+ *
+ * - publicar entrega el evento a cada suscriptor de su tipo (o de un
+ *   supertipo, p. ej. EventoDominio para recibirlos todos).
+ * - suscribir lo entrega en el mismo hilo que publica; suscribirEnEDT lo
+ *   encola en el hilo de Swing, en el orden en que se publicó.
+ * - Un suscriptor que falla no impide que los demás reciban el evento ni
+ *   hace fallar la operación que lo publicó.
+ */
+public class BusEventos {
+    private static final BusEventos compartido = new BusEventos();
+
+    private final CopyOnWriteArrayList<Suscriptor<?>> suscriptores = new CopyOnWriteArrayList<>();
+
+    /**
+     * Bus que comparten los controladores y paneles de la aplicación
+     */
+    public static BusEventos getCompartido() {
+        return compartido;
+    }
+
+    public <E extends EventoDominio> Suscripcion suscribir(Class<E> tipo, Consumer<? super E> accion) {
+        return agregar(new Suscriptor<>(tipo, accion, Runnable::run));
+    }
+
+    public <E extends EventoDominio> Suscripcion suscribirEnEDT(Class<E> tipo, Consumer<? super E> accion) {
+        return agregar(new Suscriptor<>(tipo, accion, SwingUtilities::invokeLater));
+    }
+
+    public void publicar(EventoDominio evento) {
+        for (Suscriptor<?> suscriptor : suscriptores) {
+            suscriptor.recibir(evento);
+        }
+    }
+
+    public int getCantidadSuscriptores() {
+        return suscriptores.size();
+    }
+
+    private Suscripcion agregar(Suscriptor<?> suscriptor) {
+        suscriptores.add(suscriptor);
+        return suscriptor;
+    }
+
+    /**
+     * Permite dejar de recibir eventos
+     */
+    public interface Suscripcion {
+        void cancelar();
+    }
+
+    private class Suscriptor<E extends EventoDominio> implements Suscripcion {
+        private final Class<E> tipo;
+        private final Consumer<? super E> accion;
+        private final Executor entrega;
+        private volatile boolean activa = true;
+
+        Suscriptor(Class<E> tipo, Consumer<? super E> accion, Executor entrega) {
+            this.tipo = tipo;
+            this.accion = accion;
+            this.entrega = entrega;
+        }
+
+        void recibir(EventoDominio evento) {
+            if (!tipo.isInstance(evento)) {
+                return;
+            }
+            E recibido = tipo.cast(evento);
+            entrega.execute(() -> {
+                // Pudo cancelarse mientras el evento esperaba en la cola del EDT
+                if (!activa) {
+                    return;
+                }
+                try {
+                    accion.accept(recibido);
+                } catch (RuntimeException e) {
+                    System.err.println("Error al procesar " + tipo.getSimpleName() + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            });
+        }
+
+        @Override
+        public void cancelar() {
+            activa = false;
+            suscriptores.remove(this);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.libreria.evento;
+
+import com.libreria.model.Producto;
+import com.libreria.model.VentaResumen;
+
+/**
+ * Cambios del catálogo y de las ventas que publican los controladores en
+ * BusEventos, ya confirmados en la BD.
+ *
+ * Los productos que viajan en los eventos son copias: quien los recibe
+ * puede guardarlos sin afectar al caché ni a otros suscriptores.
+ */
+public sealed interface EventoDominio {
+
+    record ProductoCreado(Producto producto) implements EventoDominio {
+    }
+
+    record ProductoActualizado(Producto producto) implements EventoDominio {
+    }
+
+    record ProductoEliminado(int productoId) implements EventoDominio {
+    }
+
+    /**
+     * Stock descontado por una venta (cambio negativo). Los ajustes hechos
+     * desde el formulario de productos llegan como ProductoActualizado.
+     */
+    record StockCambiado(int productoId, int cambio) implements EventoDominio {
+    }
+
+    record VentaRegistrada(VentaResumen venta) implements EventoDominio {
+    }
+}
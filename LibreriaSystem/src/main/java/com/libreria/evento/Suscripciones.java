@@ -0,0 +1,49 @@
+package com.libreria.evento;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Grupo de suscripciones en el EDT de una pantalla.
+ *
+ * Se declaran una vez con escuchar y se activan o cancelan juntas, para
+ * atarlas a la vida del componente (addNotify / removeNotify): una pantalla
+ * descartada deja de recibir eventos y puede liberarse.
+ */
+public class Suscripciones {
+    private final BusEventos bus;
+    private final List<Runnable> registros = new ArrayList<>();
+    private final List<BusEventos.Suscripcion> activas = new ArrayList<>();
+    private boolean activo = false;
+
+    public Suscripciones(BusEventos bus) {
+        this.bus = bus;
+    }
+
+    public <E extends EventoDominio> void escuchar(Class<E> tipo, Consumer<? super E> accion) {
+        Runnable registro = () -> activas.add(bus.suscribirEnEDT(tipo, accion));
+        registros.add(registro);
+        if (activo) {
+            registro.run();
+        }
+    }
+
+    public void activar() {
+        if (activo) {
+            return;
+        }
+        activo = true;
+        registros.forEach(Runnable::run);
+    }
+
+    public void cancelar() {
+        activo = false;
+        activas.forEach(BusEventos.Suscripcion::cancelar);
+        activas.clear();
+    }
+
+    public boolean isActivo() {
+        return activo;
+    }
+}
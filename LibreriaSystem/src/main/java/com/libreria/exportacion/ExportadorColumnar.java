@@ -0,0 +1,174 @@
+package com.libreria.exportacion;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binario por columnas para archivar extractos (.lcol).
+ *
+ * Las filas se agrupan en bloques de FILAS_POR_BLOQUE y dentro de cada
+ * bloque se guarda columna por columna, lo que deja juntos valores
+ * parecidos:
+ *
+ *   "LCOL", versión (1 byte), cantidad de columnas, y por columna su nombre
+ *   (writeUTF) y su tipo (1 byte, ordinal de Tipo)
+ *   bloques: cantidad de filas (> 0) y luego los valores de cada columna
+ *   fin: un bloque de 0 filas
+ *
+ * Por tipo de columna, dentro del bloque:
+ *   TEXTO      diccionario del bloque (textos distintos) y un índice por
+ *              fila (0 = null); métodos de pago o categorías ocupan 1 byte
+ *   ENTERO     diferencia con el valor anterior
+ *   DECIMAL    céntimos, diferencia con el valor anterior
+ *   FECHA_HORA segundos (UTC de la fecha local), diferencia con el anterior
+ *
+ * Todos los números son varint con zigzag, así que diferencias pequeñas
+ * (ids correlativos, fechas ordenadas) ocupan 1 o 2 bytes. Solo TEXTO admite
+ * null. Se lee con LectorColumnar.
+ */
+public class ExportadorColumnar implements ExportadorTabla {
+    static final byte[] FIRMA = {'L', 'C', 'O', 'L'};
+    static final int VERSION = 1;
+    static final int FILAS_POR_BLOQUE = 8192;
+
+    private final DataOutputStream out;
+    private List<Columna> columnas;
+    private long[][] numeros;
+    private String[][] textos;
+    private int filasEnBloque;
+    private boolean descartado;
+
+    public ExportadorColumnar(Path destino) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(destino), 64 * 1024));
+    }
+
+    @Override
+    public void iniciar(List<Columna> columnas) throws IOException {
+        this.columnas = List.copyOf(columnas);
+        this.numeros = new long[columnas.size()][];
+        this.textos = new String[columnas.size()][];
+        for (int i = 0; i < columnas.size(); i++) {
+            if (columnas.get(i).tipo() == Tipo.TEXTO) {
+                textos[i] = new String[FILAS_POR_BLOQUE];
+            } else {
+                numeros[i] = new long[FILAS_POR_BLOQUE];
+            }
+        }
+
+        out.write(FIRMA);
+        out.writeByte(VERSION);
+        escribirVarint(out, columnas.size());
+        for (Columna columna : columnas) {
+            out.writeUTF(columna.nombre());
+            out.writeByte(columna.tipo().ordinal());
+        }
+    }
+
+    @Override
+    public void fila(Object... valores) throws IOException {
+        if (columnas == null) {
+            throw new IllegalStateException("Llame a iniciar() antes de escribir filas");
+        }
+        if (valores.length != columnas.size()) {
+            throw new IllegalArgumentException("Se esperaban " + columnas.size() + " valores y llegaron " + valores.length);
+        }
+        for (int i = 0; i < valores.length; i++) {
+            Columna columna = columnas.get(i);
+            Object valor = valores[i];
+            if (columna.tipo() == Tipo.TEXTO) {
+                textos[i][filasEnBloque] = valor != null ? valor.toString() : null;
+                continue;
+            }
+            if (valor == null) {
+                throw new IllegalArgumentException("La columna " + columna.nombre() + " no admite valores vacíos");
+            }
+            numeros[i][filasEnBloque] = switch (columna.tipo()) {
+                case ENTERO -> ((Number) valor).longValue();
+                case DECIMAL -> Math.round(((Number) valor).doubleValue() * 100);
+                case FECHA_HORA -> ((LocalDateTime) valor).toEpochSecond(ZoneOffset.UTC);
+                case TEXTO -> throw new IllegalStateException();
+            };
+        }
+        if (++filasEnBloque == FILAS_POR_BLOQUE) {
+            escribirBloque();
+        }
+    }
+
+    private void escribirBloque() throws IOException {
+        escribirVarint(out, filasEnBloque);
+        for (int i = 0; i < columnas.size(); i++) {
+            if (textos[i] != null) {
+                escribirTextos(textos[i]);
+            } else {
+                long anterior = 0;
+                for (int f = 0; f < filasEnBloque; f++) {
+                    escribirVarint(out, zigzag(numeros[i][f] - anterior));
+                    anterior = numeros[i][f];
+                }
+            }
+        }
+        filasEnBloque = 0;
+    }
+
+    private void escribirTextos(String[] valores) throws IOException {
+        Map<String, Integer> diccionario = new HashMap<>();
+        int[] indices = new int[filasEnBloque];
+        for (int f = 0; f < filasEnBloque; f++) {
+            if (valores[f] != null) {
+                indices[f] = diccionario.computeIfAbsent(valores[f], k -> diccionario.size() + 1);
+            }
+        }
+
+        String[] ordenados = new String[diccionario.size()];
+        diccionario.forEach((texto, indice) -> ordenados[indice - 1] = texto);
+        escribirVarint(out, ordenados.length);
+        for (String texto : ordenados) {
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            escribirVarint(out, bytes.length);
+            out.write(bytes);
+        }
+        for (int f = 0; f < filasEnBloque; f++) {
+            escribirVarint(out, indices[f]);
+            valores[f] = null;
+        }
+    }
+
+    @Override
+    public void descartar() {
+        descartado = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            // Sin el bloque de 0 filas, LectorColumnar lo reconoce como incompleto
+            if (columnas != null && !descartado) {
+                if (filasEnBloque > 0) {
+                    escribirBloque();
+                }
+                escribirVarint(out, 0);
+            }
+        }
+    }
+
+    static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    static void escribirVarint(DataOutputStream out, long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            out.writeByte((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        out.writeByte((int) valor);
+    }
+}
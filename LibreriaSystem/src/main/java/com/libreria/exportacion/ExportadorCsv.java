@@ -0,0 +1,128 @@
+package com.libreria.exportacion;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * CSV según RFC 4180: separador coma, fin de línea CRLF, y comillas dobles
+ * solo en los campos con coma, comillas o saltos de línea (las comillas
+ * internas se duplican). Primera línea con los encabezados.
+ *
+ * Pensado para reimportar en otras herramientas: UTF-8 sin BOM, decimales
+ * con punto y sin separador de miles, fechas ISO (yyyy-MM-dd HH:mm:ss) y
+ * campo vacío para null. Se escribe a un FileChannel a través de un buffer
+ * de 64 KB, sin pasar por las celdas de POI.
+ */
+public class ExportadorCsv implements ExportadorTabla {
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final FileChannel canal;
+    private final Writer writer;
+    private List<Columna> columnas;
+    private boolean descartado;
+
+    public ExportadorCsv(Path destino) throws IOException {
+        this.canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.writer = Channels.newWriter(canal, StandardCharsets.UTF_8.newEncoder(), TAMANO_BUFFER);
+    }
+
+    @Override
+    public void iniciar(List<Columna> columnas) throws IOException {
+        this.columnas = List.copyOf(columnas);
+        for (int i = 0; i < columnas.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            escribirTexto(columnas.get(i).nombre());
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void fila(Object... valores) throws IOException {
+        if (columnas == null) {
+            throw new IllegalStateException("Llame a iniciar() antes de escribir filas");
+        }
+        if (valores.length != columnas.size()) {
+            throw new IllegalArgumentException("Se esperaban " + columnas.size() + " valores y llegaron " + valores.length);
+        }
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object valor = valores[i];
+            if (valor == null) {
+                continue;
+            }
+            switch (columnas.get(i).tipo()) {
+                case TEXTO -> escribirTexto(valor.toString());
+                case ENTERO -> writer.write(Long.toString(((Number) valor).longValue()));
+                case DECIMAL -> escribirDecimal(((Number) valor).doubleValue());
+                case FECHA_HORA -> writer.write(((LocalDateTime) valor).format(FORMATO_FECHA));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // Dos decimales sin String.format, que es caro para millones de filas
+    private void escribirDecimal(double valor) throws IOException {
+        long centimos = Math.round(valor * 100);
+        if (centimos < 0) {
+            writer.write('-');
+            centimos = -centimos;
+        }
+        writer.write(Long.toString(centimos / 100));
+        writer.write('.');
+        long resto = centimos % 100;
+        if (resto < 10) {
+            writer.write('0');
+        }
+        writer.write(Long.toString(resto));
+    }
+
+    private void escribirTexto(String texto) throws IOException {
+        if (!necesitaComillas(texto)) {
+            writer.write(texto);
+            return;
+        }
+        writer.write('"');
+        writer.write(texto.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean necesitaComillas(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void descartar() {
+        descartado = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Cerrar el writer vacía el buffer y cierra el canal; descartado, se
+        // cierra el canal sin volcar las filas pendientes
+        try (canal) {
+            if (!descartado) {
+                writer.close();
+            }
+        }
+    }
+}
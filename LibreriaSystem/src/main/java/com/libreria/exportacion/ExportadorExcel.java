@@ -0,0 +1,122 @@
+package com.libreria.exportacion;
+
+import com.libreria.util.AnchoColumnas;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Tabla simple en una hoja .xlsx (SXSSF), sin título ni gráficos.
+ *
+ * Para los reportes con formato y gráficos están los generarReporte*Excel
+ * de los controladores; esta clase es la salida Excel de los extractos.
+ */
+public class ExportadorExcel implements ExportadorTabla {
+    private static final int VENTANA_FILAS = 200;
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final Path destino;
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final CellStyle decimalStyle;
+    private List<Columna> columnas;
+    private AnchoColumnas anchos;
+    private int rowNum;
+    private boolean descartado;
+
+    public ExportadorExcel(Path destino, String nombreHoja) {
+        this.destino = destino;
+        this.workbook = new SXSSFWorkbook(VENTANA_FILAS);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(nombreHoja);
+        this.decimalStyle = workbook.createCellStyle();
+        this.decimalStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+    }
+
+    @Override
+    public void iniciar(List<Columna> columnas) {
+        this.columnas = List.copyOf(columnas);
+        this.anchos = new AnchoColumnas(columnas.size(), 1000, 10);
+
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerFont.setColor(IndexedColors.WHITE.getIndex());
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(IndexedColors.DARK_BLUE.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        Row headerRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < columnas.size(); i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(columnas.get(i).nombre());
+            cell.setCellStyle(headerStyle);
+        }
+        anchos.medirSiempre(headerRow);
+        sheet.createFreezePane(0, 1);
+    }
+
+    @Override
+    public void fila(Object... valores) {
+        if (columnas == null) {
+            throw new IllegalStateException("Llame a iniciar() antes de escribir filas");
+        }
+        if (valores.length != columnas.size()) {
+            throw new IllegalArgumentException("Se esperaban " + columnas.size() + " valores y llegaron " + valores.length);
+        }
+        Row row = sheet.createRow(rowNum++);
+        for (int i = 0; i < valores.length; i++) {
+            Object valor = valores[i];
+            if (valor == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            switch (columnas.get(i).tipo()) {
+                case TEXTO -> cell.setCellValue(valor.toString());
+                case ENTERO -> cell.setCellValue(((Number) valor).longValue());
+                case DECIMAL -> {
+                    cell.setCellValue(((Number) valor).doubleValue());
+                    cell.setCellStyle(decimalStyle);
+                }
+                case FECHA_HORA -> cell.setCellValue(((LocalDateTime) valor).format(FORMATO_FECHA));
+            }
+        }
+        anchos.medir(row);
+    }
+
+    @Override
+    public void descartar() {
+        descartado = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (descartado) {
+                return;
+            }
+            if (anchos != null) {
+                anchos.aplicar(sheet);
+            }
+            try (OutputStream out = Files.newOutputStream(destino)) {
+                workbook.write(out);
+            }
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
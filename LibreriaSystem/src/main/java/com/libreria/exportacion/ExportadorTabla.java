@@ -0,0 +1,47 @@
+package com.libreria.exportacion;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Escritor de una tabla (encabezados + filas) a un archivo, fila por fila.
+ *
+ * Las implementaciones no guardan la tabla completa en memoria, así que
+ * sirven para extractos grandes de ventas o detalles. Uso:
+ *
+ *   try (ExportadorTabla exportador = FormatoExportacion.CSV.crear(ruta, "Ventas")) {
+ *       exportador.iniciar(columnas);
+ *       exportador.fila("V000001", fecha, 31.0);
+ *   }
+ *
+ * Si la exportación falla a mitad de camino, llamar a descartar() antes de
+ * cerrar: así close() no escribe el final del archivo y lo que quedó no pasa
+ * por un archivo completo.
+ *
+ * Valores según el tipo de la columna: TEXTO String, ENTERO Integer/Long,
+ * DECIMAL Double (dos decimales, como los montos) y FECHA_HORA LocalDateTime.
+ */
+public interface ExportadorTabla extends AutoCloseable {
+
+    enum Tipo {
+        TEXTO, ENTERO, DECIMAL, FECHA_HORA
+    }
+
+    record Columna(String nombre, Tipo tipo) {
+    }
+
+    void iniciar(List<Columna> columnas) throws IOException;
+
+    void fila(Object... valores) throws IOException;
+
+    /**
+     * Marca la exportación como fallida: close() solo libera los recursos
+     */
+    void descartar();
+
+    /**
+     * Termina de escribir el archivo y libera los recursos
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,53 @@
+package com.libreria.exportacion;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Formatos de exportación de tablas, con su extensión de archivo
+ */
+public enum FormatoExportacion {
+    EXCEL("xlsx", "Excel (*.xlsx)"),
+    CSV("csv", "CSV (*.csv)"),
+    COLUMNAR("lcol", "Archivo columnar (*.lcol)");
+
+    private final String extension;
+    private final String descripcion;
+
+    FormatoExportacion(String extension, String descripcion) {
+        this.extension = extension;
+        this.descripcion = descripcion;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * @param nombreHoja nombre de la hoja (solo lo usa Excel)
+     */
+    public ExportadorTabla crear(Path destino, String nombreHoja) throws IOException {
+        return switch (this) {
+            case EXCEL -> new ExportadorExcel(destino, nombreHoja);
+            case CSV -> new ExportadorCsv(destino);
+            case COLUMNAR -> new ExportadorColumnar(destino);
+        };
+    }
+
+    /**
+     * Formato según la extensión de la ruta, o null si no es conocida
+     */
+    public static FormatoExportacion desdeRuta(String ruta) {
+        String minusculas = ruta.toLowerCase();
+        for (FormatoExportacion formato : values()) {
+            if (minusculas.endsWith("." + formato.extension)) {
+                return formato;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.libreria.exportacion;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lee los archivos de ExportadorColumnar fila por fila, un bloque a la vez.
+ *
+ * Devuelve TEXTO como String, ENTERO como Long, DECIMAL como Double y
+ * FECHA_HORA como LocalDateTime.
+ */
+public class LectorColumnar implements AutoCloseable {
+    private final DataInputStream in;
+    private final List<ExportadorTabla.Columna> columnas;
+    private final Object[][] bloque;
+    private int filasEnBloque;
+    private int siguienteFila;
+    private boolean terminado;
+
+    public LectorColumnar(Path origen) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(origen), 64 * 1024));
+        try {
+            byte[] firma = new byte[ExportadorColumnar.FIRMA.length];
+            in.readFully(firma);
+            if (!Arrays.equals(firma, ExportadorColumnar.FIRMA)) {
+                throw new IOException("El archivo no tiene formato columnar: " + origen);
+            }
+            int version = in.readUnsignedByte();
+            if (version != ExportadorColumnar.VERSION) {
+                throw new IOException("Versión de archivo columnar no soportada: " + version);
+            }
+
+            int cantidad = (int) leerVarint();
+            List<ExportadorTabla.Columna> leidas = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                String nombre = in.readUTF();
+                leidas.add(new ExportadorTabla.Columna(nombre, ExportadorTabla.Tipo.values()[in.readUnsignedByte()]));
+            }
+            this.columnas = Collections.unmodifiableList(leidas);
+            this.bloque = new Object[cantidad][];
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public List<ExportadorTabla.Columna> getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Siguiente fila, o null al llegar al final
+     */
+    public Object[] siguiente() throws IOException {
+        if (siguienteFila == filasEnBloque) {
+            if (terminado || !leerBloque()) {
+                return null;
+            }
+        }
+        Object[] fila = new Object[columnas.size()];
+        for (int i = 0; i < fila.length; i++) {
+            fila[i] = bloque[i][siguienteFila];
+        }
+        siguienteFila++;
+        return fila;
+    }
+
+    private boolean leerBloque() throws IOException {
+        filasEnBloque = (int) leerVarint();
+        siguienteFila = 0;
+        if (filasEnBloque == 0) {
+            terminado = true;
+            return false;
+        }
+
+        for (int i = 0; i < columnas.size(); i++) {
+            Object[] valores = new Object[filasEnBloque];
+            ExportadorTabla.Tipo tipo = columnas.get(i).tipo();
+            if (tipo == ExportadorTabla.Tipo.TEXTO) {
+                String[] diccionario = new String[(int) leerVarint()];
+                for (int d = 0; d < diccionario.length; d++) {
+                    byte[] bytes = new byte[(int) leerVarint()];
+                    in.readFully(bytes);
+                    diccionario[d] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                for (int f = 0; f < filasEnBloque; f++) {
+                    int indice = (int) leerVarint();
+                    valores[f] = indice == 0 ? null : diccionario[indice - 1];
+                }
+            } else {
+                long actual = 0;
+                for (int f = 0; f < filasEnBloque; f++) {
+                    long zigzag = leerVarint();
+                    actual += (zigzag >>> 1) ^ -(zigzag & 1);
+                    valores[f] = switch (tipo) {
+                        case ENTERO -> actual;
+                        case DECIMAL -> actual / 100.0;
+                        case FECHA_HORA -> LocalDateTime.ofEpochSecond(actual, 0, ZoneOffset.UTC);
+                        case TEXTO -> throw new IllegalStateException();
+                    };
+                }
+            }
+            bloque[i] = valores;
+        }
+        return true;
+    }
+
+    private long leerVarint() throws IOException {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            int b = in.readUnsignedByte();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Número mal formado en el archivo columnar");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.libreria.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datos del dashboard tomados en un momento dado.
+ *
+ * Cada parte se consulta por separado; si alguna falla o tarda demasiado,
+ * queda con su valor vacío (0 o lista vacía) y su motivo en getErrores().
+ */
+public class DashboardSnapshot {
+    public static final String VENTAS_DIA = "ventasDia";
+    public static final String BAJO_STOCK = "productoBajoStock";
+    public static final String TOP_PRODUCTOS = "topProductos";
+    public static final String TOTAL_STOCK = "totalStock";
+
+    private final double ventasDia;
+    private final List<Producto> productosBajoStock;
+    private final List<Map<String, Object>> topProductos;
+    private final long totalStock;
+    private final Map<String, String> errores;
+
+    public DashboardSnapshot(double ventasDia, List<Producto> productosBajoStock,
+                             List<Map<String, Object>> topProductos, long totalStock,
+                             Map<String, String> errores) {
+        this.ventasDia = ventasDia;
+        this.productosBajoStock = productosBajoStock != null ? productosBajoStock : Collections.emptyList();
+        this.topProductos = topProductos != null ? topProductos : Collections.emptyList();
+        this.totalStock = totalStock;
+        this.errores = errores != null ? Collections.unmodifiableMap(errores) : Collections.emptyMap();
+    }
+
+    // Getters
+    public double getVentasDia() {
+        return ventasDia;
+    }
+
+    public List<Producto> getProductosBajoStock() {
+        return productosBajoStock;
+    }
+
+    public List<Map<String, Object>> getTopProductos() {
+        return topProductos;
+    }
+
+    public long getTotalStock() {
+        return totalStock;
+    }
+
+    /**
+     * Partes que no se pudieron obtener (VENTAS_DIA, BAJO_STOCK, ...) y el motivo
+     */
+    public Map<String, String> getErrores() {
+        return errores;
+    }
+
+    public boolean isCompleto() {
+        return errores.isEmpty();
+    }
+
+    public boolean fallo(String parte) {
+        return errores.containsKey(parte);
+    }
+}
@@ -0,0 +1,41 @@
+package com.libreria.model;
+
+import java.util.List;
+
+/**
+ * Una página del historial de ventas (más recientes primero).
+ * La siguiente página se pide pasando getUltima() como cursor.
+ */
+public class PaginaVentas {
+    private final List<VentaResumen> ventas;
+    private final boolean haySiguiente;
+    private final long total;
+
+    public PaginaVentas(List<VentaResumen> ventas, boolean haySiguiente, long total) {
+        this.ventas = ventas;
+        this.haySiguiente = haySiguiente;
+        this.total = total;
+    }
+
+    public List<VentaResumen> getVentas() {
+        return ventas;
+    }
+
+    public boolean isHaySiguiente() {
+        return haySiguiente;
+    }
+
+    /**
+     * Total de ventas del filtro, o -1 si no se pidió contar
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Última venta de la página (cursor para pedir la siguiente), o null si está vacía
+     */
+    public VentaResumen getUltima() {
+        return ventas.isEmpty() ? null : ventas.get(ventas.size() - 1);
+    }
+}
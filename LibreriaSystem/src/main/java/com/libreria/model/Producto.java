@@ -21,6 +21,19 @@ public class Producto {
         this.descripcion = descripcion;
     }
 
+    /**
+     * Copia de otro producto (usada por el caché del catálogo)
+     */
+    public Producto(Producto otro) {
+        this.id = otro.id;
+        this.codigo = otro.codigo;
+        this.nombre = otro.nombre;
+        this.categoria = otro.categoria;
+        this.precio = otro.precio;
+        this.stock = otro.stock;
+        this.descripcion = otro.descripcion;
+    }
+
     // Getters y Setters
     public int getId() {
         return id;
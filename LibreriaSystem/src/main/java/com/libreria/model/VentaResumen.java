@@ -0,0 +1,44 @@
+package com.libreria.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cabecera de una venta, sin detalles ni productos.
+ * Se usa en los listados; el detalle completo se pide con obtenerPorId.
+ */
+public class VentaResumen {
+    private final int id;
+    private final String numeroVenta;
+    private final LocalDateTime fecha;
+    private final String metodoPago;
+    private final double total;
+
+    public VentaResumen(int id, String numeroVenta, LocalDateTime fecha, String metodoPago, double total) {
+        this.id = id;
+        this.numeroVenta = numeroVenta;
+        this.fecha = fecha;
+        this.metodoPago = metodoPago;
+        this.total = total;
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getNumeroVenta() {
+        return numeroVenta;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public String getMetodoPago() {
+        return metodoPago;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,105 @@
+package com.libreria.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Ancho de columnas calculado mientras se escriben las filas.
+ *
+ * Reemplaza a Sheet.autoSizeColumn, que al final vuelve a recorrer todas las
+ * celdas y mide cada texto con las fuentes de AWT. Aquí solo se cuentan los
+ * caracteres del texto mostrado (con el formato de la celda) y se guarda el
+ * máximo por columna; aplicar() fija los anchos de una vez.
+ *
+ * Con muestreo, después de las primeras filas solo se mide una de cada N:
+ * útil en reportes de miles de filas con valores de largo parecido. Título,
+ * encabezados y totales van por medirSiempre(): una sola fila que no se
+ * parece a las demás no puede quedar fuera de la muestra.
+ * Las filas con celdas combinadas (títulos) no deben pasarse a medir(),
+ * igual que autoSizeColumn las ignora por defecto.
+ */
+public class AnchoColumnas {
+    // Excel admite hasta 255 caracteres; más de esto ya no se lee en pantalla
+    private static final int MAX_CARACTERES = 80;
+    // Espacio extra para el relleno de la celda y fuentes en negrita
+    private static final int MARGEN = 2;
+
+    private final int[] maximos;
+    private final int filasCompletas;
+    private final int cadaN;
+    private final DataFormatter formateador = new DataFormatter();
+    private long filasVistas;
+
+    /**
+     * Mide todas las filas
+     */
+    public AnchoColumnas(int columnas) {
+        this(columnas, Integer.MAX_VALUE, 1);
+    }
+
+    /**
+     * @param filasCompletas cuántas filas se miden todas antes de empezar a muestrear
+     * @param cadaN después de esas, se mide una fila de cada cadaN
+     */
+    public AnchoColumnas(int columnas, int filasCompletas, int cadaN) {
+        if (cadaN < 1) {
+            throw new IllegalArgumentException("cadaN debe ser al menos 1");
+        }
+        this.maximos = new int[columnas];
+        this.filasCompletas = filasCompletas;
+        this.cadaN = cadaN;
+    }
+
+    /**
+     * Registra el texto de las celdas de una fila ya escrita
+     */
+    public void medir(Row row) {
+        long n = filasVistas++;
+        if (n >= filasCompletas && (n - filasCompletas) % cadaN != 0) {
+            return;
+        }
+        medirSiempre(row);
+    }
+
+    /**
+     * Registra la fila sin muestreo ni contarla entre las de datos
+     */
+    public void medirSiempre(Row row) {
+        for (Cell cell : row) {
+            int columna = cell.getColumnIndex();
+            if (columna < maximos.length) {
+                medir(columna, formateador.formatCellValue(cell));
+            }
+        }
+    }
+
+    public void medir(int columna, String texto) {
+        if (texto != null) {
+            int largo = texto.codePointCount(0, texto.length());
+            if (largo > maximos[columna]) {
+                maximos[columna] = largo;
+            }
+        }
+    }
+
+    /**
+     * Ancho en caracteres registrado para una columna (sin margen)
+     */
+    public int getCaracteres(int columna) {
+        return maximos[columna];
+    }
+
+    /**
+     * Fija el ancho de las columnas medidas; las vacías quedan como estaban
+     */
+    public void aplicar(Sheet sheet) {
+        for (int i = 0; i < maximos.length; i++) {
+            if (maximos[i] > 0) {
+                int caracteres = Math.min(maximos[i] + MARGEN, MAX_CARACTERES);
+                sheet.setColumnWidth(i, caracteres * 256);
+            }
+        }
+    }
+}
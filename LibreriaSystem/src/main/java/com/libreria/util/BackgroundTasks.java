@@ -0,0 +1,39 @@
+package com.libreria.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hilos de trabajo compartidos para sacar consultas del hilo de Swing (EDT).
+ *
+ * Son hilos daemon: no impiden cerrar la aplicación. El tamaño se configura
+ * con la propiedad libreria.tareas.hilos (por defecto 4).
+ */
+public class BackgroundTasks {
+    private static final int HILOS = Integer.getInteger("libreria.tareas.hilos", 4);
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(HILOS, new ThreadFactory() {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "libreria-tarea-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    private BackgroundTasks() {
+    }
+
+    public static ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public static Future<?> submit(Runnable tarea) {
+        return executor.submit(tarea);
+    }
+}
@@ -0,0 +1,114 @@
+package com.libreria.util;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Búsqueda "mientras se escribe" que no congela la interfaz.
+ *
+ * - Espera demoraMs sin nuevas teclas antes de consultar (debounce).
+ * - La consulta corre en BackgroundTasks, fuera del EDT.
+ * - Cada nueva petición deja obsoletas las anteriores: si aún no empezaron
+ *   se cancelan, y si ya terminaron su resultado se descarta. Solo se
+ *   publica (en el EDT) el resultado de la última.
+ *
+ * solicitar, ejecutarYa y cancelar deben llamarse desde el EDT. La consulta
+ * se arma ahí mismo, así que debe capturar lo que necesite de la pantalla
+ * (texto, filtro) antes de salir a otro hilo.
+ */
+public class BusquedaDiferida<T> {
+    private static final int DEMORA_MS = Integer.getInteger("libreria.busqueda.debounceMs", 200);
+
+    private final Timer timer;
+    private final Consumer<T> alPublicar;
+    private final Consumer<Exception> alFallar;
+    private final AtomicLong generacion = new AtomicLong();
+    private volatile Callable<T> pendiente;
+    private volatile Future<?> enCurso;
+
+    public BusquedaDiferida(Consumer<T> alPublicar, Consumer<Exception> alFallar) {
+        this(DEMORA_MS, alPublicar, alFallar);
+    }
+
+    public BusquedaDiferida(int demoraMs, Consumer<T> alPublicar, Consumer<Exception> alFallar) {
+        this.alPublicar = alPublicar;
+        this.alFallar = alFallar;
+        this.timer = new Timer(demoraMs, e -> lanzar());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * Programa la consulta para cuando el usuario deje de escribir
+     */
+    public void solicitar(Callable<T> consulta) {
+        pendiente = consulta;
+        generacion.incrementAndGet();
+        timer.restart();
+    }
+
+    /**
+     * Lanza la consulta sin esperar (por ejemplo al presionar Enter o el botón Buscar)
+     */
+    public void ejecutarYa(Callable<T> consulta) {
+        timer.stop();
+        pendiente = consulta;
+        generacion.incrementAndGet();
+        lanzar();
+    }
+
+    /**
+     * Descarta la consulta programada y la que esté en curso
+     */
+    public void cancelar() {
+        timer.stop();
+        pendiente = null;
+        generacion.incrementAndGet();
+        cancelarEnCurso();
+    }
+
+    private void lanzar() {
+        Callable<T> consulta = pendiente;
+        pendiente = null;
+        if (consulta == null) {
+            return;
+        }
+        cancelarEnCurso();
+
+        long miGeneracion = generacion.get();
+        enCurso = BackgroundTasks.submit(() -> {
+            if (miGeneracion != generacion.get()) {
+                return;
+            }
+            try {
+                T resultado = consulta.call();
+                publicar(miGeneracion, () -> alPublicar.accept(resultado));
+            } catch (Exception e) {
+                publicar(miGeneracion, () -> alFallar.accept(e));
+            }
+        });
+    }
+
+    private void publicar(long miGeneracion, Runnable accion) {
+        if (miGeneracion != generacion.get()) {
+            return;
+        }
+        // Se vuelve a comprobar en el EDT: pudo llegar otra tecla mientras tanto
+        SwingUtilities.invokeLater(() -> {
+            if (miGeneracion == generacion.get()) {
+                accion.run();
+            }
+        });
+    }
+
+    private void cancelarEnCurso() {
+        Future<?> anterior = enCurso;
+        if (anterior != null) {
+            // Sin interrumpir: una consulta JDBC interrumpida puede dejar la conexión inservible
+            anterior.cancel(false);
+        }
+    }
+}
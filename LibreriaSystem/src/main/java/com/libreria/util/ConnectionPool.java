@@ -0,0 +1,740 @@
+package com.libreria.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ *
+ * - Como máximo maxPoolSize conexiones físicas; quien no consigue una espera
+ *   hasta connectionTimeoutMs y luego recibe SQLTimeoutException.
+ * - Valida la conexión al prestarla (isValid) si estuvo inactiva más de aliveBypassMs.
+ * - Un proceso de mantenimiento cierra conexiones inactivas (idleTimeoutMs) y las
+ *   que superan maxLifetimeMs, y repone hasta minIdle.
+ * - Si una conexión no se devuelve en leakDetectionThresholdMs se registra la
+ *   traza de quien la pidió (detección de fugas).
+ * - Cada conexión física guarda hasta statementCacheSize sentencias preparadas
+ *   por SQL (LRU): un prepareStatement repetido reutiliza la misma sentencia
+ *   en lugar de que la BD vuelva a analizarla y planificarla.
+ * - Si queryTimeoutSeconds es mayor a 0, cada sentencia entregada lo trae
+ *   puesto (setQueryTimeout): la BD corta la consulta sin interrumpir el hilo.
+ *
+ * Las conexiones entregadas son proxies: close() las devuelve al pool. Las
+ * sentencias en caché también: close() las deja listas para el siguiente uso.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * Parámetros del pool. Los valores por defecto sirven para una caja con
+     * pocas terminales contra un MySQL local.
+     */
+    public static class Config {
+        private int maxPoolSize = 10;
+        private int minIdle = 2;
+        private long connectionTimeoutMs = 30_000;
+        private long idleTimeoutMs = 600_000;
+        private long maxLifetimeMs = 1_800_000;
+        private long leakDetectionThresholdMs = 60_000;
+        private int validationTimeoutSeconds = 5;
+        private long aliveBypassMs = 500;
+        private long housekeepingPeriodMs = 30_000;
+        private int statementCacheSize = 64;
+        private int queryTimeoutSeconds = 0;
+
+        public int getMaxPoolSize() { return maxPoolSize; }
+        public Config setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; return this; }
+
+        public int getMinIdle() { return minIdle; }
+        public Config setMinIdle(int minIdle) { this.minIdle = minIdle; return this; }
+
+        public long getConnectionTimeoutMs() { return connectionTimeoutMs; }
+        public Config setConnectionTimeoutMs(long connectionTimeoutMs) { this.connectionTimeoutMs = connectionTimeoutMs; return this; }
+
+        public long getIdleTimeoutMs() { return idleTimeoutMs; }
+        public Config setIdleTimeoutMs(long idleTimeoutMs) { this.idleTimeoutMs = idleTimeoutMs; return this; }
+
+        public long getMaxLifetimeMs() { return maxLifetimeMs; }
+        public Config setMaxLifetimeMs(long maxLifetimeMs) { this.maxLifetimeMs = maxLifetimeMs; return this; }
+
+        /** 0 desactiva la detección de fugas. */
+        public long getLeakDetectionThresholdMs() { return leakDetectionThresholdMs; }
+        public Config setLeakDetectionThresholdMs(long leakDetectionThresholdMs) { this.leakDetectionThresholdMs = leakDetectionThresholdMs; return this; }
+
+        public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+        public Config setValidationTimeoutSeconds(int validationTimeoutSeconds) { this.validationTimeoutSeconds = validationTimeoutSeconds; return this; }
+
+        public long getAliveBypassMs() { return aliveBypassMs; }
+        public Config setAliveBypassMs(long aliveBypassMs) { this.aliveBypassMs = aliveBypassMs; return this; }
+
+        public long getHousekeepingPeriodMs() { return housekeepingPeriodMs; }
+        public Config setHousekeepingPeriodMs(long housekeepingPeriodMs) { this.housekeepingPeriodMs = housekeepingPeriodMs; return this; }
+
+        /** Sentencias preparadas guardadas por conexión; 0 desactiva la caché. */
+        public int getStatementCacheSize() { return statementCacheSize; }
+        public Config setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = statementCacheSize; return this; }
+
+        /** Plazo por defecto de cada sentencia (setQueryTimeout); 0 = sin plazo. */
+        public int getQueryTimeoutSeconds() { return queryTimeoutSeconds; }
+        public Config setQueryTimeoutSeconds(int queryTimeoutSeconds) { this.queryTimeoutSeconds = queryTimeoutSeconds; return this; }
+    }
+
+    /**
+     * Foto de las métricas del pool. statementHits/statementMisses cuentan los
+     * prepareStatement servidos desde la caché o preparados de nuevo.
+     */
+    public record PoolStats(int active, int idle, int total, int waiting,
+                            long borrowed, double averageWaitMs, double maxWaitMs,
+                            long timeouts, long leaksDetected, long created, long closed,
+                            long statementHits, long statementMisses, long statementEvictions) {
+
+        public double statementHitRatio() {
+            long requests = statementHits + statementMisses;
+            return requests == 0 ? 0 : statementHits / (double) requests;
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Config config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closedCount = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+    private volatile boolean shutdown = false;
+
+    public ConnectionPool(ConnectionFactory factory, Config config) {
+        if (config.getMaxPoolSize() <= 0) {
+            throw new IllegalArgumentException("maxPoolSize debe ser mayor a 0");
+        }
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxPoolSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "libreria-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = config.getHousekeepingPeriodMs();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión. Debe cerrarse (close) para devolverla al pool.
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        waiting.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(config.getConnectionTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras esperaba una conexión", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new SQLTimeoutException("No hay conexiones disponibles tras "
+                    + config.getConnectionTimeoutMs() + " ms (activas: " + active.get()
+                    + ", máximo: " + config.getMaxPoolSize() + ")");
+        }
+
+        try {
+            PooledEntry entry = takeIdle();
+            if (entry == null) {
+                // El permiso ya garantiza un lugar libre
+                total.incrementAndGet();
+                entry = createEntry();
+            }
+
+            long waited = System.nanoTime() - start;
+            borrowed.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            active.incrementAndGet();
+
+            return entry.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public PoolStats getStats() {
+        long count = borrowed.get();
+        double avg = count == 0 ? 0 : totalWaitNanos.get() / (double) count / 1_000_000.0;
+        return new PoolStats(
+                active.get(),
+                idle.size(),
+                total.get(),
+                waiting.get(),
+                count,
+                avg,
+                maxWaitNanos.get() / 1_000_000.0,
+                timeouts.get(),
+                leaksDetected.get(),
+                created.get(),
+                closedCount.get(),
+                statementHits.get(),
+                statementMisses.get(),
+                statementEvictions.get());
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Cierra las conexiones inactivas; las prestadas se cierran al devolverse.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closePhysical(entry);
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    // ========== INTERNOS ==========
+
+    private PooledEntry takeIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (isExpired(entry, now)) {
+                closePhysical(entry);
+                continue;
+            }
+            if (now - entry.lastUsed >= config.getAliveBypassMs() && !isAlive(entry)) {
+                closePhysical(entry);
+                continue;
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Abre una conexión física en un lugar ya contado en total; si falla, lo libera
+     */
+    private PooledEntry createEntry() throws SQLException {
+        Connection physical = null;
+        try {
+            physical = factory.create();
+            PooledEntry entry = new PooledEntry(physical);
+            created.incrementAndGet();
+            return entry;
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            if (physical != null) {
+                try {
+                    physical.close();
+                } catch (SQLException closeError) {
+                    // Se informa el error original
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cuenta un lugar más en total solo si no se supera maxPoolSize
+     */
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = total.get();
+            if (current >= config.getMaxPoolSize()) {
+                return false;
+            }
+        } while (!total.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean isExpired(PooledEntry entry, long now) {
+        return config.getMaxLifetimeMs() > 0 && now - entry.createdAt > config.getMaxLifetimeMs();
+    }
+
+    private boolean isAlive(PooledEntry entry) {
+        try {
+            return entry.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closePhysical(PooledEntry entry) {
+        entry.statements.closeAll();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            // La conexión ya estaba rota; no hay nada más que hacer
+        }
+        total.decrementAndGet();
+        closedCount.incrementAndGet();
+    }
+
+    private void giveBack(PooledEntry entry, boolean broken) {
+        if (entry.leakTask != null) {
+            entry.leakTask.cancel(false);
+            entry.leakTask = null;
+        }
+        entry.closeOpenStatements();
+
+        if (!broken) {
+            try {
+                // Dejar la conexión como recién creada para el siguiente uso
+                if (!entry.physical.getAutoCommit()) {
+                    entry.physical.rollback();
+                    entry.physical.setAutoCommit(true);
+                }
+                if (entry.sessionChanged) {
+                    entry.physical.setReadOnly(entry.defaultReadOnly);
+                    entry.physical.setTransactionIsolation(entry.defaultIsolation);
+                    entry.sessionChanged = false;
+                }
+                entry.physical.clearWarnings();
+            } catch (SQLException e) {
+                broken = true;
+            }
+        }
+
+        active.decrementAndGet();
+        entry.lastUsed = System.currentTimeMillis();
+        if (broken || shutdown || isExpired(entry, entry.lastUsed)) {
+            closePhysical(entry);
+        } else {
+            idle.offerFirst(entry);
+        }
+        permits.release();
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            for (PooledEntry entry : idle.toArray(new PooledEntry[0])) {
+                boolean idleTooLong = config.getIdleTimeoutMs() > 0
+                        && now - entry.lastUsed > config.getIdleTimeoutMs()
+                        && total.get() > config.getMinIdle();
+                if ((idleTooLong || isExpired(entry, now)) && idle.remove(entry)) {
+                    closePhysical(entry);
+                }
+            }
+
+            // Reponer conexiones mínimas sin superar el máximo. Se toma un permiso
+            // (sin adelantarse a quien ya espera) y se reserva el lugar antes de
+            // abrir la conexión, para no competir con un préstamo que también crea.
+            while (!shutdown && idle.size() < config.getMinIdle()
+                    && permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                try {
+                    if (!reserveSlot()) {
+                        break;
+                    }
+                    idle.offerLast(createEntry());
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Pool de conexiones: error en mantenimiento: " + e.getMessage());
+        }
+    }
+
+    private void applyQueryTimeout(Statement statement) throws SQLException {
+        if (config.getQueryTimeoutSeconds() > 0) {
+            statement.setQueryTimeout(config.getQueryTimeoutSeconds());
+        }
+    }
+
+    private void reportLeak(Exception origin) {
+        leaksDetected.incrementAndGet();
+        System.err.println("Pool de conexiones: posible fuga, conexión prestada hace más de "
+                + config.getLeakDetectionThresholdMs() + " ms sin devolverse");
+        origin.printStackTrace();
+    }
+
+    /**
+     * Conexión física más su estado dentro del pool.
+     */
+    private class PooledEntry {
+        final Connection physical;
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastUsed = createdAt;
+        volatile ScheduledFuture<?> leakTask;
+        final List<Statement> openStatements = new ArrayList<>();
+        final StatementCache statements = new StatementCache(this);
+        // Estado de sesión con que se abrió; se restaura al devolverla si se cambió
+        final boolean defaultReadOnly;
+        final int defaultIsolation;
+        volatile boolean sessionChanged;
+
+        PooledEntry(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultReadOnly = physical.isReadOnly();
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+
+        Connection lease() {
+            if (config.getLeakDetectionThresholdMs() > 0) {
+                Exception origin = new Exception("Conexión prestada desde aquí");
+                leakTask = housekeeper.schedule(() -> reportLeak(origin),
+                        config.getLeakDetectionThresholdMs(), TimeUnit.MILLISECONDS);
+            }
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeasedConnection(this));
+        }
+
+        synchronized void track(Statement statement) {
+            openStatements.removeIf(ConnectionPool::isClosedQuietly);
+            openStatements.add(statement);
+        }
+
+        synchronized void closeOpenStatements() {
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // Ignorar: se descarta igual
+                }
+            }
+            openStatements.clear();
+        }
+    }
+
+    /**
+     * Manejador del proxy entregado al código de la aplicación.
+     */
+    private class LeasedConnection implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned = false;
+        private boolean broken = false;
+
+        LeasedConnection(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        giveBack(entry, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+
+            if (method.getName().equals("setReadOnly") || method.getName().equals("setTransactionIsolation")) {
+                entry.sessionChanged = true;
+            }
+
+            if (method.getName().equals("prepareStatement") && config.getStatementCacheSize() > 0) {
+                StatementKey key = StatementKey.of(args);
+                if (key != null) {
+                    PreparedStatement statement = entry.statements.prepare(this, (Connection) proxy, key);
+                    entry.track(statement);
+                    return statement;
+                }
+            }
+
+            try {
+                Object result = method.invoke(entry.physical, args);
+                if (result instanceof Statement statement) {
+                    applyQueryTimeout(statement);
+                    entry.track(statement);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                markBrokenIfConnectionError(cause);
+                throw cause;
+            }
+        }
+
+        /**
+         * Un error de conexión (también desde una sentencia en caché) hace
+         * que close() descarte la conexión física en lugar de devolverla.
+         */
+        void markBrokenIfConnectionError(Throwable cause) {
+            if (cause instanceof SQLException sqlException && isConnectionError(sqlException)) {
+                broken = true;
+            }
+        }
+    }
+
+    /**
+     * SQL y variante de prepareStatement que identifican una sentencia en
+     * caché. Solo se guardan prepareStatement(sql) y
+     * prepareStatement(sql, autoGeneratedKeys); las demás variantes pasan
+     * directo.
+     */
+    private record StatementKey(String sql, int autoGeneratedKeys) {
+        private static final int NONE = -1;
+
+        static StatementKey of(Object[] args) {
+            if (args.length == 1) {
+                return new StatementKey((String) args[0], NONE);
+            }
+            if (args.length == 2 && args[1] instanceof Integer keys) {
+                return new StatementKey((String) args[0], keys);
+            }
+            return null;
+        }
+
+        PreparedStatement prepare(Connection physical) throws SQLException {
+            return autoGeneratedKeys == NONE
+                    ? physical.prepareStatement(sql)
+                    : physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * Sentencias preparadas de una conexión física, de la menos a la más
+     * recientemente usada. Una sentencia prestada no se desaloja: si hace
+     * falta espacio se cierra recién cuando se devuelve. Si se pide un SQL
+     * cuya sentencia ya está prestada (dos abiertas a la vez), la segunda se
+     * prepara aparte y no se guarda.
+     */
+    private class StatementCache {
+        private final PooledEntry entry;
+        private final LinkedHashMap<StatementKey, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        StatementCache(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        synchronized PreparedStatement prepare(LeasedConnection handler, Connection owner, StatementKey key)
+                throws SQLException {
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.inUse) {
+                statementHits.incrementAndGet();
+                return cached.lease(handler, owner);
+            }
+
+            statementMisses.incrementAndGet();
+            PreparedStatement physical = key.prepare(entry.physical);
+            applyQueryTimeout(physical);
+            if (cached != null) {
+                return physical;
+            }
+            cached = new CachedStatement(this, physical);
+            statements.put(key, cached);
+            PreparedStatement leased = cached.lease(handler, owner);
+            evict();
+            return leased;
+        }
+
+        synchronized void release(CachedStatement cached) {
+            cached.inUse = false;
+            if (!statements.containsValue(cached) || !cached.reset()) {
+                statements.values().remove(cached);
+                cached.closePhysical();
+                return;
+            }
+            evict();
+        }
+
+        private void evict() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > config.getStatementCacheSize() && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                if (!eldest.inUse) {
+                    it.remove();
+                    eldest.closePhysical();
+                    statementEvictions.incrementAndGet();
+                }
+            }
+        }
+
+        int queryTimeoutSeconds() {
+            return config.getQueryTimeoutSeconds();
+        }
+
+        synchronized void closeAll() {
+            for (CachedStatement cached : statements.values()) {
+                cached.closePhysical();
+            }
+            statements.clear();
+        }
+    }
+
+    /**
+     * Sentencia física guardada en la caché. Cada préstamo es un proxy cuyo
+     * close() la devuelve a la caché en lugar de cerrarla.
+     */
+    private static class CachedStatement {
+        final StatementCache cache;
+        final PreparedStatement physical;
+        boolean inUse;
+
+        CachedStatement(StatementCache cache, PreparedStatement physical) {
+            this.cache = cache;
+            this.physical = physical;
+        }
+
+        PreparedStatement lease(LeasedConnection handler, Connection owner) {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new LeasedStatement(this, handler, owner));
+        }
+
+        /**
+         * Deja la sentencia como recién preparada; false si ya no sirve
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                physical.clearWarnings();
+                // Un cursor que transmite filas (fetchSize negativo en MySQL) no debe heredarse
+                physical.setFetchSize(0);
+                physical.setMaxRows(0);
+                physical.setQueryTimeout(cache.queryTimeoutSeconds());
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // Ignorar: se descarta igual
+            }
+        }
+    }
+
+    /**
+     * Manejador del proxy de una sentencia prestada desde la caché.
+     */
+    private static class LeasedStatement implements InvocationHandler {
+        private final CachedStatement cached;
+        private final LeasedConnection handler;
+        private final Connection owner;
+        private boolean returned = false;
+
+        LeasedStatement(CachedStatement cached, LeasedConnection handler, Connection owner) {
+            this.cached = cached;
+            this.handler = handler;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        cached.cache.release(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || cached.physical.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+            try {
+                return method.invoke(cached.physical, args);
+            } catch (InvocationTargetException e) {
+                handler.markBrokenIfConnectionError(e.getCause());
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static boolean isConnectionError(SQLException e) {
+        // Clase SQLSTATE 08: errores de conexión
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+
+    private static boolean isClosedQuietly(Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.libreria.util;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -8,9 +10,27 @@ import java.sql.SQLException;
 public class DatabaseConnection {
     
     // ========== CONFIGURACIÓN MYSQL ==========
-    private static final String MYSQL_URL = "jdbc:mysql://localhost:3306/libreria_db";
-    private static final String MYSQL_USER = "root";
-    private static final String MYSQL_PASSWORD = "Callupe07.";
+    // Se puede sobrescribir con -Dlibreria.db.url=... (por ejemplo para apuntar a otra BD)
+    // rewriteBatchedStatements: los executeBatch de INSERT viajan como un solo INSERT multi-fila
+    // useServerPrepStmts: las sentencias se preparan en el servidor, así la caché del pool
+    // (libreria.db.pool.statementCacheSize) evita que MySQL las vuelva a analizar
+    private static final String MYSQL_URL = System.getProperty("libreria.db.url",
+            "jdbc:mysql://localhost:3306/libreria_db?rewriteBatchedStatements=true&useServerPrepStmts=true");
+    private static final String MYSQL_USER = System.getProperty("libreria.db.user", "root");
+    private static final String MYSQL_PASSWORD = System.getProperty("libreria.db.password", "Callupe07.");
+    
+    // ========== CONFIGURACIÓN DEL POOL ==========
+    private static final int POOL_MAX_SIZE = Integer.getInteger("libreria.db.pool.maxSize", 10);
+    private static final int POOL_MIN_IDLE = Integer.getInteger("libreria.db.pool.minIdle", 2);
+    private static final long POOL_CONNECTION_TIMEOUT_MS = Long.getLong("libreria.db.pool.connectionTimeoutMs", 30_000L);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("libreria.db.pool.idleTimeoutMs", 600_000L);
+    private static final long POOL_MAX_LIFETIME_MS = Long.getLong("libreria.db.pool.maxLifetimeMs", 1_800_000L);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("libreria.db.pool.leakDetectionThresholdMs", 60_000L);
+    private static final int POOL_STATEMENT_CACHE_SIZE = Integer.getInteger("libreria.db.pool.statementCacheSize", 64);
+    // Plazo de cada sentencia: corta en la BD las consultas que EjecutorConsultas ya dio por vencidas
+    private static final int POOL_QUERY_TIMEOUT_SECONDS = Integer.getInteger("libreria.db.pool.queryTimeoutSeconds", 30);
+    
+    private static volatile ConnectionPool pool;
     
     // ========== MODO DE PRUEBA (SOLO PARA TESTS) ==========
     private static boolean isTestMode = false;
@@ -20,30 +40,116 @@ public class DatabaseConnection {
      * Obtiene una conexión a la base de datos
      * 
      * FUNCIONAMIENTO:
-     * - Modo PRODUCCIÓN (normal): Crea nueva conexión MySQL cada vez (TU CÓDIGO ORIGINAL)
-     * - Modo TEST: Usa conexión H2 compartida (solo durante tests)
+     * - Modo PRODUCCIÓN (normal): Presta una conexión del pool (close() la devuelve al pool)
+     * - Modo TEST: Usa conexión H2 compartida (solo durante tests); close() no la cierra
      * 
-     * @return Connection - Nueva conexión MySQL o conexión H2 de prueba
-     * @throws SQLException si no puede conectarse
+     * @return Connection - Conexión del pool o conexión H2 de prueba
+     * @throws SQLException si no puede conectarse o no hay conexiones libres a tiempo
      */
     public static Connection getConnection() throws SQLException {
         // Si está en modo test, usar conexión H2
         if (isTestMode && testConnection != null) {
-            return testConnection;
+            return sinCierre(testConnection);
         }
         
         // Modo PRODUCCIÓN
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(MYSQL_URL, MYSQL_USER, MYSQL_PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found.", e);
-        }
+        return getPool().getConnection();
+    }
+    
+    /**
+     * Métricas del pool (activas, inactivas, tiempo de espera...).
+     * Devuelve null si el pool todavía no se ha creado.
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        ConnectionPool actual = pool;
+        return actual != null ? actual.getStats() : null;
     }
     
-   
+    /**
+     * Máximo de conexiones del pool (libreria.db.pool.maxSize)
+     */
+    public static int getPoolMaxSize() {
+        return POOL_MAX_SIZE;
+    }
+    
+    /**
+     * Cierra el pool y todas sus conexiones inactivas.
+     * Se llama automáticamente al terminar la aplicación.
+     */
     public static void closeConnection() {
+        ConnectionPool actual;
+        synchronized (DatabaseConnection.class) {
+            actual = pool;
+            pool = null;
+        }
+        if (actual != null) {
+            actual.shutdown();
+        }
+    }
+    
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool actual = pool;
+        if (actual == null) {
+            synchronized (DatabaseConnection.class) {
+                actual = pool;
+                if (actual == null) {
+                    actual = crearPool();
+                    pool = actual;
+                }
+            }
+        }
+        return actual;
+    }
+    
+    private static ConnectionPool crearPool() throws SQLException {
+        if (MYSQL_URL.startsWith("jdbc:mysql:")) {
+            try {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("MySQL JDBC Driver not found.", e);
+            }
+        }
         
+        ConnectionPool.Config config = new ConnectionPool.Config()
+                .setMaxPoolSize(POOL_MAX_SIZE)
+                .setMinIdle(POOL_MIN_IDLE)
+                .setConnectionTimeoutMs(POOL_CONNECTION_TIMEOUT_MS)
+                .setIdleTimeoutMs(POOL_IDLE_TIMEOUT_MS)
+                .setMaxLifetimeMs(POOL_MAX_LIFETIME_MS)
+                .setLeakDetectionThresholdMs(POOL_LEAK_THRESHOLD_MS)
+                .setStatementCacheSize(POOL_STATEMENT_CACHE_SIZE)
+                .setQueryTimeoutSeconds(POOL_QUERY_TIMEOUT_SECONDS);
+        
+        ConnectionPool nuevo = new ConnectionPool(
+                () -> DriverManager.getConnection(MYSQL_URL, MYSQL_USER, MYSQL_PASSWORD), config);
+        Runtime.getRuntime().addShutdownHook(new Thread(nuevo::shutdown, "libreria-pool-shutdown"));
+        return nuevo;
+    }
+    
+    /**
+     * Envuelve la conexión H2 compartida para que los DAO que usan
+     * try-with-resources no la cierren entre test y test.
+     */
+    private static Connection sinCierre(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                DatabaseConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
     }
     
     // ========== MÉTODOS PARA TESTING ==========
@@ -81,7 +187,7 @@ public static void setTestMode(boolean testMode, Connection connection) {
     /**
      * Cierra una conexión de forma segura
      * En modo test NO cierra la conexión (se gestiona por BaseIntegrationTest)
-     * En modo producción la cierra normalmente
+     * En modo producción la devuelve al pool
      * 
      * @param connection Conexión a cerrar
      */
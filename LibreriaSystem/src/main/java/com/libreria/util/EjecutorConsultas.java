@@ -0,0 +1,132 @@
+package com.libreria.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta consultas a la BD en hilos virtuales y devuelve CompletableFuture.
+ *
+ * Cada consulta tiene su hilo virtual, pero como mucho "permisos" corren a la
+ * vez (por defecto el tamaño máximo del pool de conexiones): las demás
+ * esperan su turno sin ocupar una conexión ni un hilo de plataforma.
+ *
+ * El plazo (libreria.db.consultas.timeoutMs, 30 s por defecto) cuenta desde
+ * que se pide la consulta, incluida la espera del turno. Si vence, el futuro
+ * termina con TimeoutException; lo mismo si quien la pidió lo cancela. Una
+ * consulta que aún esperaba turno ya no se ejecuta, pero la que está en curso
+ * no se interrumpe: interrumpir un hilo dentro del driver puede dejar la
+ * conexión inservible. A esa la corta la BD con el plazo de sentencia del
+ * pool (libreria.db.pool.queryTimeoutSeconds, Statement.setQueryTimeout) y
+ * mientras tanto sigue ocupando su turno.
+ *
+ * Connector/J 8.0.33 hace la E/S dentro de bloques synchronized, así que un
+ * hilo virtual que espera a MySQL queda fijado a su hilo portador. Por eso el
+ * ejecutor compartido no admite más consultas a la vez que hilos portadores
+ * (jdk.virtualThreadScheduler.parallelism, por defecto un núcleo cada uno):
+ * en una caja de dos núcleos, diez consultas fijadas dejarían sin portador
+ * al resto de los hilos virtuales de la aplicación.
+ */
+public class EjecutorConsultas {
+    private static final long TIMEOUT_MS = Long.getLong("libreria.db.consultas.timeoutMs", 30_000L);
+
+    private static final EjecutorConsultas compartido = new EjecutorConsultas(
+            Math.min(DatabaseConnection.getPoolMaxSize(), getHilosPortadores()), TIMEOUT_MS);
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("libreria-consulta-", 0).factory());
+    private final Semaphore permisos;
+    private final int maxConcurrentes;
+    private final long timeoutMs;
+
+    public EjecutorConsultas(int maxConcurrentes, long timeoutMs) {
+        if (maxConcurrentes <= 0) {
+            throw new IllegalArgumentException("maxConcurrentes debe ser mayor a 0");
+        }
+        this.permisos = new Semaphore(maxConcurrentes, true);
+        this.maxConcurrentes = maxConcurrentes;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Ejecutor que usan los DAO asíncronos, acotado al pool de conexiones y
+     * a los hilos portadores
+     */
+    public static EjecutorConsultas getCompartido() {
+        return compartido;
+    }
+
+    public <R> CompletableFuture<R> ejecutar(Callable<R> consulta) {
+        return ejecutar(consulta, timeoutMs);
+    }
+
+    /**
+     * Ejecuta la consulta con su propio plazo (0 = sin plazo)
+     */
+    public <R> CompletableFuture<R> ejecutar(Callable<R> consulta, long timeoutMs) {
+        CompletableFuture<R> resultado = new CompletableFuture<>();
+        Future<?> tarea = executor.submit(() -> {
+            try {
+                permisos.acquire();
+            } catch (InterruptedException e) {
+                resultado.completeExceptionally(new CancellationException("Consulta cancelada antes de empezar"));
+                return;
+            }
+            if (resultado.isDone()) {
+                // Venció o se canceló mientras esperaba turno: ya nadie espera el resultado
+                permisos.release();
+                return;
+            }
+            R valor = null;
+            Throwable error = null;
+            try {
+                valor = consulta.call();
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                // Libera el turno antes de avisar: quien recibe el resultado ya puede usarlo
+                permisos.release();
+            }
+            if (error != null) {
+                resultado.completeExceptionally(error);
+            } else {
+                resultado.complete(valor);
+            }
+        });
+
+        if (timeoutMs > 0) {
+            resultado.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        // Vencida o cancelada: si no empezó, que no empiece; si ya corre, sin interrumpir
+        resultado.whenComplete((valor, error) -> {
+            if (error != null) {
+                tarea.cancel(false);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Hilos de plataforma que llevan a los hilos virtuales
+     */
+    static int getHilosPortadores() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getMaxConcurrentes() {
+        return maxConcurrentes;
+    }
+
+    /**
+     * Consultas corriendo en este momento
+     */
+    public int getEnCurso() {
+        return maxConcurrentes - permisos.availablePermits();
+    }
+}
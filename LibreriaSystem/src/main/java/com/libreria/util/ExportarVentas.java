@@ -0,0 +1,70 @@
+package com.libreria.util;
+
+import com.libreria.controller.VentaController;
+import com.libreria.exportacion.FormatoExportacion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+/**
+ * Extrae ventas o líneas de venta de un rango de días a CSV, columnar o Excel.
+ *
+ * Uso:
+ *   java -cp <classpath> com.libreria.util.ExportarVentas ventas 2025-01-01 2025-01-31 ventas_enero.csv
+ *   java -cp <classpath> com.libreria.util.ExportarVentas detalles 2025-01-01 2025-12-31 detalles_2025.lcol
+ *
+ * El formato se toma de la extensión del archivo (.csv, .lcol o .xlsx).
+ * Se escribe en un temporal junto al archivo y solo si termina bien reemplaza
+ * al destino: una exportación con error no deja un archivo a medias.
+ * La conexión se toma de las mismas propiedades libreria.db.* de la aplicación.
+ */
+public class ExportarVentas {
+
+    public static void main(String[] args) {
+        int codigoSalida = 0;
+        Path temporal = null;
+        try {
+            if (args.length != 4 || !(args[0].equals("ventas") || args[0].equals("detalles"))) {
+                throw new IllegalArgumentException("Uso: ExportarVentas ventas|detalles <desde> <hasta> <archivo>");
+            }
+            LocalDate desde = LocalDate.parse(args[1]);
+            LocalDate hasta = LocalDate.parse(args[2]);
+            String archivo = args[3];
+            FormatoExportacion formato = FormatoExportacion.desdeRuta(archivo);
+            if (formato == null) {
+                throw new IllegalArgumentException("Extensión no soportada (use .csv, .lcol o .xlsx): " + archivo);
+            }
+
+            long inicio = System.currentTimeMillis();
+            Path destino = Paths.get(archivo);
+            temporal = TrabajoExportacion.crearTemporal(destino);
+            VentaController ventaController = new VentaController();
+            int filas = args[0].equals("ventas")
+                    ? ventaController.exportarVentas(temporal.toString(), formato, desde.atStartOfDay(),
+                            hasta.atTime(23, 59, 59), ProgresoExportacion.NINGUNO)
+                    : ventaController.exportarDetallesVenta(temporal.toString(), formato, desde.atStartOfDay(),
+                            hasta.atTime(23, 59, 59), ProgresoExportacion.NINGUNO);
+            TrabajoExportacion.mover(temporal, destino);
+            temporal = null;
+
+            System.out.println(filas + " filas exportadas a " + archivo
+                    + " en " + (System.currentTimeMillis() - inicio) + " ms");
+        } catch (Exception e) {
+            System.err.println("Error al exportar: " + e.getMessage());
+            codigoSalida = 1;
+        } finally {
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException e) {
+                    System.err.println("No se pudo borrar el temporal " + temporal + ": " + e.getMessage());
+                }
+            }
+            DatabaseConnection.closeConnection();
+        }
+        System.exit(codigoSalida);
+    }
+}
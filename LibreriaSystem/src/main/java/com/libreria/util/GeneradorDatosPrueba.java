@@ -0,0 +1,568 @@
+package com.libreria.util;
+
+import com.libreria.dao.ResumenVentasDAO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Llena la base con un catálogo y un historial de ventas sintéticos para
+ * pruebas de carga y benchmarks (productos, ventas y detalles_venta).
+ *
+ * Los datos imitan a la librería real:
+ * - Popularidad de productos tipo Zipf: pocos productos concentran la mayoría
+ *   de las ventas y el resto casi no rota.
+ * - Estacionalidad: más ventas en campaña escolar (febrero-marzo), diciembre
+ *   y fines de semana; dentro del día, picos a media mañana y en la tarde.
+ * - Métodos de pago como en caja (Efectivo, YAPE, Tarjeta); las compras
+ *   grandes se pagan más con tarjeta.
+ *
+ * Con la misma semilla, tamaños y fechas se genera exactamente la misma base.
+ * Inserta con INSERT de varias filas y ids asignados aquí, así que funciona
+ * igual en MySQL y en H2 (modo MySQL). Solo agrega datos: el rango de fechas
+ * no debe tener ventas previas. Los resúmenes (resumen_ventas_*) no se tocan;
+ * después hay que llamar a ResumenVentasDAO.reconstruir (main ya lo hace).
+ *
+ * Uso:
+ *   java -cp <classpath> com.libreria.util.GeneradorDatosPrueba 50000 2000000 365
+ *   java -cp <classpath> com.libreria.util.GeneradorDatosPrueba 50000 2000000 365 42
+ *
+ * Argumentos: productos, ventas, días de historial (terminando hoy) y semilla.
+ * La conexión se toma de las mismas propiedades libreria.db.* de la aplicación.
+ */
+public class GeneradorDatosPrueba {
+    public static final long SEMILLA_POR_DEFECTO = 42;
+    public static final int STOCK_POR_DEFECTO = 500;
+
+    // Filas por sentencia INSERT; 500 x 7 columnas queda lejos del límite de parámetros
+    private static final int FILAS_POR_SENTENCIA = 500;
+    private static final int VENTAS_POR_TRANSACCION = 20_000;
+
+    // Exponente de la distribución Zipf de popularidad
+    private static final double EXPONENTE_ZIPF = 1.0;
+
+    // Lunes a domingo
+    private static final double[] PESO_DIA_SEMANA = {0.90, 0.90, 0.95, 1.00, 1.15, 1.35, 0.50};
+    // Enero a diciembre
+    private static final double[] PESO_MES = {1.10, 1.80, 2.20, 1.10, 0.90, 0.90, 1.00, 0.90, 0.90, 0.90, 1.00, 1.50};
+    // Horas de atención: 8:00 a 20:59
+    private static final int PRIMERA_HORA = 8;
+    private static final double[] PESO_HORA = {0.4, 0.7, 1.0, 1.2, 1.3, 1.0, 0.8, 0.9, 1.1, 1.3, 1.2, 0.8, 0.4};
+
+    // Probabilidad acumulada de 1, 2, ... líneas por venta
+    private static final double[] LINEAS_POR_VENTA = {0.45, 0.70, 0.84, 0.92, 0.97, 1.00};
+
+    private static final String[] METODOS_PAGO = {"Efectivo", "YAPE", "Tarjeta"};
+    private static final double[] PAGO_COMPRA_CHICA = {0.58, 0.85, 1.00};
+    private static final double[] PAGO_COMPRA_GRANDE = {0.35, 0.60, 1.00};
+    private static final double COMPRA_GRANDE = 100.0;
+
+    private static final String[] MARCAS = {"Faber-Castell", "Artesco", "Standford", "Layconsa", "Vinifan", "Pilot", "Casio", "Justus"};
+    private static final String[] VARIANTES = {"A4", "A5", "Oficio", "x12", "x24", "Azul", "Rojo", "Negro", "Premium", "Económico"};
+
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final int productos;
+    private final int ventas;
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final long semilla;
+    private int stockInicial = STOCK_POR_DEFECTO;
+
+    /**
+     * Resultado de una carga: cantidades insertadas y duración
+     */
+    public record Resultado(int productos, int ventas, long detalles, long milisegundos) {
+    }
+
+    public GeneradorDatosPrueba(int productos, int ventas, LocalDate desde, LocalDate hasta, long semilla) {
+        if (productos <= 0 || ventas < 0) {
+            throw new IllegalArgumentException("Se necesita al menos un producto y un número de ventas no negativo");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la inicial");
+        }
+        this.productos = productos;
+        this.ventas = ventas;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.semilla = semilla;
+    }
+
+    /**
+     * Stock con el que se crean los productos (las ventas generadas son
+     * historial y no lo descuentan)
+     */
+    public void setStockInicial(int stockInicial) {
+        this.stockInicial = stockInicial;
+    }
+
+    /**
+     * Inserta los productos y las ventas en la conexión dada. Confirma por
+     * tramos de VENTAS_POR_TRANSACCION ventas y deja autoCommit como estaba.
+     */
+    public Resultado generar(Connection conn) throws SQLException {
+        long inicio = System.currentTimeMillis();
+        verificarRangoLibre(conn);
+
+        SplittableRandom random = new SplittableRandom(semilla);
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int primerProducto = siguienteId(conn, "productos");
+            double[] precios = insertarProductos(conn, random, primerProducto);
+            conn.commit();
+
+            long detalles = insertarVentas(conn, random, primerProducto, precios);
+            conn.commit();
+
+            if (esH2(conn)) {
+                // H2 no avanza la identidad cuando el id viene en el INSERT
+                reiniciarIdentidad(conn, "productos");
+                reiniciarIdentidad(conn, "ventas");
+                reiniciarIdentidad(conn, "detalles_venta");
+                conn.commit();
+            }
+            return new Resultado(productos, ventas, detalles, System.currentTimeMillis() - inicio);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void verificarRangoLibre(Connection conn) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM ventas WHERE fecha >= ? AND fecha < ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(desde.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(hasta.plusDays(1).atStartOfDay()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    throw new SQLException("Ya hay ventas entre " + desde + " y " + hasta
+                            + "; use una base vacía u otro rango de fechas");
+                }
+            }
+        }
+    }
+
+    // ==================== PRODUCTOS ====================
+
+    private double[] insertarProductos(Connection conn, SplittableRandom random, int primerId) throws SQLException {
+        Categoria[] categorias = Categoria.values();
+        double[] precios = new double[productos];
+
+        try (InsercionMultiple insercion = new InsercionMultiple(conn, "productos",
+                new String[]{"id", "codigo", "nombre", "categoria", "precio", "stock", "descripcion"}, null)) {
+            for (int i = 0; i < productos; i++) {
+                int id = primerId + i;
+                Categoria categoria = categorias[random.nextInt(categorias.length)];
+                // Precio log-normal alrededor del precio típico de la categoría
+                double precio = categoria.precioTipico * Math.exp(0.5 * gaussiana(random));
+                precio = Math.max(0.5, Math.round(precio * 10) / 10.0);
+                precios[i] = precio;
+
+                String nombre = categoria.nombres[random.nextInt(categoria.nombres.length)]
+                        + " " + VARIANTES[random.nextInt(VARIANTES.length)]
+                        + " " + MARCAS[random.nextInt(MARCAS.length)];
+                insercion.agregar(id, String.format("P%06d", id), nombre, categoria.nombre,
+                        precio, stockInicial, "Generado para pruebas de carga");
+            }
+        }
+        return precios;
+    }
+
+    /**
+     * Categorías del catálogo con nombres de ejemplo y precio típico (S/.)
+     */
+    private enum Categoria {
+        CUADERNOS("Cuadernos", 6.5, "Cuaderno", "Cuaderno Cuadriculado", "Cuaderno Rayado"),
+        PAPEL("Papel", 18.0, "Resma Papel", "Papel Bond", "Papel Lustre"),
+        LAPICEROS("Lapiceros", 2.0, "Lapicero", "Lapicero Gel", "Portaminas"),
+        LAPICES("Lápices", 1.5, "Lápiz", "Lápiz 2B", "Lápiz de Dibujo"),
+        COLORES("Colores", 12.0, "Colores", "Colores Largos", "Plumones"),
+        FOLDERS("Folders", 3.0, "Folder", "Archivador", "Sobre Manila"),
+        ARTE("Arte y Manualidades", 9.0, "Témpera", "Cartulina", "Plastilina"),
+        LIBROS("Libros", 45.0, "Libro de Texto", "Diccionario", "Novela"),
+        MOCHILAS("Mochilas", 85.0, "Mochila", "Cartuchera", "Lonchera"),
+        CALCULADORAS("Calculadoras", 55.0, "Calculadora", "Calculadora Científica", "Calculadora Básica");
+
+        final String nombre;
+        final double precioTipico;
+        final String[] nombres;
+
+        Categoria(String nombre, double precioTipico, String... nombres) {
+            this.nombre = nombre;
+            this.precioTipico = precioTipico;
+            this.nombres = nombres;
+        }
+    }
+
+    // ==================== VENTAS ====================
+
+    private long insertarVentas(Connection conn, SplittableRandom random, int primerProducto, double[] precios) throws SQLException {
+        double[] popularidad = acumuladaZipf(productos);
+        int[] productoPorRango = permutacion(random, productos);
+        double[] horas = acumulada(PESO_HORA);
+        int[] ventasPorDia = repartirPorDia(random);
+
+        int idVenta = siguienteId(conn, "ventas");
+        int idDetalle = siguienteId(conn, "detalles_venta");
+        int[] lineas = new int[LINEAS_POR_VENTA.length];
+        int[] cantidades = new int[LINEAS_POR_VENTA.length];
+        List<Object[]> secuencias = new ArrayList<>();
+        long detalles = 0;
+        int enTransaccion = 0;
+
+        try (InsercionMultiple insercionVentas = new InsercionMultiple(conn, "ventas",
+                new String[]{"id", "numero_venta", "fecha", "total", "metodo_pago"}, null);
+             InsercionMultiple insercionDetalles = new InsercionMultiple(conn, "detalles_venta",
+                new String[]{"id", "venta_id", "producto_id", "cantidad", "precio_unitario"}, insercionVentas)) {
+
+            for (int d = 0; d < ventasPorDia.length; d++) {
+                int cantidadDia = ventasPorDia[d];
+                if (cantidadDia == 0) {
+                    continue;
+                }
+                LocalDate dia = desde.plusDays(d);
+                String prefijo = "V" + dia.format(FORMATO_DIA) + "-";
+
+                // Segundos desde la medianoche, ordenados para que el número de venta siga a la hora
+                int[] segundos = new int[cantidadDia];
+                for (int i = 0; i < cantidadDia; i++) {
+                    int hora = PRIMERA_HORA + buscar(horas, random.nextDouble());
+                    segundos[i] = hora * 3600 + random.nextInt(3600);
+                }
+                Arrays.sort(segundos);
+
+                for (int i = 0; i < cantidadDia; i++) {
+                    int numLineas = 1 + buscar(LINEAS_POR_VENTA, random.nextDouble());
+                    double total = 0;
+                    for (int l = 0; l < numLineas; l++) {
+                        lineas[l] = elegirProducto(random, popularidad, productoPorRango, lineas, l);
+                        cantidades[l] = cantidad(random);
+                        total += cantidades[l] * precios[lineas[l]];
+                    }
+                    total = Math.round(total * 100) / 100.0;
+                    double[] pago = total >= COMPRA_GRANDE ? PAGO_COMPRA_GRANDE : PAGO_COMPRA_CHICA;
+
+                    insercionVentas.agregar(idVenta, prefijo + String.format("%04d", i + 1),
+                            Timestamp.valueOf(dia.atStartOfDay().plusSeconds(segundos[i])),
+                            total, METODOS_PAGO[buscar(pago, random.nextDouble())]);
+                    for (int l = 0; l < numLineas; l++) {
+                        insercionDetalles.agregar(idDetalle++, idVenta, primerProducto + lineas[l],
+                                cantidades[l], precios[lineas[l]]);
+                    }
+                    detalles += numLineas;
+                    idVenta++;
+
+                    if (++enTransaccion == VENTAS_POR_TRANSACCION) {
+                        insercionDetalles.vaciar();
+                        conn.commit();
+                        enTransaccion = 0;
+                    }
+                }
+                secuencias.add(new Object[]{dia.format(FORMATO_DIA), cantidadDia});
+            }
+        }
+
+        registrarSecuencias(conn, secuencias);
+        return detalles;
+    }
+
+    /**
+     * Reparte las ventas entre los días según día de la semana y mes, con
+     * un poco de ruido. Usa restos mayores para que la suma sea exacta.
+     */
+    private int[] repartirPorDia(SplittableRandom random) {
+        int dias = (int) ChronoUnit.DAYS.between(desde, hasta) + 1;
+        double[] pesos = new double[dias];
+        double suma = 0;
+        for (int d = 0; d < dias; d++) {
+            LocalDate dia = desde.plusDays(d);
+            pesos[d] = PESO_DIA_SEMANA[dia.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()]
+                    * PESO_MES[dia.getMonthValue() - 1]
+                    * (0.9 + 0.2 * random.nextDouble());
+            suma += pesos[d];
+        }
+
+        int[] cantidades = new int[dias];
+        double[] restos = new double[dias];
+        int asignadas = 0;
+        for (int d = 0; d < dias; d++) {
+            double exacto = ventas * pesos[d] / suma;
+            cantidades[d] = (int) exacto;
+            restos[d] = exacto - cantidades[d];
+            asignadas += cantidades[d];
+        }
+        Integer[] orden = new Integer[dias];
+        for (int d = 0; d < dias; d++) {
+            orden[d] = d;
+        }
+        Arrays.sort(orden, (a, b) -> Double.compare(restos[b], restos[a]));
+        for (int i = 0; asignadas < ventas; i++, asignadas++) {
+            cantidades[orden[i % dias]]++;
+        }
+        return cantidades;
+    }
+
+    /**
+     * Índice de producto (0..productos-1) según popularidad, sin repetir
+     * los ya elegidos en la misma venta (salvo que no haya más remedio)
+     */
+    private int elegirProducto(SplittableRandom random, double[] popularidad, int[] productoPorRango,
+                               int[] elegidos, int cantidadElegidos) {
+        int producto = 0;
+        for (int intento = 0; intento < 5; intento++) {
+            producto = productoPorRango[buscar(popularidad, random.nextDouble())];
+            boolean repetido = false;
+            for (int i = 0; i < cantidadElegidos && !repetido; i++) {
+                repetido = elegidos[i] == producto;
+            }
+            if (!repetido) {
+                break;
+            }
+        }
+        return producto;
+    }
+
+    // Casi siempre 1 unidad; a veces por docena (listas escolares)
+    private int cantidad(SplittableRandom random) {
+        double r = random.nextDouble();
+        if (r < 0.70) {
+            return 1;
+        } else if (r < 0.85) {
+            return 2;
+        } else if (r < 0.93) {
+            return 3;
+        } else if (r < 0.97) {
+            return 4 + random.nextInt(3);
+        }
+        return 10 + random.nextInt(3);
+    }
+
+    /**
+     * Deja secuencias_venta al día con los números usados, para que las
+     * ventas nuevas de esos días sigan la numeración
+     */
+    private void registrarSecuencias(Connection conn, List<Object[]> secuencias) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM secuencias_venta WHERE fecha = ?")) {
+            for (Object[] secuencia : secuencias) {
+                stmt.setString(1, (String) secuencia[0]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        try (InsercionMultiple insercion = new InsercionMultiple(conn, "secuencias_venta",
+                new String[]{"fecha", "ultimo"}, null)) {
+            for (Object[] secuencia : secuencias) {
+                insercion.agregar(secuencia);
+            }
+        }
+    }
+
+    // ==================== DISTRIBUCIONES ====================
+
+    // Probabilidad acumulada de los rangos 1..n con peso 1/rango^s
+    private static double[] acumuladaZipf(int n) {
+        double[] acumulada = new double[n];
+        double suma = 0;
+        for (int k = 0; k < n; k++) {
+            suma += 1.0 / Math.pow(k + 1, EXPONENTE_ZIPF);
+            acumulada[k] = suma;
+        }
+        for (int k = 0; k < n; k++) {
+            acumulada[k] /= suma;
+        }
+        return acumulada;
+    }
+
+    private static double[] acumulada(double[] pesos) {
+        double[] acumulada = new double[pesos.length];
+        double suma = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            suma += pesos[i];
+            acumulada[i] = suma;
+        }
+        for (int i = 0; i < pesos.length; i++) {
+            acumulada[i] /= suma;
+        }
+        return acumulada;
+    }
+
+    // Primer índice cuya probabilidad acumulada supera r
+    private static int buscar(double[] acumulada, double r) {
+        int i = Arrays.binarySearch(acumulada, r);
+        i = i >= 0 ? i + 1 : -i - 1;
+        return Math.min(i, acumulada.length - 1);
+    }
+
+    // Los productos más populares quedan repartidos por el catálogo, no en los primeros ids
+    private static int[] permutacion(SplittableRandom random, int n) {
+        int[] valores = new int[n];
+        for (int i = 0; i < n; i++) {
+            valores[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = valores[i];
+            valores[i] = valores[j];
+            valores[j] = tmp;
+        }
+        return valores;
+    }
+
+    private static double gaussiana(SplittableRandom random) {
+        // Box-Muller; 1 - nextDouble() evita log(0)
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    // ==================== SQL ====================
+
+    private static int siguienteId(Connection conn, String tabla) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + tabla)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static boolean esH2(Connection conn) throws SQLException {
+        return "H2".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+    }
+
+    private static void reiniciarIdentidad(Connection conn, String tabla) throws SQLException {
+        int siguiente = siguienteId(conn, tabla);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + tabla + " ALTER COLUMN id RESTART WITH " + siguiente);
+        }
+    }
+
+    /**
+     * Acumula filas y las inserta de FILAS_POR_SENTENCIA en FILAS_POR_SENTENCIA
+     * con un solo INSERT ... VALUES (...), (...). Si depende de otra inserción
+     * (detalles de ventas), la vacía antes para respetar la clave foránea.
+     */
+    private static class InsercionMultiple implements AutoCloseable {
+        private final Connection conn;
+        private final String tabla;
+        private final String[] columnas;
+        private final InsercionMultiple anterior;
+        private final Object[] pendientes;
+        private int filas;
+        private PreparedStatement sentenciaCompleta;
+
+        InsercionMultiple(Connection conn, String tabla, String[] columnas, InsercionMultiple anterior) {
+            this.conn = conn;
+            this.tabla = tabla;
+            this.columnas = columnas;
+            this.anterior = anterior;
+            this.pendientes = new Object[FILAS_POR_SENTENCIA * columnas.length];
+        }
+
+        void agregar(Object... valores) throws SQLException {
+            System.arraycopy(valores, 0, pendientes, filas * columnas.length, columnas.length);
+            if (++filas == FILAS_POR_SENTENCIA) {
+                vaciar();
+            }
+        }
+
+        void vaciar() throws SQLException {
+            if (anterior != null) {
+                anterior.vaciar();
+            }
+            if (filas == 0) {
+                return;
+            }
+            PreparedStatement stmt;
+            if (filas == FILAS_POR_SENTENCIA) {
+                if (sentenciaCompleta == null) {
+                    sentenciaCompleta = conn.prepareStatement(sql(FILAS_POR_SENTENCIA));
+                }
+                stmt = sentenciaCompleta;
+            } else {
+                stmt = conn.prepareStatement(sql(filas));
+            }
+            try {
+                for (int i = 0; i < filas * columnas.length; i++) {
+                    stmt.setObject(i + 1, pendientes[i]);
+                }
+                stmt.executeUpdate();
+            } finally {
+                if (stmt != sentenciaCompleta) {
+                    stmt.close();
+                }
+            }
+            filas = 0;
+        }
+
+        private String sql(int cantidadFilas) {
+            String fila = "(" + String.join(", ", Collections.nCopies(columnas.length, "?")) + ")";
+            StringBuilder sb = new StringBuilder("INSERT INTO ").append(tabla)
+                    .append(" (").append(String.join(", ", columnas)).append(") VALUES ");
+            for (int i = 0; i < cantidadFilas; i++) {
+                sb.append(i > 0 ? ", " : "").append(fila);
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                vaciar();
+            } finally {
+                if (sentenciaCompleta != null) {
+                    sentenciaCompleta.close();
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int codigoSalida = 0;
+        try {
+            if (args.length < 3) {
+                throw new IllegalArgumentException("Uso: GeneradorDatosPrueba <productos> <ventas> <dias> [semilla]");
+            }
+            int productos = Integer.parseInt(args[0]);
+            int ventas = Integer.parseInt(args[1]);
+            int dias = Integer.parseInt(args[2]);
+            long semilla = args.length > 3 ? Long.parseLong(args[3]) : SEMILLA_POR_DEFECTO;
+            LocalDate hasta = LocalDate.now();
+            LocalDate desde = hasta.minusDays(dias - 1);
+
+            GeneradorDatosPrueba generador = new GeneradorDatosPrueba(productos, ventas, desde, hasta, semilla);
+            Resultado resultado;
+            Connection conn = DatabaseConnection.getConnection();
+            try {
+                resultado = generador.generar(conn);
+            } finally {
+                conn.close();
+            }
+            new ResumenVentasDAO().reconstruir(desde, hasta);
+
+            System.out.println("Generados " + resultado.productos() + " productos, " + resultado.ventas()
+                    + " ventas y " + resultado.detalles() + " detalles del " + desde + " al " + hasta
+                    + " en " + resultado.milisegundos() + " ms");
+        } catch (Exception e) {
+            System.err.println("Error al generar los datos de prueba: " + e.getMessage());
+            codigoSalida = 1;
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+        System.exit(codigoSalida);
+    }
+}
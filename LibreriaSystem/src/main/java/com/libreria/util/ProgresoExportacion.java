@@ -0,0 +1,29 @@
+package com.libreria.util;
+
+/**
+ * Avance de una exportación, fila por fila.
+ *
+ * El generador del reporte llama a inicio() cuando sabe cuántas filas va a
+ * escribir y a filaEscrita() después de cada una. Si el usuario canceló,
+ * filaEscrita() lanza CancellationException y el recorrido se corta ahí.
+ */
+public interface ProgresoExportacion {
+
+    // Para exportar sin seguimiento (llamadas directas y pruebas)
+    ProgresoExportacion NINGUNO = new ProgresoExportacion() {
+        @Override
+        public void inicio(int totalFilas) {
+        }
+
+        @Override
+        public void filaEscrita() {
+        }
+    };
+
+    /**
+     * @param totalFilas filas esperadas, o -1 si no se conocen de antemano
+     */
+    void inicio(int totalFilas);
+
+    void filaEscrita();
+}
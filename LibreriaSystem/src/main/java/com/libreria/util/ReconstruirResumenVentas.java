@@ -0,0 +1,40 @@
+package com.libreria.util;
+
+import com.libreria.dao.ResumenVentasDAO;
+
+import java.time.LocalDate;
+
+/**
+ * Recalcula las tablas resumen_ventas_* desde el historial de ventas.
+ *
+ * Uso:
+ *   java -cp <classpath> com.libreria.util.ReconstruirResumenVentas
+ *   java -cp <classpath> com.libreria.util.ReconstruirResumenVentas 2025-01-01 2025-01-31
+ *
+ * Sin argumentos reconstruye todo (carga inicial tras crear las tablas).
+ * Con fechas (yyyy-MM-dd) solo esos días; con una sola fecha, solo ese día.
+ * La conexión se toma de las mismas propiedades libreria.db.* de la aplicación.
+ */
+public class ReconstruirResumenVentas {
+
+    public static void main(String[] args) {
+        int codigoSalida = 0;
+        try {
+            LocalDate desde = args.length > 0 ? LocalDate.parse(args[0]) : null;
+            LocalDate hasta = args.length > 1 ? LocalDate.parse(args[1]) : desde;
+
+            long inicio = System.currentTimeMillis();
+            new ResumenVentasDAO().reconstruir(desde, hasta);
+
+            System.out.println("Resúmenes de ventas reconstruidos"
+                    + (desde != null ? " del " + desde + " al " + hasta : " (historial completo)")
+                    + " en " + (System.currentTimeMillis() - inicio) + " ms");
+        } catch (Exception e) {
+            System.err.println("Error al reconstruir los resúmenes: " + e.getMessage());
+            codigoSalida = 1;
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+        System.exit(codigoSalida);
+    }
+}
@@ -0,0 +1,448 @@
+package com.libreria.util;
+
+import com.libreria.controller.VentaController;
+import com.libreria.dao.ProductoDAO;
+import com.libreria.model.DetalleVenta;
+import com.libreria.model.Producto;
+import com.libreria.model.Venta;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Prueba de carga de caja sin interfaz: N cajeros venden a la vez contra
+ * VentaController.crear, cada uno con su propio controlador (como cada
+ * VentaPanel abierto).
+ *
+ * Cada cajero arma carritos de 1 a 4 productos; la mayoría de las líneas
+ * caen en unos pocos productos "calientes" para forzar la competencia por
+ * el mismo stock. Los interbloqueos y esperas de bloqueo vencidas se
+ * reintentan hasta MAX_REINTENTOS veces, como lo haría el cajero.
+ *
+ * Al final compara el stock de la base con el inicial menos lo vendido:
+ * cualquier diferencia o stock negativo es una violación de consistencia.
+ * Los errores se agrupan por SQLState (o tipo de excepción) con el primer
+ * mensaje de cada grupo, para poder diagnosticarlos desde el reporte.
+ *
+ * Uso:
+ *   java -cp <classpath> com.libreria.util.SimuladorCajas 8 500
+ *   java -cp <classpath> com.libreria.util.SimuladorCajas 8 500 20 42
+ *
+ * Argumentos: cajas, ventas por caja, pausa entre ventas (ms) y semilla.
+ * Sale con código 2 si hubo violaciones de stock. Vende de verdad: usar
+ * una base de pruebas (ver GeneradorDatosPrueba).
+ */
+public class SimuladorCajas {
+    public static final int MAX_REINTENTOS = 3;
+    private static final int PRODUCTOS_CALIENTES = 10;
+    private static final double PROB_CALIENTE = 0.8;
+    private static final long ESPERA_REINTENTO_MS = 10;
+
+    // Códigos de MySQL y H2 para interbloqueo y espera de bloqueo vencida
+    private static final int MYSQL_INTERBLOQUEO = 1213;
+    private static final int MYSQL_ESPERA_VENCIDA = 1205;
+    private static final int H2_ESPERA_VENCIDA = 50200;
+
+    /**
+     * Lee el stock actual de los productos indicados (id -> stock)
+     */
+    @FunctionalInterface
+    public interface LectorStock {
+        Map<Integer, Integer> leer(List<Integer> ids) throws Exception;
+    }
+
+    /**
+     * Resultado de una corrida. Latencias en milisegundos por venta
+     * completa (incluye los reintentos que vio el cajero). causasErrores
+     * tiene una línea por causa: cuántas veces y el primer mensaje.
+     */
+    public record Reporte(int cajas, int ventas, int sinStock, int errores,
+                          int reintentos, int interbloqueos, int esperasVencidas,
+                          long milisegundos, double p50, double p95, double p99, double maximo,
+                          List<String> causasErrores, List<String> violaciones) {
+
+        public double ventasPorSegundo() {
+            return milisegundos > 0 ? ventas * 1000.0 / milisegundos : 0;
+        }
+
+        public boolean isConsistente() {
+            return violaciones.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Cajas: %d | Ventas: %d en %d ms (%.1f ventas/s)%n",
+                    cajas, ventas, milisegundos, ventasPorSegundo()));
+            sb.append(String.format("Latencia ms: p50 %.1f | p95 %.1f | p99 %.1f | máx %.1f%n",
+                    p50, p95, p99, maximo));
+            sb.append(String.format("Sin stock: %d | Errores: %d | Reintentos: %d (interbloqueos %d, esperas vencidas %d)%n",
+                    sinStock, errores, reintentos, interbloqueos, esperasVencidas));
+            causasErrores.forEach(c -> sb.append("  ").append(c).append(System.lineSeparator()));
+            if (violaciones.isEmpty()) {
+                sb.append("Stock consistente");
+            } else {
+                sb.append("Violaciones de stock (").append(violaciones.size()).append("):");
+                violaciones.forEach(v -> sb.append(System.lineSeparator()).append("  ").append(v));
+            }
+            return sb.toString();
+        }
+    }
+
+    private final Supplier<VentaController> fabricaControladores;
+    private final List<Producto> catalogo;
+    private final LectorStock lectorStock;
+    private final int cajas;
+    private final int ventasPorCaja;
+    private final long pausaMs;
+    private final long semilla;
+
+    public SimuladorCajas(Supplier<VentaController> fabricaControladores, List<Producto> catalogo,
+                          int cajas, int ventasPorCaja, long pausaMs, long semilla) {
+        this(fabricaControladores, catalogo, SimuladorCajas::leerStock, cajas, ventasPorCaja, pausaMs, semilla);
+    }
+
+    // Constructor con lector de stock propio (para testing)
+    public SimuladorCajas(Supplier<VentaController> fabricaControladores, List<Producto> catalogo,
+                          LectorStock lectorStock, int cajas, int ventasPorCaja, long pausaMs, long semilla) {
+        if (catalogo.isEmpty()) {
+            throw new IllegalArgumentException("No hay productos para vender");
+        }
+        this.fabricaControladores = fabricaControladores;
+        this.lectorStock = lectorStock;
+        this.cajas = cajas;
+        this.ventasPorCaja = ventasPorCaja;
+        this.pausaMs = pausaMs;
+        this.semilla = semilla;
+
+        // Orden fijo por semilla: los primeros PRODUCTOS_CALIENTES son los más pedidos
+        List<Producto> mezclados = new ArrayList<>(catalogo);
+        Collections.shuffle(mezclados, new Random(semilla));
+        this.catalogo = mezclados;
+    }
+
+    /**
+     * Lanza las cajas a la vez, espera que terminen y verifica el stock
+     */
+    public Reporte ejecutar() throws Exception {
+        List<Integer> ids = catalogo.stream().map(Producto::getId).collect(Collectors.toList());
+        Map<Integer, Integer> stockInicial = lectorStock.leer(ids);
+        Map<Integer, Integer> indices = new HashMap<>();
+        for (int i = 0; i < catalogo.size(); i++) {
+            indices.put(catalogo.get(i).getId(), i);
+        }
+
+        AtomicIntegerArray vendido = new AtomicIntegerArray(catalogo.size());
+        Contadores contadores = new Contadores();
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger numeroCaja = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(cajas, r -> {
+            Thread t = new Thread(r, "caja-" + numeroCaja.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<Future<long[]>> pendientes = new ArrayList<>();
+        List<long[]> latencias = new ArrayList<>();
+        long inicio;
+        try {
+            for (int c = 0; c < cajas; c++) {
+                Caja caja = new Caja(fabricaControladores.get(), new SplittableRandom(semilla + c),
+                        vendido, indices, contadores, salida);
+                pendientes.add(executor.submit(caja::vender));
+            }
+            inicio = System.nanoTime();
+            salida.countDown();
+            for (Future<long[]> f : pendientes) {
+                latencias.add(f.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long duracion = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        long[] todas = latencias.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        List<String> violaciones = verificarStock(stockInicial, lectorStock.leer(ids), vendido);
+
+        return new Reporte(cajas, todas.length, contadores.sinStock.get(), contadores.errores.get(),
+                contadores.reintentos.get(), contadores.interbloqueos.get(), contadores.esperasVencidas.get(),
+                duracion, percentil(todas, 50), percentil(todas, 95), percentil(todas, 99),
+                todas.length > 0 ? todas[todas.length - 1] / 1e6 : 0, contadores.describirCausas(), violaciones);
+    }
+
+    private List<String> verificarStock(Map<Integer, Integer> inicial, Map<Integer, Integer> fin,
+                                        AtomicIntegerArray vendido) {
+        List<String> violaciones = new ArrayList<>();
+        for (int i = 0; i < catalogo.size(); i++) {
+            Producto producto = catalogo.get(i);
+            int antes = inicial.getOrDefault(producto.getId(), 0);
+            int despues = fin.getOrDefault(producto.getId(), 0);
+            int esperado = antes - vendido.get(i);
+            if (despues != esperado || despues < 0) {
+                violaciones.add(producto.getCodigo() + ": stock inicial " + antes + ", vendido " + vendido.get(i)
+                        + ", final " + despues + " (esperado " + esperado + ")");
+            }
+        }
+        return violaciones;
+    }
+
+    // Percentil por rango más cercano, en milisegundos
+    static double percentil(long[] ordenadasNanos, int p) {
+        if (ordenadasNanos.length == 0) {
+            return 0;
+        }
+        int rango = (int) Math.ceil(p / 100.0 * ordenadasNanos.length);
+        return ordenadasNanos[Math.max(0, rango - 1)] / 1e6;
+    }
+
+    private static class Contadores {
+        final AtomicInteger sinStock = new AtomicInteger();
+        final AtomicInteger errores = new AtomicInteger();
+        final AtomicInteger reintentos = new AtomicInteger();
+        final AtomicInteger interbloqueos = new AtomicInteger();
+        final AtomicInteger esperasVencidas = new AtomicInteger();
+        // Causa -> veces y primer mensaje visto
+        final ConcurrentHashMap<String, CausaError> causas = new ConcurrentHashMap<>();
+
+        void registrarError(String causa, Throwable e) {
+            errores.incrementAndGet();
+            causas.computeIfAbsent(causa, k -> new CausaError(mensaje(e))).veces.incrementAndGet();
+        }
+
+        List<String> describirCausas() {
+            // Las más frecuentes primero; a igual cantidad, por nombre
+            return causas.entrySet().stream()
+                    .sorted(Comparator.comparingInt((Map.Entry<String, CausaError> c) -> -c.getValue().veces.get())
+                            .thenComparing(Map.Entry::getKey))
+                    .map(c -> c.getKey() + " x" + c.getValue().veces.get() + ": " + c.getValue().primerMensaje)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static class CausaError {
+        final AtomicInteger veces = new AtomicInteger();
+        final String primerMensaje;
+
+        CausaError(String primerMensaje) {
+            this.primerMensaje = primerMensaje;
+        }
+    }
+
+    private enum Falla { INTERBLOQUEO, ESPERA_VENCIDA, SIN_STOCK, OTRA }
+
+    /**
+     * Un cajero: vende ventasPorCaja veces y devuelve la latencia (ns) de
+     * cada venta confirmada
+     */
+    private class Caja {
+        private final VentaController controller;
+        private final SplittableRandom random;
+        private final AtomicIntegerArray vendido;
+        private final Map<Integer, Integer> indices;
+        private final Contadores contadores;
+        private final CountDownLatch salida;
+
+        Caja(VentaController controller, SplittableRandom random, AtomicIntegerArray vendido,
+             Map<Integer, Integer> indices, Contadores contadores, CountDownLatch salida) {
+            this.controller = controller;
+            this.random = random;
+            this.vendido = vendido;
+            this.indices = indices;
+            this.contadores = contadores;
+            this.salida = salida;
+        }
+
+        long[] vender() throws InterruptedException {
+            long[] latencias = new long[ventasPorCaja];
+            int confirmadas = 0;
+            salida.await();
+
+            for (int v = 0; v < ventasPorCaja; v++) {
+                Map<Producto, Integer> carrito = armarCarrito();
+                long inicio = System.nanoTime();
+                if (venderConReintentos(carrito)) {
+                    latencias[confirmadas++] = System.nanoTime() - inicio;
+                    for (Map.Entry<Producto, Integer> linea : carrito.entrySet()) {
+                        vendido.addAndGet(indices.get(linea.getKey().getId()), linea.getValue());
+                    }
+                }
+                if (pausaMs > 0) {
+                    Thread.sleep(pausaMs);
+                }
+            }
+            return Arrays.copyOf(latencias, confirmadas);
+        }
+
+        private boolean venderConReintentos(Map<Producto, Integer> carrito) throws InterruptedException {
+            for (int intento = 0; ; intento++) {
+                // Venta nueva en cada intento: crear() le asigna número e id
+                Venta venta = new Venta();
+                venta.setMetodoPago("Efectivo");
+                for (Map.Entry<Producto, Integer> linea : carrito.entrySet()) {
+                    venta.agregarDetalle(new DetalleVenta(linea.getKey(), linea.getValue(), linea.getKey().getPrecio()));
+                }
+                try {
+                    controller.crear(venta);
+                    return true;
+                } catch (Exception e) {
+                    Falla falla = clasificar(e);
+                    switch (falla) {
+                        case SIN_STOCK -> {
+                            contadores.sinStock.incrementAndGet();
+                            return false;
+                        }
+                        case OTRA -> {
+                            contadores.registrarError(causa(e), e);
+                            return false;
+                        }
+                        case INTERBLOQUEO -> contadores.interbloqueos.incrementAndGet();
+                        case ESPERA_VENCIDA -> contadores.esperasVencidas.incrementAndGet();
+                    }
+                    if (intento == MAX_REINTENTOS) {
+                        contadores.registrarError("Reintentos agotados (" + causa(e) + ")", e);
+                        return false;
+                    }
+                    contadores.reintentos.incrementAndGet();
+                    Thread.sleep(ESPERA_REINTENTO_MS * (1L << intento) + random.nextInt((int) ESPERA_REINTENTO_MS));
+                }
+            }
+        }
+
+        private Map<Producto, Integer> armarCarrito() {
+            int lineas = 1 + random.nextInt(4);
+            int calientes = Math.min(PRODUCTOS_CALIENTES, catalogo.size());
+            Map<Producto, Integer> carrito = new LinkedHashMap<>();
+            for (int l = 0; l < lineas; l++) {
+                Producto producto = random.nextDouble() < PROB_CALIENTE
+                        ? catalogo.get(random.nextInt(calientes))
+                        : catalogo.get(random.nextInt(catalogo.size()));
+                carrito.merge(producto, 1 + random.nextInt(3), Integer::sum);
+            }
+            return carrito;
+        }
+    }
+
+    static Falla clasificar(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql) {
+                String estado = sql.getSQLState() != null ? sql.getSQLState() : "";
+                if (sql.getErrorCode() == MYSQL_INTERBLOQUEO || estado.equals("40001") || estado.equals("40P01")) {
+                    return Falla.INTERBLOQUEO;
+                }
+                if (sql.getErrorCode() == MYSQL_ESPERA_VENCIDA || sql.getErrorCode() == H2_ESPERA_VENCIDA) {
+                    return Falla.ESPERA_VENCIDA;
+                }
+            }
+            if (t.getMessage() != null && t.getMessage().startsWith("Stock insuficiente")) {
+                return Falla.SIN_STOCK;
+            }
+        }
+        return Falla.OTRA;
+    }
+
+    /**
+     * Clave para agrupar un error: SQLState y código del primer SQLException
+     * de la cadena, o el tipo de la excepción si no hay ninguno
+     */
+    static String causa(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql) {
+                return "SQLState " + sql.getSQLState() + ", código " + sql.getErrorCode();
+            }
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    private static String mensaje(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                return String.valueOf(t.getMessage());
+            }
+        }
+        return String.valueOf(e.getMessage());
+    }
+
+    /**
+     * Stock actual leído directo de la base (sin pasar por la caché)
+     */
+    private static Map<Integer, Integer> leerStock(List<Integer> ids) throws SQLException {
+        Map<Integer, Integer> stock = new HashMap<>();
+        String sql = "SELECT id, stock FROM productos WHERE id = ?";
+
+        Connection conn = DatabaseConnection.getConnection();
+        boolean shouldCloseConnection = !DatabaseConnection.isTestMode();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Integer id : ids) {
+                stmt.setInt(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        stock.put(rs.getInt("id"), rs.getInt("stock"));
+                    }
+                }
+            }
+        } finally {
+            if (shouldCloseConnection && conn != null) {
+                conn.close();
+            }
+        }
+        return stock;
+    }
+
+    public static void main(String[] args) {
+        int codigoSalida = 0;
+        try {
+            if (args.length < 2) {
+                throw new IllegalArgumentException("Uso: SimuladorCajas <cajas> <ventasPorCaja> [pausaMs] [semilla]");
+            }
+            int cajas = Integer.parseInt(args[0]);
+            int ventasPorCaja = Integer.parseInt(args[1]);
+            long pausaMs = args.length > 2 ? Long.parseLong(args[2]) : 0;
+            long semilla = args.length > 3 ? Long.parseLong(args[3]) : GeneradorDatosPrueba.SEMILLA_POR_DEFECTO;
+
+            List<Producto> catalogo = new ProductoDAO().obtenerTodos().stream()
+                    .filter(p -> p.getStock() > 0)
+                    .collect(Collectors.toList());
+            Reporte reporte = new SimuladorCajas(VentaController::new, catalogo,
+                    cajas, ventasPorCaja, pausaMs, semilla).ejecutar();
+
+            System.out.println(reporte);
+            ConnectionPool.PoolStats pool = DatabaseConnection.getPoolStats();
+            if (pool != null) {
+                System.out.println("Pool: " + pool);
+            }
+            if (!reporte.isConsistente()) {
+                codigoSalida = 2;
+            }
+        } catch (Exception e) {
+            System.err.println("Error en la prueba de carga: " + e.getMessage());
+            codigoSalida = 1;
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+        System.exit(codigoSalida);
+    }
+}
@@ -0,0 +1,181 @@
+package com.libreria.util;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exportación de un reporte en segundo plano.
+ *
+ * El generador escribe en un archivo temporal junto al destino; solo si
+ * termina bien el temporal se renombra (de forma atómica cuando el sistema
+ * de archivos lo permite) sobre el destino. Así un reporte cancelado o con
+ * error nunca deja un .xlsx a medias ni pisa el anterior.
+ *
+ * Las exportaciones usan su propio grupo de hilos (libreria.exportacion.hilos,
+ * por defecto 2) para no ocupar los de búsquedas y dashboard. Los avisos al
+ * Oyente llegan siempre en el EDT.
+ */
+public class TrabajoExportacion {
+    private static final int HILOS = Integer.getInteger("libreria.exportacion.hilos", 2);
+
+    private static final AtomicInteger contadorHilos = new AtomicInteger();
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(HILOS, r -> {
+        Thread t = new Thread(r, "libreria-exportacion-" + contadorHilos.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Genera el reporte en la ruta indicada (el archivo temporal)
+     */
+    @FunctionalInterface
+    public interface Generador {
+        void generar(String ruta, ProgresoExportacion progreso) throws Exception;
+    }
+
+    /**
+     * Avisos del trabajo, en el EDT
+     */
+    public interface Oyente {
+        /**
+         * @param total filas esperadas, o -1 si no se conocen
+         */
+        void progreso(int filas, int total);
+
+        void terminado(Path destino);
+
+        void cancelado();
+
+        void fallo(Exception e);
+    }
+
+    private final Path destino;
+    private final Generador generador;
+    private final AtomicBoolean cancelado = new AtomicBoolean();
+    private final AtomicInteger filas = new AtomicInteger();
+    private final AtomicBoolean avisoPendiente = new AtomicBoolean();
+    private volatile int total = -1;
+
+    public TrabajoExportacion(Path destino, Generador generador) {
+        this.destino = destino;
+        this.generador = generador;
+    }
+
+    public void iniciar(Oyente oyente) {
+        executor.execute(() -> ejecutar(oyente));
+    }
+
+    /**
+     * Pide cortar la exportación; se detiene en la próxima fila escrita
+     */
+    public void cancelar() {
+        cancelado.set(true);
+    }
+
+    public boolean isCancelado() {
+        return cancelado.get();
+    }
+
+    public Path getDestino() {
+        return destino;
+    }
+
+    private void ejecutar(Oyente oyente) {
+        Path temporal = null;
+        Runnable aviso;
+        try {
+            verificarCancelado();
+            temporal = crearTemporal(destino);
+
+            generador.generar(temporal.toString(), new ProgresoExportacion() {
+                @Override
+                public void inicio(int totalFilas) {
+                    total = totalFilas;
+                    avisarProgreso(oyente);
+                }
+
+                @Override
+                public void filaEscrita() {
+                    verificarCancelado();
+                    filas.incrementAndGet();
+                    avisarProgreso(oyente);
+                }
+            });
+
+            // Último punto para cancelar antes de reemplazar el destino
+            verificarCancelado();
+            mover(temporal, destino);
+            temporal = null;
+            aviso = () -> oyente.terminado(destino);
+        } catch (CancellationException e) {
+            aviso = oyente::cancelado;
+        } catch (Exception e) {
+            aviso = () -> oyente.fallo(e);
+        } finally {
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException e) {
+                    System.err.println("No se pudo borrar el temporal " + temporal + ": " + e.getMessage());
+                }
+            }
+        }
+        // Se avisa con el temporal ya borrado
+        SwingUtilities.invokeLater(aviso);
+    }
+
+    private void verificarCancelado() {
+        if (cancelado.get()) {
+            throw new CancellationException("Exportación cancelada");
+        }
+    }
+
+    // Un solo aviso en cola a la vez: con miles de filas no se satura el EDT
+    private void avisarProgreso(Oyente oyente) {
+        if (avisoPendiente.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                avisoPendiente.set(false);
+                oyente.progreso(filas.get(), total);
+            });
+        }
+    }
+
+    /**
+     * Archivo temporal oculto en la carpeta del destino (mismo sistema de
+     * archivos, así el renombrado puede ser atómico). Se crea con createFile
+     * y los permisos de siempre: createTempFile lo dejaría en 0600 y el
+     * renombrado le pasaría esos permisos al reporte.
+     */
+    static Path crearTemporal(Path destino) throws IOException {
+        Path carpeta = destino.toAbsolutePath().getParent();
+        while (true) {
+            Path temporal = carpeta.resolve("." + destino.getFileName() + "-"
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                return Files.createFile(temporal);
+            } catch (FileAlreadyExistsException e) {
+                // Nombre ocupado: probar con otro
+            }
+        }
+    }
+
+    static void mover(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
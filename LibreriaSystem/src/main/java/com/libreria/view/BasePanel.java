@@ -6,9 +6,35 @@ import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.function.Consumer;
+import com.libreria.evento.BusEventos;
+import com.libreria.evento.EventoDominio;
+import com.libreria.evento.Suscripciones;
 import com.libreria.util.UIConstants;
 
 public abstract class BasePanel extends JPanel {
+    // Eventos del dominio que escucha el panel mientras está en pantalla
+    private final Suscripciones suscripciones = new Suscripciones(BusEventos.getCompartido());
+    
+    /**
+     * Ejecuta la acción en el EDT cada vez que se publique un evento del tipo
+     * indicado, desde que el panel se muestra hasta que se descarta
+     */
+    protected <E extends EventoDominio> void escuchar(Class<E> tipo, Consumer<? super E> accion) {
+        suscripciones.escuchar(tipo, accion);
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        suscripciones.activar();
+    }
+    
+    @Override
+    public void removeNotify() {
+        suscripciones.cancelar();
+        super.removeNotify();
+    }
     
     protected void showError(String message) {
         JOptionPane.showMessageDialog(
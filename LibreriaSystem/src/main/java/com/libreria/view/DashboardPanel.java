@@ -1,7 +1,15 @@
 package com.libreria.view;
 
+import com.libreria.controller.ProductoController;
 import com.libreria.controller.ReporteController;
+import com.libreria.evento.EventoDominio.ProductoActualizado;
+import com.libreria.evento.EventoDominio.ProductoCreado;
+import com.libreria.evento.EventoDominio.ProductoEliminado;
+import com.libreria.evento.EventoDominio.StockCambiado;
+import com.libreria.evento.EventoDominio.VentaRegistrada;
 import com.libreria.model.Producto;
+import com.libreria.util.BackgroundTasks;
+import com.libreria.util.EjecutorConsultas;
 import com.libreria.util.UIConstants;
 import org.jfree.chart.*;
 import org.jfree.chart.plot.*;
@@ -15,32 +23,45 @@ import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.io.File;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 public class DashboardPanel extends BasePanel {
+    private static final int DIAS_VENTAS_CATEGORIA = 30;
     private final ReporteController reporteController;
+    private final ProductoController productoController;
     private JLabel lblVentasDia1;
     private JLabel lblVentasDia2;
     private JLabel lblTotalProductos;
     private JLabel lblCategorias;
-    private DefaultTableModel modeloBajoStock;
+    private ProductoTableModel modeloBajoStock;
     private JTable tablaBajoStock;
     private JPanel chartDonaContainer;
     private JPanel chartBarrasContainer;
+    // Solo se usan en el EDT: número de la última recarga pedida
+    private int cargaActual = 0;
+    private boolean errorMostrado = false;
+    // Valores mostrados, para sumarles los cambios publicados (null mientras cargan)
+    private Double ventasDia;
+    private Long totalStock;
     
     public DashboardPanel() {
         this.reporteController = new ReporteController();
+        this.productoController = new ProductoController();
         initComponents();
         cargarDatos();
+        escucharCambios();
     }
 
     private void initComponents() {
@@ -146,7 +167,11 @@ public class DashboardPanel extends BasePanel {
         panel.add(title, BorderLayout.WEST);
         panel.add(buttonPanel, BorderLayout.EAST);
         
-        btnRecargar.addActionListener(e -> cargarDatos());
+        btnRecargar.addActionListener(e -> {
+            // Recarga explícita: traer también lo que cambiaron otras cajas
+            productoController.invalidarCache();
+            cargarDatos();
+        });
         btnExportar.addActionListener(e -> exportarReporte());
         
         return panel;
@@ -240,14 +265,11 @@ public class DashboardPanel extends BasePanel {
         title.setFont(new Font("Segoe UI", Font.BOLD, 14));
         title.setForeground(Color.BLACK);
         
-        modeloBajoStock = new DefaultTableModel(
-            new Object[]{"Código", "Nombre", "Stock"}, 0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloBajoStock = new ProductoTableModel(
+            ProductoTableModel.Columna.CODIGO,
+            ProductoTableModel.Columna.NOMBRE,
+            ProductoTableModel.Columna.STOCK
+        );
 
         tablaBajoStock = new JTable(modeloBajoStock);
         tablaBajoStock.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -339,7 +361,7 @@ public class DashboardPanel extends BasePanel {
             BorderFactory.createEmptyBorder(15, 15, 15, 15)
         ));
         
-        JLabel title = new JLabel("📊 Ventas por Categoría (Últimos 30 días)");
+        JLabel title = new JLabel("📊 Ventas por Categoría (Últimos " + DIAS_VENTAS_CATEGORIA + " días)");
         title.setFont(new Font("Segoe UI", Font.BOLD, 14));
         title.setForeground(Color.BLACK);
         
@@ -374,232 +396,312 @@ public class DashboardPanel extends BasePanel {
         return panel;
     }
 
+    /**
+     * Lanza en segundo plano, a la vez, las consultas de cada tarjeta y gráfico.
+     * Cada uno muestra "Cargando..." y se reemplaza en el EDT apenas llega su
+     * dato, sin esperar a los demás.
+     */
     private void cargarDatos() {
-        try {
-            Map<String, Object> estadisticas = reporteController.generarEstadisticasDashboard();
-            
-            // Actualizar cards
-            double ventasDia = (double) estadisticas.get("ventasDia");
-            lblVentasDia1.setText(String.format("S/ %.2f", ventasDia));
-            lblVentasDia2.setText(String.format("S/ %.2f", ventasDia));
-            
-            long totalProductos = (long) estadisticas.get("totalProductos");
-            lblTotalProductos.setText(String.valueOf(totalProductos));
-            
-            // Categorías únicas
-            try {
-                List<Producto> todosProductos = new com.libreria.controller.ProductoController().obtenerTodos();
-                Set<String> categorias = new HashSet<>();
-                for (Producto p : todosProductos) {
-                    if (p.getCategoria() != null && !p.getCategoria().isEmpty()) {
-                        categorias.add(p.getCategoria());
-                    }
-                }
-                lblCategorias.setText(String.valueOf(categorias.size()));
-            } catch (Exception e) {
-                lblCategorias.setText("0");
+        int carga = ++cargaActual;
+        errorMostrado = false;
+        mostrarCargando();
+        
+        cargarVentasDia(carga);
+        cargarResumenInventario(carga);
+        alTerminar(carga, enSegundoPlano(() -> reporteController.obtenerVentasPorCategoria(DIAS_VENTAS_CATEGORIA))
+                .thenApplyAsync(this::crearGraficoDona, BackgroundTasks.getExecutor()),
+            chart -> mostrarGrafico(chartDonaContainer, chart, 250));
+        
+        // Tabla bajo stock - ACTUALIZACIÓN EN TIEMPO REAL
+        alTerminar(carga, enSegundoPlano(reporteController::obtenerProductosBajoStock),
+            modeloBajoStock::reemplazarTodo);
+        
+        alTerminar(carga, enSegundoPlano(reporteController::obtenerTopProductos)
+                .thenApplyAsync(this::crearGraficoBarras, BackgroundTasks.getExecutor()),
+            chart -> mostrarGrafico(chartBarrasContainer, chart, 280));
+    }
+    
+    private void cargarVentasDia(int carga) {
+        ventasDia = null;
+        alTerminar(carga, enSegundoPlano(reporteController::obtenerVentasDelDia), monto -> {
+            ventasDia = monto;
+            mostrarVentasDia();
+        }, lblVentasDia1, lblVentasDia2);
+    }
+    
+    /**
+     * Totales del inventario: una consulta agregada, sin traer el catálogo
+     */
+    private void cargarResumenInventario(int carga) {
+        totalStock = null;
+        alTerminar(carga, enSegundoPlano(reporteController::obtenerResumenInventario), resumen -> {
+            totalStock = (Long) resumen.get("totalStock");
+            lblTotalProductos.setText(String.valueOf(totalStock));
+            lblCategorias.setText(String.valueOf(resumen.get("categorias")));
+        }, lblTotalProductos, lblCategorias);
+    }
+    
+    private void mostrarVentasDia() {
+        lblVentasDia1.setText(String.format("S/ %.2f", ventasDia));
+        lblVentasDia2.setText(String.format("S/ %.2f", ventasDia));
+    }
+    
+    /**
+     * Aplica los cambios publicados sobre lo que ya se muestra: ventas del día
+     * y stock total se ajustan con la diferencia y la tabla de bajo stock
+     * cambia solo la fila afectada. Los gráficos se rehacen al recargar.
+     */
+    private void escucharCambios() {
+        escuchar(VentaRegistrada.class, e -> {
+            if (!e.venta().getFecha().toLocalDate().equals(LocalDate.now())) {
+                return;
             }
-            
-            // Tabla bajo stock - ACTUALIZACIÓN EN TIEMPO REAL
-            modeloBajoStock.setRowCount(0);
-            @SuppressWarnings("unchecked")
-            List<Producto> productosBajoStock = (List<Producto>) estadisticas.get("productoBajoStock");
-            
-            if (productosBajoStock != null && !productosBajoStock.isEmpty()) {
-                for (Producto p : productosBajoStock) {
-                    modeloBajoStock.addRow(new Object[]{
-                        p.getCodigo(),
-                        p.getNombre(),
-                        p.getStock()
-                    });
-                }
+            if (ventasDia != null) {
+                ventasDia += e.venta().getTotal();
+                mostrarVentasDia();
+            } else {
+                // La consulta en curso pudo no ver esta venta
+                cargarVentasDia(cargaActual);
             }
-            
-            // Cargar gráficos 
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> topProductos = (List<Map<String, Object>>) estadisticas.get("topProductos");
-            cargarGraficoBarras(topProductos);
-            
-            // Cargar gráfico circular
-            cargarGraficoDona(estadisticas);
-            
-        } catch (Exception e) {
-            showError("Error al cargar datos: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
+        escuchar(StockCambiado.class, e -> {
+            if (totalStock != null) {
+                totalStock += e.cambio();
+                lblTotalProductos.setText(String.valueOf(totalStock));
+            } else {
+                cargarResumenInventario(cargaActual);
+            }
+            ajustarBajoStock(e.productoId(), e.cambio());
+        });
+        // Altas, bajas y ediciones pueden cambiar las categorías: solo se repite el resumen
+        escuchar(ProductoCreado.class, e -> {
+            cargarResumenInventario(cargaActual);
+            aplicarBajoStock(e.producto());
+        });
+        escuchar(ProductoActualizado.class, e -> {
+            cargarResumenInventario(cargaActual);
+            aplicarBajoStock(e.producto());
+        });
+        escuchar(ProductoEliminado.class, e -> {
+            cargarResumenInventario(cargaActual);
+            modeloBajoStock.quitar(e.productoId());
+        });
     }
     
-    private void cargarGraficoDona(Map<String, Object> estadisticas) {
-        try {
-            DefaultPieDataset dataset = new DefaultPieDataset();
-            
-            // Obtener ventas por categoría REALES
-            Map<String, Double> ventasPorCategoria = new HashMap<>();
-            
-            try {
-                // Obtener productos y calcular ventas por categoría
-                List<Producto> productos = new com.libreria.controller.ProductoController().obtenerTodos();
-                
-                for (Producto p : productos) {
-                    String categoria = p.getCategoria();
-                    if (categoria == null || categoria.isEmpty()) {
-                        categoria = "Sin Categoría";
-                    }
-                    
-                    // Calcular valor aproximado de ventas (precio * cantidad vendida estimada)
-                    double valorVenta = ventasPorCategoria.getOrDefault(categoria, 0.0);
-                    
-                    // Aquí se puede obtener las ventas reales de la BD
-                    // Por ahora usamos el precio como referencia
-                    ventasPorCategoria.put(categoria, valorVenta + p.getPrecio());
+    private void ajustarBajoStock(int productoId, int cambio) {
+        int fila = modeloBajoStock.buscarFila(productoId);
+        if (fila != -1) {
+            Producto nuevo = modeloBajoStock.getProducto(fila);
+            nuevo.setStock(nuevo.getStock() + cambio);
+            aplicarBajoStock(nuevo);
+        } else if (cambio < 0) {
+            // Pudo cruzar el umbral: se necesitan sus datos (salen del catálogo en memoria)
+            int carga = cargaActual;
+            alTerminar(carga, enSegundoPlano(() -> productoController.obtenerPorId(productoId)), producto -> {
+                if (producto != null) {
+                    aplicarBajoStock(producto);
                 }
-                
-            } catch (Exception e) {
-                e.printStackTrace();
+            });
+        }
+    }
+    
+    /**
+     * Agrega, mueve o quita la fila del producto según su stock actual
+     */
+    private void aplicarBajoStock(Producto producto) {
+        modeloBajoStock.quitar(producto.getId());
+        if (producto.getStock() > ReporteController.UMBRAL_BAJO_STOCK) {
+            return;
+        }
+        // Ordenada por stock, de menor a mayor
+        int fila = 0;
+        while (fila < modeloBajoStock.getRowCount() && modeloBajoStock.getStock(fila) <= producto.getStock()) {
+            fila++;
+        }
+        modeloBajoStock.insertar(fila, producto);
+    }
+    
+    private void mostrarCargando() {
+        for (JLabel lbl : new JLabel[]{lblVentasDia1, lblVentasDia2, lblTotalProductos, lblCategorias}) {
+            lbl.setText("...");
+        }
+        modeloBajoStock.reemplazarTodo(List.of());
+        for (JPanel container : new JPanel[]{chartDonaContainer, chartBarrasContainer}) {
+            JLabel cargando = new JLabel("Cargando...", SwingConstants.CENTER);
+            cargando.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            cargando.setForeground(new Color(156, 163, 175));
+            container.removeAll();
+            container.add(cargando, BorderLayout.CENTER);
+            container.revalidate();
+            container.repaint();
+        }
+    }
+    
+    private <T> CompletableFuture<T> enSegundoPlano(Callable<T> consulta) {
+        return EjecutorConsultas.getCompartido().ejecutar(consulta);
+    }
+    
+    /**
+     * Publica el resultado en el EDT, salvo que ya se haya pedido otra recarga.
+     * Si falla, las etiquetas indicadas muestran "—" y se avisa una sola vez.
+     */
+    private <T> void alTerminar(int carga, CompletableFuture<T> futuro, Consumer<T> mostrar, JLabel... etiquetas) {
+        futuro.whenComplete((resultado, error) -> SwingUtilities.invokeLater(() -> {
+            if (carga != cargaActual) {
+                return;
             }
-            
-            // Si hay datos reales, usarlos
-            if (!ventasPorCategoria.isEmpty()) {
-                // Ordenar por valor descendente
-                List<Map.Entry<String, Double>> sorted = new ArrayList<>(ventasPorCategoria.entrySet());
-                sorted.sort((a, b) -> b.getValue().compareTo(a.getValue()));
-                
-                // Tomar las top 5 categorías
-                int count = 0;
-                for (Map.Entry<String, Double> entry : sorted) {
-                    if (count >= 5) break;
-                    dataset.setValue(entry.getKey(), entry.getValue());
-                    count++;
-                }
-            } else {
-                // Datos de ejemplo si no hay ventas
-                dataset.setValue("Escolar", 35);
-                dataset.setValue("Papelería", 25);
-                dataset.setValue("Arte", 20);
-                dataset.setValue("Oficina", 12);
-                dataset.setValue("Otros", 8);
+            if (error == null) {
+                mostrar.accept(resultado);
+                return;
             }
-            
-            JFreeChart chart = ChartFactory.createPieChart(null, dataset, true, true, false);
-            chart.setBackgroundPaint(Color.WHITE);
-            
-            PiePlot plot = (PiePlot) chart.getPlot();
-            plot.setBackgroundPaint(Color.WHITE);
-            plot.setOutlineVisible(false);
-            plot.setLabelFont(new Font("Segoe UI", Font.PLAIN, 10));
-            plot.setLabelGenerator(null);
-            plot.setSimpleLabels(false);
-            plot.setCircular(true);
-            plot.setSectionOutlinesVisible(false);
-            
-            // Colores variados para las categorías
-            Color[] colores = {
-                new Color(59, 130, 246),   // Azul
-                new Color(236, 72, 153),   // Rosa
-                new Color(245, 158, 11),   // Naranja
-                new Color(34, 197, 94),    // Verde
-                new Color(239, 68, 68)     // Rojo
-            };
-            
-            int i = 0;
-            for (Object key : dataset.getKeys()) {
-                plot.setSectionPaint((Comparable) key, colores[i % colores.length]);
-                i++;
+            Throwable causa = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            causa.printStackTrace();
+            for (JLabel lbl : etiquetas) {
+                lbl.setText("—");
+            }
+            if (!errorMostrado) {
+                errorMostrado = true;
+                showError("Error al cargar datos: " + causa.getMessage());
+            }
+        }));
+    }
+    
+    private void mostrarGrafico(JPanel container, JFreeChart chart, int alto) {
+        ChartPanel chartPanel = new ChartPanel(chart);
+        chartPanel.setBackground(Color.WHITE);
+        chartPanel.setPreferredSize(new Dimension(450, alto));
+        chartPanel.setMouseWheelEnabled(false);
+        chartPanel.setPopupMenu(null);
+        
+        container.removeAll();
+        container.add(chartPanel, BorderLayout.CENTER);
+        container.revalidate();
+        container.repaint();
+    }
+    
+    /**
+     * Arma el gráfico de dona (se llama fuera del EDT: no crea componentes Swing)
+     */
+    private JFreeChart crearGraficoDona(List<Map<String, Object>> ventasPorCategoria) {
+        DefaultPieDataset dataset = new DefaultPieDataset();
+        
+        // Ingresos reales por categoría, ya ordenados de mayor a menor
+        if (!ventasPorCategoria.isEmpty()) {
+            // Tomar las top 5 categorías
+            int count = 0;
+            for (Map<String, Object> categoria : ventasPorCategoria) {
+                if (count >= 5) break;
+                Object nombre = categoria.get("categoria");
+                dataset.setValue(nombre != null && !nombre.toString().isEmpty() ? nombre.toString() : "Sin Categoría",
+                        (Double) categoria.get("totalIngresos"));
+                count++;
             }
-            
-            // Leyenda personalizada a la derecha
-            chart.getLegend().setPosition(RectangleEdge.RIGHT);
-            chart.getLegend().setBackgroundPaint(Color.WHITE);
-            chart.getLegend().setFrame(org.jfree.chart.block.BlockBorder.NONE);
-            chart.getLegend().setItemFont(new Font("Segoe UI", Font.PLAIN, 11));
-            
-            ChartPanel chartPanel = new ChartPanel(chart);
-            chartPanel.setBackground(Color.WHITE);
-            chartPanel.setPreferredSize(new Dimension(450, 250));
-            chartPanel.setMouseWheelEnabled(false);
-            chartPanel.setPopupMenu(null);
-            
-            chartDonaContainer.removeAll();
-            chartDonaContainer.add(chartPanel, BorderLayout.CENTER);
-            chartDonaContainer.revalidate();
-            chartDonaContainer.repaint();
-            
-        } catch (Exception e) {
-            e.printStackTrace();
+        } else {
+            // Datos de ejemplo si no hay ventas
+            dataset.setValue("Escolar", 35);
+            dataset.setValue("Papelería", 25);
+            dataset.setValue("Arte", 20);
+            dataset.setValue("Oficina", 12);
+            dataset.setValue("Otros", 8);
+        }
+        
+        JFreeChart chart = ChartFactory.createPieChart(null, dataset, true, true, false);
+        chart.setBackgroundPaint(Color.WHITE);
+        
+        PiePlot plot = (PiePlot) chart.getPlot();
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setOutlineVisible(false);
+        plot.setLabelFont(new Font("Segoe UI", Font.PLAIN, 10));
+        plot.setLabelGenerator(null);
+        plot.setSimpleLabels(false);
+        plot.setCircular(true);
+        plot.setSectionOutlinesVisible(false);
+        
+        // Colores variados para las categorías
+        Color[] colores = {
+            new Color(59, 130, 246),   // Azul
+            new Color(236, 72, 153),   // Rosa
+            new Color(245, 158, 11),   // Naranja
+            new Color(34, 197, 94),    // Verde
+            new Color(239, 68, 68)     // Rojo
+        };
+        
+        int i = 0;
+        for (Object key : dataset.getKeys()) {
+            plot.setSectionPaint((Comparable) key, colores[i % colores.length]);
+            i++;
         }
+        
+        // Leyenda personalizada a la derecha
+        chart.getLegend().setPosition(RectangleEdge.RIGHT);
+        chart.getLegend().setBackgroundPaint(Color.WHITE);
+        chart.getLegend().setFrame(org.jfree.chart.block.BlockBorder.NONE);
+        chart.getLegend().setItemFont(new Font("Segoe UI", Font.PLAIN, 11));
+        
+        return chart;
     }
     
-    private void cargarGraficoBarras(List<Map<String, Object>> topProductos) {
-        try {
-            DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-            
-            if (topProductos == null || topProductos.isEmpty()) {
-                // Si no hay productos, mostrar mensaje
-                dataset.addValue(0, "Ventas", "Sin datos");
-            } else {
-                int limite = Math.min(5, topProductos.size());
-                for (int i = 0; i < limite; i++) {
-                    Map<String, Object> p = topProductos.get(i);
-                    String nombre = (String) p.get("nombre");
-                    if (nombre != null) {
-                        if (nombre.length() > 20) nombre = nombre.substring(0, 17) + "...";
-                    } else {
-                        nombre = "Producto " + (i + 1);
-                    }
-                    
-                    Double ingresos = (Double) p.get("totalIngresos");
-                    dataset.addValue(ingresos != null ? ingresos : 0, "Ventas", nombre);
+    /**
+     * Arma el gráfico de barras (se llama fuera del EDT: no crea componentes Swing)
+     */
+    private JFreeChart crearGraficoBarras(List<Map<String, Object>> topProductos) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        
+        if (topProductos == null || topProductos.isEmpty()) {
+            // Si no hay productos, mostrar mensaje
+            dataset.addValue(0, "Ventas", "Sin datos");
+        } else {
+            int limite = Math.min(5, topProductos.size());
+            for (int i = 0; i < limite; i++) {
+                Map<String, Object> p = topProductos.get(i);
+                String nombre = (String) p.get("nombre");
+                if (nombre != null) {
+                    if (nombre.length() > 20) nombre = nombre.substring(0, 17) + "...";
+                } else {
+                    nombre = "Producto " + (i + 1);
                 }
+                
+                Double ingresos = (Double) p.get("totalIngresos");
+                dataset.addValue(ingresos != null ? ingresos : 0, "Ventas", nombre);
             }
-            
-            JFreeChart chart = ChartFactory.createBarChart(
-                null, null, null, dataset, PlotOrientation.HORIZONTAL, false, true, false
-            );
-            
-            chart.setBackgroundPaint(Color.WHITE);
-            CategoryPlot plot = chart.getCategoryPlot();
-            plot.setBackgroundPaint(Color.WHITE);
-            plot.setOutlineVisible(false);
-            plot.setRangeGridlinePaint(new Color(243, 244, 246));
-            plot.setDomainGridlinesVisible(false);
-            plot.setRangeGridlinesVisible(true);
-            
-            BarRenderer renderer = (BarRenderer) plot.getRenderer();
-            renderer.setSeriesPaint(0, new Color(59, 130, 246)); // Azul
-            renderer.setBarPainter(new org.jfree.chart.renderer.category.StandardBarPainter());
-            renderer.setMaximumBarWidth(0.15);
-            renderer.setItemMargin(0.1);
-            renderer.setShadowVisible(false);
-            
-            plot.getDomainAxis().setTickLabelFont(new Font("Segoe UI", Font.PLAIN, 11));
-            plot.getDomainAxis().setVisible(true);
-            plot.getRangeAxis().setVisible(false);
-            
-            // Añadir etiquetas de valor al final de cada barra - CORREGIDO
-            renderer.setDefaultItemLabelsVisible(true);
-            renderer.setDefaultItemLabelGenerator(
-                new StandardCategoryItemLabelGenerator("S/ {2}", new DecimalFormat("0.00"))
-            );
-            renderer.setDefaultItemLabelFont(new Font("Segoe UI", Font.PLAIN, 10));
-            renderer.setDefaultItemLabelPaint(new Color(107, 114, 128));
-            renderer.setDefaultPositiveItemLabelPosition(
-                new ItemLabelPosition(ItemLabelAnchor.OUTSIDE3, TextAnchor.CENTER_LEFT)
-            );
-            
-            ChartPanel chartPanel = new ChartPanel(chart);
-            chartPanel.setBackground(Color.WHITE);
-            chartPanel.setPreferredSize(new Dimension(450, 280));
-            chartPanel.setMouseWheelEnabled(false);
-            chartPanel.setPopupMenu(null);
-            
-            chartBarrasContainer.removeAll();
-            chartBarrasContainer.add(chartPanel, BorderLayout.CENTER);
-            chartBarrasContainer.revalidate();
-            chartBarrasContainer.repaint();
-            
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        
+        JFreeChart chart = ChartFactory.createBarChart(
+            null, null, null, dataset, PlotOrientation.HORIZONTAL, false, true, false
+        );
+        
+        chart.setBackgroundPaint(Color.WHITE);
+        CategoryPlot plot = chart.getCategoryPlot();
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setOutlineVisible(false);
+        plot.setRangeGridlinePaint(new Color(243, 244, 246));
+        plot.setDomainGridlinesVisible(false);
+        plot.setRangeGridlinesVisible(true);
+        
+        BarRenderer renderer = (BarRenderer) plot.getRenderer();
+        renderer.setSeriesPaint(0, new Color(59, 130, 246)); // Azul
+        renderer.setBarPainter(new org.jfree.chart.renderer.category.StandardBarPainter());
+        renderer.setMaximumBarWidth(0.15);
+        renderer.setItemMargin(0.1);
+        renderer.setShadowVisible(false);
+        
+        plot.getDomainAxis().setTickLabelFont(new Font("Segoe UI", Font.PLAIN, 11));
+        plot.getDomainAxis().setVisible(true);
+        plot.getRangeAxis().setVisible(false);
+        
+        // Añadir etiquetas de valor al final de cada barra - CORREGIDO
+        renderer.setDefaultItemLabelsVisible(true);
+        renderer.setDefaultItemLabelGenerator(
+            new StandardCategoryItemLabelGenerator("S/ {2}", new DecimalFormat("0.00"))
+        );
+        renderer.setDefaultItemLabelFont(new Font("Segoe UI", Font.PLAIN, 10));
+        renderer.setDefaultItemLabelPaint(new Color(107, 114, 128));
+        renderer.setDefaultPositiveItemLabelPosition(
+            new ItemLabelPosition(ItemLabelAnchor.OUTSIDE3, TextAnchor.CENTER_LEFT)
+        );
+        
+        return chart;
     }
 
     private void exportarReporte() {
@@ -609,16 +711,12 @@ public class DashboardPanel extends BasePanel {
             java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx"));
         
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                String rutaArchivo = fileChooser.getSelectedFile().getAbsolutePath();
-                if (!rutaArchivo.endsWith(".xlsx")) {
-                    rutaArchivo += ".xlsx";
-                }
-                reporteController.generarReporteInventarioExcel(rutaArchivo);
-                showInfo("✓ Reporte exportado exitosamente a:\n" + rutaArchivo);
-            } catch (Exception e) {
-                showError("Error al generar reporte: " + e.getMessage());
+            String rutaArchivo = fileChooser.getSelectedFile().getAbsolutePath();
+            if (!rutaArchivo.endsWith(".xlsx")) {
+                rutaArchivo += ".xlsx";
             }
+            ProgresoExportacionDialog.exportar(this, "Exportando inventario", Paths.get(rutaArchivo),
+                reporteController::generarReporteInventarioExcel);
         }
     }
 
@@ -0,0 +1,61 @@
+package com.libreria.view;
+
+import com.libreria.exportacion.FormatoExportacion;
+
+import javax.swing.JFileChooser;
+import javax.swing.filechooser.FileFilter;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Selector de archivo para exportar, con un filtro por cada formato
+ * (Excel, CSV, columnar). Si el nombre no trae extensión se agrega la del
+ * filtro elegido.
+ */
+public class ExportacionFileChooser extends JFileChooser {
+    private final Map<FormatoExportacion, FileFilter> filtros = new EnumMap<>(FormatoExportacion.class);
+
+    /**
+     * @param nombreBase nombre sugerido, sin extensión
+     */
+    public ExportacionFileChooser(String titulo, String nombreBase) {
+        setDialogTitle(titulo);
+        setAcceptAllFileFilterUsed(false);
+        for (FormatoExportacion formato : FormatoExportacion.values()) {
+            FileFilter filtro = new FileNameExtensionFilter(formato.getDescripcion(), formato.getExtension());
+            filtros.put(formato, filtro);
+            addChoosableFileFilter(filtro);
+        }
+        setFileFilter(filtros.get(FormatoExportacion.EXCEL));
+        setSelectedFile(new File(nombreBase + "." + FormatoExportacion.EXCEL.getExtension()));
+    }
+
+    /**
+     * Formato del archivo elegido: el de su extensión o, si no tiene, el del filtro
+     */
+    public FormatoExportacion getFormatoElegido() {
+        FormatoExportacion formato = FormatoExportacion.desdeRuta(getSelectedFile().getName());
+        if (formato != null) {
+            return formato;
+        }
+        for (Map.Entry<FormatoExportacion, FileFilter> entry : filtros.entrySet()) {
+            if (entry.getValue() == getFileFilter()) {
+                return entry.getKey();
+            }
+        }
+        return FormatoExportacion.EXCEL;
+    }
+
+    /**
+     * Ruta absoluta del archivo elegido, con la extensión de su formato
+     */
+    public String getRutaElegida() {
+        String ruta = getSelectedFile().getAbsolutePath();
+        if (FormatoExportacion.desdeRuta(ruta) == null) {
+            ruta += "." + getFormatoElegido().getExtension();
+        }
+        return ruta;
+    }
+}
@@ -1,12 +1,17 @@
 package com.libreria.view;
 
 import com.libreria.controller.ProductoController;
+import com.libreria.dao.IndiceBusquedaProductos;
+import com.libreria.evento.EventoDominio.ProductoActualizado;
+import com.libreria.evento.EventoDominio.ProductoCreado;
+import com.libreria.evento.EventoDominio.ProductoEliminado;
+import com.libreria.evento.EventoDominio.StockCambiado;
 import com.libreria.model.Producto;
+import com.libreria.util.BusquedaDiferida;
 import com.libreria.util.SessionManager;
 import com.libreria.util.UIConstants;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -15,7 +20,7 @@ import java.util.List;
 public class ProductoPanel extends BasePanel {
     private final ProductoController controller;
     private JTable tabla;
-    private DefaultTableModel modelo;
+    private ProductoTableModel modelo;
     private JTextField txtCodigo;
     private JTextField txtNombre;
     private JComboBox<String> cmbCategoria;
@@ -27,7 +32,9 @@ public class ProductoPanel extends BasePanel {
     private JButton btnEliminar;
     private Producto productoSeleccionado;
     private SearchPanel searchPanel;
-    private TableRowSorter<DefaultTableModel> sorter;
+    private TableRowSorter<ProductoTableModel> sorter;
+    private static final int MAX_RESULTADOS_BUSQUEDA = 500;
+    private BusquedaDiferida<List<Producto>> busqueda;
 
     // Categorías 
     private final String[] CATEGORIAS = {
@@ -44,6 +51,7 @@ public class ProductoPanel extends BasePanel {
         initComponents();
         configurarPermisos();
         loadProductos();
+        escucharCambios();
     }
 
     private void initComponents() {
@@ -55,7 +63,11 @@ public class ProductoPanel extends BasePanel {
 
         // Panel de búsqueda
         searchPanel = new SearchPanel(new String[]{"Código", "Nombre", "Categoría"});
-        searchPanel.addSearchListener(e -> buscarProductos(searchPanel.getSearchText(), searchPanel.getSelectedFilter()));
+        // La búsqueda corre fuera del EDT; solo se muestra el resultado de la última
+        busqueda = new BusquedaDiferida<>(this::actualizarTabla,
+                e -> showError("Error al buscar productos: " + e.getMessage()));
+        searchPanel.addSearchListener(e -> busqueda.ejecutarYa(consultaBusqueda()));
+        searchPanel.addTextChangeListener(() -> busqueda.solicitar(consultaBusqueda()));
 
         // Panel de formulario 
         JPanel formPanel = createFormPanel();
@@ -268,16 +280,15 @@ public class ProductoPanel extends BasePanel {
     }
 
     private JPanel createTablePanel() {
-        // Modelo de tabla
-        modelo = new DefaultTableModel(
-            new Object[]{"ID", "Código", "Nombre", "Categoría", "Precio", "Stock"}, 
-            0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Modelo de tabla (por columnas; el precio se formatea al pintar)
+        modelo = new ProductoTableModel(
+            ProductoTableModel.Columna.ID,
+            ProductoTableModel.Columna.CODIGO,
+            ProductoTableModel.Columna.NOMBRE,
+            ProductoTableModel.Columna.CATEGORIA,
+            ProductoTableModel.Columna.PRECIO,
+            ProductoTableModel.Columna.STOCK
+        );
 
         // Tabla
         tabla = new JTable(modelo);
@@ -313,8 +324,7 @@ public class ProductoPanel extends BasePanel {
         tabla.getColumnModel().getColumn(5).setPreferredWidth(100);  // Stock
 
         // Alineación central para todas las columnas
-        javax.swing.table.DefaultTableCellRenderer centerRenderer = new javax.swing.table.DefaultTableCellRenderer();
-        centerRenderer.setHorizontalAlignment(javax.swing.JLabel.CENTER);
+        ProductoTableModel.RendererCelda centerRenderer = new ProductoTableModel.RendererCelda(JLabel.CENTER);
         centerRenderer.setBackground(Color.WHITE);
         centerRenderer.setForeground(Color.BLACK);
         centerRenderer.setOpaque(true);
@@ -323,8 +333,8 @@ public class ProductoPanel extends BasePanel {
             tabla.getColumnModel().getColumn(i).setCellRenderer(centerRenderer);
         }
 
-        // Ordenamiento
-        sorter = new TableRowSorter<>(modelo);
+        // Ordenamiento (números como números, textos sin tildes ni mayúsculas)
+        sorter = modelo.crearOrdenador();
         tabla.setRowSorter(sorter);
 
         // ScrollPane con fondo blanco
@@ -405,23 +415,35 @@ public class ProductoPanel extends BasePanel {
     }
 
     private void actualizarTabla(List<Producto> productos) {
-        modelo.setRowCount(0);
-        for (Producto p : productos) {
-            modelo.addRow(new Object[]{
-                p.getId(),
-                p.getCodigo(),
-                p.getNombre(),
-                p.getCategoria(),
-                String.format("S/ %.2f", p.getPrecio()),
-                p.getStock()
-            });
+        modelo.reemplazarTodo(productos);
+    }
+
+    /**
+     * Los cambios publicados (por este panel, ventas u otras pantallas) se
+     * aplican solo a la fila afectada, sin volver a cargar la tabla
+     */
+    private void escucharCambios() {
+        escuchar(ProductoCreado.class, e -> agregarFila(e.producto()));
+        escuchar(ProductoActualizado.class, e -> modelo.actualizar(e.producto()));
+        escuchar(ProductoEliminado.class, e -> modelo.quitar(e.productoId()));
+        escuchar(StockCambiado.class, e -> modelo.ajustarStock(e.productoId(), e.cambio()));
+    }
+
+    private void agregarFila(Producto producto) {
+        String texto = searchPanel.getSearchText();
+        if (texto == null || texto.trim().isEmpty()) {
+            modelo.agregar(producto);
+        } else {
+            // Con una búsqueda activa, solo el índice sabe si el nuevo coincide
+            busqueda.solicitar(consultaBusqueda());
         }
     }
 
+
     private void cargarProductoSeleccionado(int row) {
         try {
             int modelRow = tabla.convertRowIndexToModel(row);
-            int id = (int) modelo.getValueAt(modelRow, 0);
+            int id = modelo.getId(modelRow);
             productoSeleccionado = controller.obtenerPorId(id);
             
             if (productoSeleccionado != null) {
@@ -450,24 +472,26 @@ public class ProductoPanel extends BasePanel {
         cmbCategoria.requestFocus();
     }
 
-    private void buscarProductos(String texto, String filtro) {
-        try {
-            List<Producto> productos = controller.obtenerTodos();
-            List<Producto> resultados = productos.stream()
-                .filter(p -> {
-                    String valor = switch (filtro) {
-                        case "Código" -> p.getCodigo();
-                        case "Nombre" -> p.getNombre();
-                        case "Categoría" -> p.getCategoria();
-                        default -> "";
-                    };
-                    return valor != null && valor.toLowerCase().contains(texto.toLowerCase());
-                })
-                .collect(java.util.stream.Collectors.toList());
-            actualizarTabla(resultados);
-        } catch (Exception e) {
-            showError("Error al buscar productos: " + e.getMessage());
+    /**
+     * Captura el texto y el filtro actuales (en el EDT) para consultarlos en segundo plano
+     */
+    private java.util.concurrent.Callable<List<Producto>> consultaBusqueda() {
+        String texto = searchPanel.getSearchText();
+        String filtro = searchPanel.getSelectedFilter();
+        return () -> buscarProductos(texto, filtro);
+    }
+
+    private List<Producto> buscarProductos(String texto, String filtro) throws Exception {
+        if (texto == null || texto.trim().isEmpty()) {
+            return controller.obtenerTodos();
         }
+        IndiceBusquedaProductos.Campo campo = switch (filtro) {
+            case "Código" -> IndiceBusquedaProductos.Campo.CODIGO;
+            case "Nombre" -> IndiceBusquedaProductos.Campo.NOMBRE;
+            case "Categoría" -> IndiceBusquedaProductos.Campo.CATEGORIA;
+            default -> IndiceBusquedaProductos.Campo.TODOS;
+        };
+        return controller.buscar(texto, campo, MAX_RESULTADOS_BUSQUEDA);
     }
 
     private void btnGuardarActionPerformed(ActionEvent evt) {
@@ -514,7 +538,6 @@ public class ProductoPanel extends BasePanel {
                 showInfo("✓ Producto actualizado exitosamente");
             }
 
-            loadProductos();
             limpiarFormulario();
             productoSeleccionado = null;
             btnEliminar.setEnabled(false);
@@ -538,7 +561,6 @@ public class ProductoPanel extends BasePanel {
             try {
                 controller.eliminar(productoSeleccionado.getId());
                 showInfo("✓ Producto eliminado exitosamente");
-                loadProductos();
                 limpiarFormulario();
                 productoSeleccionado = null;
                 btnEliminar.setEnabled(false);
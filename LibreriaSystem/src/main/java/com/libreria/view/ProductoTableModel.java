@@ -0,0 +1,382 @@
+package com.libreria.view;
+
+import com.libreria.dao.IndiceBusquedaProductos;
+import com.libreria.model.Producto;
+
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Modelo de tabla de productos guardado por columnas (un arreglo por campo,
+ * con int/double sin envolver) en lugar de un Vector de Vectors por fila.
+ *
+ * - Los valores se entregan sin formato: el precio es un Double y se
+ *   formatea al pintar la celda (RendererCelda), solo en las filas visibles.
+ * - reemplazarTodo carga la lista completa con un único evento; agregar,
+ *   insertar, actualizar, ajustarStock y quitar tocan una fila y avisan una vez.
+ * - crearOrdenador compara números como números y textos por su forma
+ *   normalizada (sin tildes ni mayúsculas), calculada una vez por celda.
+ * - buscarFila usa un mapa id -> fila, así cada cambio de stock de una venta
+ *   no recorre la tabla entera en el EDT.
+ */
+public class ProductoTableModel extends AbstractTableModel {
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    public enum Columna {
+        ID("ID", Integer.class),
+        CODIGO("Código", String.class),
+        NOMBRE("Nombre", String.class),
+        CATEGORIA("Categoría", String.class),
+        PRECIO("Precio", Double.class),
+        STOCK("Stock", Integer.class);
+
+        private final String titulo;
+        private final Class<?> tipo;
+
+        Columna(String titulo, Class<?> tipo) {
+            this.titulo = titulo;
+            this.tipo = tipo;
+        }
+
+        public String getTitulo() {
+            return titulo;
+        }
+
+        public Class<?> getTipo() {
+            return tipo;
+        }
+    }
+
+    private final Columna[] columnas;
+    private int filas = 0;
+
+    private int[] ids = new int[CAPACIDAD_INICIAL];
+    private String[] codigos = new String[CAPACIDAD_INICIAL];
+    private String[] nombres = new String[CAPACIDAD_INICIAL];
+    private String[] categorias = new String[CAPACIDAD_INICIAL];
+    private double[] precios = new double[CAPACIDAD_INICIAL];
+    private int[] stocks = new int[CAPACIDAD_INICIAL];
+
+    // Claves de orden de los textos; null hasta que se ordena por esa columna
+    private String[] clavesCodigo = new String[CAPACIDAD_INICIAL];
+    private String[] clavesNombre = new String[CAPACIDAD_INICIAL];
+    private String[] clavesCategoria = new String[CAPACIDAD_INICIAL];
+
+    // Fila de cada id; se renumera desde la fila insertada o quitada
+    private HashMap<Integer, Integer> filaPorId = new HashMap<>();
+
+    public ProductoTableModel(Columna... columnas) {
+        if (columnas.length == 0) {
+            throw new IllegalArgumentException("Se requiere al menos una columna");
+        }
+        this.columnas = columnas.clone();
+    }
+
+    // ========== TableModel ==========
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return columnas[columna].getTitulo();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columna) {
+        return columnas[columna].getTipo();
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        return switch (columnas[columna]) {
+            case ID -> ids[fila];
+            case CODIGO -> codigos[fila];
+            case NOMBRE -> nombres[fila];
+            case CATEGORIA -> categorias[fila];
+            case PRECIO -> precios[fila];
+            case STOCK -> stocks[fila];
+        };
+    }
+
+    // ========== CAMBIOS (cada uno dispara un solo evento) ==========
+
+    /**
+     * Reemplaza todas las filas
+     */
+    public void reemplazarTodo(List<Producto> productos) {
+        int capacidad = Math.max(CAPACIDAD_INICIAL, productos.size());
+        ids = new int[capacidad];
+        codigos = new String[capacidad];
+        nombres = new String[capacidad];
+        categorias = new String[capacidad];
+        precios = new double[capacidad];
+        stocks = new int[capacidad];
+        clavesCodigo = new String[capacidad];
+        clavesNombre = new String[capacidad];
+        clavesCategoria = new String[capacidad];
+
+        filas = productos.size();
+        filaPorId = HashMap.newHashMap(filas);
+        for (int fila = 0; fila < filas; fila++) {
+            escribir(fila, productos.get(fila));
+            filaPorId.put(ids[fila], fila);
+        }
+        fireTableDataChanged();
+    }
+
+    public void agregar(Producto producto) {
+        insertar(filas, producto);
+    }
+
+    public void insertar(int fila, Producto producto) {
+        if (fila < 0 || fila > filas) {
+            throw new IndexOutOfBoundsException("Fila " + fila + " fuera de rango (" + filas + " filas)");
+        }
+        asegurarCapacidad(filas + 1);
+        desplazar(fila, fila + 1, filas - fila);
+        filas++;
+        escribir(fila, producto);
+        renumerarDesde(fila);
+        fireTableRowsInserted(fila, fila);
+    }
+
+    /**
+     * Reemplaza los datos de la fila con el mismo id
+     *
+     * @return false si el producto no está en la tabla
+     */
+    public boolean actualizar(Producto producto) {
+        int fila = buscarFila(producto.getId());
+        if (fila == -1) {
+            return false;
+        }
+        escribir(fila, producto);
+        fireTableRowsUpdated(fila, fila);
+        return true;
+    }
+
+    /**
+     * Suma el cambio al stock mostrado del producto
+     *
+     * @return false si el producto no está en la tabla
+     */
+    public boolean ajustarStock(int productoId, int cambio) {
+        int fila = buscarFila(productoId);
+        if (fila == -1) {
+            return false;
+        }
+        stocks[fila] += cambio;
+        fireTableRowsUpdated(fila, fila);
+        return true;
+    }
+
+    /**
+     * @return false si el producto no está en la tabla
+     */
+    public boolean quitar(int productoId) {
+        int fila = buscarFila(productoId);
+        if (fila == -1) {
+            return false;
+        }
+        desplazar(fila + 1, fila, filas - fila - 1);
+        filas--;
+        // Suelta las referencias de la última posición, ya copiada una fila arriba
+        codigos[filas] = null;
+        nombres[filas] = null;
+        categorias[filas] = null;
+        clavesCodigo[filas] = null;
+        clavesNombre[filas] = null;
+        clavesCategoria[filas] = null;
+        filaPorId.remove(productoId);
+        renumerarDesde(fila);
+        fireTableRowsDeleted(fila, fila);
+        return true;
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Fila (del modelo) del producto, o -1 si no está
+     */
+    public int buscarFila(int productoId) {
+        Integer fila = filaPorId.get(productoId);
+        return fila != null ? fila : -1;
+    }
+
+    public int getId(int fila) {
+        return ids[fila];
+    }
+
+    public int getStock(int fila) {
+        return stocks[fila];
+    }
+
+    public double getPrecio(int fila) {
+        return precios[fila];
+    }
+
+    /**
+     * Producto armado con los datos de la fila (sin descripción)
+     */
+    public Producto getProducto(int fila) {
+        Producto producto = new Producto(codigos[fila], nombres[fila], categorias[fila],
+                precios[fila], stocks[fila], null);
+        producto.setId(ids[fila]);
+        return producto;
+    }
+
+    /**
+     * Ordenador que compara por tipo: números sin pasar por texto y textos
+     * sin tildes ni mayúsculas, sin un Collator por comparación
+     */
+    public TableRowSorter<ProductoTableModel> crearOrdenador() {
+        return new Ordenador(this);
+    }
+
+    /**
+     * Texto de la celda tal como se muestra (el precio como "S/ 0.00")
+     */
+    public static String formatear(Object valor) {
+        if (valor instanceof Double precio) {
+            return String.format("S/ %.2f", precio);
+        }
+        return valor != null ? valor.toString() : "";
+    }
+
+    /**
+     * Renderer que formatea el valor recién al pintar la celda
+     */
+    public static class RendererCelda extends DefaultTableCellRenderer {
+        public RendererCelda(int alineacion) {
+            setHorizontalAlignment(alineacion);
+        }
+
+        @Override
+        protected void setValue(Object valor) {
+            setText(formatear(valor));
+        }
+    }
+
+    // ========== INTERNOS ==========
+
+    private void escribir(int fila, Producto producto) {
+        ids[fila] = producto.getId();
+        codigos[fila] = producto.getCodigo();
+        nombres[fila] = producto.getNombre();
+        categorias[fila] = producto.getCategoria();
+        precios[fila] = producto.getPrecio();
+        stocks[fila] = producto.getStock();
+        clavesCodigo[fila] = null;
+        clavesNombre[fila] = null;
+        clavesCategoria[fila] = null;
+    }
+
+    private void renumerarDesde(int desde) {
+        for (int fila = desde; fila < filas; fila++) {
+            filaPorId.put(ids[fila], fila);
+        }
+    }
+
+    private void asegurarCapacidad(int minima) {
+        if (minima <= ids.length) {
+            return;
+        }
+        int capacidad = Math.max(minima, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacidad);
+        codigos = Arrays.copyOf(codigos, capacidad);
+        nombres = Arrays.copyOf(nombres, capacidad);
+        categorias = Arrays.copyOf(categorias, capacidad);
+        precios = Arrays.copyOf(precios, capacidad);
+        stocks = Arrays.copyOf(stocks, capacidad);
+        clavesCodigo = Arrays.copyOf(clavesCodigo, capacidad);
+        clavesNombre = Arrays.copyOf(clavesNombre, capacidad);
+        clavesCategoria = Arrays.copyOf(clavesCategoria, capacidad);
+    }
+
+    // Mueve un bloque de filas en todas las columnas a la vez
+    private void desplazar(int desde, int hasta, int cantidad) {
+        if (cantidad <= 0) {
+            return;
+        }
+        for (Object columna : new Object[]{ids, codigos, nombres, categorias, precios, stocks,
+                clavesCodigo, clavesNombre, clavesCategoria}) {
+            System.arraycopy(columna, desde, columna, hasta, cantidad);
+        }
+    }
+
+    private Object claveOrden(int fila, int columna) {
+        return switch (columnas[columna]) {
+            case CODIGO -> clave(clavesCodigo, codigos, fila);
+            case NOMBRE -> clave(clavesNombre, nombres, fila);
+            case CATEGORIA -> clave(clavesCategoria, categorias, fila);
+            default -> getValueAt(fila, columna);
+        };
+    }
+
+    private static String clave(String[] claves, String[] textos, int fila) {
+        String clave = claves[fila];
+        if (clave == null) {
+            clave = IndiceBusquedaProductos.normalizar(textos[fila]);
+            claves[fila] = clave;
+        }
+        return clave;
+    }
+
+    /**
+     * Ordena con las claves del modelo: todas las columnas son Comparable,
+     * así que basta el orden natural
+     */
+    private static class Ordenador extends TableRowSorter<ProductoTableModel> {
+        Ordenador(ProductoTableModel modelo) {
+            super(modelo);
+            setModelWrapper(new ModelWrapper<ProductoTableModel, Integer>() {
+                @Override
+                public ProductoTableModel getModel() {
+                    return modelo;
+                }
+
+                @Override
+                public int getColumnCount() {
+                    return modelo.getColumnCount();
+                }
+
+                @Override
+                public int getRowCount() {
+                    return modelo.getRowCount();
+                }
+
+                @Override
+                public Object getValueAt(int fila, int columna) {
+                    return modelo.claveOrden(fila, columna);
+                }
+
+                @Override
+                public String getStringValueAt(int fila, int columna) {
+                    // Los filtros (RowFilter) ven el texto que se muestra
+                    return formatear(modelo.getValueAt(fila, columna));
+                }
+
+                @Override
+                public Integer getIdentifier(int fila) {
+                    return fila;
+                }
+            });
+            for (int columna = 0; columna < modelo.getColumnCount(); columna++) {
+                setComparator(columna, Comparator.naturalOrder());
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.libreria.view;
+
+import com.libreria.util.TrabajoExportacion;
+import com.libreria.util.UIConstants;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.nio.file.Path;
+
+/**
+ * Ventana no modal con el avance de una exportación en segundo plano.
+ *
+ * Queda sobre la ventana principal (no sobre el diálogo que la lanzó), así
+ * que se puede cerrar el reporte y seguir vendiendo mientras se genera.
+ */
+public class ProgresoExportacionDialog extends JDialog implements TrabajoExportacion.Oyente {
+    private final TrabajoExportacion trabajo;
+    private final JProgressBar barra;
+    private final JLabel lblEstado;
+    private final JButton btnCancelar;
+
+    private ProgresoExportacionDialog(Frame owner, String titulo, TrabajoExportacion trabajo) {
+        super(owner, titulo, false);
+        this.trabajo = trabajo;
+        // Los reportes se lanzan desde diálogos modales; sin esto no se podría cancelar
+        setModalExclusionType(ModalExclusionType.APPLICATION_EXCLUDE);
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBackground(UIConstants.CARD_BACKGROUND);
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+
+        lblEstado = new JLabel("Preparando " + trabajo.getDestino().getFileName() + "...");
+        lblEstado.setFont(UIConstants.NORMAL_FONT);
+        lblEstado.setForeground(UIConstants.TEXT_COLOR);
+
+        barra = new JProgressBar();
+        barra.setIndeterminate(true);
+        barra.setStringPainted(true);
+        barra.setString("");
+
+        btnCancelar = new JButton("Cancelar");
+        btnCancelar.setFont(UIConstants.SMALL_FONT);
+        btnCancelar.addActionListener(e -> cancelar());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cancelar();
+            }
+        });
+
+        JPanel botones = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        botones.setOpaque(false);
+        botones.add(btnCancelar);
+
+        panel.add(lblEstado, BorderLayout.NORTH);
+        panel.add(barra, BorderLayout.CENTER);
+        panel.add(botones, BorderLayout.SOUTH);
+        setContentPane(panel);
+
+        setSize(420, 150);
+        setLocationRelativeTo(owner);
+    }
+
+    /**
+     * Lanza la exportación y muestra su avance. Debe llamarse desde el EDT.
+     *
+     * @param padre componente desde el que se exporta (para ubicar la ventana)
+     */
+    public static TrabajoExportacion exportar(Component padre, String titulo, Path destino,
+                                              TrabajoExportacion.Generador generador) {
+        TrabajoExportacion trabajo = new TrabajoExportacion(destino, generador);
+        ProgresoExportacionDialog dialogo = new ProgresoExportacionDialog(
+                JOptionPane.getFrameForComponent(padre), titulo, trabajo);
+        dialogo.setVisible(true);
+        trabajo.iniciar(dialogo);
+        return trabajo;
+    }
+
+    private void cancelar() {
+        trabajo.cancelar();
+        btnCancelar.setEnabled(false);
+        lblEstado.setText("Cancelando...");
+    }
+
+    @Override
+    public void progreso(int filas, int total) {
+        if (total > 0) {
+            barra.setIndeterminate(false);
+            barra.setMaximum(total);
+            barra.setValue(Math.min(filas, total));
+            barra.setString(filas + " de " + total + " filas");
+        } else {
+            barra.setString(filas + " filas");
+        }
+        if (!trabajo.isCancelado()) {
+            lblEstado.setText("Generando " + trabajo.getDestino().getFileName() + "...");
+        }
+    }
+
+    @Override
+    public void terminado(Path destino) {
+        dispose();
+        JOptionPane.showMessageDialog(getOwner(),
+            "Reporte exportado exitosamente a:\n" + destino,
+            "Éxito",
+            JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    @Override
+    public void cancelado() {
+        dispose();
+    }
+
+    @Override
+    public void fallo(Exception e) {
+        dispose();
+        JOptionPane.showMessageDialog(getOwner(),
+            "Error al exportar: " + e.getMessage(),
+            "Error",
+            JOptionPane.ERROR_MESSAGE);
+        e.printStackTrace();
+    }
+}
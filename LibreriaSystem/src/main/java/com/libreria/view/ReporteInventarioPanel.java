@@ -2,15 +2,22 @@ package com.libreria.view;
 
 import com.libreria.controller.ReporteController;
 import com.libreria.controller.ProductoController;
-import com.libreria.model.Producto;
+import com.libreria.evento.BusEventos;
+import com.libreria.evento.EventoDominio.ProductoActualizado;
+import com.libreria.evento.EventoDominio.ProductoCreado;
+import com.libreria.evento.EventoDominio.ProductoEliminado;
+import com.libreria.evento.EventoDominio.StockCambiado;
+import com.libreria.evento.Suscripciones;
+import com.libreria.exportacion.FormatoExportacion;
+import com.libreria.util.EjecutorConsultas;
 import com.libreria.util.UIConstants;
 import org.jfree.chart.*;
 import org.jfree.chart.plot.CategoryPlot;
 import org.jfree.data.category.DefaultCategoryDataset;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -20,10 +27,13 @@ public class ReporteInventarioPanel extends JDialog {
     private final ReporteController reporteController;
     private final ProductoController productoController;
     private JTable tabla;
-    private DefaultTableModel modelo;
+    private ProductoTableModel modelo;
     private JLabel lblTotalProductos;
     private JLabel lblTotalValor;
     private JLabel lblCategorias;
+    private long totalStock;
+    private double valorInventario;
+    private final Suscripciones suscripciones = new Suscripciones(BusEventos.getCompartido());
 
     public ReporteInventarioPanel(Frame parent) {
         super(parent, "📊 Reporte de Inventario", true);
@@ -31,6 +41,7 @@ public class ReporteInventarioPanel extends JDialog {
         this.productoController = new ProductoController();
         initComponents();
         cargarDatos();
+        escucharCambios();
         
         setSize(1400, 800);
         setLocationRelativeTo(parent);
@@ -163,17 +174,19 @@ public class ReporteInventarioPanel extends JDialog {
         title.setFont(new Font("Segoe UI", Font.BOLD, 16));
         title.setForeground(UIConstants.TEXT_COLOR);
 
-        modelo = new DefaultTableModel(
-            new Object[]{"Código", "Nombre", "Categoría", "Stock", "Precio"},
-            0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modelo = new ProductoTableModel(
+            ProductoTableModel.Columna.CODIGO,
+            ProductoTableModel.Columna.NOMBRE,
+            ProductoTableModel.Columna.CATEGORIA,
+            ProductoTableModel.Columna.STOCK,
+            ProductoTableModel.Columna.PRECIO
+        );
 
         tabla = new JTable(modelo);
+        // Todo alineado a la izquierda y el precio formateado al pintar
+        tabla.setDefaultRenderer(Object.class, new ProductoTableModel.RendererCelda(JLabel.LEFT));
+        tabla.setDefaultRenderer(Integer.class, new ProductoTableModel.RendererCelda(JLabel.LEFT));
+        tabla.setDefaultRenderer(Double.class, new ProductoTableModel.RendererCelda(JLabel.LEFT));
         tabla.setFont(new Font("Arial", Font.PLAIN, 12));
         tabla.setRowHeight(35);
         tabla.setShowGrid(true);
@@ -256,30 +269,11 @@ public class ReporteInventarioPanel extends JDialog {
 
     private void cargarDatos() {
         try {
-            List<Producto> productos = productoController.obtenerTodos();
-            
-            // Actualizar tabla
-            modelo.setRowCount(0);
-            for (Producto p : productos) {
-                modelo.addRow(new Object[]{
-                    p.getCodigo(),
-                    p.getNombre(),
-                    p.getCategoria(),
-                    p.getStock(),
-                    String.format("S/ %.2f", p.getPrecio())
-                });
-            }
+            // Actualizar tabla (un solo evento para todas las filas)
+            modelo.reemplazarTodo(productoController.obtenerTodos());
 
-            // Calcular estadísticas
-            int totalStock = productos.stream().mapToInt(Producto::getStock).sum();
-            double valorTotal = productos.stream()
-                .mapToDouble(p -> p.getPrecio() * p.getStock()).sum();
-            Set<String> categorias = new HashSet<>();
-            productos.forEach(p -> categorias.add(p.getCategoria()));
-
-            lblTotalProductos.setText(String.valueOf(totalStock));
-            lblTotalValor.setText(String.format("S/ %.2f", valorTotal));
-            lblCategorias.setText(String.valueOf(categorias.size()));
+            // Estadísticas calculadas en la BD (SUM/COUNT DISTINCT)
+            mostrarResumen(reporteController.obtenerResumenInventario());
 
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
@@ -289,27 +283,89 @@ public class ReporteInventarioPanel extends JDialog {
         }
     }
 
+    private void mostrarResumen(Map<String, Object> resumen) {
+        totalStock = (Long) resumen.get("totalStock");
+        valorInventario = (Double) resumen.get("valorInventario");
+        lblCategorias.setText(String.valueOf(resumen.get("categorias")));
+        mostrarTotales();
+    }
+
+    private void mostrarTotales() {
+        lblTotalProductos.setText(String.valueOf(totalStock));
+        lblTotalValor.setText(String.format("S/ %.2f", valorInventario));
+    }
+
+    /**
+     * Mientras el reporte está abierto, los cambios publicados se aplican a
+     * su fila; las ventas ajustan stock y valor sin volver a la BD
+     */
+    private void escucharCambios() {
+        suscripciones.escuchar(StockCambiado.class, e -> {
+            int fila = modelo.buscarFila(e.productoId());
+            if (fila == -1) {
+                return;
+            }
+            modelo.ajustarStock(e.productoId(), e.cambio());
+            totalStock += e.cambio();
+            valorInventario += e.cambio() * modelo.getPrecio(fila);
+            mostrarTotales();
+        });
+        suscripciones.escuchar(ProductoCreado.class, e -> {
+            modelo.agregar(e.producto());
+            recargarResumen();
+        });
+        suscripciones.escuchar(ProductoActualizado.class, e -> {
+            modelo.actualizar(e.producto());
+            recargarResumen();
+        });
+        suscripciones.escuchar(ProductoEliminado.class, e -> {
+            modelo.quitar(e.productoId());
+            recargarResumen();
+        });
+    }
+
+    /**
+     * Altas, bajas y ediciones pueden cambiar las categorías: se repite solo el resumen
+     */
+    private void recargarResumen() {
+        EjecutorConsultas.getCompartido().ejecutar(reporteController::obtenerResumenInventario)
+            .whenComplete((resumen, error) -> SwingUtilities.invokeLater(() -> {
+                if (error == null) {
+                    mostrarResumen(resumen);
+                } else {
+                    error.printStackTrace();
+                }
+            }));
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        suscripciones.activar();
+    }
+
+    @Override
+    public void removeNotify() {
+        // dispose() pasa por aquí: el reporte cerrado deja de recibir eventos
+        suscripciones.cancelar();
+        super.removeNotify();
+    }
+
     private void exportarExcel() {
         try {
-            JFileChooser fileChooser = new JFileChooser();
-            fileChooser.setDialogTitle("Guardar Reporte");
-            fileChooser.setSelectedFile(new java.io.File("Reporte_Inventario_" + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx"));
+            ExportacionFileChooser fileChooser = new ExportacionFileChooser("Guardar Reporte",
+                "Reporte_Inventario_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")));
             
             int userSelection = fileChooser.showSaveDialog(this);
             
             if (userSelection == JFileChooser.APPROVE_OPTION) {
-                String rutaArchivo = fileChooser.getSelectedFile().getAbsolutePath();
-                if (!rutaArchivo.endsWith(".xlsx")) {
-                    rutaArchivo += ".xlsx";
-                }
-                
-                reporteController.generarReporteInventarioExcel(rutaArchivo);
+                String rutaArchivo = fileChooser.getRutaElegida();
+                FormatoExportacion formato = fileChooser.getFormatoElegido();
                 
-                JOptionPane.showMessageDialog(this,
-                    "Reporte exportado exitosamente",
-                    "Éxito",
-                    JOptionPane.INFORMATION_MESSAGE);
+                ProgresoExportacionDialog.exportar(this, "Exportando inventario", Paths.get(rutaArchivo),
+                    formato == FormatoExportacion.EXCEL
+                        ? reporteController::generarReporteInventarioExcel
+                        : (ruta, progreso) -> reporteController.exportarInventario(ruta, formato, progreso));
             }
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
@@ -3,7 +3,9 @@ package com.libreria.view;
 import com.libreria.controller.ReporteController;
 import com.libreria.controller.VentaController;
 import com.libreria.model.DetalleVenta;
+import com.libreria.model.PaginaVentas;
 import com.libreria.model.Venta;
+import com.libreria.model.VentaResumen;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -12,6 +14,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class SalesListDialog extends JDialog {
@@ -23,9 +26,14 @@ public class SalesListDialog extends JDialog {
     private final JButton btnPrev;
     private final JButton btnNext;
     private final JLabel lblPageInfo;
-    private int page = 0;
     private final int pageSize = 20;
-    private List<Venta> currentList = null;
+    // Paginación por cursor: solo se pide a la BD la página visible
+    private PaginaVentas currentPage = null;
+    private VentaResumen currentCursor = null;
+    private final List<VentaResumen> previousCursors = new ArrayList<>();
+    private long totalVentas = 0;
+    private LocalDateTime filtroInicio = null;
+    private LocalDateTime filtroFin = null;
     private final ReporteController reporteController;
 
     public SalesListDialog(Frame owner) {
@@ -96,10 +104,15 @@ public class SalesListDialog extends JDialog {
         btnVerDetalle.addActionListener(e -> mostrarDetalleSeleccionado());
 
         btnPrev.addActionListener(e -> {
-            if (page > 0) { page--; renderPage(); }
+            if (!previousCursors.isEmpty()) {
+                cargarPagina(previousCursors.remove(previousCursors.size() - 1), false);
+            }
         });
         btnNext.addActionListener(e -> {
-            if (currentList != null && (page+1)*pageSize < currentList.size()) { page++; renderPage(); }
+            if (currentPage != null && currentPage.isHaySiguiente()) {
+                previousCursors.add(currentCursor);
+                cargarPagina(currentPage.getUltima(), false);
+            }
         });
 
         btnExport.addActionListener(e -> {
@@ -116,8 +129,8 @@ public class SalesListDialog extends JDialog {
                 JFileChooser fc = new JFileChooser();
                 fc.setSelectedFile(new java.io.File("ReporteVentas.xlsx"));
                 if (fc.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-                    reporteController.generarReporteVentasExcel(fc.getSelectedFile().getAbsolutePath(), inicio, fin);
-                    JOptionPane.showMessageDialog(this, "Exportado exitosamente", "OK", JOptionPane.INFORMATION_MESSAGE);
+                    ProgresoExportacionDialog.exportar(this, "Exportando ventas", fc.getSelectedFile().toPath(),
+                        (ruta, progreso) -> reporteController.generarReporteVentasExcel(ruta, inicio, fin, progreso));
                 }
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Error al exportar: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -130,11 +143,25 @@ public class SalesListDialog extends JDialog {
     }
 
     private void loadData() {
+        model.setRowCount(0);
+        filtroInicio = null;
+        filtroFin = null;
+        previousCursors.clear();
+        cargarPagina(null, true);
+    }
+
+    /**
+     * Pide a la BD solo la página que empieza después del cursor dado.
+     * Solo cabeceras: el detalle se carga al abrir una venta.
+     */
+    private void cargarPagina(VentaResumen cursor, boolean contarTotal) {
         try {
-            model.setRowCount(0);
-            List<Venta> ventas = ventaController.obtenerTodos();
-            this.currentList = ventas;
-            this.page = 0;
+            PaginaVentas pagina = ventaController.obtenerPaginaVentas(filtroInicio, filtroFin, cursor, pageSize, contarTotal);
+            if (contarTotal) {
+                this.totalVentas = pagina.getTotal();
+            }
+            this.currentCursor = cursor;
+            this.currentPage = pagina;
             renderPage();
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error al cargar ventas: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -151,13 +178,10 @@ public class SalesListDialog extends JDialog {
                 return;
             }
 
-            LocalDateTime inicio = inicioDate.atStartOfDay();
-            LocalDateTime fin = finDate.atTime(23, 59, 59);
-
-            List<Venta> ventas = ventaController.obtenerVentasPorFecha(inicio, fin);
-            this.currentList = ventas;
-            this.page = 0;
-            renderPage();
+            this.filtroInicio = inicioDate.atStartOfDay();
+            this.filtroFin = finDate.atTime(23, 59, 59);
+            this.previousCursors.clear();
+            cargarPagina(null, true);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error al filtrar ventas: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -165,19 +189,19 @@ public class SalesListDialog extends JDialog {
 
     private void renderPage() {
         model.setRowCount(0);
-        if (currentList == null || currentList.isEmpty()) {
+        if (currentPage == null || currentPage.getVentas().isEmpty()) {
             lblPageInfo.setText("Página 0/0");
+            btnPrev.setEnabled(false);
+            btnNext.setEnabled(false);
             return;
         }
-        int total = currentList.size();
-        int totalPages = (total + pageSize - 1) / pageSize;
-        int start = page * pageSize;
-        int end = Math.min(start + pageSize, total);
-        for (int i = start; i < end; i++) {
-            Venta v = currentList.get(i);
+        for (VentaResumen v : currentPage.getVentas()) {
             model.addRow(new Object[]{v.getId(), v.getNumeroVenta(), v.getFecha(), v.getMetodoPago(), v.getTotal()});
         }
-        lblPageInfo.setText(String.format("Página %d/%d", page+1, totalPages));
+        long totalPages = (totalVentas + pageSize - 1) / pageSize;
+        lblPageInfo.setText(String.format("Página %d/%d", previousCursors.size() + 1, totalPages));
+        btnPrev.setEnabled(!previousCursors.isEmpty());
+        btnNext.setEnabled(currentPage.isHaySiguiente());
     }
 
     private LocalDate parseDate(String text) {
@@ -202,6 +226,7 @@ public class SalesListDialog extends JDialog {
 
         Integer id = (Integer) model.getValueAt(row, 0);
         try {
+            // Carga bajo demanda: detalles y productos solo de la venta elegida
             Venta v = ventaController.obtenerPorId(id);
             if (v == null) {
                 JOptionPane.showMessageDialog(this, "Venta no encontrada", "Info", JOptionPane.INFORMATION_MESSAGE);
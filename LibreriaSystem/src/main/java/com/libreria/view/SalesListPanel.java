@@ -1,13 +1,17 @@
 package com.libreria.view;
 
 import com.libreria.controller.VentaController;
+import com.libreria.exportacion.FormatoExportacion;
+import com.libreria.model.DetalleVenta;
 import com.libreria.model.Venta;
+import com.libreria.model.VentaResumen;
 import com.libreria.util.UIConstants;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -288,7 +292,7 @@ public class SalesListPanel extends JDialog {
             LocalDateTime inicio = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
             LocalDateTime fin = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
             
-            List<Venta> ventas = ventaController.obtenerVentasPorFecha(inicio, fin);
+            List<VentaResumen> ventas = ventaController.obtenerResumenesPorFecha(inicio, fin);
             actualizarTabla(ventas);
             actualizarEstadisticas(ventas);
         } catch (Exception e) {
@@ -304,7 +308,7 @@ public class SalesListPanel extends JDialog {
             LocalDateTime inicio = LocalDateTime.parse(txtFechaInicio.getText() + "T00:00:00");
             LocalDateTime fin = LocalDateTime.parse(txtFechaFin.getText() + "T23:59:59");
             
-            List<Venta> ventas = ventaController.obtenerVentasPorFecha(inicio, fin);
+            List<VentaResumen> ventas = ventaController.obtenerResumenesPorFecha(inicio, fin);
             actualizarTabla(ventas);
             actualizarEstadisticas(ventas);
         } catch (Exception e) {
@@ -315,11 +319,11 @@ public class SalesListPanel extends JDialog {
         }
     }
 
-    private void actualizarTabla(List<Venta> ventas) {
+    private void actualizarTabla(List<VentaResumen> ventas) {
         modelo.setRowCount(0);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
         
-        for (Venta v : ventas) {
+        for (VentaResumen v : ventas) {
             modelo.addRow(new Object[]{
                 v.getId(),
                 v.getNumeroVenta(),
@@ -330,37 +334,33 @@ public class SalesListPanel extends JDialog {
         }
     }
 
-    private void actualizarEstadisticas(List<Venta> ventas) {
-        double total = ventas.stream().mapToDouble(Venta::getTotal).sum();
+    private void actualizarEstadisticas(List<VentaResumen> ventas) {
+        double total = ventas.stream().mapToDouble(VentaResumen::getTotal).sum();
         lblTotal.setText(String.format("S/ %.2f", total));
         lblCantidad.setText(String.valueOf(ventas.size()));
     }
 
     private void exportarExcel() {
         try {
-            JFileChooser fileChooser = new JFileChooser();
-            fileChooser.setDialogTitle("Guardar Reporte de Ventas");
-            fileChooser.setSelectedFile(new java.io.File("Reporte_Ventas_" + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx"));
+            ExportacionFileChooser fileChooser = new ExportacionFileChooser("Guardar Reporte de Ventas",
+                "Reporte_Ventas_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")));
             
             int userSelection = fileChooser.showSaveDialog(this);
             
             if (userSelection == JFileChooser.APPROVE_OPTION) {
-                String rutaArchivo = fileChooser.getSelectedFile().getAbsolutePath();
-                if (!rutaArchivo.endsWith(".xlsx")) {
-                    rutaArchivo += ".xlsx";
-                }
+                String rutaArchivo = fileChooser.getRutaElegida();
+                FormatoExportacion formato = fileChooser.getFormatoElegido();
                 
                 // Obtener fechas
                 LocalDateTime inicio = LocalDateTime.parse(txtFechaInicio.getText() + "T00:00:00");
                 LocalDateTime fin = LocalDateTime.parse(txtFechaFin.getText() + "T23:59:59");
                 
-                ventaController.generarReporteVentasExcel(rutaArchivo, inicio, fin);
-                
-                JOptionPane.showMessageDialog(this,
-                    "Reporte exportado exitosamente a:\n" + rutaArchivo,
-                    "Éxito",
-                    JOptionPane.INFORMATION_MESSAGE);
+                // Se genera en segundo plano; el aviso de éxito lo da la ventana de progreso.
+                // Excel lleva el reporte con formato; CSV y columnar, el extracto plano.
+                ProgresoExportacionDialog.exportar(this, "Exportando ventas", Paths.get(rutaArchivo),
+                    formato == FormatoExportacion.EXCEL
+                        ? (ruta, progreso) -> ventaController.generarReporteVentasExcel(ruta, inicio, fin, progreso)
+                        : (ruta, progreso) -> ventaController.exportarVentas(ruta, formato, inicio, fin, progreso));
             }
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
@@ -381,10 +381,43 @@ public class SalesListPanel extends JDialog {
             return;
         }
         
-        String numeroVenta = (String) modelo.getValueAt(row, 1);
-        JOptionPane.showMessageDialog(this,
-            "Detalle de venta: " + numeroVenta,
-            "Detalle",
-            JOptionPane.INFORMATION_MESSAGE);
+        Integer id = (Integer) modelo.getValueAt(row, 0);
+        try {
+            // Carga bajo demanda: detalles y productos solo de la venta elegida
+            Venta v = ventaController.obtenerPorId(id);
+            if (v == null) {
+                JOptionPane.showMessageDialog(this,
+                    "Venta no encontrada",
+                    "Información",
+                    JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            
+            StringBuilder sb = new StringBuilder();
+            sb.append("N° Venta: ").append(v.getNumeroVenta()).append("\n");
+            sb.append("Fecha: ").append(v.getFecha().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))).append("\n");
+            sb.append("Método: ").append(v.getMetodoPago()).append("\n");
+            sb.append("Total: S/ ").append(String.format("%.2f", v.getTotal())).append("\n\n");
+            sb.append("Detalles:\n");
+            for (DetalleVenta d : v.getDetalles()) {
+                String nombre = d.getProducto() != null ? d.getProducto().getNombre() : "(producto eliminado)";
+                sb.append(String.format("- %s x%d @ S/ %.2f = S/ %.2f\n",
+                        nombre, d.getCantidad(), d.getPrecioUnitario(), d.getSubtotal()));
+            }
+            
+            JTextArea area = new JTextArea(sb.toString());
+            area.setEditable(false);
+            area.setRows(10);
+            area.setColumns(50);
+            JOptionPane.showMessageDialog(this,
+                new JScrollPane(area),
+                "Detalle",
+                JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this,
+                "Error al obtener detalle: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
     }
 }
\ No newline at end of file
@@ -66,6 +66,23 @@ public class SearchPanel extends JPanel {
         txtBusqueda.addActionListener(listener);
     }
     
+    /**
+     * Avisa cada vez que cambia el texto (para buscar mientras se escribe)
+     */
+    public void addTextChangeListener(Runnable listener) {
+        txtBusqueda.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                listener.run();
+            }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                listener.run();
+            }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                listener.run();
+            }
+        });
+    }
+    
     public void clear() {
         txtBusqueda.setText("");
     }
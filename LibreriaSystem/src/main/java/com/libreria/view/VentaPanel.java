@@ -2,9 +2,15 @@ package com.libreria.view;
 
 import com.libreria.controller.ProductoController;
 import com.libreria.controller.VentaController;
+import com.libreria.dao.IndiceBusquedaProductos;
+import com.libreria.evento.EventoDominio.ProductoActualizado;
+import com.libreria.evento.EventoDominio.ProductoCreado;
+import com.libreria.evento.EventoDominio.ProductoEliminado;
+import com.libreria.evento.EventoDominio.StockCambiado;
 import com.libreria.model.Producto;
 import com.libreria.model.Venta;
 import com.libreria.model.DetalleVenta;
+import com.libreria.util.BusquedaDiferida;
 import com.libreria.util.SessionManager;
 import com.libreria.util.ComprobanteGenerator;
 import com.libreria.util.UIConstants;
@@ -26,15 +32,21 @@ public class VentaPanel extends BasePanel {
     private JComboBox<String> cmbMetodoPago;
     private JTextField txtBuscarProducto; // NUEVO: Campo de búsqueda
     private final java.util.List<Producto> listaProductos;
+    // Productos en el mismo orden que los items del combo (cambia al filtrar)
+    private java.util.List<Producto> productosEnCombo;
+    private static final int MAX_RESULTADOS_BUSQUEDA = 100;
+    private BusquedaDiferida<java.util.List<Producto>> busqueda;
     private final java.util.List<DetalleVenta> detallesVenta;
 
     public VentaPanel() {
         this.ventaController = new VentaController();
         this.productoController = new ProductoController();
         this.listaProductos = new ArrayList<>();
+        this.productosEnCombo = new ArrayList<>();
         this.detallesVenta = new ArrayList<>();
         initComponents();
         cargarProductos();
+        escucharCambios();
     }
 
     private void initComponents() {
@@ -134,9 +146,17 @@ public class VentaPanel extends BasePanel {
 
         topPanel.add(selectionPanel, BorderLayout.CENTER);
         
-        // Evento del buscador para filtrar productos
-        txtBuscarProducto.addKeyListener(new java.awt.event.KeyAdapter() {
-            public void keyReleased(java.awt.event.KeyEvent evt) {
+        // Evento del buscador para filtrar productos (con espera y fuera del EDT)
+        busqueda = new BusquedaDiferida<>(this::mostrarEnCombo,
+                e -> showError("Error al filtrar productos: " + e.getMessage()));
+        txtBuscarProducto.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                filtrarProductos(txtBuscarProducto.getText());
+            }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                filtrarProductos(txtBuscarProducto.getText());
+            }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
                 filtrarProductos(txtBuscarProducto.getText());
             }
         });
@@ -285,44 +305,155 @@ public class VentaPanel extends BasePanel {
     public void cargarProductos() {
         try {
             listaProductos.clear();
-            cmbProductos.removeAllItems();
             
             java.util.List<Producto> productos = productoController.obtenerTodos();
             for (Producto p : productos) {
                 if (p.getStock() > 0) {
                     listaProductos.add(p);
-                    cmbProductos.addItem(p.getNombre() + " - S/ " + String.format("%.2f", p.getPrecio()) 
-                        + " (Stock: " + p.getStock() + ")");
                 }
             }
+            mostrarEnCombo(listaProductos);
         } catch (Exception e) {
             showError("Error al cargar productos: " + e.getMessage());
         }
     }
     
     private void filtrarProductos(String textoBusqueda) {
-        try {
-            cmbProductos.removeAllItems();
-            String busqueda = textoBusqueda.toLowerCase().trim();
-            
-            for (Producto p : listaProductos) {
-                if (busqueda.isEmpty() || 
-                    p.getNombre().toLowerCase().contains(busqueda) ||
-                    p.getCodigo().toLowerCase().contains(busqueda) ||
-                    p.getCategoria().toLowerCase().contains(busqueda)) {
-                    cmbProductos.addItem(p.getNombre() + " - S/ " + String.format("%.2f", p.getPrecio()) 
-                        + " (Stock: " + p.getStock() + ")");
-                }
+        if (textoBusqueda == null || textoBusqueda.trim().isEmpty()) {
+            busqueda.cancelar();
+            mostrarEnCombo(listaProductos);
+            return;
+        }
+        busqueda.solicitar(() -> productoController.buscar(textoBusqueda, IndiceBusquedaProductos.Campo.TODOS,
+                MAX_RESULTADOS_BUSQUEDA, p -> p.getStock() > 0));
+    }
+    
+    /**
+     * Reemplaza el modelo del combo de una vez (sin un evento por item)
+     */
+    private void mostrarEnCombo(java.util.List<Producto> productos) {
+        String[] items = new String[productos.size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = textoCombo(productos.get(i));
+        }
+        productosEnCombo = new ArrayList<>(productos);
+        cmbProductos.setModel(new DefaultComboBoxModel<>(items));
+    }
+    
+    private String textoCombo(Producto p) {
+        return p.getNombre() + " - S/ " + String.format("%.2f", p.getPrecio())
+            + " (Stock: " + p.getStock() + ")";
+    }
+    
+    /**
+     * Mantiene la lista y el combo al día con los cambios publicados,
+     * tocando solo el item del producto afectado
+     */
+    private void escucharCambios() {
+        escuchar(ProductoCreado.class, e -> aplicarProducto(e.producto()));
+        escuchar(ProductoActualizado.class, e -> aplicarProducto(e.producto()));
+        escuchar(ProductoEliminado.class, e -> quitarProducto(e.productoId()));
+        escuchar(StockCambiado.class, e -> ajustarStock(e.productoId(), e.cambio()));
+    }
+    
+    private void ajustarStock(int productoId, int cambio) {
+        int indice = indiceDe(listaProductos, productoId);
+        Producto actual = indice != -1 ? listaProductos.get(indice) : null;
+        if (actual == null) {
+            int enCombo = indiceDe(productosEnCombo, productoId);
+            actual = enCombo != -1 ? productosEnCombo.get(enCombo) : null;
+        }
+        if (actual != null) {
+            Producto nuevo = new Producto(actual);
+            nuevo.setStock(actual.getStock() + cambio);
+            aplicarProducto(nuevo);
+        }
+    }
+    
+    private void aplicarProducto(Producto producto) {
+        boolean disponible = producto.getStock() > 0;
+        
+        // Lista completa: ordenada por id, solo con stock
+        int indice = indiceDe(listaProductos, producto.getId());
+        if (indice != -1 && disponible) {
+            listaProductos.set(indice, producto);
+        } else if (indice != -1) {
+            listaProductos.remove(indice);
+        } else if (disponible) {
+            listaProductos.add(posicionPorId(listaProductos, producto.getId()), producto);
+        }
+        
+        // Combo: lo que se muestra ahora (todo o el resultado de la búsqueda)
+        int enCombo = indiceDe(productosEnCombo, producto.getId());
+        if (enCombo != -1 && disponible) {
+            reemplazarEnCombo(enCombo, producto);
+        } else if (enCombo != -1) {
+            quitarDeCombo(enCombo);
+        } else if (disponible) {
+            String texto = txtBuscarProducto.getText();
+            if (texto == null || texto.trim().isEmpty()) {
+                int posicion = posicionPorId(productosEnCombo, producto.getId());
+                productosEnCombo.add(posicion, producto);
+                modeloCombo().insertElementAt(textoCombo(producto), posicion);
+            } else {
+                // Solo el índice de búsqueda sabe si ahora coincide
+                filtrarProductos(texto);
             }
-        } catch (Exception e) {
-            showError("Error al filtrar productos: " + e.getMessage());
         }
     }
+    
+    private void quitarProducto(int productoId) {
+        int indice = indiceDe(listaProductos, productoId);
+        if (indice != -1) {
+            listaProductos.remove(indice);
+        }
+        int enCombo = indiceDe(productosEnCombo, productoId);
+        if (enCombo != -1) {
+            quitarDeCombo(enCombo);
+        }
+    }
+    
+    private void reemplazarEnCombo(int indice, Producto producto) {
+        boolean seleccionado = cmbProductos.getSelectedIndex() == indice;
+        productosEnCombo.set(indice, producto);
+        modeloCombo().removeElementAt(indice);
+        modeloCombo().insertElementAt(textoCombo(producto), indice);
+        if (seleccionado) {
+            cmbProductos.setSelectedIndex(indice);
+        }
+    }
+    
+    private void quitarDeCombo(int indice) {
+        productosEnCombo.remove(indice);
+        modeloCombo().removeElementAt(indice);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private DefaultComboBoxModel<String> modeloCombo() {
+        return (DefaultComboBoxModel<String>) cmbProductos.getModel();
+    }
+    
+    private static int indiceDe(java.util.List<Producto> productos, int productoId) {
+        for (int i = 0; i < productos.size(); i++) {
+            if (productos.get(i).getId() == productoId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static int posicionPorId(java.util.List<Producto> productos, int productoId) {
+        int posicion = 0;
+        while (posicion < productos.size() && productos.get(posicion).getId() < productoId) {
+            posicion++;
+        }
+        return posicion;
+    }
 
     private void btnAgregarActionPerformed(ActionEvent evt) {
         int index = cmbProductos.getSelectedIndex();
         if (index != -1) {
-            Producto producto = listaProductos.get(index);
+            Producto producto = productosEnCombo.get(index);
             int cantidad = (int) spnCantidad.getValue();
 
             try {
@@ -365,7 +496,6 @@ public class VentaPanel extends BasePanel {
             
             showInfo("Venta realizada exitosamente\nN° " + venta.getNumeroVenta());
             limpiarVenta();
-            cargarProductos();
         } catch (Exception e) {
             showError("Error al procesar la venta: " + e.getMessage());
         }
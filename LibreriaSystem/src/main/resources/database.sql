@@ -36,6 +36,42 @@ CREATE TABLE IF NOT EXISTS detalles_venta (
     FOREIGN KEY (producto_id) REFERENCES productos(id)
 );
 
+-- Contador de números de venta por día (ver GeneradorNumeroVenta)
+CREATE TABLE IF NOT EXISTS secuencias_venta (
+    fecha CHAR(8) PRIMARY KEY,
+    ultimo INT NOT NULL
+);
+
+-- Resúmenes de ventas por día, producto y categoría (ver ResumenVentasDAO).
+-- Se actualizan en cada venta. En una base con ventas anteriores, llenarlos
+-- una vez con: java -cp <classpath> com.libreria.util.ReconstruirResumenVentas
+CREATE TABLE IF NOT EXISTS resumen_ventas_diario (
+    fecha DATE PRIMARY KEY,
+    num_ventas INT NOT NULL,
+    unidades INT NOT NULL,
+    ingresos DECIMAL(14,2) NOT NULL,
+    venta_minima DECIMAL(10,2) NOT NULL,
+    venta_maxima DECIMAL(10,2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS resumen_ventas_producto (
+    fecha DATE NOT NULL,
+    producto_id INT NOT NULL,
+    num_ventas INT NOT NULL,
+    unidades INT NOT NULL,
+    ingresos DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (fecha, producto_id)
+);
+
+CREATE TABLE IF NOT EXISTS resumen_ventas_categoria (
+    fecha DATE NOT NULL,
+    categoria VARCHAR(50) NOT NULL,
+    num_ventas INT NOT NULL,
+    unidades INT NOT NULL,
+    ingresos DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (fecha, categoria)
+);
+
 -- Índices
 CREATE INDEX idx_productos_codigo ON productos(codigo);
 CREATE INDEX idx_ventas_fecha ON ventas(fecha);
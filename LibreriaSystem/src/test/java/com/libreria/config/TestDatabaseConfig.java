@@ -1,5 +1,7 @@
 package com.libreria.config;
 
+import com.libreria.dao.GeneradorNumeroVenta;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -42,6 +44,10 @@ public class TestDatabaseConfig {
             stmt.execute("DROP TABLE IF EXISTS ventas");
             stmt.execute("DROP TABLE IF EXISTS productos");
             stmt.execute("DROP TABLE IF EXISTS usuarios");
+            stmt.execute("DROP TABLE IF EXISTS secuencias_venta");
+            stmt.execute("DROP TABLE IF EXISTS resumen_ventas_diario");
+            stmt.execute("DROP TABLE IF EXISTS resumen_ventas_producto");
+            stmt.execute("DROP TABLE IF EXISTS resumen_ventas_categoria");
             
             // Crear tabla de Productos
             stmt.execute("""
@@ -94,6 +100,46 @@ public class TestDatabaseConfig {
                 )
             """);
             
+            // Crear tabla de secuencias de número de venta
+            stmt.execute("""
+                CREATE TABLE secuencias_venta (
+                    fecha CHAR(8) PRIMARY KEY,
+                    ultimo INT NOT NULL
+                )
+            """);
+            
+            // Crear tablas de resúmenes de ventas
+            stmt.execute("""
+                CREATE TABLE resumen_ventas_diario (
+                    fecha DATE PRIMARY KEY,
+                    num_ventas INT NOT NULL,
+                    unidades INT NOT NULL,
+                    ingresos DECIMAL(14,2) NOT NULL,
+                    venta_minima DECIMAL(10,2) NOT NULL,
+                    venta_maxima DECIMAL(10,2) NOT NULL
+                )
+            """);
+            stmt.execute("""
+                CREATE TABLE resumen_ventas_producto (
+                    fecha DATE NOT NULL,
+                    producto_id INT NOT NULL,
+                    num_ventas INT NOT NULL,
+                    unidades INT NOT NULL,
+                    ingresos DECIMAL(14,2) NOT NULL,
+                    PRIMARY KEY (fecha, producto_id)
+                )
+            """);
+            stmt.execute("""
+                CREATE TABLE resumen_ventas_categoria (
+                    fecha DATE NOT NULL,
+                    categoria VARCHAR(100) NOT NULL,
+                    num_ventas INT NOT NULL,
+                    unidades INT NOT NULL,
+                    ingresos DECIMAL(14,2) NOT NULL,
+                    PRIMARY KEY (fecha, categoria)
+                )
+            """);
+            
             // Crear índices
             stmt.execute("CREATE INDEX idx_productos_codigo ON productos(codigo)");
             stmt.execute("CREATE INDEX idx_productos_categoria ON productos(categoria)");
@@ -152,6 +198,10 @@ public class TestDatabaseConfig {
             stmt.execute("DELETE FROM ventas");
             stmt.execute("DELETE FROM productos");
             stmt.execute("DELETE FROM usuarios");
+            stmt.execute("DELETE FROM secuencias_venta");
+            stmt.execute("DELETE FROM resumen_ventas_diario");
+            stmt.execute("DELETE FROM resumen_ventas_producto");
+            stmt.execute("DELETE FROM resumen_ventas_categoria");
             
             // Reiniciar auto-increment
             stmt.execute("ALTER TABLE detalles_venta ALTER COLUMN id RESTART WITH 1");
@@ -162,6 +212,9 @@ public class TestDatabaseConfig {
             // Reactivar foreign keys
             stmt.execute("SET FOREIGN_KEY_CHECKS = 1");
             
+            // El bloque de números en memoria ya no corresponde a la BD
+            GeneradorNumeroVenta.getInstance().reiniciar();
+            
             System.out.println("🧹 Base de datos limpiada");
         }
     }
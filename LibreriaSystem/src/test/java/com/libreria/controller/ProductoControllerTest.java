@@ -2,12 +2,17 @@ package com.libreria.controller;
 
 import com.libreria.model.Producto;
 import com.libreria.dao.ProductoDAO;
+import com.libreria.evento.EventoDominio;
+import com.libreria.evento.EventoDominio.ProductoActualizado;
+import com.libreria.evento.EventoDominio.ProductoCreado;
+import com.libreria.evento.EventoDominio.ProductoEliminado;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 //import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -307,4 +312,41 @@ class ProductoControllerTest {
         assertEquals(2, resultado.size());
         verify(productoDAO, times(1)).obtenerTodos();
     }
+
+    // ==================== CASO P-16 ====================
+    @Test
+    @DisplayName("P-16: Publicar alta, modificación y baja con copias del producto")
+    void testPublicarCambiosDeProducto() throws Exception {
+        // Arrange
+        List<EventoDominio> eventos = new ArrayList<>();
+        productoController.getBusEventos().suscribir(EventoDominio.class, eventos::add);
+
+        // Act
+        productoController.crear(productoValido);
+        productoValido.setStock(80);
+        productoController.actualizar(productoValido);
+        productoController.eliminar(1);
+
+        // Assert
+        assertEquals(3, eventos.size());
+        Producto creado = ((ProductoCreado) eventos.get(0)).producto();
+        assertEquals(100, creado.getStock());
+        assertNotSame(productoValido, creado);
+        assertEquals(80, ((ProductoActualizado) eventos.get(1)).producto().getStock());
+        assertEquals(1, ((ProductoEliminado) eventos.get(2)).productoId());
+    }
+
+    // ==================== CASO P-17 ====================
+    @Test
+    @DisplayName("P-17: No publicar nada si el DAO falla")
+    void testNoPublicarSiFalla() throws Exception {
+        // Arrange
+        List<EventoDominio> eventos = new ArrayList<>();
+        productoController.getBusEventos().suscribir(EventoDominio.class, eventos::add);
+        doThrow(new java.sql.SQLException("Error de conexión")).when(productoDAO).actualizar(any(Producto.class));
+
+        // Act & Assert
+        assertThrows(Exception.class, () -> productoController.actualizar(productoValido));
+        assertTrue(eventos.isEmpty());
+    }
 }
\ No newline at end of file
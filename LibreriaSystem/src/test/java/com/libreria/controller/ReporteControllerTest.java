@@ -0,0 +1,113 @@
+package com.libreria.controller;
+
+import com.libreria.dao.ReporteDAO;
+import com.libreria.model.DashboardSnapshot;
+import com.libreria.model.Producto;
+import com.libreria.util.EjecutorConsultas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas Unitarias para ReporteController (dashboard) usando Mockito
+ */
+class ReporteControllerTest {
+
+    @Mock
+    private ReporteDAO reporteDAO;
+
+    @Mock
+    private ProductoController productoController;
+
+    @Mock
+    private VentaController ventaController;
+
+    private ReporteController reporteController;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        reporteController = new ReporteController(ventaController, productoController, reporteDAO, 1000,
+                new EjecutorConsultas(4, 0));
+
+        Map<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("montoTotal", 120.5);
+        Map<String, Object> top = new HashMap<>();
+        top.put("nombre", "Cuaderno");
+        top.put("totalIngresos", 77.5);
+
+        Producto cuaderno = new Producto("P000001", "Cuaderno", "Papelería", 15.5, 8, "");
+
+        when(reporteDAO.obtenerEstadisticasVentas(any(LocalDate.class), any(LocalDate.class))).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return estadisticas;
+        });
+        when(reporteDAO.obtenerProductosBajoStock(10)).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return List.of(cuaderno);
+        });
+        when(reporteDAO.obtenerProductosMasVendidos(5)).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return List.of(top);
+        });
+        Map<String, Object> inventario = new HashMap<>();
+        inventario.put("totalStock", 208L);
+        when(reporteDAO.obtenerResumenInventario()).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return inventario;
+        });
+    }
+
+    // ==================== CASO R-01 ====================
+    @Test
+    @DisplayName("R-01: Consultar las partes del dashboard en paralelo")
+    void testDashboardEnParalelo() {
+        long inicio = System.currentTimeMillis();
+        DashboardSnapshot snapshot = reporteController.generarEstadisticasDashboard();
+        long duracion = System.currentTimeMillis() - inicio;
+
+        assertTrue(snapshot.isCompleto(), "Errores: " + snapshot.getErrores());
+        assertEquals(120.5, snapshot.getVentasDia(), 0.001);
+        assertEquals(1, snapshot.getProductosBajoStock().size());
+        assertEquals("Cuaderno", snapshot.getTopProductos().get(0).get("nombre"));
+        assertEquals(208, snapshot.getTotalStock());
+        assertTrue(duracion < 900, "Cuatro consultas de 300 ms deben tardar cerca de 300 ms, no " + duracion);
+    }
+
+    // ==================== CASO R-02 ====================
+    @Test
+    @DisplayName("R-02: Devolver resultados parciales ante errores y demoras")
+    void testDashboardParcial() throws Exception {
+        when(reporteDAO.obtenerProductosBajoStock(10)).thenThrow(new SQLException("Tabla no disponible"));
+        when(reporteDAO.obtenerProductosMasVendidos(5)).thenAnswer(inv -> {
+            Thread.sleep(3000);
+            return List.of();
+        });
+
+        long inicio = System.currentTimeMillis();
+        DashboardSnapshot snapshot = reporteController.generarEstadisticasDashboard();
+        long duracion = System.currentTimeMillis() - inicio;
+
+        assertFalse(snapshot.isCompleto());
+        assertTrue(snapshot.fallo(DashboardSnapshot.BAJO_STOCK));
+        assertEquals("Tabla no disponible", snapshot.getErrores().get(DashboardSnapshot.BAJO_STOCK));
+        assertTrue(snapshot.fallo(DashboardSnapshot.TOP_PRODUCTOS));
+        assertTrue(snapshot.getProductosBajoStock().isEmpty());
+        assertTrue(snapshot.getTopProductos().isEmpty());
+        assertEquals(120.5, snapshot.getVentasDia(), 0.001, "Las partes sanas se devuelven igual");
+        assertEquals(208, snapshot.getTotalStock());
+        assertTrue(duracion < 2000, "No debe esperar a la consulta vencida: " + duracion);
+    }
+}
@@ -3,7 +3,9 @@ package com.libreria.controller;
 import com.libreria.model.Venta;
 import com.libreria.model.DetalleVenta;
 import com.libreria.model.Producto;
+import com.libreria.model.VentaResumen;
 import com.libreria.dao.VentaDAO;
+import com.libreria.evento.EventoDominio.VentaRegistrada;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -11,8 +13,10 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -70,9 +74,7 @@ class VentaControllerTest {
     void testCrearVentaValida() throws Exception {
         // Arrange
         when(ventaDAO.generarNumeroVenta()).thenReturn("V20231126-0001");
-        when(productoController.verificarStockDisponible(anyInt(), anyInt())).thenReturn(true);
         doNothing().when(ventaDAO).crear(any(Venta.class));
-        doNothing().when(productoController).actualizarStock(anyInt(), anyInt());
 
         // Act
         ventaController.crear(ventaValida);
@@ -81,8 +83,9 @@ class VentaControllerTest {
         assertEquals("V20231126-0001", ventaValida.getNumeroVenta());
         verify(ventaDAO, times(1)).generarNumeroVenta();
         verify(ventaDAO, times(1)).crear(ventaValida);
-        verify(productoController, times(1)).actualizarStock(1, -5);
-        verify(productoController, times(1)).actualizarStock(2, -10);
+        // El stock se descuenta dentro de la transacción del DAO, no producto por producto
+        verify(productoController, never()).actualizarStock(anyInt(), anyInt());
+        verify(productoController, never()).verificarStockDisponible(anyInt(), anyInt());
     }
 
     // ==================== CASO V-02 ====================
@@ -119,14 +122,17 @@ class VentaControllerTest {
     @Test
     @DisplayName("V-04: Validar stock insuficiente")
     void testValidarStockInsuficiente() throws Exception {
-        when(productoController.verificarStockDisponible(1, 5)).thenReturn(false);
+        when(ventaDAO.generarNumeroVenta()).thenReturn("V20231126-0001");
+        doThrow(new java.sql.SQLException("Stock insuficiente para el producto: Cuaderno"))
+            .when(ventaDAO).crear(any(Venta.class));
 
         Exception exception = assertThrows(Exception.class, () -> {
             ventaController.crear(ventaValida);
         });
         
         assertTrue(exception.getMessage().startsWith("Stock insuficiente para el producto:"));
-        verify(productoController, times(1)).verificarStockDisponible(1, 5);
+        verify(ventaDAO, times(1)).crear(ventaValida);
+        verify(productoController, never()).actualizarStock(anyInt(), anyInt());
     }
 
 
@@ -165,18 +171,14 @@ class VentaControllerTest {
     @Test
     @DisplayName("V-08: Calcular total de ventas del día")
     void testCalcularTotalVentasDia() throws Exception {
-        Venta venta1 = new Venta();
-        venta1.setTotal(100.00);
-        Venta venta2 = new Venta();
-        venta2.setTotal(150.50);
-        
-        List<Venta> ventas = Arrays.asList(venta1, venta2);
-        when(ventaDAO.obtenerPorFecha(any(LocalDateTime.class), any(LocalDateTime.class)))
-            .thenReturn(ventas);
+        when(ventaDAO.sumarTotales(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(250.50);
 
         double total = ventaController.calcularTotalVentasDia();
 
         assertEquals(250.50, total, 0.01);
+        // La suma la hace la BD: no se cargan las ventas con sus detalles
+        verify(ventaDAO, never()).obtenerPorFecha(any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     // ==================== CASO V-08 ====================
@@ -209,13 +211,18 @@ class VentaControllerTest {
     void testGenerarReporteExcel() throws Exception {
         LocalDateTime inicio = LocalDateTime.of(2023, 11, 1, 0, 0);
         LocalDateTime fin = LocalDateTime.of(2023, 11, 30, 23, 59);
-        List<Venta> ventas = Arrays.asList(ventaValida);
+        VentaResumen resumen = new VentaResumen(1, "V000001", LocalDateTime.of(2023, 11, 15, 10, 30), "EFECTIVO", 36.5);
         
-        when(ventaDAO.obtenerPorFecha(inicio, fin)).thenReturn(ventas);
+        when(ventaDAO.recorrerResumenesPorFecha(eq(inicio), eq(fin), any())).thenAnswer(inv -> {
+            Consumer<VentaResumen> consumidor = inv.getArgument(2);
+            consumidor.accept(resumen);
+            return 1;
+        });
 
         ventaController.generarReporteVentasExcel("test_reporte.xlsx", inicio, fin);
 
-        verify(ventaDAO, times(1)).obtenerPorFecha(inicio, fin);
+        verify(ventaDAO, times(1)).recorrerResumenesPorFecha(eq(inicio), eq(fin), any());
+        verify(ventaDAO, never()).obtenerPorFecha(any(), any());
     }
 
     // ==================== CASO V-11 ====================
@@ -230,4 +237,27 @@ class VentaControllerTest {
         assertEquals(2, resultado.size());
         verify(ventaDAO, times(1)).obtenerTodos();
     }
+
+    // ==================== CASO V-13 ====================
+    @Test
+    @DisplayName("V-13: Publicar la venta registrada solo si se guardó")
+    void testPublicarVentaRegistrada() throws Exception {
+        // Arrange
+        List<VentaRegistrada> eventos = new ArrayList<>();
+        ventaController.getBusEventos().suscribir(VentaRegistrada.class, eventos::add);
+        when(ventaDAO.generarNumeroVenta()).thenReturn("V20231126-0001", "V20231126-0002");
+        doNothing().doThrow(new java.sql.SQLException("Stock insuficiente para el producto: Cuaderno"))
+            .when(ventaDAO).crear(any(Venta.class));
+
+        // Act
+        ventaController.crear(ventaValida);
+        assertThrows(Exception.class, () -> ventaController.crear(ventaValida));
+
+        // Assert
+        assertEquals(1, eventos.size());
+        VentaResumen venta = eventos.get(0).venta();
+        assertEquals("V20231126-0001", venta.getNumeroVenta());
+        assertEquals(102.5, venta.getTotal(), 0.001);
+        verify(productoController, times(1)).registrarVentaEnCatalogo(ventaValida);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.libreria.dao;
+
+import com.libreria.dao.IndiceBusquedaProductos.Campo;
+import com.libreria.model.Producto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas Unitarias del índice de búsqueda de productos
+ */
+class IndiceBusquedaProductosTest {
+
+    private IndiceBusquedaProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusquedaProductos();
+        indice.reconstruir(Arrays.asList(
+                crearProducto(1, "P000001", "Cuaderno A4", "Papelería", 100),
+                crearProducto(2, "P000002", "Lapicero Azul", "Útiles", 200),
+                crearProducto(3, "P000003", "Resma Bond", "Papelería", 50),
+                crearProducto(4, "P000004", "Mini cuaderno", "Papelería", 0),
+                crearProducto(5, "P000005", "Calculadora Científica", "Electrónica", 30)));
+    }
+
+    // ==================== CASO B-01 ====================
+    @Test
+    @DisplayName("B-01: Buscar sin importar tildes ni mayúsculas")
+    void testBusquedaNormalizada() {
+        assertEquals(5, ids(indice.buscar("CIENTÍFICA", Campo.NOMBRE, 10)).get(0));
+        assertEquals(List.of(5), ids(indice.buscar("electronica", Campo.CATEGORIA, 10)));
+        assertEquals(List.of(2), ids(indice.buscar("utiles", Campo.TODOS, 10)));
+        assertEquals("cuaderno a4", IndiceBusquedaProductos.normalizar("  Cuadérno-A4 "));
+    }
+
+    // ==================== CASO B-02 ====================
+    @Test
+    @DisplayName("B-02: Ordenar por relevancia y respetar el límite")
+    void testRelevanciaYLimite() {
+        List<Integer> resultado = ids(indice.buscar("cuaderno", Campo.NOMBRE, 10));
+        assertEquals(List.of(1, 4), resultado, "'Cuaderno A4' empieza con el texto; 'Mini cuaderno' no");
+
+        assertEquals(1, indice.buscar("papel", Campo.CATEGORIA, 1).size());
+        assertEquals(List.of(4), ids(indice.buscar("cuaderno", Campo.NOMBRE, 10, p -> p.getStock() == 0)));
+    }
+
+    // ==================== CASO B-03 ====================
+    @Test
+    @DisplayName("B-03: Términos cortos, varios términos y filtro por campo")
+    void testTerminosYCampos() {
+        assertEquals(List.of(3), ids(indice.buscar("re", Campo.NOMBRE, 10)));
+        assertEquals(List.of(2), ids(indice.buscar("lap azul", Campo.NOMBRE, 10)));
+        assertTrue(indice.buscar("azul cuaderno", Campo.NOMBRE, 10).isEmpty());
+        assertTrue(indice.buscar("papeleria", Campo.NOMBRE, 10).isEmpty(), "La categoría no está en el nombre");
+        assertEquals(List.of(3), ids(indice.buscar("p000003", Campo.CODIGO, 10)));
+        assertEquals(5, indice.buscar("", Campo.TODOS, 10).size());
+    }
+
+    // ==================== CASO B-04 ====================
+    @Test
+    @DisplayName("B-04: Reflejar altas, cambios y bajas")
+    void testActualizacionIncremental() {
+        indice.agregar(crearProducto(6, "P000006", "Cuaderno Espiral", "Papelería", 10));
+        indice.agregar(crearProducto(1, "P000001", "Folder Manila", "Papelería", 100));
+        indice.quitar(4);
+
+        assertEquals(List.of(6), ids(indice.buscar("cuaderno", Campo.NOMBRE, 10)));
+        assertEquals(List.of(1), ids(indice.buscar("manila", Campo.TODOS, 10)));
+        assertEquals(5, indice.getTamano());
+    }
+
+    // ==================== CASO B-05 ====================
+    @Test
+    @DisplayName("B-05: Catálogo grande con bajas masivas y compactación")
+    void testCatalogoGrande() {
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            productos.add(crearProducto(i, String.format("P%06d", i), "Artículo " + i, "Categoría " + (i % 10), 5));
+        }
+        indice.reconstruir(productos);
+        for (int i = 1; i <= 15_000; i++) {
+            indice.quitar(i);
+        }
+
+        assertEquals(5_000, indice.getTamano());
+        assertEquals(List.of(19999), ids(indice.buscar("articulo 19999", Campo.NOMBRE, 10)));
+        assertTrue(indice.buscar("p000100", Campo.CODIGO, 10).isEmpty());
+        assertEquals(50, indice.buscar("categoria 3", Campo.CATEGORIA, 50).size());
+    }
+
+    // ==================== CASO B-06 ====================
+    @Test
+    @DisplayName("B-06: Muchos cambios de un mismo producto no hacen crecer el índice")
+    void testCambiosRepetidosCompactan() {
+        for (int i = 0; i < 20_000; i++) {
+            // Lo que hace cada venta: reemplazar el producto con otro stock
+            indice.agregar(crearProducto(1, "P000001", "Cuaderno A4", "Papelería", 100 - (i % 100)));
+        }
+
+        assertEquals(5, indice.getTamano());
+        assertTrue(indice.getDocumentos() <= 2 * 1024 + 5, "Documentos: " + indice.getDocumentos());
+        assertEquals(List.of(1, 4), ids(indice.buscar("cuaderno", Campo.NOMBRE, 10)));
+    }
+
+    private List<Integer> ids(List<Producto> productos) {
+        List<Integer> ids = new ArrayList<>();
+        for (Producto p : productos) {
+            ids.add(p.getId());
+        }
+        return ids;
+    }
+
+    private Producto crearProducto(int id, String codigo, String nombre, String categoria, int stock) {
+        Producto p = new Producto(codigo, nombre, categoria, 10.0, stock, "");
+        p.setId(id);
+        return p;
+    }
+}
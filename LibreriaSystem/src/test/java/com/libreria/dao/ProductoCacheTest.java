@@ -0,0 +1,191 @@
+package com.libreria.dao;
+
+import com.libreria.model.Producto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas Unitarias del caché del catálogo de productos
+ */
+class ProductoCacheTest {
+
+    @Mock
+    private ProductoDAO productoDAO;
+
+    private ProductoCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        cache = new ProductoCache(productoDAO, 0);
+
+        when(productoDAO.obtenerTodos()).thenAnswer(inv -> Arrays.asList(
+                crearProducto(1, "P000001", "Cuaderno", 100),
+                crearProducto(2, "P000002", "Lapicero", 200)));
+    }
+
+    // ==================== CASO C-01 ====================
+    @Test
+    @DisplayName("C-01: Cargar el catálogo una sola vez")
+    void testCargaUnaSolaVez() throws Exception {
+        cache.obtenerTodos();
+        cache.obtenerTodos();
+        Producto p = cache.obtenerPorId(2);
+        Producto porCodigo = cache.obtenerPorCodigo("P000001");
+
+        assertEquals("Lapicero", p.getNombre());
+        assertEquals("Cuaderno", porCodigo.getNombre());
+        assertNull(cache.obtenerPorId(99), "Con el catálogo completo no se consulta la BD");
+        verify(productoDAO, times(1)).obtenerTodos();
+        verify(productoDAO, never()).obtenerPorId(anyInt());
+        assertEquals(1, cache.getMisses());
+        assertEquals(4, cache.getHits());
+    }
+
+    // ==================== CASO C-02 ====================
+    @Test
+    @DisplayName("C-02: Entregar copias que no alteran el caché")
+    void testEntregaCopias() throws Exception {
+        List<Producto> lista = cache.obtenerTodos();
+        lista.get(0).setNombre("Modificado");
+        cache.obtenerPorId(1).setStock(0);
+
+        Producto p = cache.obtenerPorId(1);
+        assertEquals("Cuaderno", p.getNombre());
+        assertEquals(100, p.getStock());
+    }
+
+    // ==================== CASO C-03 ====================
+    @Test
+    @DisplayName("C-03: Reflejar altas, cambios, bajas y stock sin volver a la BD")
+    void testActualizacionesIncrementales() throws Exception {
+        cache.obtenerTodos();
+
+        cache.guardar(crearProducto(3, "P000003", "Resma", 50));
+        Producto cambiado = crearProducto(1, "C-NUEVO", "Cuaderno A5", 100);
+        cache.guardar(cambiado);
+        cache.quitar(2);
+        cache.ajustarStock(3, -5);
+
+        List<Producto> lista = cache.obtenerTodos();
+        assertEquals(2, lista.size());
+        assertEquals(1, lista.get(0).getId(), "Ordenados por id");
+        assertEquals("Cuaderno A5", lista.get(0).getNombre());
+        assertNull(cache.obtenerPorCodigo("P000001"), "El código anterior ya no debe resolver");
+        assertEquals(1, cache.obtenerPorCodigo("C-NUEVO").getId());
+        assertNull(cache.obtenerPorId(2));
+        assertEquals(45, cache.obtenerPorId(3).getStock());
+        verify(productoDAO, times(1)).obtenerTodos();
+    }
+
+    // ==================== CASO C-04 ====================
+    @Test
+    @DisplayName("C-04: Consultar la BD por id antes de cargar el catálogo")
+    void testObtenerPorIdSinCatalogo() throws Exception {
+        when(productoDAO.obtenerPorId(1)).thenReturn(crearProducto(1, "P000001", "Cuaderno", 100));
+
+        cache.obtenerPorId(1);
+        cache.obtenerPorId(1);
+
+        verify(productoDAO, times(1)).obtenerPorId(1);
+        verify(productoDAO, never()).obtenerTodos();
+    }
+
+    // ==================== CASO C-05 ====================
+    @Test
+    @DisplayName("C-05: Volver a la BD tras invalidar o caducar")
+    void testInvalidarYCaducar() throws Exception {
+        cache.obtenerTodos();
+        cache.invalidar();
+        cache.obtenerTodos();
+        verify(productoDAO, times(2)).obtenerTodos();
+
+        ProductoCache conTtl = new ProductoCache(productoDAO, 20);
+        conTtl.obtenerTodos();
+        Thread.sleep(50);
+        conTtl.obtenerTodos();
+        verify(productoDAO, times(4)).obtenerTodos();
+    }
+
+    // ==================== CASO C-06 ====================
+    @Test
+    @DisplayName("C-06: No perder descuentos de stock de cajas simultáneas")
+    void testAjustarStockConcurrente() throws Exception {
+        cache.obtenerTodos();
+        int hilos = 8;
+        int ventasPorHilo = 500;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < ventasPorHilo; i++) {
+                        cache.ajustarStock(1, -1);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(100 - hilos * ventasPorHilo, cache.obtenerPorId(1).getStock());
+        assertEquals(1, cache.buscar("cuaderno", IndiceBusquedaProductos.Campo.NOMBRE, 10, null).size());
+    }
+
+    // ==================== CASO C-07 ====================
+    @Test
+    @DisplayName("C-07: Una lectura de la BD no pisa un cambio guardado mientras tanto")
+    void testLecturaViejaNoPisaCambio() throws Exception {
+        CountDownLatch leyendo = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        when(productoDAO.obtenerPorId(1)).thenAnswer(inv -> {
+            leyendo.countDown();
+            continuar.await();
+            return crearProducto(1, "P000001", "Cuaderno", 100);
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Producto> lectura = executor.submit(() -> cache.obtenerPorId(1));
+            assertTrue(leyendo.await(5, TimeUnit.SECONDS));
+
+            // Una venta guarda el stock nuevo antes de que llegue la fila leída
+            cache.guardar(crearProducto(1, "P000001", "Cuaderno", 97));
+            continuar.countDown();
+
+            assertEquals(100, lectura.get(5, TimeUnit.SECONDS).getStock());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(97, cache.obtenerPorId(1).getStock());
+    }
+
+    private Producto crearProducto(int id, String codigo, String nombre, int stock) {
+        Producto p = new Producto(codigo, nombre, "Papelería", 10.0, stock, "");
+        p.setId(id);
+        return p;
+    }
+}
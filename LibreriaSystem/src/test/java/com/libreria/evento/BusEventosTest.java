@@ -0,0 +1,92 @@
+package com.libreria.evento;
+
+import com.libreria.evento.EventoDominio.ProductoEliminado;
+import com.libreria.evento.EventoDominio.StockCambiado;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas Unitarias del bus de eventos del dominio
+ */
+class BusEventosTest {
+
+    private BusEventos bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new BusEventos();
+    }
+
+    // ==================== CASO EV-01 ====================
+    @Test
+    @DisplayName("EV-01: Entregar cada evento solo a los suscriptores de su tipo")
+    void testEntregaPorTipo() {
+        List<Integer> stock = new ArrayList<>();
+        List<EventoDominio> todos = new ArrayList<>();
+        bus.suscribir(StockCambiado.class, e -> stock.add(e.cambio()));
+        bus.suscribir(EventoDominio.class, todos::add);
+
+        bus.publicar(new StockCambiado(1, -3));
+        bus.publicar(new ProductoEliminado(2));
+
+        assertEquals(List.of(-3), stock);
+        assertEquals(List.of(new StockCambiado(1, -3), new ProductoEliminado(2)), todos);
+    }
+
+    // ==================== CASO EV-02 ====================
+    @Test
+    @DisplayName("EV-02: Un suscriptor que falla no afecta a los demás ni a quien publica")
+    void testSuscriptorConError() {
+        List<Integer> recibidos = new ArrayList<>();
+        bus.suscribir(StockCambiado.class, e -> {
+            throw new IllegalStateException("Fallo de prueba");
+        });
+        bus.suscribir(StockCambiado.class, e -> recibidos.add(e.productoId()));
+
+        assertDoesNotThrow(() -> bus.publicar(new StockCambiado(7, -1)));
+        assertEquals(List.of(7), recibidos);
+    }
+
+    // ==================== CASO EV-03 ====================
+    @Test
+    @DisplayName("EV-03: Entregar en el EDT, en orden, y nada tras cancelar")
+    void testEntregaEnEDT() throws Exception {
+        List<Integer> recibidos = new CopyOnWriteArrayList<>();
+        List<Boolean> enEDT = new CopyOnWriteArrayList<>();
+        Suscripciones suscripciones = new Suscripciones(bus);
+        suscripciones.escuchar(StockCambiado.class, e -> {
+            recibidos.add(e.cambio());
+            enEDT.add(SwingUtilities.isEventDispatchThread());
+        });
+
+        // Antes de activar no hay suscriptores
+        bus.publicar(new StockCambiado(1, -1));
+        suscripciones.activar();
+        assertEquals(1, bus.getCantidadSuscriptores());
+        for (int i = 2; i <= 5; i++) {
+            bus.publicar(new StockCambiado(1, -i));
+        }
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(List.of(-2, -3, -4, -5), recibidos);
+        assertFalse(enEDT.contains(false));
+
+        // Cancelar descarta también lo que ya estaba en la cola del EDT
+        SwingUtilities.invokeAndWait(() -> {
+            bus.publicar(new StockCambiado(1, -6));
+            suscripciones.cancelar();
+        });
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(4, recibidos.size());
+        assertEquals(0, bus.getCantidadSuscriptores());
+    }
+}
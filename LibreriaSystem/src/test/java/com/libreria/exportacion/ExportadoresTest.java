@@ -0,0 +1,130 @@
+package com.libreria.exportacion;
+
+import com.libreria.exportacion.ExportadorTabla.Columna;
+import com.libreria.exportacion.ExportadorTabla.Tipo;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas Unitarias de los formatos de exportación (CSV, columnar y Excel)
+ */
+class ExportadoresTest {
+
+    private static final List<Columna> COLUMNAS = List.of(
+            new Columna("N° Venta", Tipo.TEXTO),
+            new Columna("Fecha", Tipo.FECHA_HORA),
+            new Columna("Cantidad", Tipo.ENTERO),
+            new Columna("Total", Tipo.DECIMAL));
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2025, 3, 14, 10, 30, 5);
+
+    @TempDir
+    Path carpeta;
+
+    // ==================== CASO EX-01 ====================
+    @Test
+    @DisplayName("EX-01: Escribir CSV según RFC 4180")
+    void testCsv() throws Exception {
+        Path archivo = carpeta.resolve("ventas.csv");
+        try (ExportadorTabla exportador = FormatoExportacion.desdeRuta(archivo.toString()).crear(archivo, "Ventas")) {
+            exportador.iniciar(COLUMNAS);
+            exportador.fila("V000001", FECHA, 2, 31.0);
+            exportador.fila("Cuaderno \"A4\", rayado", FECHA, -1, -0.5);
+            exportador.fila("línea 1\nlínea 2", FECHA, 0, 1234.567);
+            exportador.fila(null, FECHA, 3, 0.05);
+        }
+
+        String esperado = "N° Venta,Fecha,Cantidad,Total\r\n"
+                + "V000001,2025-03-14 10:30:05,2,31.00\r\n"
+                + "\"Cuaderno \"\"A4\"\", rayado\",2025-03-14 10:30:05,-1,-0.50\r\n"
+                + "\"línea 1\nlínea 2\",2025-03-14 10:30:05,0,1234.57\r\n"
+                + ",2025-03-14 10:30:05,3,0.05\r\n";
+        assertEquals(esperado, Files.readString(archivo, StandardCharsets.UTF_8));
+    }
+
+    // ==================== CASO EX-02 ====================
+    @Test
+    @DisplayName("EX-02: Guardar y leer el formato columnar en varios bloques")
+    void testColumnar() throws Exception {
+        Path archivo = carpeta.resolve("ventas.lcol");
+        int filas = ExportadorColumnar.FILAS_POR_BLOQUE + 10;
+        String[] metodos = {"EFECTIVO", "TARJETA", null};
+        try (ExportadorTabla exportador = FormatoExportacion.COLUMNAR.crear(archivo, "Ventas")) {
+            exportador.iniciar(COLUMNAS);
+            for (int i = 0; i < filas; i++) {
+                exportador.fila(metodos[i % 3], FECHA.plusMinutes(i), i * 7 - 100, i * 1.25);
+            }
+        }
+
+        try (LectorColumnar lector = new LectorColumnar(archivo)) {
+            assertEquals(COLUMNAS, lector.getColumnas());
+            for (int i = 0; i < filas; i++) {
+                Object[] fila = lector.siguiente();
+                assertNotNull(fila, "Falta la fila " + i);
+                assertEquals(metodos[i % 3], fila[0]);
+                assertEquals(FECHA.plusMinutes(i), fila[1]);
+                assertEquals((long) (i * 7 - 100), fila[2]);
+                assertEquals(i * 1.25, (Double) fila[3], 0.001);
+            }
+            assertNull(lector.siguiente());
+        }
+
+        // Textos repetidos y números correlativos ocupan poco
+        assertTrue(Files.size(archivo) < filas * 8L, "Tamaño: " + Files.size(archivo));
+    }
+
+    // ==================== CASO EX-03 ====================
+    @Test
+    @DisplayName("EX-03: Escribir la misma tabla en Excel")
+    void testExcel() throws Exception {
+        Path archivo = carpeta.resolve("ventas.xlsx");
+        try (ExportadorTabla exportador = FormatoExportacion.EXCEL.crear(archivo, "Ventas")) {
+            exportador.iniciar(COLUMNAS);
+            exportador.fila("V000001", FECHA, 2, 31.0);
+        }
+
+        try (XSSFWorkbook libro = new XSSFWorkbook(Files.newInputStream(archivo))) {
+            Sheet hoja = libro.getSheet("Ventas");
+            assertEquals("N° Venta", hoja.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("14/03/2025 10:30", hoja.getRow(1).getCell(1).getStringCellValue());
+            assertEquals(2, hoja.getRow(1).getCell(2).getNumericCellValue(), 0.001);
+            assertEquals(31.0, hoja.getRow(1).getCell(3).getNumericCellValue(), 0.001);
+        }
+        assertNull(FormatoExportacion.desdeRuta("ventas.txt"));
+    }
+
+    // ==================== CASO EX-04 ====================
+    @Test
+    @DisplayName("EX-04: Una exportación descartada no queda como archivo completo")
+    void testDescartar() throws Exception {
+        Path columnar = carpeta.resolve("fallida.lcol");
+        try (ExportadorTabla exportador = FormatoExportacion.COLUMNAR.crear(columnar, "Ventas")) {
+            exportador.iniciar(COLUMNAS);
+            exportador.fila("V000001", FECHA, 2, 31.0);
+            exportador.descartar();
+        }
+        try (LectorColumnar lector = new LectorColumnar(columnar)) {
+            assertThrows(IOException.class, lector::siguiente, "Sin bloque final no se lee como completo");
+        }
+
+        Path excel = carpeta.resolve("fallida.xlsx");
+        try (ExportadorTabla exportador = FormatoExportacion.EXCEL.crear(excel, "Ventas")) {
+            exportador.iniciar(COLUMNAS);
+            exportador.fila("V000001", FECHA, 2, 31.0);
+            exportador.descartar();
+        }
+        assertFalse(Files.exists(excel), "No se escribe el libro");
+    }
+}
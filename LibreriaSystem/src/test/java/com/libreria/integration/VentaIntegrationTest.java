@@ -1,13 +1,58 @@
 package com.libreria.integration;
 
+import com.libreria.config.TestDatabaseConfig;
+import com.libreria.controller.ReporteController;
+import com.libreria.controller.VentaController;
+import com.libreria.dao.DAOAsincrono;
 import com.libreria.dao.ProductoDAO;
+import com.libreria.dao.ReporteDAO;
+import com.libreria.dao.ReporteDAOAsincrono;
+import com.libreria.dao.ResumenVentasDAO;
 import com.libreria.dao.VentaDAO;
+import com.libreria.dao.VentaDAOAsincrono;
+import com.libreria.exportacion.FormatoExportacion;
+import com.libreria.exportacion.LectorColumnar;
 import com.libreria.model.Producto;
 import com.libreria.model.Venta;
 import com.libreria.model.DetalleVenta;
+import com.libreria.model.PaginaVentas;
+import com.libreria.model.VentaResumen;
+import com.libreria.util.DatabaseConnection;
+import com.libreria.util.GeneradorDatosPrueba;
+import com.libreria.util.ProgresoExportacion;
+import com.libreria.util.SimuladorCajas;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.*;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -57,10 +102,10 @@ protected void setUp() throws SQLException {
         assertNotNull(venta.getNumeroVenta(), "Venta debe tener número generado");
         assertTrue(venta.getNumeroVenta().startsWith("V"), "Número de venta debe comenzar con V");
         
-        // Verificar que el stock NO se actualizó (eso lo hace el Controller, no el DAO)
+        // Verificar que el stock se descontó en la misma transacción
         Producto productoActualizado = productoDAO.obtenerPorId(1);
-        assertEquals(stockInicial, productoActualizado.getStock(), 
-                     "Stock debe mantenerse igual (el DAO solo guarda la venta)");
+        assertEquals(stockInicial - cantidadVender, productoActualizado.getStock(), 
+                     "Stock debe descontarse junto con la venta");
         
         // Verificar que la venta se guardó correctamente
         Venta ventaGuardada = ventaDAO.obtenerPorId(venta.getId());
@@ -282,6 +327,615 @@ protected void setUp() throws SQLException {
         System.out.println("✓ Transaccionalidad verificada");
     }
 
+    // ==================== CASO PI-09 ====================
+    @Test
+    @Order(9)
+    @DisplayName("PI-09: Cargar ventas por fecha con detalles y productos en bloque")
+    void testObtenerPorFechaCargaDetallesEnBloque() throws Exception {
+        // Arrange
+        Producto prod1 = productoDAO.obtenerPorId(1);
+        Producto prod2 = productoDAO.obtenerPorId(2);
+        
+        crearVentaSimple(prod1);
+        crearVentaSimple(prod2);
+        Venta multiple = new Venta();
+        multiple.setMetodoPago("YAPE");
+        multiple.agregarDetalle(new DetalleVenta(prod1, 1, prod1.getPrecio()));
+        multiple.agregarDetalle(new DetalleVenta(prod2, 4, prod2.getPrecio()));
+        ventaDAO.crear(multiple);
+        
+        // Act
+        LocalDateTime hoy = LocalDate.now().atStartOfDay();
+        List<Venta> ventas = ventaDAO.obtenerPorFecha(hoy, hoy.plusDays(1));
+
+        // Assert
+        assertEquals(3, ventas.size(), "Debe haber 3 ventas en el día");
+        
+        Map<Integer, Producto> vistos = new HashMap<>();
+        for (Venta v : ventas) {
+            assertFalse(v.getDetalles().isEmpty());
+            for (DetalleVenta d : v.getDetalles()) {
+                assertEquals(v.getId(), d.getVenta().getId());
+                Producto p = d.getProducto();
+                assertNotNull(p.getNombre(), "El producto debe venir completo");
+                Producto anterior = vistos.putIfAbsent(p.getId(), p);
+                if (anterior != null) {
+                    assertSame(anterior, p, "Un mismo producto se comparte entre detalles");
+                }
+            }
+        }
+        
+        Venta recuperada = ventas.stream()
+                .filter(v -> v.getId() == multiple.getId())
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, recuperada.getDetalles().size());
+        assertEquals(multiple.getTotal(), recuperada.getTotal(), 0.01);
+        
+        System.out.println("✓ " + ventas.size() + " ventas cargadas con " + vistos.size() + " productos");
+    }
+
+    // ==================== CASO PI-10 ====================
+    @Test
+    @Order(10)
+    @DisplayName("PI-10: Listar cabeceras de ventas sin cargar detalles")
+    void testObtenerResumenes() throws Exception {
+        // Arrange
+        Producto prod1 = productoDAO.obtenerPorId(1);
+        Producto prod3 = productoDAO.obtenerPorId(3);
+        Venta venta1 = crearVentaSimple(prod1);
+        Venta venta2 = crearVentaSimple(prod3);
+        
+        // Act
+        List<VentaResumen> resumenes = ventaDAO.obtenerResumenes();
+        LocalDateTime hoy = LocalDate.now().atStartOfDay();
+        List<VentaResumen> deHoy = ventaDAO.obtenerResumenesPorFecha(hoy, hoy.plusDays(1));
+        List<VentaResumen> deAyer = ventaDAO.obtenerResumenesPorFecha(hoy.minusDays(1), hoy.minusSeconds(1));
+
+        // Assert
+        assertEquals(2, resumenes.size());
+        assertEquals(2, deHoy.size());
+        assertTrue(deAyer.isEmpty());
+        
+        VentaResumen r = resumenes.stream()
+                .filter(v -> v.getId() == venta2.getId())
+                .findFirst()
+                .orElseThrow();
+        assertEquals(venta2.getNumeroVenta(), r.getNumeroVenta());
+        assertEquals("EFECTIVO", r.getMetodoPago());
+        assertEquals(venta2.getTotal(), r.getTotal(), 0.01);
+        assertNotNull(r.getFecha());
+        assertNotEquals(venta1.getNumeroVenta(), r.getNumeroVenta());
+        
+        System.out.println("✓ " + resumenes.size() + " cabeceras de venta listadas");
+    }
+
+    // ==================== CASO PI-11 ====================
+    @Test
+    @Order(11)
+    @DisplayName("PI-11: Paginar historial de ventas por cursor (fecha, id)")
+    void testPaginacionPorCursor() throws Exception {
+        // Arrange - 5 ventas, 3 de ellas con la misma fecha exacta
+        Producto producto = productoDAO.obtenerPorId(2);
+        LocalDateTime base = LocalDate.now().atTime(10, 0);
+        LocalDateTime[] fechas = {base, base, base, base.plusMinutes(5), base.minusMinutes(5)};
+        Set<Integer> creadas = new HashSet<>();
+        for (LocalDateTime fecha : fechas) {
+            Venta venta = new Venta();
+            venta.setMetodoPago("EFECTIVO");
+            venta.setFecha(fecha);
+            venta.agregarDetalle(new DetalleVenta(producto, 1, producto.getPrecio()));
+            ventaDAO.crear(venta);
+            creadas.add(venta.getId());
+        }
+        
+        // Act - Recorrer de 2 en 2
+        List<VentaResumen> recorridas = new ArrayList<>();
+        PaginaVentas pagina = ventaDAO.obtenerPagina(null, null, null, 2, true);
+        assertEquals(5, pagina.getTotal());
+        int paginas = 1;
+        recorridas.addAll(pagina.getVentas());
+        while (pagina.isHaySiguiente()) {
+            pagina = ventaDAO.obtenerPagina(null, null, pagina.getUltima(), 2, false);
+            assertEquals(-1, pagina.getTotal(), "Sin conteo si no se pide");
+            recorridas.addAll(pagina.getVentas());
+            paginas++;
+        }
+
+        // Assert
+        assertEquals(3, paginas);
+        assertEquals(5, recorridas.size());
+        assertEquals(creadas, recorridas.stream().map(VentaResumen::getId).collect(Collectors.toSet()),
+                "Cada venta debe aparecer exactamente una vez");
+        for (int i = 1; i < recorridas.size(); i++) {
+            VentaResumen anterior = recorridas.get(i - 1);
+            VentaResumen actual = recorridas.get(i);
+            assertTrue(anterior.getFecha().isAfter(actual.getFecha())
+                    || (anterior.getFecha().equals(actual.getFecha()) && anterior.getId() > actual.getId()),
+                    "Orden fecha DESC, id DESC");
+        }
+        
+        // Con filtro de fecha que deja fuera la venta más antigua
+        PaginaVentas filtrada = ventaDAO.obtenerPagina(base, base.plusHours(1), null, 10, true);
+        assertEquals(4, filtrada.getTotal());
+        assertEquals(4, filtrada.getVentas().size());
+        assertFalse(filtrada.isHaySiguiente());
+        
+        System.out.println("✓ " + recorridas.size() + " ventas recorridas en " + paginas + " páginas");
+    }
+
+    // ==================== CASO PI-12 ====================
+    @Test
+    @Order(12)
+    @DisplayName("PI-12: Revertir la venta completa si un producto no tiene stock")
+    void testStockInsuficienteRevierteVenta() throws Exception {
+        // Arrange - Calculadora tiene stock 30, Cuaderno 100
+        Producto cuaderno = productoDAO.obtenerPorId(1);
+        Producto calculadora = productoDAO.obtenerPorId(5);
+        
+        Venta venta = new Venta();
+        venta.setMetodoPago("EFECTIVO");
+        venta.agregarDetalle(new DetalleVenta(cuaderno, 10, cuaderno.getPrecio()));
+        venta.agregarDetalle(new DetalleVenta(calculadora, 20, calculadora.getPrecio()));
+        venta.agregarDetalle(new DetalleVenta(calculadora, 15, calculadora.getPrecio()));
+
+        // Act - 20 + 15 calculadoras superan el stock aunque cada línea por separado no
+        SQLException exception = assertThrows(SQLException.class, () -> ventaDAO.crear(venta));
+
+        // Assert
+        assertEquals("Stock insuficiente para el producto: " + calculadora.getNombre(), exception.getMessage());
+        assertEquals(100, productoDAO.obtenerPorId(1).getStock(), "El stock del cuaderno no debe cambiar");
+        assertEquals(30, productoDAO.obtenerPorId(5).getStock(), "El stock de la calculadora no debe cambiar");
+        assertTrue(ventaDAO.obtenerTodos().isEmpty(), "La venta no debe guardarse");
+        
+        System.out.println("✓ Venta revertida: " + exception.getMessage());
+    }
+
+    // ==================== CASO PI-13 ====================
+    @Test
+    @Order(13)
+    @DisplayName("PI-13: Insertar detalles en lote con sus ids generados")
+    void testDetallesEnLoteConIds() throws Exception {
+        // Arrange - Pedido escolar de 40 líneas
+        Venta venta = new Venta();
+        venta.setMetodoPago("EFECTIVO");
+        for (int i = 0; i < 40; i++) {
+            Producto producto = productoDAO.obtenerPorId(1 + (i % 4));
+            venta.agregarDetalle(new DetalleVenta(producto, 1, producto.getPrecio()));
+        }
+
+        // Act
+        ventaDAO.crear(venta);
+
+        // Assert
+        Set<Integer> ids = new HashSet<>();
+        for (DetalleVenta d : venta.getDetalles()) {
+            assertTrue(d.getId() > 0, "Cada detalle debe tener su id generado");
+            ids.add(d.getId());
+        }
+        assertEquals(40, ids.size(), "Los ids deben ser distintos");
+        
+        Venta recuperada = ventaDAO.obtenerPorId(venta.getId());
+        assertEquals(40, recuperada.getDetalles().size());
+        assertEquals(ids, recuperada.getDetalles().stream().map(DetalleVenta::getId).collect(Collectors.toSet()));
+        assertEquals(90, productoDAO.obtenerPorId(1).getStock());
+        
+        System.out.println("✓ 40 detalles insertados en lote");
+    }
+
+    // ==================== CASO PI-14 ====================
+    @Test
+    @Order(14)
+    @DisplayName("PI-14: Números de venta por bloques, continuando los del día")
+    void testNumerosVentaPorBloques() throws Exception {
+        // Arrange - Ya existe una venta de hoy con el número 0041
+        String hoy = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        TestDatabaseConfig.executeSQL("INSERT INTO ventas (numero_venta, fecha, total, metodo_pago) "
+                + "VALUES ('V" + hoy + "-0041', CURRENT_TIMESTAMP, 10, 'EFECTIVO')");
+
+        // Act - Varias cajas (hilos) pidiendo números a la vez
+        String primero = ventaDAO.generarNumeroVenta();
+        ExecutorService cajas = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> pedidos = new ArrayList<>();
+        for (int c = 0; c < 8; c++) {
+            pedidos.add(cajas.submit(() -> {
+                List<String> numeros = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    numeros.add(ventaDAO.generarNumeroVenta());
+                }
+                return numeros;
+            }));
+        }
+        Set<String> numeros = new HashSet<>();
+        numeros.add(primero);
+        for (Future<List<String>> pedido : pedidos) {
+            numeros.addAll(pedido.get());
+        }
+        cajas.shutdown();
+
+        // Assert
+        assertEquals("V" + hoy + "-0042", primero, "Debe continuar después del último número del día");
+        assertEquals(401, numeros.size(), "Todos los números deben ser distintos");
+        for (String numero : numeros) {
+            assertTrue(numero.matches("V\\d{8}-\\d{4}"));
+        }
+        
+        System.out.println("✓ " + numeros.size() + " números únicos generados desde " + primero);
+    }
+
+    // ==================== CASO PI-15 ====================
+    @Test
+    @Order(15)
+    @DisplayName("PI-15: Mantener los resúmenes de ventas y reconstruirlos")
+    void testResumenesDeVentas() throws Exception {
+        // Arrange - Dos ventas de hoy; la segunda repite el cuaderno en dos líneas
+        Producto cuaderno = productoDAO.obtenerPorId(1);
+        Producto calculadora = productoDAO.obtenerPorId(5);
+        Venta venta1 = crearVentaSimple(cuaderno);
+        Venta venta2 = new Venta();
+        venta2.setMetodoPago("TARJETA");
+        venta2.agregarDetalle(new DetalleVenta(cuaderno, 1, cuaderno.getPrecio()));
+        venta2.agregarDetalle(new DetalleVenta(cuaderno, 3, cuaderno.getPrecio()));
+        venta2.agregarDetalle(new DetalleVenta(calculadora, 1, calculadora.getPrecio()));
+        ventaDAO.crear(venta2);
+        
+        ReporteDAO reporteDAO = new ReporteDAO();
+        LocalDate hoy = LocalDate.now();
+        
+        // Act & Assert - Resumen mantenido en cada venta
+        verificarResumenes(reporteDAO, hoy, venta1.getTotal() + venta2.getTotal());
+        
+        // Act & Assert - Reconstruir desde el historial da lo mismo
+        TestDatabaseConfig.executeSQL("DELETE FROM resumen_ventas_producto");
+        TestDatabaseConfig.executeSQL("UPDATE resumen_ventas_diario SET ingresos = 0");
+        new ResumenVentasDAO().reconstruir();
+        verificarResumenes(reporteDAO, hoy, venta1.getTotal() + venta2.getTotal());
+        
+        // Otro rango de días no tiene ventas
+        assertEquals(0, reporteDAO.obtenerEstadisticasVentas(hoy.minusDays(3), hoy.minusDays(1)).get("totalVentas"));
+        assertTrue(reporteDAO.obtenerProductosMasVendidos(5, hoy.plusDays(1), null).isEmpty());
+        
+        System.out.println("✓ Resúmenes de ventas consistentes con el historial");
+    }
+    
+    private void verificarResumenes(ReporteDAO reporteDAO, LocalDate hoy, double montoEsperado) throws Exception {
+        Map<String, Object> estadisticas = reporteDAO.obtenerEstadisticasVentas(
+                hoy.atStartOfDay(), hoy.atTime(23, 59, 59));
+        assertEquals(2, estadisticas.get("totalVentas"));
+        assertEquals(montoEsperado, (double) estadisticas.get("montoTotal"), 0.01);
+        assertEquals(31.0, (double) estadisticas.get("ventaMinima"), 0.01);
+        
+        List<Map<String, Object>> top = reporteDAO.obtenerProductosMasVendidos(5);
+        assertEquals(2, top.size());
+        assertEquals("Cuaderno A4 Universitario", top.get(0).get("nombre"));
+        assertEquals(6, top.get(0).get("totalVendido"));
+        
+        List<Map<String, Object>> categorias = reporteDAO.obtenerVentasPorCategoria(hoy, hoy);
+        Map<Object, Map<String, Object>> porCategoria = new HashMap<>();
+        for (Map<String, Object> c : categorias) {
+            porCategoria.put(c.get("categoria"), c);
+        }
+        assertEquals(2, porCategoria.get("Papelería").get("totalVentas"), "Dos ventas con productos de esa categoría");
+        assertEquals(1, porCategoria.get("Electrónica").get("totalUnidades"));
+    }
+
+    // ==================== CASO PI-16 ====================
+    @Test
+    @Order(16)
+    @DisplayName("PI-16: Exportar el reporte de ventas en streaming")
+    void testExportarReporteVentasStreaming() throws Exception {
+        // Arrange - Tres ventas de hoy
+        Producto cuaderno = productoDAO.obtenerPorId(1);
+        double totalEsperado = 0;
+        for (int i = 0; i < 3; i++) {
+            totalEsperado += crearVentaSimple(cuaderno).getTotal();
+        }
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fin = LocalDate.now().atTime(23, 59, 59);
+        
+        // El cursor entrega cada venta sin armar la lista
+        List<VentaResumen> recorridas = new ArrayList<>();
+        assertEquals(3, ventaDAO.recorrerResumenesPorFecha(inicio, fin, recorridas::add));
+        assertEquals(3, recorridas.size());
+        
+        // Act
+        Path archivo = Files.createTempFile("reporte_ventas", ".xlsx");
+        try {
+            new ReporteController().generarReporteVentasExcel(archivo.toString(), inicio, fin);
+            
+            // Assert - Filas, total y gráfico en el archivo generado
+            try (XSSFWorkbook libro = new XSSFWorkbook(Files.newInputStream(archivo))) {
+                XSSFSheet hoja = libro.getSheet("Reporte de Ventas");
+                double totalHoja = 0;
+                for (int fila = 7; fila < 10; fila++) {
+                    totalHoja += hoja.getRow(fila).getCell(3).getNumericCellValue();
+                }
+                assertEquals(totalEsperado, totalHoja, 0.01);
+                assertEquals(1, hoja.getDrawingPatriarch().getCharts().size());
+                assertNotNull(libro.getSheet("Detalle por Productos"));
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+        
+        System.out.println("✓ Reporte de ventas exportado en streaming");
+    }
+
+    // ==================== CASO PI-17 ====================
+    @Test
+    @Order(17)
+    @DisplayName("PI-17: Extraer líneas de venta a CSV y columnar")
+    void testExportarDetallesVenta() throws Exception {
+        // Arrange - Una venta con dos productos
+        Producto cuaderno = productoDAO.obtenerPorId(1);
+        Producto calculadora = productoDAO.obtenerPorId(5);
+        Venta venta = new Venta();
+        venta.setMetodoPago("TARJETA");
+        venta.agregarDetalle(new DetalleVenta(cuaderno, 2, cuaderno.getPrecio()));
+        venta.agregarDetalle(new DetalleVenta(calculadora, 1, calculadora.getPrecio()));
+        ventaDAO.crear(venta);
+        
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fin = LocalDate.now().atTime(23, 59, 59);
+        VentaController ventaController = new VentaController();
+        Path carpeta = Files.createTempDirectory("extractos");
+        try {
+            // Act - CSV
+            Path csv = carpeta.resolve("detalles.csv");
+            assertEquals(2, ventaController.exportarDetallesVenta(csv.toString(), FormatoExportacion.CSV,
+                    inicio, fin, ProgresoExportacion.NINGUNO));
+            
+            // Assert - Encabezado + una línea por producto
+            List<String> lineas = Files.readAllLines(csv);
+            assertEquals(3, lineas.size());
+            assertTrue(lineas.get(1).startsWith(venta.getNumeroVenta() + ","));
+            assertTrue(lineas.get(1).endsWith(",TARJETA,P000001,Cuaderno A4 Universitario,Papelería,2,15.50,31.00"));
+            
+            // Act & Assert - Columnar con los mismos datos
+            Path columnar = carpeta.resolve("detalles.lcol");
+            ventaController.exportarDetallesVenta(columnar.toString(), FormatoExportacion.COLUMNAR,
+                    inicio, fin, ProgresoExportacion.NINGUNO);
+            try (LectorColumnar lector = new LectorColumnar(columnar)) {
+                Object[] fila = lector.siguiente();
+                assertEquals(venta.getNumeroVenta(), fila[0]);
+                assertEquals("P000001", fila[3]);
+                assertEquals(31.0, (Double) fila[8], 0.001);
+                assertEquals("Electrónica", lector.siguiente()[5]);
+                assertNull(lector.siguiente());
+            }
+        } finally {
+            try (var archivos = Files.list(carpeta)) {
+                for (Path archivo : archivos.toList()) {
+                    Files.delete(archivo);
+                }
+            }
+            Files.delete(carpeta);
+        }
+        
+        System.out.println("✓ Líneas de venta extraídas a CSV y columnar");
+    }
+
+    // ==================== CASO PI-18 ====================
+    @Test
+    @Order(18)
+    @DisplayName("PI-18: Generar datos sintéticos reproducibles y consistentes")
+    void testGeneradorDatosPrueba() throws Exception {
+        // Arrange - Marzo (campaña escolar) a mayo de 2025
+        LocalDate desde = LocalDate.of(2025, 3, 1);
+        LocalDate hasta = LocalDate.of(2025, 5, 31);
+        GeneradorDatosPrueba generador = new GeneradorDatosPrueba(200, 5000, desde, hasta, 7);
+        
+        // Act
+        GeneradorDatosPrueba.Resultado resultado = generador.generar(getConnection());
+        String huella = huellaVentas();
+        
+        // Assert - Cantidades y totales iguales a la suma de sus líneas
+        assertEquals(5000, resultado.ventas());
+        assertEquals(205, contar("SELECT COUNT(*) FROM productos"));
+        assertEquals(5000, contar("SELECT COUNT(*) FROM ventas"));
+        assertEquals(resultado.detalles(), contar("SELECT COUNT(*) FROM detalles_venta"));
+        assertEquals(0, contar("""
+            SELECT COUNT(*) FROM ventas v
+            WHERE ABS(v.total - (SELECT SUM(d.cantidad * d.precio_unitario) FROM detalles_venta d WHERE d.venta_id = v.id)) > 0.01
+        """));
+        
+        // Popularidad concentrada: el 10% de productos más vendidos se lleva más de la mitad de las líneas
+        long topLineas = contar("""
+            SELECT SUM(n) FROM (SELECT COUNT(*) AS n FROM detalles_venta
+                                GROUP BY producto_id ORDER BY n DESC LIMIT 20) t
+        """);
+        assertTrue(topLineas > resultado.detalles() / 2, "Líneas del top 20: " + topLineas);
+        
+        // Más ventas en marzo que en mayo y los tres métodos de pago presentes
+        assertTrue(contar("SELECT COUNT(*) FROM ventas WHERE MONTH(fecha) = 3")
+                > contar("SELECT COUNT(*) FROM ventas WHERE MONTH(fecha) = 5"));
+        assertEquals(3, contar("SELECT COUNT(DISTINCT metodo_pago) FROM ventas"));
+        
+        // Los ids siguen después de lo generado y la numeración del día también
+        Producto nuevo = new Producto("PNUEVO", "Producto nuevo", "Papelería", 1.0, 10, "");
+        productoDAO.crear(nuevo);
+        assertEquals(206, nuevo.getId());
+        assertEquals(contar("SELECT COUNT(*) FROM ventas WHERE CAST(fecha AS DATE) = DATE '2025-03-10'"),
+                contar("SELECT ultimo FROM secuencias_venta WHERE fecha = '20250310'"));
+        
+        // Act & Assert - Misma semilla, misma base
+        TestDatabaseConfig.cleanDatabase();
+        TestDatabaseConfig.insertTestData();
+        new GeneradorDatosPrueba(200, 5000, desde, hasta, 7).generar(getConnection());
+        assertEquals(huella, huellaVentas());
+        
+        // No se mezcla con ventas ya existentes en el rango
+        SQLException error = assertThrows(SQLException.class, () -> generador.generar(getConnection()));
+        assertTrue(error.getMessage().contains("Ya hay ventas"));
+        
+        System.out.println("✓ " + resultado.ventas() + " ventas sintéticas en " + resultado.milisegundos() + " ms");
+    }
+    
+    // ==================== CASO PI-19 ====================
+    @Test
+    @Order(19)
+    @DisplayName("PI-19: Simular una caja contra el controlador real y verificar el stock")
+    void testSimuladorCajas() throws Exception {
+        // Arrange - Una sola caja: la conexión H2 de prueba es compartida
+        List<Producto> catalogo = productoDAO.obtenerTodos();
+        
+        // Act
+        SimuladorCajas.Reporte reporte = new SimuladorCajas(VentaController::new, catalogo, 1, 15, 0, 3).ejecutar();
+        
+        // Assert - Lo que el simulador contó es lo que quedó en la base
+        assertEquals(0, reporte.errores());
+        assertEquals(reporte.ventas(), contar("SELECT COUNT(*) FROM ventas"));
+        assertEquals(15, reporte.ventas() + reporte.sinStock());
+        assertTrue(reporte.isConsistente(), reporte.toString());
+        
+        System.out.println("✓ " + reporte.ventas() + " ventas simuladas, p99 " + reporte.p99() + " ms");
+    }
+    
+    // ==================== CASO PI-20 ====================
+    @Test
+    @Order(20)
+    @DisplayName("PI-20: Calcular las cifras del dashboard con consultas agregadas")
+    void testIndicadoresAgregados() throws Exception {
+        // Arrange - Una venta de hoy: 2 cuadernos (31.00)
+        Venta venta = crearVentaSimple(productoDAO.obtenerPorId(1));
+        ReporteDAO reporteDAO = new ReporteDAO();
+        
+        // Act
+        Map<String, Object> inventario = reporteDAO.obtenerResumenInventario();
+        double totalDia = new VentaController().calcularTotalVentasDia();
+        List<Map<String, Object>> categorias = new ReporteController().obtenerVentasPorCategoria(30);
+        
+        // Assert - Stock 530 - 2 vendidos, dos categorías, valor = suma de precio * stock
+        assertEquals(5, inventario.get("totalProductos"));
+        assertEquals(528L, inventario.get("totalStock"));
+        assertEquals(2, inventario.get("categorias"));
+        assertEquals(5175.0 - 31.0, (double) inventario.get("valorInventario"), 0.01);
+        assertEquals(venta.getTotal(), totalDia, 0.01);
+        assertEquals(1, categorias.size());
+        assertEquals("Papelería", categorias.get(0).get("categoria"));
+        assertEquals(31.0, (double) categorias.get(0).get("totalIngresos"), 0.01);
+        
+        System.out.println("✓ Indicadores del dashboard calculados en SQL");
+    }
+    
+    // ==================== CASO PI-21 ====================
+    @Test
+    @Order(21)
+    @DisplayName("PI-21: Consultar los DAO de forma asíncrona y combinar resultados")
+    void testDAOAsincronos() throws Exception {
+        // Arrange
+        Venta venta = crearVentaSimple(productoDAO.obtenerPorId(1));
+        DAOAsincrono<Producto> productos = new DAOAsincrono<>(productoDAO);
+        VentaDAOAsincrono ventas = new VentaDAOAsincrono();
+        ReporteDAOAsincrono reportes = new ReporteDAOAsincrono();
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fin = LocalDate.now().atTime(23, 59, 59);
+        
+        // Act - Las consultas se piden juntas y se combinan al llegar
+        CompletableFuture<Producto> calculadora = productos.obtenerPorId(5);
+        CompletableFuture<List<Venta>> delDia = ventas.obtenerPorFecha(inicio, fin);
+        CompletableFuture<Map<String, Object>> inventario = reportes.obtenerResumenInventario();
+        CompletableFuture.allOf(calculadora, delDia, inventario).get(5, TimeUnit.SECONDS);
+        
+        // Assert
+        assertEquals("Calculadora Científica", calculadora.join().getNombre());
+        assertEquals(venta.getNumeroVenta(), delDia.join().get(0).getNumeroVenta());
+        assertEquals(528L, inventario.join().get("totalStock"));
+        
+        // Los errores del DAO llegan en el futuro
+        Producto duplicado = new Producto("P000001", "Duplicado", "Papelería", 1.0, 1, "");
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> productos.crear(duplicado).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, error.getCause());
+        
+        System.out.println("✓ DAO asíncronos sobre hilos virtuales");
+    }
+    
+    // ==================== CASO PI-22 ====================
+    @Test
+    @Order(22)
+    @DisplayName("PI-22: Cancelar la sentencia cuando el consumidor corta el recorrido")
+    void testCortarRecorrido() throws Exception {
+        // Arrange - Dos ventas y una conexión que registra los cancel() de sus sentencias
+        Producto cuaderno = productoDAO.obtenerPorId(1);
+        crearVentaSimple(cuaderno);
+        crearVentaSimple(cuaderno);
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fin = LocalDate.now().atTime(23, 59, 59);
+        AtomicInteger cancelaciones = new AtomicInteger();
+        DatabaseConnection.setTestConnection(registrarCancelaciones(testConnection, cancelaciones));
+        
+        try {
+            // Act - El consumidor corta en la primera fila, como una exportación cancelada
+            assertThrows(CancellationException.class, () -> ventaDAO.recorrerResumenesPorFecha(inicio, fin, venta -> {
+                throw new CancellationException("Exportación cancelada");
+            }));
+            assertThrows(CancellationException.class, () -> ventaDAO.recorrerDetallesPorFecha(inicio, fin, (venta, detalle) -> {
+                throw new CancellationException("Exportación cancelada");
+            }));
+            
+            // Assert - Se canceló cada sentencia; un recorrido completo no cancela
+            assertEquals(2, cancelaciones.get());
+            assertEquals(2, ventaDAO.recorrerResumenesPorFecha(inicio, fin, venta -> { }));
+            assertEquals(2, cancelaciones.get());
+        } finally {
+            DatabaseConnection.setTestConnection(testConnection);
+        }
+        
+        System.out.println("✓ Recorrido cortado con cancel()");
+    }
+    
+    private static Connection registrarCancelaciones(Connection connection, AtomicInteger cancelaciones) {
+        return (Connection) Proxy.newProxyInstance(
+                VentaIntegrationTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invocar(connection, method, args);
+                    if (result instanceof PreparedStatement stmt) {
+                        return Proxy.newProxyInstance(
+                                VentaIntegrationTest.class.getClassLoader(),
+                                new Class<?>[]{PreparedStatement.class},
+                                (p, m, a) -> {
+                                    if (m.getName().equals("cancel")) {
+                                        cancelaciones.incrementAndGet();
+                                    }
+                                    return invocar(stmt, m, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+    
+    private static Object invocar(Object destino, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private long contar(String sql) throws SQLException {
+        try (Statement stmt = getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+    
+    private String huellaVentas() throws SQLException {
+        try (Statement stmt = getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                 SELECT SUM(v.total), MIN(v.numero_venta), MAX(v.fecha),
+                        (SELECT SUM(producto_id * cantidad) FROM detalles_venta),
+                        (SELECT SUM(precio) FROM productos)
+                 FROM ventas v
+             """)) {
+            rs.next();
+            return rs.getString(1) + "|" + rs.getString(2) + "|" + rs.getString(3)
+                    + "|" + rs.getString(4) + "|" + rs.getString(5);
+        }
+    }
+
     // ==================== Métodos auxiliares ====================
     
     private Venta crearVentaSimple(Producto producto) throws Exception {
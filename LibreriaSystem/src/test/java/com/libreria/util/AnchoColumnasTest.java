@@ -0,0 +1,75 @@
+package com.libreria.util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas Unitarias del cálculo de anchos de columna
+ */
+class AnchoColumnasTest {
+
+    // ==================== CASO AC-01 ====================
+    @Test
+    @DisplayName("AC-01: Tomar el texto más largo de cada columna con su formato")
+    void testAnchoPorColumna() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Prueba");
+            CellStyle moneda = workbook.createCellStyle();
+            moneda.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+            AnchoColumnas anchos = new AnchoColumnas(3);
+
+            Row encabezado = sheet.createRow(0);
+            encabezado.createCell(0).setCellValue("Código");
+            encabezado.createCell(1).setCellValue("Nombre");
+            encabezado.createCell(2).setCellValue("Total");
+            anchos.medir(encabezado);
+
+            Row fila = sheet.createRow(1);
+            fila.createCell(0).setCellValue("P000001");
+            fila.createCell(1).setCellValue("Cuaderno A4 Universitario");
+            fila.createCell(2).setCellValue(1234.5);
+            fila.getCell(2).setCellStyle(moneda);
+            anchos.medir(fila);
+
+            assertEquals(7, anchos.getCaracteres(0));
+            assertEquals(25, anchos.getCaracteres(1));
+            assertEquals("1,234.50".length(), anchos.getCaracteres(2));
+
+            anchos.aplicar(sheet);
+            assertEquals((25 + 2) * 256, sheet.getColumnWidth(1));
+        }
+    }
+
+    // ==================== CASO AC-02 ====================
+    @Test
+    @DisplayName("AC-02: Muestrear filas después de las primeras")
+    void testMuestreo() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Prueba");
+            AnchoColumnas anchos = new AnchoColumnas(1, 2, 3);
+
+            // Filas 0 y 1 completas; después solo 2, 5, 8...
+            String[] textos = {"a", "bb", "ccc", "dddddddd", "eeee", "ffffff", "g"};
+            for (int i = 0; i < textos.length; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(textos[i]);
+                anchos.medir(row);
+            }
+
+            assertEquals(6, anchos.getCaracteres(0), "La fila 3 no entra en la muestra");
+
+            // El total se mide aunque caiga fuera de la muestra
+            Row total = sheet.createRow(textos.length);
+            total.createCell(0).setCellValue("TOTAL: 1234567");
+            anchos.medirSiempre(total);
+            assertEquals(14, anchos.getCaracteres(0));
+            assertThrows(IllegalArgumentException.class, () -> new AnchoColumnas(1, 0, 0));
+        }
+    }
+}
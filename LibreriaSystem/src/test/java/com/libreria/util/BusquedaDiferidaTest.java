@@ -0,0 +1,102 @@
+package com.libreria.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas Unitarias de la búsqueda diferida (debounce + segundo plano)
+ */
+class BusquedaDiferidaTest {
+
+    // ==================== CASO BD-01 ====================
+    @Test
+    @DisplayName("BD-01: Agrupar las teclas seguidas en una sola consulta")
+    void testDebounce() throws Exception {
+        List<String> publicados = new CopyOnWriteArrayList<>();
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch listo = new CountDownLatch(1);
+        BusquedaDiferida<String> busqueda = new BusquedaDiferida<>(100, r -> {
+            publicados.add(r);
+            listo.countDown();
+        }, e -> fail(e));
+
+        SwingUtilities.invokeAndWait(() -> {
+            for (String texto : new String[]{"c", "cu", "cua", "cuad"}) {
+                busqueda.solicitar(() -> {
+                    consultas.incrementAndGet();
+                    return texto;
+                });
+            }
+        });
+
+        assertTrue(listo.await(2, TimeUnit.SECONDS));
+        Thread.sleep(150);
+        assertEquals(List.of("cuad"), publicados);
+        assertEquals(1, consultas.get());
+    }
+
+    // ==================== CASO BD-02 ====================
+    @Test
+    @DisplayName("BD-02: Descartar el resultado de una consulta superada")
+    void testDescartarObsoleta() throws Exception {
+        List<String> publicados = new CopyOnWriteArrayList<>();
+        CountDownLatch lentaEmpezo = new CountDownLatch(1);
+        CountDownLatch soltarLenta = new CountDownLatch(1);
+        CountDownLatch listo = new CountDownLatch(1);
+        BusquedaDiferida<String> busqueda = new BusquedaDiferida<>(10, r -> {
+            publicados.add(r);
+            listo.countDown();
+        }, e -> fail(e));
+
+        SwingUtilities.invokeAndWait(() -> busqueda.ejecutarYa(() -> {
+            lentaEmpezo.countDown();
+            soltarLenta.await();
+            return "lenta";
+        }));
+        assertTrue(lentaEmpezo.await(2, TimeUnit.SECONDS));
+
+        SwingUtilities.invokeAndWait(() -> busqueda.ejecutarYa(() -> "rapida"));
+        assertTrue(listo.await(2, TimeUnit.SECONDS));
+        soltarLenta.countDown();
+        Thread.sleep(100);
+
+        assertEquals(List.of("rapida"), publicados);
+    }
+
+    // ==================== CASO BD-03 ====================
+    @Test
+    @DisplayName("BD-03: Publicar errores en el EDT y no publicar tras cancelar")
+    void testErroresYCancelar() throws Exception {
+        List<String> publicados = new CopyOnWriteArrayList<>();
+        CountDownLatch error = new CountDownLatch(1);
+        AtomicInteger errorEnEdt = new AtomicInteger();
+        BusquedaDiferida<String> busqueda = new BusquedaDiferida<>(20, publicados::add, e -> {
+            if (SwingUtilities.isEventDispatchThread()) {
+                errorEnEdt.incrementAndGet();
+            }
+            error.countDown();
+        });
+
+        SwingUtilities.invokeAndWait(() -> busqueda.ejecutarYa(() -> {
+            throw new Exception("falla");
+        }));
+        assertTrue(error.await(2, TimeUnit.SECONDS));
+        assertEquals(1, errorEnEdt.get());
+
+        SwingUtilities.invokeAndWait(() -> {
+            busqueda.solicitar(() -> "no debe llegar");
+            busqueda.cancelar();
+        });
+        Thread.sleep(150);
+        assertTrue(publicados.isEmpty());
+    }
+}
@@ -0,0 +1,419 @@
+package com.libreria.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del pool de conexiones contra H2 en memoria
+ */
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    private ConnectionPool crearPool(ConnectionPool.Config config) {
+        pool = new ConnectionPool(() -> DriverManager.getConnection(URL, "sa", ""), config);
+        return pool;
+    }
+
+    private ConnectionPool.Config configBase() {
+        return new ConnectionPool.Config()
+                .setMaxPoolSize(2)
+                .setMinIdle(0)
+                .setConnectionTimeoutMs(200)
+                .setLeakDetectionThresholdMs(0)
+                .setHousekeepingPeriodMs(60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    // ==================== CASO 1 ====================
+    @Test
+    @DisplayName("CP-01: Reutilizar la conexión física al cerrarla")
+    void testReutilizaConexion() throws SQLException {
+        crearPool(configBase());
+
+        for (int i = 0; i < 5; i++) {
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT 1")) {
+                assertTrue(rs.next());
+            }
+        }
+
+        ConnectionPool.PoolStats stats = pool.getStats();
+        assertEquals(1, stats.created(), "Debe crearse una sola conexión física");
+        assertEquals(5, stats.borrowed());
+        assertEquals(0, stats.active());
+        assertEquals(1, stats.idle());
+
+        System.out.println("✓ Conexión reutilizada: " + stats);
+    }
+
+    // ==================== CASO 2 ====================
+    @Test
+    @DisplayName("CP-02: Respetar el tamaño máximo y fallar tras el timeout")
+    void testTamanoMaximoYTimeout() throws SQLException {
+        crearPool(configBase());
+
+        Connection c1 = pool.getConnection();
+        Connection c2 = pool.getConnection();
+
+        assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+        assertEquals(1, pool.getStats().timeouts());
+        assertEquals(2, pool.getStats().total());
+
+        c1.close();
+        try (Connection c3 = pool.getConnection()) {
+            assertFalse(c3.isClosed());
+        }
+        c2.close();
+
+        System.out.println("✓ Pool acotado a " + pool.getConfig().getMaxPoolSize() + " conexiones");
+    }
+
+    // ==================== CASO 3 ====================
+    @Test
+    @DisplayName("CP-03: Restaurar autocommit y descartar cambios al devolver")
+    void testRestauraEstadoAlDevolver() throws SQLException {
+        crearPool(configBase());
+
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS pool_prueba (id INT)");
+            stmt.execute("DELETE FROM pool_prueba");
+        }
+
+        Connection conn = pool.getConnection();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO pool_prueba VALUES (1)");
+        }
+        conn.close();
+
+        try (Connection otra = pool.getConnection();
+             Statement stmt = otra.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pool_prueba")) {
+            assertTrue(otra.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1), "La transacción pendiente debe descartarse");
+        }
+
+        System.out.println("✓ Estado de la conexión restaurado");
+    }
+
+    // ==================== CASO 4 ====================
+    @Test
+    @DisplayName("CP-04: Descartar conexiones inválidas al prestarlas")
+    void testValidaAlPrestar() throws SQLException {
+        crearPool(configBase().setAliveBypassMs(0));
+
+        Connection conn = pool.getConnection();
+        Connection fisica = conn.unwrap(Connection.class);
+        conn.close();
+        fisica.close();
+
+        try (Connection nueva = pool.getConnection();
+             Statement stmt = nueva.createStatement()) {
+            assertTrue(stmt.execute("SELECT 1"));
+        }
+
+        assertEquals(2, pool.getStats().created());
+        assertEquals(1, pool.getStats().closed());
+
+        System.out.println("✓ Conexión inválida reemplazada");
+    }
+
+    // ==================== CASO 5 ====================
+    @Test
+    @DisplayName("CP-05: Retirar conexiones que superan la vida máxima")
+    void testVidaMaxima() throws Exception {
+        crearPool(configBase().setMaxLifetimeMs(50));
+
+        pool.getConnection().close();
+        Thread.sleep(100);
+        pool.getConnection().close();
+
+        assertEquals(2, pool.getStats().created());
+
+        System.out.println("✓ Conexión expirada reemplazada");
+    }
+
+    // ==================== CASO 6 ====================
+    @Test
+    @DisplayName("CP-06: Detectar conexiones no devueltas")
+    void testDeteccionDeFugas() throws Exception {
+        crearPool(configBase().setLeakDetectionThresholdMs(50));
+
+        Connection conn = pool.getConnection();
+        Thread.sleep(200);
+        assertEquals(1, pool.getStats().leaksDetected());
+        conn.close();
+
+        pool.getConnection().close();
+        Thread.sleep(200);
+        assertEquals(1, pool.getStats().leaksDetected(), "Una conexión devuelta no es fuga");
+
+        System.out.println("✓ Fuga detectada");
+    }
+
+    // ==================== CASO 7 ====================
+    @Test
+    @DisplayName("CP-07: Cerrar conexiones inactivas en el mantenimiento")
+    void testCierraInactivas() throws Exception {
+        crearPool(configBase().setIdleTimeoutMs(50).setHousekeepingPeriodMs(50));
+
+        Connection c1 = pool.getConnection();
+        Connection c2 = pool.getConnection();
+        c1.close();
+        c2.close();
+        assertEquals(2, pool.getStats().idle());
+
+        Thread.sleep(400);
+        assertEquals(0, pool.getStats().total());
+
+        System.out.println("✓ Conexiones inactivas cerradas");
+    }
+
+    // ==================== CASO 8 ====================
+    @Test
+    @DisplayName("CP-08: Una conexión devuelta no puede volver a usarse")
+    void testConexionDevueltaNoSeUsa() throws SQLException {
+        crearPool(configBase());
+
+        Connection conn = pool.getConnection();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+
+        System.out.println("✓ Proxy devuelto invalidado");
+    }
+
+    // ==================== CASO 9 ====================
+    @Test
+    @DisplayName("CP-09: Reutilizar sentencias preparadas por SQL")
+    void testCacheSentencias() throws SQLException {
+        crearPool(configBase().setMaxPoolSize(1));
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS pool_sentencias (id INT PRIMARY KEY, nombre VARCHAR(20))");
+            stmt.execute("DELETE FROM pool_sentencias");
+            stmt.execute("INSERT INTO pool_sentencias VALUES (1, 'uno'), (2, 'dos')");
+        }
+
+        String sql = "SELECT nombre FROM pool_sentencias WHERE id = ?";
+        PreparedStatement fisica = null;
+        for (int id = 1; id <= 2; id++) {
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(id == 1 ? "uno" : "dos", rs.getString(1));
+                }
+                assertSame(conn, stmt.getConnection());
+                PreparedStatement actual = stmt.unwrap(PreparedStatement.class);
+                if (fisica != null) {
+                    assertSame(fisica, actual, "Debe reutilizarse la misma sentencia física");
+                }
+                fisica = actual;
+            }
+        }
+        assertFalse(fisica.isClosed(), "close() la devuelve a la caché");
+
+        // Dos abiertas a la vez con el mismo SQL: la segunda es aparte
+        try (Connection conn = pool.getConnection();
+             PreparedStatement a = conn.prepareStatement(sql);
+             PreparedStatement b = conn.prepareStatement(sql)) {
+            assertNotSame(a.unwrap(PreparedStatement.class), b.unwrap(PreparedStatement.class));
+            assertThrows(SQLException.class, a::executeQuery, "Parámetros limpios al reutilizarla");
+        }
+
+        ConnectionPool.PoolStats stats = pool.getStats();
+        assertEquals(2, stats.statementHits());
+        assertEquals(2, stats.statementMisses());
+        assertEquals(0.5, stats.statementHitRatio(), 0.001);
+
+        System.out.println("✓ Sentencias reutilizadas: " + stats);
+    }
+
+    // ==================== CASO 10 ====================
+    @Test
+    @DisplayName("CP-10: Desalojar la sentencia menos usada al llenarse la caché")
+    void testDesalojoSentencias() throws SQLException {
+        crearPool(configBase().setMaxPoolSize(1).setStatementCacheSize(2));
+
+        PreparedStatement primera;
+        try (Connection conn = pool.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+                primera = stmt.unwrap(PreparedStatement.class);
+            }
+            conn.prepareStatement("SELECT 2").close();
+            conn.prepareStatement("SELECT 1").close(); // "SELECT 2" queda como la menos usada
+            conn.prepareStatement("SELECT 3").close();
+            conn.prepareStatement("SELECT 1").close();
+            conn.prepareStatement("SELECT 2").close();
+        }
+
+        ConnectionPool.PoolStats stats = pool.getStats();
+        assertEquals(4, stats.statementMisses(), "SELECT 1, 2, 3 y otra vez 2 tras ser desalojada");
+        assertEquals(2, stats.statementHits());
+        assertEquals(2, stats.statementEvictions());
+        assertFalse(primera.isClosed());
+
+        // Al cerrar la conexión física se cierran sus sentencias
+        pool.shutdown();
+        assertTrue(primera.isClosed());
+
+        System.out.println("✓ Caché de sentencias acotada: " + stats);
+    }
+
+    // ==================== CASO 11 ====================
+    @Test
+    @DisplayName("CP-11: Entregar las sentencias con el plazo de consulta del pool")
+    void testPlazoDeConsulta() throws SQLException {
+        crearPool(configBase().setMaxPoolSize(1).setQueryTimeoutSeconds(7));
+
+        try (Connection conn = pool.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                assertEquals(7, stmt.getQueryTimeout());
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+                assertEquals(7, stmt.getQueryTimeout());
+                stmt.setQueryTimeout(1);
+            }
+            // Reutilizada desde la caché: vuelve al plazo del pool
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+                assertEquals(7, stmt.getQueryTimeout());
+            }
+        }
+        assertEquals(1, pool.getStats().statementHits());
+
+        System.out.println("✓ Plazo de consulta aplicado");
+    }
+
+    // ==================== CASO 12 ====================
+    @Test
+    @DisplayName("CP-12: Descartar la conexión tras un error de conexión en una sentencia en caché")
+    void testErrorDeConexionEnSentenciaCacheada() throws SQLException {
+        // Conexión física cuyas sentencias preparadas fallan como un enlace caído
+        pool = new ConnectionPool(() -> conEnlaceCaido(DriverManager.getConnection(URL, "sa", "")),
+                configBase().setMaxPoolSize(1));
+
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+            SQLException error = assertThrows(SQLException.class, stmt::executeQuery);
+            assertEquals("08S01", error.getSQLState());
+        }
+
+        ConnectionPool.PoolStats stats = pool.getStats();
+        assertEquals(1, stats.closed(), "La conexión rota no vuelve al pool");
+        assertEquals(0, stats.idle());
+
+        System.out.println("✓ Conexión rota descartada: " + stats);
+    }
+
+    // ==================== CASO 13 ====================
+    @Test
+    @DisplayName("CP-13: Restaurar solo lectura y aislamiento al devolver")
+    void testRestauraSesionAlDevolver() throws SQLException {
+        crearPool(configBase().setMaxPoolSize(1));
+
+        int aislamiento;
+        try (Connection conn = pool.getConnection()) {
+            aislamiento = conn.getTransactionIsolation();
+            conn.setReadOnly(true);
+            conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        }
+
+        try (Connection otra = pool.getConnection()) {
+            assertFalse(otra.isReadOnly());
+            assertEquals(aislamiento, otra.getTransactionIsolation());
+        }
+        assertEquals(1, pool.getStats().created(), "Se restaura la misma conexión física");
+
+        System.out.println("✓ Sesión de la conexión restaurada");
+    }
+
+    // ==================== CASO 14 ====================
+    @Test
+    @DisplayName("CP-14: El mantenimiento no supera el máximo mientras se prestan conexiones")
+    void testMantenimientoRespetaMaximo() throws Exception {
+        crearPool(configBase().setMaxPoolSize(3).setMinIdle(3).setHousekeepingPeriodMs(1)
+                .setConnectionTimeoutMs(2000));
+
+        AtomicInteger maximo = new AtomicInteger();
+        Thread[] hilos = new Thread[6];
+        for (int i = 0; i < hilos.length; i++) {
+            hilos[i] = new Thread(() -> {
+                for (int j = 0; j < 200; j++) {
+                    try (Connection conn = pool.getConnection()) {
+                        maximo.accumulateAndGet(pool.getStats().total(), Math::max);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            hilos[i].start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertTrue(maximo.get() <= 3, "Conexiones abiertas a la vez: " + maximo.get());
+        assertTrue(pool.getStats().total() <= 3);
+
+        System.out.println("✓ Máximo respetado con mantenimiento: " + pool.getStats());
+    }
+
+    private static Connection conEnlaceCaido(Connection fisica) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPoolTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invocar(fisica, method, args);
+                    if (result instanceof PreparedStatement stmt) {
+                        return Proxy.newProxyInstance(
+                                ConnectionPoolTest.class.getClassLoader(),
+                                new Class<?>[]{PreparedStatement.class},
+                                (p, m, a) -> {
+                                    if (m.getName().startsWith("execute")) {
+                                        throw new SQLException("Enlace de comunicación caído", "08S01");
+                                    }
+                                    return invocar(stmt, m, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invocar(Object destino, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
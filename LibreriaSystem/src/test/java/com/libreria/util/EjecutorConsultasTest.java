@@ -0,0 +1,97 @@
+package com.libreria.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas Unitarias del ejecutor de consultas en hilos virtuales
+ */
+class EjecutorConsultasTest {
+
+    // ==================== CASO EC-01 ====================
+    @Test
+    @DisplayName("EC-01: No correr más consultas a la vez que los permisos")
+    void testConcurrenciaAcotada() throws Exception {
+        EjecutorConsultas ejecutor = new EjecutorConsultas(2, 0);
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+
+        List<CompletableFuture<String>> futuros = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futuros.add(ejecutor.ejecutar(() -> {
+                maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                Thread.sleep(50);
+                enCurso.decrementAndGet();
+                return Thread.currentThread().isVirtual() ? "virtual" : "plataforma";
+            }));
+        }
+
+        for (CompletableFuture<String> futuro : futuros) {
+            assertEquals("virtual", futuro.get(2, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maximo.get());
+        assertEquals(0, ejecutor.getEnCurso());
+    }
+
+    // ==================== CASO EC-02 ====================
+    @Test
+    @DisplayName("EC-02: Vencer el plazo sin interrumpir la consulta ni correr las que esperaban")
+    void testPlazoVencido() throws Exception {
+        EjecutorConsultas ejecutor = new EjecutorConsultas(1, 0);
+        AtomicBoolean interrumpida = new AtomicBoolean();
+        CountDownLatch terminada = new CountDownLatch(1);
+        AtomicInteger ejecutadas = new AtomicInteger();
+
+        CompletableFuture<String> lenta = ejecutor.ejecutar(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                interrumpida.set(true);
+            }
+            terminada.countDown();
+            return "tarde";
+        }, 100);
+        CompletableFuture<Integer> enEspera = ejecutor.ejecutar(ejecutadas::incrementAndGet, 100);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> lenta.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        error = assertThrows(ExecutionException.class, () -> enEspera.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+
+        // La consulta en curso termina por su cuenta (la corta el plazo de la sentencia)
+        assertTrue(terminada.await(2, TimeUnit.SECONDS));
+        assertFalse(interrumpida.get());
+
+        // El único turno quedó libre para la siguiente y la vencida nunca corrió
+        assertEquals("ok", ejecutor.ejecutar(() -> "ok").get(1, TimeUnit.SECONDS));
+        assertEquals(0, ejecutadas.get());
+    }
+
+    // ==================== CASO EC-03 ====================
+    @Test
+    @DisplayName("EC-03: Propagar el error de la consulta")
+    void testErrorDeConsulta() {
+        EjecutorConsultas ejecutor = new EjecutorConsultas(1, 1000);
+
+        CompletableFuture<Object> futuro = ejecutor.ejecutar(() -> {
+            throw new SQLException("Tabla no disponible");
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> futuro.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, error.getCause());
+        assertEquals("Tabla no disponible", error.getCause().getMessage());
+    }
+}
@@ -0,0 +1,127 @@
+package com.libreria.util;
+
+import com.libreria.controller.VentaController;
+import com.libreria.model.DetalleVenta;
+import com.libreria.model.Producto;
+import com.libreria.model.Venta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas Unitarias del simulador de cajas concurrentes (con controladores simulados)
+ */
+class SimuladorCajasTest {
+
+    private List<Producto> catalogo;
+    private Map<Integer, Integer> stock;
+
+    @BeforeEach
+    void setUp() {
+        catalogo = new ArrayList<>();
+        stock = new ConcurrentHashMap<>();
+        for (int i = 1; i <= 20; i++) {
+            Producto producto = new Producto(String.format("P%06d", i), "Producto " + i, "Papelería", 2.5, 1000, "");
+            producto.setId(i);
+            catalogo.add(producto);
+            stock.put(i, 1000);
+        }
+    }
+
+    private SimuladorCajas.LectorStock lector() {
+        return ids -> Map.copyOf(stock);
+    }
+
+    // Descuenta el stock como lo haría la base
+    private void descontar(Venta venta) {
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            stock.merge(detalle.getProducto().getId(), -detalle.getCantidad(), Integer::sum);
+        }
+    }
+
+    // ==================== CASO SC-01 ====================
+    @Test
+    @DisplayName("SC-01: Medir ventas, latencias y stock consistente")
+    void testCargaConsistente() throws Exception {
+        VentaController controller = mock(VentaController.class);
+        doAnswer(inv -> {
+            Thread.sleep(2);
+            descontar(inv.getArgument(0));
+            return null;
+        }).when(controller).crear(any(Venta.class));
+
+        SimuladorCajas.Reporte reporte = new SimuladorCajas(() -> controller, catalogo, lector(), 4, 25, 0, 1).ejecutar();
+
+        assertEquals(100, reporte.ventas());
+        assertEquals(0, reporte.errores());
+        assertEquals(0, reporte.reintentos());
+        assertTrue(reporte.p50() >= 2, "p50: " + reporte.p50());
+        assertTrue(reporte.p99() >= reporte.p50() && reporte.maximo() >= reporte.p99());
+        assertTrue(reporte.ventasPorSegundo() > 0);
+        assertTrue(reporte.isConsistente(), reporte.toString());
+        verify(controller, times(100)).crear(any(Venta.class));
+    }
+
+    // ==================== CASO SC-02 ====================
+    @Test
+    @DisplayName("SC-02: Reintentar interbloqueos, contar sin stock y detectar stock inconsistente")
+    void testReintentosYViolaciones() throws Exception {
+        AtomicInteger llamadas = new AtomicInteger();
+        VentaController controller = mock(VentaController.class);
+        doAnswer(inv -> {
+            int n = llamadas.incrementAndGet();
+            if (n % 2 == 1) {
+                throw new SQLException("Deadlock found when trying to get lock", "40001", 1213);
+            }
+            if (n % 10 == 0) {
+                throw new SQLException("Stock insuficiente para el producto: P000001");
+            }
+            // Se "confirma" la venta sin descontar stock
+            return null;
+        }).when(controller).crear(any(Venta.class));
+
+        SimuladorCajas.Reporte reporte = new SimuladorCajas(() -> controller, catalogo, lector(), 1, 10, 0, 1).ejecutar();
+
+        assertEquals(10, reporte.interbloqueos());
+        assertEquals(10, reporte.reintentos());
+        assertEquals(2, reporte.sinStock());
+        assertEquals(8, reporte.ventas());
+        assertEquals(0, reporte.errores());
+        assertFalse(reporte.isConsistente());
+        assertTrue(reporte.toString().contains("Violaciones de stock"));
+    }
+
+    // ==================== CASO SC-03 ====================
+    @Test
+    @DisplayName("SC-03: Agrupar los errores por causa con su primer mensaje")
+    void testCausasDeErrores() throws Exception {
+        AtomicInteger llamadas = new AtomicInteger();
+        VentaController controller = mock(VentaController.class);
+        doAnswer(inv -> {
+            int n = llamadas.incrementAndGet();
+            if (n % 2 == 0) {
+                throw new SQLException("Communications link failure " + n, "08S01", 0);
+            }
+            throw new IllegalStateException("Venta sin detalles");
+        }).when(controller).crear(any(Venta.class));
+
+        SimuladorCajas.Reporte reporte = new SimuladorCajas(() -> controller, catalogo, lector(), 1, 6, 0, 1).ejecutar();
+
+        assertEquals(6, reporte.errores());
+        assertEquals(List.of(
+                "IllegalStateException x3: Venta sin detalles",
+                "SQLState 08S01, código 0 x3: Communications link failure 2"), reporte.causasErrores());
+        assertTrue(reporte.toString().contains("SQLState 08S01"));
+    }
+}
@@ -0,0 +1,164 @@
+package com.libreria.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.swing.SwingUtilities;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Pruebas Unitarias de las exportaciones en segundo plano
+ */
+class TrabajoExportacionTest {
+
+    @TempDir
+    Path carpeta;
+
+    // ==================== CASO TE-01 ====================
+    @Test
+    @DisplayName("TE-01: Escribir en un temporal y renombrarlo al terminar")
+    void testExportacionCompleta() throws Exception {
+        Path destino = carpeta.resolve("reporte.xlsx");
+        Files.writeString(destino, "anterior");
+        OyentePrueba oyente = new OyentePrueba();
+
+        new TrabajoExportacion(destino, (ruta, progreso) -> {
+            assertNotEquals(destino.toString(), ruta, "Debe escribir en un archivo temporal");
+            progreso.inicio(3);
+            for (int i = 0; i < 3; i++) {
+                progreso.filaEscrita();
+            }
+            Files.writeString(Path.of(ruta), "nuevo");
+        }).iniciar(oyente);
+
+        assertTrue(oyente.fin.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("terminado"), oyente.eventos);
+        assertEquals("nuevo", Files.readString(destino));
+        assertEquals(3, oyente.ultimasFilas);
+        assertEquals(3, oyente.ultimoTotal);
+        assertTrue(oyente.todoEnEdt, "Los avisos deben llegar en el EDT");
+        assertEquals(1, contarArchivos(), "No deben quedar temporales");
+    }
+
+    // ==================== CASO TE-02 ====================
+    @Test
+    @DisplayName("TE-02: Cancelar sin tocar el archivo anterior")
+    void testCancelar() throws Exception {
+        Path destino = carpeta.resolve("reporte.xlsx");
+        Files.writeString(destino, "anterior");
+        CountDownLatch empezo = new CountDownLatch(1);
+        OyentePrueba oyente = new OyentePrueba();
+
+        TrabajoExportacion trabajo = new TrabajoExportacion(destino, (ruta, progreso) -> {
+            Files.writeString(Path.of(ruta), "a medias");
+            progreso.inicio(-1);
+            empezo.countDown();
+            while (true) {
+                progreso.filaEscrita();
+                Thread.sleep(5);
+            }
+        });
+        trabajo.iniciar(oyente);
+        assertTrue(empezo.await(5, TimeUnit.SECONDS));
+        trabajo.cancelar();
+
+        assertTrue(oyente.fin.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("cancelado"), oyente.eventos);
+        assertEquals("anterior", Files.readString(destino));
+        assertEquals(1, contarArchivos(), "El temporal debe borrarse");
+    }
+
+    // ==================== CASO TE-03 ====================
+    @Test
+    @DisplayName("TE-03: Informar el error y borrar el temporal")
+    void testFallo() throws Exception {
+        Path destino = carpeta.resolve("reporte.xlsx");
+        OyentePrueba oyente = new OyentePrueba();
+
+        new TrabajoExportacion(destino, (ruta, progreso) -> {
+            Files.writeString(Path.of(ruta), "a medias");
+            throw new Exception("Sin conexión");
+        }).iniciar(oyente);
+
+        assertTrue(oyente.fin.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("fallo: Sin conexión"), oyente.eventos);
+        assertFalse(Files.exists(destino));
+        assertEquals(0, contarArchivos());
+    }
+
+    // ==================== CASO TE-04 ====================
+    @Test
+    @DisplayName("TE-04: El reporte queda con los permisos de un archivo nuevo")
+    void testPermisosDelReporte() throws Exception {
+        assumeTrue(carpeta.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path referencia = Files.createFile(carpeta.resolve("referencia.txt"));
+        Path destino = carpeta.resolve("reporte.csv");
+        OyentePrueba oyente = new OyentePrueba();
+
+        new TrabajoExportacion(destino, (ruta, progreso) -> Files.writeString(Path.of(ruta), "a,b"))
+                .iniciar(oyente);
+
+        assertTrue(oyente.fin.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("terminado"), oyente.eventos);
+        assertEquals(Files.getPosixFilePermissions(referencia), Files.getPosixFilePermissions(destino),
+                "No debe heredar los permisos 0600 de un createTempFile");
+    }
+
+    private long contarArchivos() throws Exception {
+        try (Stream<Path> archivos = Files.list(carpeta)) {
+            return archivos.count();
+        }
+    }
+
+    private static class OyentePrueba implements TrabajoExportacion.Oyente {
+        final List<String> eventos = new CopyOnWriteArrayList<>();
+        final CountDownLatch fin = new CountDownLatch(1);
+        volatile int ultimasFilas;
+        volatile int ultimoTotal;
+        volatile boolean todoEnEdt = true;
+
+        @Override
+        public void progreso(int filas, int total) {
+            verificarEdt();
+            ultimasFilas = filas;
+            ultimoTotal = total;
+        }
+
+        @Override
+        public void terminado(Path destino) {
+            terminar("terminado");
+        }
+
+        @Override
+        public void cancelado() {
+            terminar("cancelado");
+        }
+
+        @Override
+        public void fallo(Exception e) {
+            terminar("fallo: " + e.getMessage());
+        }
+
+        private void terminar(String evento) {
+            verificarEdt();
+            eventos.add(evento);
+            fin.countDown();
+        }
+
+        private void verificarEdt() {
+            if (!SwingUtilities.isEventDispatchThread()) {
+                todoEnEdt = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.libreria.view;
+
+import com.libreria.model.Producto;
+import com.libreria.view.ProductoTableModel.Columna;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.TableRowSorter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas Unitarias del modelo de tabla de productos por columnas
+ */
+class ProductoTableModelTest {
+
+    private ProductoTableModel modelo;
+    private List<TableModelEvent> eventos;
+
+    @BeforeEach
+    void setUp() {
+        modelo = new ProductoTableModel(Columna.ID, Columna.CODIGO, Columna.NOMBRE,
+                Columna.CATEGORIA, Columna.PRECIO, Columna.STOCK);
+        eventos = new ArrayList<>();
+        modelo.addTableModelListener(eventos::add);
+    }
+
+    private static Producto producto(int id, String nombre, double precio, int stock) {
+        Producto producto = new Producto(String.format("P%06d", id), nombre, "Papelería", precio, stock, "");
+        producto.setId(id);
+        return producto;
+    }
+
+    // ==================== CASO PT-01 ====================
+    @Test
+    @DisplayName("PT-01: Cargar miles de filas con un solo evento y valores sin formato")
+    void testReemplazarTodo() {
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            productos.add(producto(i, "Producto " + i, i * 0.5, i % 50));
+        }
+
+        modelo.reemplazarTodo(productos);
+
+        assertEquals(1, eventos.size());
+        assertEquals(5000, modelo.getRowCount());
+        assertEquals(Double.class, modelo.getColumnClass(4));
+        assertEquals(1.5, modelo.getValueAt(2, 4));
+        assertEquals("S/ 1.50", ProductoTableModel.formatear(modelo.getValueAt(2, 4)));
+        assertEquals("P000003", modelo.getProducto(2).getCodigo());
+    }
+
+    // ==================== CASO PT-02 ====================
+    @Test
+    @DisplayName("PT-02: Aplicar cambios por fila con un evento cada uno")
+    void testCambiosPorFila() {
+        modelo.reemplazarTodo(List.of(producto(1, "Cuaderno", 15.5, 100), producto(2, "Lápiz", 1.0, 50)));
+        eventos.clear();
+
+        modelo.agregar(producto(3, "Regla", 2.0, 30));
+        assertTrue(modelo.ajustarStock(1, -5));
+        assertTrue(modelo.actualizar(producto(2, "Lápiz HB", 1.2, 50)));
+        assertTrue(modelo.quitar(1));
+        assertFalse(modelo.quitar(99));
+
+        assertEquals(4, eventos.size());
+        assertEquals(TableModelEvent.INSERT, eventos.get(0).getType());
+        assertEquals(TableModelEvent.UPDATE, eventos.get(1).getType());
+        assertEquals(0, eventos.get(1).getFirstRow());
+        assertEquals(TableModelEvent.DELETE, eventos.get(3).getType());
+
+        assertEquals(2, modelo.getRowCount());
+        assertEquals("Lápiz HB", modelo.getValueAt(0, 2));
+        assertEquals(3, modelo.getId(1));
+        assertEquals(0, modelo.buscarFila(2));
+    }
+
+    // ==================== CASO PT-03 ====================
+    @Test
+    @DisplayName("PT-03: Insertar en posición y crecer más allá de la capacidad inicial")
+    void testInsertarYCrecer() {
+        for (int i = 1; i <= 200; i++) {
+            modelo.insertar(0, producto(i, "Producto " + i, 1.0, i));
+        }
+
+        assertEquals(200, modelo.getRowCount());
+        assertEquals(200, modelo.getId(0));
+        assertEquals(1, modelo.getStock(199));
+        assertThrows(IndexOutOfBoundsException.class, () -> modelo.insertar(500, producto(999, "X", 1.0, 1)));
+    }
+
+    // ==================== CASO PT-04 ====================
+    @Test
+    @DisplayName("PT-04: Ordenar números como números y textos sin tildes ni mayúsculas")
+    void testOrdenarPorTipo() {
+        modelo.reemplazarTodo(List.of(
+                producto(1, "ábaco", 100.0, 9),
+                producto(2, "Zapato", 20.0, 100),
+                producto(3, "Bolígrafo", 3.5, 20)));
+        TableRowSorter<ProductoTableModel> ordenador = modelo.crearOrdenador();
+
+        // Stock: 9 < 20 < 100 (como texto sería "100" < "20" < "9")
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(5, SortOrder.ASCENDING)));
+        assertEquals(List.of(1, 3, 2), idsEnOrden(ordenador));
+
+        // Nombre: la tilde y la minúscula no mandan "ábaco" al final
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(2, SortOrder.ASCENDING)));
+        assertEquals(List.of(1, 3, 2), idsEnOrden(ordenador));
+
+        // Precio descendente
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(4, SortOrder.DESCENDING)));
+        assertEquals(List.of(1, 2, 3), idsEnOrden(ordenador));
+
+        // Tras cambiar un nombre se recalcula su clave
+        modelo.actualizar(producto(2, "Aguja", 20.0, 100));
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(2, SortOrder.ASCENDING)));
+        assertEquals(List.of(1, 2, 3), idsEnOrden(ordenador));
+    }
+
+    // ==================== CASO PT-05 ====================
+    @Test
+    @DisplayName("PT-05: Ubicar cada id en su fila tras insertar y quitar en medio")
+    void testBuscarFilaTrasCambios() {
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            productos.add(producto(i, "Producto " + i, 1.0, i));
+        }
+        modelo.reemplazarTodo(productos);
+
+        modelo.insertar(3, producto(100, "Nuevo", 1.0, 1));
+        modelo.quitar(1);
+        modelo.quitar(7);
+        modelo.agregar(producto(101, "Último", 1.0, 1));
+
+        for (int fila = 0; fila < modelo.getRowCount(); fila++) {
+            assertEquals(fila, modelo.buscarFila(modelo.getId(fila)));
+        }
+        assertEquals(2, modelo.buscarFila(100));
+        assertEquals(-1, modelo.buscarFila(1));
+        assertEquals(-1, modelo.buscarFila(7));
+        assertTrue(modelo.ajustarStock(101, 5));
+        assertEquals(6, modelo.getStock(modelo.getRowCount() - 1));
+    }
+
+    private List<Integer> idsEnOrden(TableRowSorter<ProductoTableModel> ordenador) {
+        List<Integer> ids = new ArrayList<>();
+        for (int vista = 0; vista < ordenador.getViewRowCount(); vista++) {
+            ids.add(modelo.getId(ordenador.convertRowIndexToModel(vista)));
+        }
+        return ids;
+    }
+}